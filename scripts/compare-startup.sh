@@ -0,0 +1,119 @@
+#!/usr/bin/env bash
+#
+# Compares startup time and memory of the JVM jar (default and "prod" profiles) and the GraalVM native executable.
+#
+# Both builds must exist beforehand:
+#   ./mvnw -B clean package -DskipTests           -> target/picbank-auth-service-<version>.jar
+#   ./mvnw -B -Pnative native:compile -DskipTests -> target/picbank-auth-service
+#
+# Each build is started RUNS times with the same environment; the script records the time until
+# /actuator/health answers UP, the RSS and (on the JVM) the live heap right after startup, and the RSS after
+# WARMUP_REQUESTS health calls. The live heap is read with jcmd after a full GC.
+# AWS settings only need to be syntactically valid: no AWS call is made before the service is healthy.
+#
+# Usage: scripts/compare-startup.sh [runs]
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+PORT="${SERVER_PORT:-18080}"
+WARMUP_REQUESTS="${WARMUP_REQUESTS:-200}"
+HEALTH_URL="http://localhost:${PORT}/api/actuator/health"
+TIMEOUT_SECONDS=60
+
+JAR="$(ls target/picbank-auth-service-*.jar 2>/dev/null | grep -v plain | head -n 1 || true)"
+NATIVE="target/picbank-auth-service"
+
+export SERVER_PORT="${PORT}"
+export AWS_ACCESS_KEY_ID="${AWS_ACCESS_KEY_ID:-compare-startup}"
+export AWS_SECRET_ACCESS_KEY="${AWS_SECRET_ACCESS_KEY:-compare-startup}"
+export AWS_COGNITO_USER_POOL_ID="${AWS_COGNITO_USER_POOL_ID:-us-east-1_compare}"
+export AWS_COGNITO_CLIENT_ID="${AWS_COGNITO_CLIENT_ID:-compare-startup}"
+export AWS_COGNITO_CLIENT_SECRET="${AWS_COGNITO_CLIENT_SECRET:-compare-startup}"
+export AWS_COGNITO_ISSUER_URI="${AWS_COGNITO_ISSUER_URI:-}"
+export AWS_COGNITO_JWK_SET_URI="${AWS_COGNITO_JWK_SET_URI:-http://localhost:9/compare/jwks}"
+export AWS_SQS_QUEUE_URL="${AWS_SQS_QUEUE_URL:-http://localhost:9/000000000000/compare}"
+export AWS_SQS_DLQ_URL="${AWS_SQS_DLQ_URL:-http://localhost:9/000000000000/compare-dlq}"
+export AWS_SES_SENDER_EMAIL="${AWS_SES_SENDER_EMAIL:-compare@example.com}"
+
+now_ms() {
+    date +%s%3N
+}
+
+rss_mb() {
+    awk '/VmRSS/ { printf "%.1f", $2 / 1024 }' "/proc/$1/status"
+}
+
+# Prints the heap used after a full GC, or "n/a" when the process is not a JVM reachable by jcmd.
+live_heap_mb() {
+    if jcmd "$1" GC.run > /dev/null 2>&1; then
+        # Sums the "total ..., used <n>K" lines of the heap generations (Serial, Parallel and G1 layouts)
+        jcmd "$1" GC.heap_info | awk '/total [0-9]+K, used [0-9]+K/ { for (i = 1; i < NF; i++) if ($i == "used") { v = $(i + 1); sub(/K.*/, "", v); kb += v } }
+            END { printf "%.1f", kb / 1024 }'
+    else
+        echo "n/a"
+    fi
+}
+
+# Starts the given command, waits for it to become healthy and prints
+# "<startup ms> <rss mb> <live heap mb> <rss after warmup mb>".
+measure() {
+    local start pid elapsed rss_start heap rss_warm
+    start="$(now_ms)"
+    "$@" > /dev/null 2>&1 &
+    pid=$!
+
+    until curl -sf "${HEALTH_URL}" | grep -q '"UP"'; do
+        if ! kill -0 "${pid}" 2> /dev/null || (( $(now_ms) - start > TIMEOUT_SECONDS * 1000 )); then
+            echo "failed to start: $*" >&2
+            kill "${pid}" 2> /dev/null || true
+            return 1
+        fi
+        sleep 0.02
+    done
+    elapsed=$(( $(now_ms) - start ))
+    rss_start="$(rss_mb "${pid}")"
+    heap="$(live_heap_mb "${pid}")"
+
+    for _ in $(seq "${WARMUP_REQUESTS}"); do
+        curl -sf -o /dev/null "${HEALTH_URL}"
+    done
+    rss_warm="$(rss_mb "${pid}")"
+
+    kill "${pid}"
+    wait "${pid}" 2> /dev/null || true
+    echo "${elapsed} ${rss_start} ${heap} ${rss_warm}"
+}
+
+# Prints the median of column $1 of the given results.
+median() {
+    cut -d ' ' -f "$1" <<< "$2" | sort -n | awk '
+        $1 == "n/a" { na = 1 }
+        { v[NR] = $1 }
+        END { if (na) print "n/a"; else print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+# Runs a build RUNS times and prints one markdown table row with the medians.
+report() {
+    local label="$1"
+    shift
+    local results
+    results="$(for _ in $(seq "${RUNS}"); do measure "$@"; done)"
+    echo "| ${label} | $(median 1 "${results}") | $(median 2 "${results}") | $(median 3 "${results}") | $(median 4 "${results}") |"
+}
+
+echo "| Build | Startup to healthy (ms, median of ${RUNS}) | RSS after startup (MB) | Live heap after startup (MB) | RSS after ${WARMUP_REQUESTS} requests (MB) |"
+echo "|---|---|---|---|---|"
+if [[ -n "${JAR}" ]]; then
+    report "JVM" java -jar "${JAR}"
+    report "JVM (prod profile)" java -jar "${JAR}" --spring.profiles.active=prod
+else
+    echo "JVM jar not found, run ./mvnw -B package -DskipTests first" >&2
+fi
+if [[ -x "${NATIVE}" ]]; then
+    report "Native" "${NATIVE}"
+else
+    echo "Native executable not found, run ./mvnw -B -Pnative native:compile -DskipTests first" >&2
+fi
@@ -0,0 +1,65 @@
+package com.picbank.authservice.loadtest;
+
+import com.picbank.authservice.model.ConfirmEmailRequest;
+import com.picbank.authservice.model.LoginRequest;
+import com.picbank.authservice.model.RegisterRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Builds the scenarios of the {@code /auth} endpoints from the load test properties.
+ * <p>
+ * Register and confirm use a unique e-mail per request ({@code loadtest+<runId>-<n>@<domain>}), so runs
+ * never collide with each other (the run id defaults to the start time); the confirm scenario targets the same
+ * addresses the register scenario creates, and its start delay gives each registration time to complete before it
+ * is confirmed. Scenarios with a rate of zero are skipped.
+ * </p>
+ */
+final class AuthScenarios {
+
+    private static final String LOGIN = "login";
+    private static final String REGISTER = "register";
+    private static final String CONFIRM = "confirm";
+    private static final long DOCUMENT_MODULUS = 100_000_000_000L;
+
+    private AuthScenarios() {
+    }
+
+    static List<Scenario> from(LoadTestProperties properties) {
+        String configuredRunId = properties.getString("run-id");
+        String runId = configuredRunId.isEmpty() ? Long.toString(System.currentTimeMillis(), Character.MAX_RADIX) : configuredRunId;
+        String domain = properties.getString("email-domain");
+        String password = properties.getString("password");
+        LongFunction<String> email = n -> "loadtest+" + runId + "-" + n + "@" + domain;
+
+        LoginRequest login = new LoginRequest(properties.getString("login.username"), password);
+        String confirmationCode = properties.getString("confirm.code");
+        long documentSeed = Math.floorMod((long) runId.hashCode() * 1_000_003L, DOCUMENT_MODULUS);
+
+        return List.of(
+                        scenario(properties, LOGIN, "/auth/login", n -> login),
+                        scenario(properties, REGISTER, "/auth/register", n -> new RegisterRequest(
+                                "Load Test " + n,
+                                String.format("%011d", (documentSeed + n) % DOCUMENT_MODULUS),
+                                email.apply(n),
+                                password,
+                                n % 2 == 1)),
+                        scenario(properties, CONFIRM, "/auth/confirm", n -> new ConfirmEmailRequest(email.apply(n), confirmationCode)))
+                .stream()
+                .filter(scenario -> scenario.ratePerSecond() > 0)
+                .toList();
+    }
+
+    private static Scenario scenario(LoadTestProperties properties, String name, String path, LongFunction<Object> bodyFactory) {
+        return new Scenario(
+                name,
+                path,
+                properties.getDouble(name, "rate"),
+                Duration.ofMillis((long) (properties.getDouble(name, "start-delay-seconds") * 1000)),
+                properties.getStatuses(name, "expected-statuses"),
+                bodyFactory,
+                Thresholds.from(properties, name));
+    }
+}
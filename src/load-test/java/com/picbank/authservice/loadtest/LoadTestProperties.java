@@ -0,0 +1,80 @@
+package com.picbank.authservice.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Settings of a load test run.
+ * <p>
+ * Defaults are read from {@code load-test.properties} on the classpath and can be overridden with
+ * system properties of the same name (e.g. {@code -Dloadtest.login.rate=200}). Scenario settings
+ * fall back to the global {@code loadtest.*} value when no {@code loadtest.<scenario>.*} value is set.
+ * </p>
+ */
+final class LoadTestProperties {
+
+    private static final String RESOURCE = "load-test.properties";
+    private static final String PREFIX = "loadtest.";
+
+    private final Properties properties;
+
+    private LoadTestProperties(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Loads the defaults from the classpath and overlays the {@code loadtest.*} system properties.
+     *
+     * @return The resolved {@code LoadTestProperties}.
+     */
+    static LoadTestProperties load() {
+        Properties properties = new Properties();
+        try (InputStream input = LoadTestProperties.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (input != null) {
+                properties.load(input);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + RESOURCE, e);
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith(PREFIX))
+                .forEach(name -> properties.setProperty(name, System.getProperty(name)));
+        return new LoadTestProperties(properties);
+    }
+
+    String getString(String key) {
+        String value = properties.getProperty(PREFIX + key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing load test property " + PREFIX + key);
+        }
+        return value.trim();
+    }
+
+    long getLong(String key) {
+        return Long.parseLong(getString(key));
+    }
+
+    double getDouble(String key) {
+        return Double.parseDouble(getString(key));
+    }
+
+    String getString(String scenario, String key) {
+        return properties.containsKey(PREFIX + scenario + "." + key) ? getString(scenario + "." + key) : getString(key);
+    }
+
+    double getDouble(String scenario, String key) {
+        return Double.parseDouble(getString(scenario, key));
+    }
+
+    Set<Integer> getStatuses(String scenario, String key) {
+        return Arrays.stream(getString(scenario, key).split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,120 @@
+package com.picbank.authservice.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Throughput/latency report of a load test run.
+ * <p>
+ * A summary table is returned for logging and written to {@code summary.txt}; the full response and service
+ * time percentile distributions of each scenario are written as {@code .hgrm} files (in milliseconds), which
+ * can be plotted with the HdrHistogram plotter.
+ * </p>
+ */
+final class LoadTestReport {
+
+    private static final double MICROS_PER_MILLI = 1000d;
+    private static final String HEADER = String.format(Locale.ROOT,
+            "%-10s %8s %8s %8s %10s %10s %9s %9s %9s %9s %9s %9s%n",
+            "scenario", "target/s", "ok/s", "requests", "error-rate", "throughput",
+            "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "lag ms");
+
+    private final StringBuilder summary = new StringBuilder(HEADER);
+    private final StringBuilder outcomes = new StringBuilder();
+    private final List<String> violations = new ArrayList<>();
+
+    /**
+     * Adds a completed scenario to the report, writes its histograms and checks its thresholds.
+     *
+     * @param driver    The driver that ran the scenario.
+     * @param reportDir The directory the histogram files are written to.
+     */
+    void add(OpenModelDriver driver, Path reportDir) {
+        Scenario scenario = driver.scenario();
+        ScenarioStats stats = driver.stats();
+        Histogram responseTimes = stats.responseTimeHistogram();
+        Histogram serviceTimes = stats.serviceTimeHistogram();
+
+        long requests = stats.successes() + stats.failures();
+        double errorRate = requests == 0 ? 1 : (double) stats.failures() / requests;
+        double successRate = stats.successes() / driver.measuredSeconds();
+        double throughputRatio = successRate / scenario.ratePerSecond();
+
+        summary.append(String.format(Locale.ROOT,
+                "%-10s %8.1f %8.1f %8d %10.4f %10.3f %9.1f %9.1f %9.1f %9.1f %9.1f %9d%n",
+                scenario.name(), scenario.ratePerSecond(), successRate, requests, errorRate, throughputRatio,
+                millis(responseTimes, 50), millis(responseTimes, 90), millis(responseTimes, 99),
+                millis(responseTimes, 99.9), responseTimes.getMaxValue() / MICROS_PER_MILLI,
+                stats.maxScheduleLagMillis()));
+        outcomes.append(String.format(Locale.ROOT, "%-10s outcomes %s, service time p99 %.1f ms%n",
+                scenario.name(), stats.outcomes(), millis(serviceTimes, 99)));
+
+        writeHistogram(reportDir.resolve(scenario.name() + "-response-time.hgrm"), responseTimes);
+        writeHistogram(reportDir.resolve(scenario.name() + "-service-time.hgrm"), serviceTimes);
+        checkThresholds(scenario, responseTimes, errorRate, throughputRatio);
+    }
+
+    /**
+     * Writes the summary next to the histograms.
+     *
+     * @param reportDir The report directory.
+     * @return The summary text.
+     */
+    String writeSummary(Path reportDir) {
+        String text = summary + System.lineSeparator() + outcomes;
+        try {
+            Files.writeString(reportDir.resolve("summary.txt"), text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return text;
+    }
+
+    List<String> violations() {
+        return List.copyOf(violations);
+    }
+
+    private void checkThresholds(Scenario scenario, Histogram responseTimes, double errorRate, double throughputRatio) {
+        Thresholds thresholds = scenario.thresholds();
+        checkLatency(scenario, responseTimes, 50, thresholds.p50Millis());
+        checkLatency(scenario, responseTimes, 99, thresholds.p99Millis());
+        checkLatency(scenario, responseTimes, 99.9, thresholds.p999Millis());
+        if (errorRate > thresholds.maxErrorRate()) {
+            violations.add(String.format(Locale.ROOT, "%s: error rate %.4f > %.4f",
+                    scenario.name(), errorRate, thresholds.maxErrorRate()));
+        }
+        if (throughputRatio < thresholds.minThroughputRatio()) {
+            violations.add(String.format(Locale.ROOT, "%s: throughput ratio %.3f < %.3f",
+                    scenario.name(), throughputRatio, thresholds.minThroughputRatio()));
+        }
+    }
+
+    private void checkLatency(Scenario scenario, Histogram responseTimes, double percentile, double maxMillis) {
+        double actual = millis(responseTimes, percentile);
+        if (maxMillis > 0 && actual > maxMillis) {
+            violations.add(String.format(Locale.ROOT, "%s: p%s %.1f ms > %.1f ms",
+                    scenario.name(), percentile == (long) percentile ? String.valueOf((long) percentile) : percentile,
+                    actual, maxMillis));
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private static void writeHistogram(Path file, Histogram histogram) {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.picbank.authservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Entry point of the {@code /auth} load test, run by the {@code load-test} Maven profile against an
+ * already running service.
+ * <p>
+ * All enabled scenarios run concurrently, each on its own scheduling thread, for a warm-up period followed by
+ * the measured period. The run fails (and so does the build) when any scenario violates its thresholds.
+ * </p>
+ */
+@Slf4j
+public final class LoadTestRunner {
+
+    private static final Duration START_DELAY = Duration.ofMillis(200);
+    private static final Duration DRAIN_GRACE = Duration.ofSeconds(1);
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadTestProperties properties = LoadTestProperties.load();
+        List<Scenario> scenarios = AuthScenarios.from(properties);
+        if (scenarios.isEmpty()) {
+            throw new IllegalStateException("No load test scenario enabled; set loadtest.<scenario>.rate above zero");
+        }
+
+        String baseUrl = properties.getString("base-url");
+        Duration warmup = Duration.ofSeconds(properties.getLong("warmup-seconds"));
+        Duration duration = Duration.ofSeconds(properties.getLong("duration-seconds"));
+        Duration requestTimeout = Duration.ofMillis(properties.getLong("request-timeout-ms"));
+        Path reportDir = Files.createDirectories(Path.of(properties.getString("report-dir")));
+
+        long startNanos = System.nanoTime() + START_DELAY.toNanos();
+        long measureFromNanos = startNanos + warmup.toNanos();
+        long endNanos = measureFromNanos + duration.toNanos();
+        log.info("Load testing {} for {}s (+{}s warm-up): {}", baseUrl, duration.toSeconds(), warmup.toSeconds(),
+                scenarios.stream().map(s -> s.name() + "@" + s.ratePerSecond() + "/s").toList());
+
+        LoadTestReport report = new LoadTestReport();
+        try (ExecutorService callbacks = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(requestTimeout)
+                     .executor(callbacks)
+                     .build()) {
+
+            ObjectMapper objectMapper = new ObjectMapper();
+            List<OpenModelDriver> drivers = new ArrayList<>();
+            List<Thread> threads = new ArrayList<>();
+            for (Scenario scenario : scenarios) {
+                OpenModelDriver driver = new OpenModelDriver(scenario, httpClient, objectMapper, baseUrl,
+                        requestTimeout, startNanos, measureFromNanos, endNanos);
+                drivers.add(driver);
+                threads.add(Thread.ofPlatform().name("load-" + scenario.name()).start(driver));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            for (OpenModelDriver driver : drivers) {
+                if (!driver.awaitCompletion(requestTimeout.plus(DRAIN_GRACE))) {
+                    log.warn("Scenario {} still has requests in flight; they are not reported", driver.scenario().name());
+                }
+                report.add(driver, reportDir);
+            }
+        }
+
+        log.info("Load test report ({}):{}{}", reportDir.toAbsolutePath(), System.lineSeparator(), report.writeSummary(reportDir));
+        List<String> violations = report.violations();
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException("Load test thresholds violated: " + String.join("; ", violations));
+        }
+        log.info("Load test thresholds met");
+    }
+}
@@ -0,0 +1,139 @@
+package com.picbank.authservice.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a single {@link Scenario} with a constant arrival rate (open model).
+ * <p>
+ * The n-th request is scheduled at {@code start + startDelay + n / rate}, and sending never waits for earlier responses,
+ * so a slow service faces a growing number of concurrent requests, as it would in production. Latency is
+ * measured from the scheduled time (see {@link ScenarioStats}). Only requests scheduled after the warm-up
+ * are recorded.
+ * </p>
+ */
+final class OpenModelDriver implements Runnable {
+
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final String APPLICATION_JSON = "application/json";
+    private static final String OUTCOME_TIMEOUT = "timeout";
+    private static final String OUTCOME_IO_ERROR = "io_error";
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final Scenario scenario;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI uri;
+    private final Duration requestTimeout;
+    private final long startNanos;
+    private final long measureFromNanos;
+    private final long endNanos;
+    private final ScenarioStats stats = new ScenarioStats();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    OpenModelDriver(Scenario scenario, HttpClient httpClient, ObjectMapper objectMapper, String baseUrl,
+                    Duration requestTimeout, long startNanos, long measureFromNanos, long endNanos) {
+        this.scenario = scenario;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.uri = URI.create(baseUrl + scenario.path());
+        this.requestTimeout = requestTimeout;
+        this.startNanos = startNanos + scenario.startDelay().toNanos();
+        this.measureFromNanos = measureFromNanos;
+        this.endNanos = endNanos;
+    }
+
+    @Override
+    public void run() {
+        double intervalNanos = NANOS_PER_SECOND / scenario.ratePerSecond();
+        for (long n = 0; ; n++) {
+            long intendedNanos = startNanos + (long) (n * intervalNanos);
+            if (intendedNanos >= endNanos) {
+                return;
+            }
+            parkUntil(intendedNanos);
+            send(n, intendedNanos);
+        }
+    }
+
+    /**
+     * Waits until all sent requests have completed or the timeout elapses.
+     *
+     * @param timeout The maximum time to wait.
+     * @return {@code true} if no request is still in flight.
+     */
+    boolean awaitCompletion(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(Duration.ofMillis(10).toNanos());
+        }
+        return inFlight.get() == 0;
+    }
+
+    Scenario scenario() {
+        return scenario;
+    }
+
+    ScenarioStats stats() {
+        return stats;
+    }
+
+    double measuredSeconds() {
+        return (endNanos - Math.max(measureFromNanos, startNanos)) / NANOS_PER_SECOND;
+    }
+
+    private void send(long n, long intendedNanos) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header(CONTENT_TYPE, APPLICATION_JSON)
+                .POST(HttpRequest.BodyPublishers.ofString(toJson(scenario.bodyFactory().apply(n))))
+                .build();
+        boolean measured = intendedNanos >= measureFromNanos;
+        long sentNanos = System.nanoTime();
+        if (measured) {
+            stats.recordScheduleLag(sentNanos - intendedNanos);
+        }
+
+        inFlight.incrementAndGet();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            long completedNanos = System.nanoTime();
+            if (measured) {
+                String outcome = error == null ? String.valueOf(response.statusCode()) : outcomeOf(error);
+                boolean success = error == null && scenario.expectedStatuses().contains(response.statusCode());
+                stats.record(completedNanos - intendedNanos, completedNanos - sentNanos, outcome, success);
+            }
+            inFlight.decrementAndGet();
+        });
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String outcomeOf(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof HttpTimeoutException ? OUTCOME_TIMEOUT : OUTCOME_IO_ERROR;
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.picbank.authservice.loadtest;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+/**
+ * An open-model scenario: requests to {@code path} arrive at a constant {@code ratePerSecond},
+ * regardless of how fast the service answers.
+ *
+ * @param name             The scenario name, used in the report and in the property keys.
+ * @param path             The endpoint path, relative to the base URL.
+ * @param ratePerSecond    The target arrival rate.
+ * @param startDelay       Delay before the scenario starts sending, relative to the start of the run.
+ * @param expectedStatuses The HTTP statuses counted as a successful outcome.
+ * @param bodyFactory      Builds the JSON request body of the n-th request.
+ * @param thresholds       The pass/fail criteria.
+ */
+record Scenario(String name, String path, double ratePerSecond, Duration startDelay, Set<Integer> expectedStatuses,
+                LongFunction<Object> bodyFactory, Thresholds thresholds) {
+}
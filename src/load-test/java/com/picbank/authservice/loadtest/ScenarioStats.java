@@ -0,0 +1,79 @@
+package com.picbank.authservice.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe results of a scenario, recorded from the HTTP client completion callbacks.
+ * <p>
+ * Two latencies are kept per request, in microseconds:
+ * </p>
+ * <ul>
+ *     <li><b>response time</b>, measured from the time the request <i>should</i> have been sent by the
+ *     arrival schedule. This is the latency a user sees and is free of coordinated omission: when the
+ *     service (or the generator) stalls, the queued-up requests are charged for the wait.</li>
+ *     <li><b>service time</b>, measured from the time the request was actually sent; comparing it with the
+ *     response time shows how much of the latency is queueing.</li>
+ * </ul>
+ */
+final class ScenarioStats {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Recorder responseTimes = new Recorder(SIGNIFICANT_DIGITS);
+    private final Recorder serviceTimes = new Recorder(SIGNIFICANT_DIGITS);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final LongAccumulator maxScheduleLagNanos = new LongAccumulator(Math::max, 0);
+
+    void record(long responseTimeNanos, long serviceTimeNanos, String outcome, boolean success) {
+        responseTimes.recordValue(TimeUnit.NANOSECONDS.toMicros(responseTimeNanos));
+        serviceTimes.recordValue(TimeUnit.NANOSECONDS.toMicros(serviceTimeNanos));
+        (success ? successes : failures).increment();
+        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+    }
+
+    void recordScheduleLag(long lagNanos) {
+        maxScheduleLagNanos.accumulate(lagNanos);
+    }
+
+    /**
+     * Takes the response time histogram; must be called once, after all requests have completed.
+     */
+    Histogram responseTimeHistogram() {
+        return responseTimes.getIntervalHistogram();
+    }
+
+    /**
+     * Takes the service time histogram; must be called once, after all requests have completed.
+     */
+    Histogram serviceTimeHistogram() {
+        return serviceTimes.getIntervalHistogram();
+    }
+
+    long successes() {
+        return successes.sum();
+    }
+
+    long failures() {
+        return failures.sum();
+    }
+
+    Map<String, Long> outcomes() {
+        Map<String, Long> counts = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+        return counts;
+    }
+
+    long maxScheduleLagMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxScheduleLagNanos.get());
+    }
+}
@@ -0,0 +1,22 @@
+package com.picbank.authservice.loadtest;
+
+/**
+ * Pass/fail criteria of a scenario. Latency thresholds are in milliseconds and are disabled when not positive.
+ *
+ * @param p50Millis          Maximum accepted median response time.
+ * @param p99Millis          Maximum accepted 99th percentile response time.
+ * @param p999Millis         Maximum accepted 99.9th percentile response time.
+ * @param maxErrorRate       Maximum accepted ratio of requests with an unexpected outcome.
+ * @param minThroughputRatio Minimum accepted ratio between successful throughput and the target arrival rate.
+ */
+record Thresholds(double p50Millis, double p99Millis, double p999Millis, double maxErrorRate, double minThroughputRatio) {
+
+    static Thresholds from(LoadTestProperties properties, String scenario) {
+        return new Thresholds(
+                properties.getDouble(scenario, "threshold.p50-ms"),
+                properties.getDouble(scenario, "threshold.p99-ms"),
+                properties.getDouble(scenario, "threshold.p999-ms"),
+                properties.getDouble(scenario, "threshold.max-error-rate"),
+                properties.getDouble(scenario, "threshold.min-throughput-ratio"));
+    }
+}
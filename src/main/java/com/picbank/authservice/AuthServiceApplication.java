@@ -1,7 +1,9 @@
 package com.picbank.authservice;
 
+import com.picbank.authservice.constants.AppConstants;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
@@ -9,7 +11,10 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 public class AuthServiceApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(AuthServiceApplication.class, args);
+        SpringApplication application = new SpringApplication(AuthServiceApplication.class);
+        // Records the startup steps served by the actuator "startup" endpoint
+        application.setApplicationStartup(new BufferingApplicationStartup(AppConstants.STARTUP_STEPS_CAPACITY));
+        application.run(args);
     }
 
 }
@@ -0,0 +1,57 @@
+package com.picbank.authservice.components;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the adaptive concurrency limits of the {@code /auth} endpoints.
+ * <p>
+ * Logins and registrations (with their e-mail confirmations) have separate limits, each adapted to the measured
+ * latency between its minimum and its own maximum. Requests over the limit are rejected with {@code 503} and a
+ * {@code Retry-After} header instead of waiting for a request thread.
+ * </p>
+ */
+@Component
+@Getter
+public class AuthConcurrencyProperties {
+
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int loginMaxLimit;
+    private final int signupMaxLimit;
+    private final double smoothing;
+    private final double latencyTolerance;
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructs a new instance of {@code AuthConcurrencyProperties} with values loaded from the application properties.
+     *
+     * @param enabled           Whether requests over the limits are shed.
+     * @param initialLimit      The limit of each budget until latency has been measured.
+     * @param minLimit          The lowest a limit is cut to.
+     * @param loginMaxLimit     The highest the login limit grows to.
+     * @param signupMaxLimit    The highest the registration and confirmation limit grows to.
+     * @param smoothing         The weight (0..1) of each new limit against the current one.
+     * @param latencyTolerance  The ratio of a latency to the baseline latency tolerated before a limit is cut.
+     * @param retryAfterSeconds The {@code Retry-After} returned with a rejected request, in seconds.
+     */
+    public AuthConcurrencyProperties(@Value("${auth.concurrency.enabled}") boolean enabled,
+                                     @Value("${auth.concurrency.initial-limit}") int initialLimit,
+                                     @Value("${auth.concurrency.min-limit}") int minLimit,
+                                     @Value("${auth.concurrency.login-max-limit}") int loginMaxLimit,
+                                     @Value("${auth.concurrency.signup-max-limit}") int signupMaxLimit,
+                                     @Value("${auth.concurrency.smoothing}") double smoothing,
+                                     @Value("${auth.concurrency.latency-tolerance}") double latencyTolerance,
+                                     @Value("${auth.concurrency.retry-after-seconds}") long retryAfterSeconds) {
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.loginMaxLimit = loginMaxLimit;
+        this.signupMaxLimit = signupMaxLimit;
+        this.smoothing = smoothing;
+        this.latencyTolerance = latencyTolerance;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,68 @@
+package com.picbank.authservice.components;
+
+import com.picbank.authservice.model.enums.AuthBudget;
+import com.picbank.authservice.utils.Deadline;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Resolves the {@link Deadline} of an {@code /auth} request.
+ * <p>
+ * A gateway in front of the service sends the budget it has left for the request in the deadline header, in
+ * milliseconds; without the header, the default budget of the endpoint applies. A budget sent in the header is
+ * capped, so a client cannot make the service wait on Cognito indefinitely.
+ * </p>
+ */
+@Component
+@Getter
+public class AuthDeadlines {
+
+    private final String header;
+    private final long loginMs;
+    private final long signupMs;
+    private final long maxMs;
+    private final int attempts;
+
+    /**
+     * Constructs a new instance of {@code AuthDeadlines} with values loaded from the application properties.
+     *
+     * @param header   The name of the request header carrying the remaining budget, in milliseconds.
+     * @param loginMs  The budget of a login without the header, in milliseconds.
+     * @param signupMs The budget of a registration or e-mail confirmation without the header, in milliseconds.
+     * @param maxMs    The upper bound of a budget sent in the header, in milliseconds.
+     * @param attempts The number of attempts the budget is split into for the attempt timeout of each AWS call.
+     */
+    public AuthDeadlines(@Value("${auth.deadline.header}") String header,
+                         @Value("${auth.deadline.login-ms}") long loginMs,
+                         @Value("${auth.deadline.signup-ms}") long signupMs,
+                         @Value("${auth.deadline.max-ms}") long maxMs,
+                         @Value("${auth.deadline.attempts}") int attempts) {
+        this.header = header;
+        this.loginMs = loginMs;
+        this.signupMs = signupMs;
+        this.maxMs = maxMs;
+        this.attempts = attempts;
+    }
+
+    /**
+     * Resolves the deadline of a request, starting now.
+     *
+     * @param budget      The budget of the requested endpoint, which selects the default budget.
+     * @param headerValue The value of the deadline header, or {@code null} if absent.
+     * @return The deadline of the request; already expired if the header says no time is left.
+     */
+    public Deadline resolve(AuthBudget budget, String headerValue) {
+        long budgetMs = budget == AuthBudget.LOGIN ? loginMs : signupMs;
+        if (headerValue != null && !headerValue.isBlank()) {
+            try {
+                budgetMs = Math.min(Long.parseLong(headerValue.trim()), maxMs);
+            } catch (NumberFormatException e) {
+                // A malformed header is ignored, like an absent one
+            }
+        }
+        return Deadline.after(Duration.ofMillis(Math.max(0, budgetMs)), attempts);
+    }
+}
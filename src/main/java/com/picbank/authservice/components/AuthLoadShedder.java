@@ -0,0 +1,102 @@
+package com.picbank.authservice.components;
+
+import com.picbank.authservice.model.enums.AuthBudget;
+import com.picbank.authservice.services.MessageService;
+import com.picbank.authservice.utils.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static com.picbank.authservice.constants.MessageConstants.AUTH_LOAD_SHED;
+import static com.picbank.authservice.constants.ObservabilityConstants.*;
+
+/**
+ * Sheds {@code /auth} requests beyond the adaptive concurrency limit of their {@link AuthBudget}.
+ * <p>
+ * When Cognito slows down, queued requests would only hit it once their clients have given up; rejecting them right
+ * away keeps the latency of the admitted ones low and lets clients retry later. Each budget has its own
+ * {@link AdaptiveConcurrencyLimiter}, whose limit, calls in flight and rejections are exported as metrics.
+ * </p>
+ */
+@Slf4j
+@Component
+public class AuthLoadShedder {
+
+    private final AuthConcurrencyProperties properties;
+    private final MessageService messageService;
+    private final Map<AuthBudget, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(AuthBudget.class);
+    private final Map<AuthBudget, Counter> rejectedCounters = new EnumMap<>(AuthBudget.class);
+
+    /**
+     * Constructs a new {@code AuthLoadShedder} and registers the metrics of every budget.
+     *
+     * @param properties     The limits of the budgets.
+     * @param messageService The service used for localized log messages.
+     * @param meterRegistry  The registry the metrics are registered with.
+     */
+    public AuthLoadShedder(AuthConcurrencyProperties properties, MessageService messageService,
+                           MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.messageService = messageService;
+        for (AuthBudget budget : AuthBudget.values()) {
+            int maxLimit = budget == AuthBudget.LOGIN ? properties.getLoginMaxLimit() : properties.getSignupMaxLimit();
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties.getInitialLimit(),
+                    Math.min(properties.getMinLimit(), maxLimit), maxLimit, properties.getSmoothing(),
+                    properties.getLatencyTolerance());
+            limiters.put(budget, limiter);
+
+            Gauge.builder(AUTH_CONCURRENCY_LIMIT, limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Adaptive limit of concurrent requests of an /auth budget")
+                    .tag(TAG_BUDGET, budget.getTag())
+                    .register(meterRegistry);
+            Gauge.builder(AUTH_CONCURRENCY_IN_FLIGHT, limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Admitted requests in flight of an /auth budget")
+                    .tag(TAG_BUDGET, budget.getTag())
+                    .register(meterRegistry);
+            rejectedCounters.put(budget, Counter.builder(AUTH_CONCURRENCY_REJECTED)
+                    .description("Requests of an /auth budget shed with 503")
+                    .tag(TAG_BUDGET, budget.getTag())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Admits a request of the budget if it is under its limit.
+     *
+     * @param budget The budget of the requested endpoint.
+     * @return {@code true} if the request is admitted and must be {@linkplain #release released}, {@code false} if it
+     *         must be rejected.
+     */
+    public boolean tryAcquire(AuthBudget budget) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        AdaptiveConcurrencyLimiter limiter = limiters.get(budget);
+        if (limiter.tryAcquire()) {
+            return true;
+        }
+        rejectedCounters.get(budget).increment();
+        if (log.isDebugEnabled()) {
+            log.debug(messageService.getMessage(AUTH_LOAD_SHED, budget.getTag(), limiter.getLimit()));
+        }
+        return false;
+    }
+
+    /**
+     * Releases an admitted request and adapts the limit of its budget to the outcome.
+     *
+     * @param budget     The budget the request was admitted in.
+     * @param startNanos The {@link System#nanoTime()} at which the request was admitted.
+     * @param overloaded Whether the request failed with a server error, e.g. Cognito throttling or timing out.
+     */
+    public void release(AuthBudget budget, long startNanos, boolean overloaded) {
+        if (properties.isEnabled()) {
+            limiters.get(budget).release(System.nanoTime() - startNanos, overloaded);
+        }
+    }
+}
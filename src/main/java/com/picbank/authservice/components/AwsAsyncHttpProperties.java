@@ -0,0 +1,38 @@
+package com.picbank.authservice.components;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the Netty HTTP client of the asynchronous AWS clients used by the reactive deployment.
+ * <p>
+ * A call waiting on AWS holds a connection but no thread, so the connection pool, not a thread pool, bounds the
+ * concurrent logins: calls beyond {@code maxConcurrency} wait for a connection, up to
+ * {@code maxPendingConnectionAcquires}, and fail beyond that.
+ * </p>
+ */
+@Component
+@Getter
+public class AwsAsyncHttpProperties {
+
+    private final int maxConcurrency;
+    private final int maxPendingConnectionAcquires;
+    private final int eventLoopThreads;
+
+    /**
+     * Constructs a new instance of {@code AwsAsyncHttpProperties} with values loaded from the application properties.
+     *
+     * @param maxConcurrency               The maximum number of open connections, and so of calls in flight, per client.
+     * @param maxPendingConnectionAcquires The maximum number of calls waiting for a connection per client.
+     * @param eventLoopThreads             The number of Netty event-loop threads per client; 0 for the SDK default
+     *                                     (twice the number of processors).
+     */
+    public AwsAsyncHttpProperties(@Value("${aws.async.max-concurrency}") int maxConcurrency,
+                                  @Value("${aws.async.max-pending-connection-acquires}") int maxPendingConnectionAcquires,
+                                  @Value("${aws.async.event-loop-threads}") int eventLoopThreads) {
+        this.maxConcurrency = maxConcurrency;
+        this.maxPendingConnectionAcquires = maxPendingConnectionAcquires;
+        this.eventLoopThreads = eventLoopThreads;
+    }
+}
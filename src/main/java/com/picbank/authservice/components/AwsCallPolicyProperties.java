@@ -0,0 +1,126 @@
+package com.picbank.authservice.components;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.retry.RetryMode;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Configuration properties for the timeout, retry and backoff policies of the AWS calls.
+ * <p>
+ * Every call made through the AWS client beans follows one of two policies, chosen by its operation name (e.g.
+ * {@code InitiateAuth}). Interactive operations, which a user is waiting on, fail fast: few attempts, short timeouts
+ * and short backoffs. Every other operation is a background one, e.g. the group assignment of the SQS worker or the
+ * admin jobs, and rides out throttling: adaptive retry mode, more attempts and longer backoffs. Both policies use
+ * full-jitter exponential backoff, and their retries are bounded by a {@linkplain com.picbank.authservice.utils.RetryBudget
+ * retry budget} per client, so a failing downstream is not hit with a multiple of its load.
+ * </p>
+ */
+@Component
+@Getter
+public class AwsCallPolicyProperties {
+
+    private final Set<String> interactiveOperations;
+    private final Policy interactive;
+    private final Policy background;
+
+    /**
+     * Constructs a new instance of {@code AwsCallPolicyProperties} with values loaded from the application properties.
+     *
+     * @param interactiveOperations              Comma-separated names of the operations following the interactive policy.
+     * @param interactiveRetryMode               The retry mode of interactive operations: {@code standard} or {@code adaptive}.
+     * @param interactiveMaxAttempts             The maximum number of attempts of an interactive call, the first included.
+     * @param interactiveApiCallTimeoutMs        The timeout of an interactive call, retries included, in milliseconds.
+     * @param interactiveApiCallAttemptTimeoutMs The timeout of each attempt of an interactive call, in milliseconds.
+     * @param interactiveBaseDelayMs             The base delay of the exponential backoff of interactive calls, in milliseconds.
+     * @param interactiveMaxBackoffMs            The maximum backoff between attempts of an interactive call, in milliseconds.
+     * @param interactiveRetryBudgetRatio        The sustained number of retries per interactive call.
+     * @param interactiveRetryBudgetBurst        The number of interactive retries that can be made in a row.
+     * @param backgroundRetryMode                The retry mode of background operations: {@code standard} or {@code adaptive}.
+     * @param backgroundMaxAttempts              The maximum number of attempts of a background call, the first included.
+     * @param backgroundApiCallTimeoutMs         The timeout of a background call, retries included, in milliseconds.
+     * @param backgroundApiCallAttemptTimeoutMs  The timeout of each attempt of a background call, in milliseconds; it must
+     *                                           exceed the SQS long polling wait.
+     * @param backgroundBaseDelayMs              The base delay of the exponential backoff of background calls, in milliseconds.
+     * @param backgroundMaxBackoffMs             The maximum backoff between attempts of a background call, in milliseconds.
+     * @param backgroundRetryBudgetRatio         The sustained number of retries per background call.
+     * @param backgroundRetryBudgetBurst         The number of background retries that can be made in a row.
+     */
+    public AwsCallPolicyProperties(
+            @Value("${aws.call-policy.interactive.operations}") String interactiveOperations,
+            @Value("${aws.call-policy.interactive.retry-mode}") String interactiveRetryMode,
+            @Value("${aws.call-policy.interactive.max-attempts}") int interactiveMaxAttempts,
+            @Value("${aws.call-policy.interactive.api-call-timeout-ms}") long interactiveApiCallTimeoutMs,
+            @Value("${aws.call-policy.interactive.api-call-attempt-timeout-ms}") long interactiveApiCallAttemptTimeoutMs,
+            @Value("${aws.call-policy.interactive.base-delay-ms}") long interactiveBaseDelayMs,
+            @Value("${aws.call-policy.interactive.max-backoff-ms}") long interactiveMaxBackoffMs,
+            @Value("${aws.call-policy.interactive.retry-budget-ratio}") double interactiveRetryBudgetRatio,
+            @Value("${aws.call-policy.interactive.retry-budget-burst}") int interactiveRetryBudgetBurst,
+            @Value("${aws.call-policy.background.retry-mode}") String backgroundRetryMode,
+            @Value("${aws.call-policy.background.max-attempts}") int backgroundMaxAttempts,
+            @Value("${aws.call-policy.background.api-call-timeout-ms}") long backgroundApiCallTimeoutMs,
+            @Value("${aws.call-policy.background.api-call-attempt-timeout-ms}") long backgroundApiCallAttemptTimeoutMs,
+            @Value("${aws.call-policy.background.base-delay-ms}") long backgroundBaseDelayMs,
+            @Value("${aws.call-policy.background.max-backoff-ms}") long backgroundMaxBackoffMs,
+            @Value("${aws.call-policy.background.retry-budget-ratio}") double backgroundRetryBudgetRatio,
+            @Value("${aws.call-policy.background.retry-budget-burst}") int backgroundRetryBudgetBurst) {
+        this.interactiveOperations = Arrays.stream(interactiveOperations.split(","))
+                .map(String::trim)
+                .filter(operation -> !operation.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.interactive = new Policy(retryMode(interactiveRetryMode), interactiveMaxAttempts,
+                Duration.ofMillis(interactiveApiCallTimeoutMs), Duration.ofMillis(interactiveApiCallAttemptTimeoutMs),
+                Duration.ofMillis(interactiveBaseDelayMs), Duration.ofMillis(interactiveMaxBackoffMs),
+                interactiveRetryBudgetRatio, interactiveRetryBudgetBurst);
+        this.background = new Policy(retryMode(backgroundRetryMode), backgroundMaxAttempts,
+                Duration.ofMillis(backgroundApiCallTimeoutMs), Duration.ofMillis(backgroundApiCallAttemptTimeoutMs),
+                Duration.ofMillis(backgroundBaseDelayMs), Duration.ofMillis(backgroundMaxBackoffMs),
+                backgroundRetryBudgetRatio, backgroundRetryBudgetBurst);
+    }
+
+    /**
+     * Returns the policy an operation follows.
+     *
+     * @param operation The operation name, e.g. {@code InitiateAuth}.
+     * @return The interactive policy if the operation is listed as interactive, the background policy otherwise.
+     */
+    public Policy policyFor(String operation) {
+        return interactiveOperations.contains(operation) ? interactive : background;
+    }
+
+    private static RetryMode retryMode(String value) {
+        return switch (value.trim().toLowerCase()) {
+            case "standard" -> RetryMode.STANDARD;
+            case "adaptive" -> RetryMode.ADAPTIVE_V2;
+            default -> throw new IllegalArgumentException("Unsupported retry mode: " + value);
+        };
+    }
+
+    /**
+     * Timeout, retry and backoff policy of a class of AWS calls.
+     *
+     * @param retryMode             {@link RetryMode#STANDARD}, or {@link RetryMode#ADAPTIVE_V2} to also rate-limit the
+     *                              client after throttling errors.
+     * @param maxAttempts           The maximum number of attempts of a call, the first included.
+     * @param apiCallTimeout        The timeout of a call, retries included.
+     * @param apiCallAttemptTimeout The timeout of each attempt.
+     * @param baseDelay             The base delay of the full-jitter exponential backoff.
+     * @param maxBackoff            The maximum backoff between attempts.
+     * @param retryBudgetRatio      The sustained number of retries per call.
+     * @param retryBudgetBurst      The number of retries that can be made in a row.
+     */
+    public record Policy(RetryMode retryMode,
+                         int maxAttempts,
+                         Duration apiCallTimeout,
+                         Duration apiCallAttemptTimeout,
+                         Duration baseDelay,
+                         Duration maxBackoff,
+                         double retryBudgetRatio,
+                         int retryBudgetBurst) {
+    }
+}
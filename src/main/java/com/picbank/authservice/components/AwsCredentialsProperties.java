@@ -0,0 +1,50 @@
+package com.picbank.authservice.components;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the credentials shared by the AWS clients.
+ * <p>
+ * Role credentials (web identity, container or instance roles) expire, typically after an hour, and are refreshed
+ * in the background ahead of their expiration; static keys never expire and are resolved once.
+ * </p>
+ */
+@Component
+@Getter
+public class AwsCredentialsProperties {
+
+    private final String accessKeyId;
+    private final String secretAccessKey;
+    private final long refreshBeforeMs;
+    private final long retryIntervalMs;
+
+    /**
+     * Constructs a new instance of {@code AwsCredentialsProperties} with values loaded from the application properties.
+     *
+     * @param accessKeyId     The static access key; empty to use the default credentials chain.
+     * @param secretAccessKey The static secret key; empty to use the default credentials chain.
+     * @param refreshBeforeMs How long before their expiration the credentials are refreshed, in milliseconds.
+     * @param retryIntervalMs The wait between failed refreshes, and the minimum wait between two refreshes, in
+     *                        milliseconds.
+     */
+    public AwsCredentialsProperties(@Value("${aws.access-key-id:}") String accessKeyId,
+                                    @Value("${aws.secret-access-key:}") String secretAccessKey,
+                                    @Value("${aws.credentials.refresh-before-ms}") long refreshBeforeMs,
+                                    @Value("${aws.credentials.retry-interval-ms}") long retryIntervalMs) {
+        this.accessKeyId = accessKeyId;
+        this.secretAccessKey = secretAccessKey;
+        this.refreshBeforeMs = refreshBeforeMs;
+        this.retryIntervalMs = retryIntervalMs;
+    }
+
+    /**
+     * Tells whether static keys are configured.
+     *
+     * @return {@code true} if both the access key and the secret key are set.
+     */
+    public boolean hasStaticKeys() {
+        return !accessKeyId.isBlank() && !secretAccessKey.isBlank();
+    }
+}
@@ -0,0 +1,85 @@
+package com.picbank.authservice.components;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+import static com.picbank.authservice.constants.ObservabilityConstants.*;
+
+/**
+ * AWS SDK interceptor that wraps every SDK call in a Micrometer {@link Observation}.
+ * <p>
+ * It is registered on the Cognito, SQS and SES clients, so each AWS call is recorded as a child span
+ * of the HTTP request or worker message that triggered it, tagged with the service and operation names.
+ * </p>
+ */
+@Component
+public class AwsSdkObservationInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<Observation> OBSERVATION = new ExecutionAttribute<>("PicbankObservation");
+
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * Constructs a new {@code AwsSdkObservationInterceptor}.
+     *
+     * @param observationRegistry the registry the AWS call observations are reported to.
+     */
+    public AwsSdkObservationInterceptor(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * Starts the observation before the SDK marshals and sends the request.
+     *
+     * @param context             the SDK request context.
+     * @param executionAttributes the attributes shared across the call lifecycle.
+     */
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        String service = executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME);
+        String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+
+        Observation observation = Observation.createNotStarted(AWS_SDK_CALL, observationRegistry)
+                .contextualName(service + "." + operation)
+                .lowCardinalityKeyValue(TAG_AWS_SERVICE, service)
+                .lowCardinalityKeyValue(TAG_AWS_OPERATION, operation)
+                .start();
+
+        executionAttributes.putAttribute(OBSERVATION, observation);
+    }
+
+    /**
+     * Stops the observation once the SDK has received and unmarshalled the response.
+     *
+     * @param context             the SDK response context.
+     * @param executionAttributes the attributes shared across the call lifecycle.
+     */
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        Observation observation = executionAttributes.getAttribute(OBSERVATION);
+        if (observation != null) {
+            observation.stop();
+        }
+    }
+
+    /**
+     * Records the failure on the observation and stops it.
+     *
+     * @param context             the failed execution context, holding the exception.
+     * @param executionAttributes the attributes shared across the call lifecycle.
+     */
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        Observation observation = executionAttributes.getAttribute(OBSERVATION);
+        if (observation != null) {
+            observation.error(context.exception());
+            observation.stop();
+        }
+    }
+}
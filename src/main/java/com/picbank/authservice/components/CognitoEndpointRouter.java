@@ -0,0 +1,312 @@
+package com.picbank.authservice.components;
+
+import com.picbank.authservice.services.MessageService;
+import com.picbank.authservice.utils.AwsExceptionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InitiateAuthRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InitiateAuthResponse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static com.picbank.authservice.constants.MessageConstants.*;
+import static com.picbank.authservice.constants.ObservabilityConstants.*;
+
+/**
+ * Routes logins between the primary and the secondary Cognito user pools by their latency and error scores.
+ * <p>
+ * Every {@code InitiateAuth} call updates the scores of the user pool it went to: an exponentially weighted moving
+ * average of its latency and of its failures, where only network errors, throttling and 5xx responses count as
+ * failures; a wrong password is a healthy answer. Logins go to the primary pool while it is not degraded, and to the
+ * pool with the best scores otherwise, except for one login every probe interval, which still goes to the primary
+ * pool so that its scores can recover. A login that fails on a pool is retried once on the other pool.
+ * </p>
+ * <p>
+ * Logins of the reactive deployment go through {@link #initiateAuthAsync(Function)}, on the asynchronous clients of
+ * the same pools; both kinds of calls share the scores.
+ * </p>
+ * <p>
+ * Without a secondary pool every login goes to the primary pool, as before.
+ * </p>
+ */
+@Slf4j
+public class CognitoEndpointRouter {
+
+    private final List<EndpointState> endpoints;
+    private final CognitoRoutingProperties routingProperties;
+    private final MessageService messageService;
+
+    /**
+     * A Cognito user pool and the client used to reach it.
+     *
+     * @param name         The name of the pool in logs and metrics, {@code primary} or {@code secondary}.
+     * @param userPoolId   The user pool ID.
+     * @param clientId     The app client ID.
+     * @param clientSecret The app client secret.
+     * @param client       The client of the region, or of the stand-in endpoint, of the pool.
+     * @param asyncClient  The asynchronous client of the pool, or {@code null} outside of the reactive deployment.
+     */
+    public record Endpoint(String name, String userPoolId, String clientId, String clientSecret,
+                           CognitoIdentityProviderClient client, CognitoIdentityProviderAsyncClient asyncClient) {
+    }
+
+    /**
+     * Constructs a new {@code CognitoEndpointRouter} and registers the score gauges of its user pools.
+     *
+     * @param primaryClient     The client of the primary user pool.
+     * @param secondaryClient   The client of the secondary user pool, or {@code null} if there is none.
+     * @param cognitoProperties The primary user pool settings.
+     * @param routingProperties The secondary user pool and scoring settings.
+     * @param messageService    The service used for localized messages.
+     * @param meterRegistry     The registry the score gauges and failover counters are registered with.
+     */
+    public CognitoEndpointRouter(CognitoIdentityProviderClient primaryClient,
+                                 CognitoIdentityProviderClient secondaryClient,
+                                 CognitoProperties cognitoProperties,
+                                 CognitoRoutingProperties routingProperties,
+                                 MessageService messageService,
+                                 MeterRegistry meterRegistry) {
+        this(primaryClient, secondaryClient, null, null, cognitoProperties, routingProperties, messageService,
+                meterRegistry);
+    }
+
+    /**
+     * Constructs a new {@code CognitoEndpointRouter} that can also route logins on the asynchronous clients.
+     *
+     * @param primaryClient        The client of the primary user pool.
+     * @param secondaryClient      The client of the secondary user pool, or {@code null} if there is none.
+     * @param primaryAsyncClient   The asynchronous client of the primary user pool, or {@code null}.
+     * @param secondaryAsyncClient The asynchronous client of the secondary user pool, or {@code null}.
+     * @param cognitoProperties    The primary user pool settings.
+     * @param routingProperties    The secondary user pool and scoring settings.
+     * @param messageService       The service used for localized messages.
+     * @param meterRegistry        The registry the score gauges and failover counters are registered with.
+     */
+    public CognitoEndpointRouter(CognitoIdentityProviderClient primaryClient,
+                                 CognitoIdentityProviderClient secondaryClient,
+                                 CognitoIdentityProviderAsyncClient primaryAsyncClient,
+                                 CognitoIdentityProviderAsyncClient secondaryAsyncClient,
+                                 CognitoProperties cognitoProperties,
+                                 CognitoRoutingProperties routingProperties,
+                                 MessageService messageService,
+                                 MeterRegistry meterRegistry) {
+        this.routingProperties = routingProperties;
+        this.messageService = messageService;
+
+        List<EndpointState> states = new ArrayList<>();
+        states.add(new EndpointState(new Endpoint(ENDPOINT_PRIMARY, cognitoProperties.getUserPoolId(),
+                cognitoProperties.getClientId(), cognitoProperties.getClientSecret(), primaryClient, primaryAsyncClient),
+                meterRegistry));
+        if (secondaryClient != null) {
+            states.add(new EndpointState(new Endpoint(ENDPOINT_SECONDARY, routingProperties.getSecondaryUserPoolId(),
+                    routingProperties.getSecondaryClientId(), routingProperties.getSecondaryClientSecret(), secondaryClient,
+                    secondaryAsyncClient),
+                    meterRegistry));
+        }
+        this.endpoints = List.copyOf(states);
+    }
+
+    /**
+     * Authenticates on the user pool with the best scores, failing over to the other pool if it is unreachable,
+     * throttled or failing.
+     *
+     * @param requestFactory Builds the request for a user pool, with its app client ID and secret hash; it is called
+     *                       right before each call, and may throw to stop before calling a pool.
+     * @return The response of the first user pool that answered.
+     * @throws SdkException The error of the last user pool tried, or the first error that is not an endpoint
+     *                      failure, e.g. {@code NotAuthorizedException}.
+     */
+    public InitiateAuthResponse initiateAuth(Function<Endpoint, InitiateAuthRequest> requestFactory) {
+        List<EndpointState> order = route();
+        for (int i = 0; ; i++) {
+            EndpointState state = order.get(i);
+            InitiateAuthRequest request = requestFactory.apply(state.endpoint);
+            long startNanos = System.nanoTime();
+            try {
+                InitiateAuthResponse response = state.endpoint.client().initiateAuth(request);
+                state.record(System.nanoTime() - startNanos, false);
+                return response;
+            } catch (SdkException e) {
+                if (!failOver(order, i, startNanos, e)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Authenticates on the user pool with the best scores without blocking, failing over to the other pool if it is
+     * unreachable, throttled or failing; the pools are called on their asynchronous clients.
+     *
+     * @param requestFactory Builds the request for a user pool, with its app client ID and secret hash.
+     * @return The response of the first user pool that answered, or the error of
+     * {@link #initiateAuth(Function)}, unwrapped from any {@link CompletionException}.
+     */
+    public CompletableFuture<InitiateAuthResponse> initiateAuthAsync(Function<Endpoint, InitiateAuthRequest> requestFactory) {
+        return initiateAuthAsync(route(), 0, requestFactory);
+    }
+
+    private CompletableFuture<InitiateAuthResponse> initiateAuthAsync(List<EndpointState> order,
+                                                                      int i,
+                                                                      Function<Endpoint, InitiateAuthRequest> requestFactory) {
+        EndpointState state = order.get(i);
+        CognitoIdentityProviderAsyncClient asyncClient = state.endpoint.asyncClient();
+        if (asyncClient == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException(
+                    "No asynchronous client for the " + state.endpoint.name() + " user pool"));
+        }
+        InitiateAuthRequest request;
+        try {
+            request = requestFactory.apply(state.endpoint);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long startNanos = System.nanoTime();
+        return asyncClient.initiateAuth(request)
+                .thenApply(response -> {
+                    state.record(System.nanoTime() - startNanos, false);
+                    return response;
+                })
+                .exceptionallyCompose(error -> {
+                    Throwable cause = AwsExceptionUtils.unwrap(error);
+                    if (cause instanceof SdkException e && failOver(order, i, startNanos, e)) {
+                        return initiateAuthAsync(order, i + 1, requestFactory);
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
+    /**
+     * Records a failed call on the scores of its user pool and tells whether the login should be retried on the
+     * next pool, logging and counting the failover if so. A call that timed out at the deadline of the login is not
+     * retried, since no time is left for the next pool.
+     */
+    private boolean failOver(List<EndpointState> order, int i, long startNanos, SdkException e) {
+        EndpointState state = order.get(i);
+        boolean endpointFailure = isEndpointFailure(e);
+        state.record(System.nanoTime() - startNanos, endpointFailure);
+        if (!endpointFailure || i == order.size() - 1 || e instanceof ApiCallTimeoutException) {
+            return false;
+        }
+        log.warn(messageService.getMessage(COGNITO_ROUTING_FAILOVER, state.endpoint.name(),
+                order.get(i + 1).endpoint.name(), e.getMessage()));
+        state.failovers.increment();
+        return true;
+    }
+
+    /**
+     * Orders the user pools for the next login: the primary pool first unless it is degraded and no probe is due,
+     * healthy pools before degraded ones and, among them, the cheapest first.
+     */
+    private List<EndpointState> route() {
+        EndpointState primary = endpoints.get(0);
+        if (endpoints.size() == 1 || !primary.isDegraded() || primary.probeDue()) {
+            return endpoints;
+        }
+        return endpoints.stream()
+                .sorted(Comparator.comparing(EndpointState::isDegraded).thenComparingDouble(EndpointState::cost))
+                .toList();
+    }
+
+    /**
+     * Tells whether an error says something about the user pool rather than about the request.
+     */
+    private static boolean isEndpointFailure(SdkException e) {
+        if (e instanceof AwsServiceException serviceException) {
+            return serviceException.statusCode() >= 500 || serviceException.isThrottlingException();
+        }
+        return e instanceof SdkClientException;
+    }
+
+    /**
+     * The scores of a user pool.
+     */
+    private final class EndpointState {
+
+        private final Endpoint endpoint;
+        private final Counter failovers;
+        private final AtomicLong lastAttemptNanos = new AtomicLong(System.nanoTime());
+        private double latencyScoreMs;
+        private double errorScore;
+        private boolean degraded;
+
+        private EndpointState(Endpoint endpoint, MeterRegistry meterRegistry) {
+            this.endpoint = endpoint;
+            this.failovers = Counter.builder(COGNITO_ENDPOINT_FAILOVERS)
+                    .description("Logins failed over from a Cognito user pool to the other one")
+                    .tag(TAG_ENDPOINT, endpoint.name())
+                    .register(meterRegistry);
+            TimeGauge.builder(COGNITO_ENDPOINT_LATENCY, this, TimeUnit.MILLISECONDS, EndpointState::latencyScoreMs)
+                    .description("Moving average of the InitiateAuth latency of a Cognito user pool")
+                    .tag(TAG_ENDPOINT, endpoint.name())
+                    .register(meterRegistry);
+            Gauge.builder(COGNITO_ENDPOINT_ERROR_RATE, this, EndpointState::errorScore)
+                    .description("Moving average of the InitiateAuth failures of a Cognito user pool")
+                    .tag(TAG_ENDPOINT, endpoint.name())
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Updates the scores with the outcome of a call, logging when the pool becomes degraded or recovers.
+         */
+        private synchronized void record(long elapsedNanos, boolean failed) {
+            lastAttemptNanos.set(System.nanoTime());
+            double alpha = routingProperties.getScoreAlpha();
+            latencyScoreMs += alpha * (TimeUnit.NANOSECONDS.toMillis(elapsedNanos) - latencyScoreMs);
+            errorScore += alpha * ((failed ? 1 : 0) - errorScore);
+
+            boolean nowDegraded = latencyScoreMs > routingProperties.getMaxLatencyMs()
+                    || errorScore > routingProperties.getMaxErrorRate();
+            if (nowDegraded != degraded) {
+                degraded = nowDegraded;
+                log.warn(messageService.getMessage(nowDegraded ? COGNITO_ROUTING_DEGRADED : COGNITO_ROUTING_RECOVERED,
+                        endpoint.name(), Math.round(latencyScoreMs), String.format("%.2f", errorScore)));
+            }
+        }
+
+        private synchronized boolean isDegraded() {
+            return degraded;
+        }
+
+        /**
+         * Claims the next probe of a degraded pool, if the probe interval has elapsed since its last call.
+         */
+        private boolean probeDue() {
+            long now = System.nanoTime();
+            long last = lastAttemptNanos.get();
+            return now - last >= TimeUnit.MILLISECONDS.toNanos(routingProperties.getProbeIntervalMs())
+                    && lastAttemptNanos.compareAndSet(last, now);
+        }
+
+        /**
+         * The expected cost of a login: its latency, inflated by the share of logins that would have to fail over.
+         */
+        private synchronized double cost() {
+            return latencyScoreMs / Math.max(0.05, 1 - errorScore);
+        }
+
+        private synchronized double latencyScoreMs() {
+            return latencyScoreMs;
+        }
+
+        private synchronized double errorScore() {
+            return errorScore;
+        }
+    }
+}
@@ -14,6 +14,8 @@ import org.springframework.stereotype.Component;
 @Getter
 public class CognitoProperties {
 
+    private final String region;
+    private final String endpoint;
     private final String userPoolId;
     private final String clientId;
     private final String clientSecret;
@@ -21,13 +23,19 @@ public class CognitoProperties {
     /**
      * Constructs a new instance of {@code CognitoProperties} with values loaded from the application properties.
      *
-     * @param userPoolId  The unique identifier of the AWS Cognito User Pool.
-     * @param clientId    The client ID used for authentication.
+     * @param region       The region of the AWS Cognito User Pool.
+     * @param endpoint     The endpoint override, e.g. a local stand-in; empty for the regional endpoint.
+     * @param userPoolId   The unique identifier of the AWS Cognito User Pool.
+     * @param clientId     The client ID used for authentication.
      * @param clientSecret The client secret used for authentication.
      */
-    public CognitoProperties(@Value("${aws.cognito.userPoolId}") String userPoolId,
+    public CognitoProperties(@Value("${aws.cognito.region}") String region,
+                             @Value("${aws.cognito.endpoint:}") String endpoint,
+                             @Value("${aws.cognito.userPoolId}") String userPoolId,
                              @Value("${spring.security.oauth2.client.registration.cognito.client-id}") String clientId,
                              @Value("${spring.security.oauth2.client.registration.cognito.client-secret}") String clientSecret) {
+        this.region = region;
+        this.endpoint = endpoint;
         this.userPoolId = userPoolId;
         this.clientId = clientId;
         this.clientSecret = clientSecret;
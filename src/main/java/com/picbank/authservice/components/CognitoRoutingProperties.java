@@ -0,0 +1,73 @@
+package com.picbank.authservice.components;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the routing of logins between the primary and the secondary Cognito user pools.
+ * <p>
+ * The secondary user pool, typically in another region, is only used for {@code InitiateAuth} and only if its
+ * user pool ID is set; its users must be kept in sync with the primary pool outside of this service. The latency
+ * and error scores of each pool are exponentially weighted moving averages, and a pool whose scores exceed the
+ * thresholds is degraded: logins go to the other pool first, while one login every probe interval still goes to
+ * the primary pool so it can recover.
+ * </p>
+ */
+@Component
+@Getter
+public class CognitoRoutingProperties {
+
+    private final String secondaryRegion;
+    private final String secondaryEndpoint;
+    private final String secondaryUserPoolId;
+    private final String secondaryClientId;
+    private final String secondaryClientSecret;
+    private final double scoreAlpha;
+    private final long maxLatencyMs;
+    private final double maxErrorRate;
+    private final long probeIntervalMs;
+
+    /**
+     * Constructs a new instance of {@code CognitoRoutingProperties} with values loaded from the application properties.
+     *
+     * @param secondaryRegion       The region of the secondary user pool.
+     * @param secondaryEndpoint     The endpoint override of the secondary user pool, e.g. a local stand-in; empty
+     *                              for the regional endpoint.
+     * @param secondaryUserPoolId   The ID of the secondary user pool; empty to route every login to the primary pool.
+     * @param secondaryClientId     The app client ID of the secondary user pool.
+     * @param secondaryClientSecret The app client secret of the secondary user pool.
+     * @param scoreAlpha            The weight (0..1) of the latest call in the latency and error scores.
+     * @param maxLatencyMs          The latency score above which a user pool is degraded, in milliseconds.
+     * @param maxErrorRate          The error score (0..1) above which a user pool is degraded.
+     * @param probeIntervalMs       The interval between logins sent to a degraded primary pool, in milliseconds.
+     */
+    public CognitoRoutingProperties(@Value("${aws.cognito.secondary.region}") String secondaryRegion,
+                                    @Value("${aws.cognito.secondary.endpoint:}") String secondaryEndpoint,
+                                    @Value("${aws.cognito.secondary.user-pool-id:}") String secondaryUserPoolId,
+                                    @Value("${aws.cognito.secondary.client-id:}") String secondaryClientId,
+                                    @Value("${aws.cognito.secondary.client-secret:}") String secondaryClientSecret,
+                                    @Value("${aws.cognito.routing.score-alpha}") double scoreAlpha,
+                                    @Value("${aws.cognito.routing.max-latency-ms}") long maxLatencyMs,
+                                    @Value("${aws.cognito.routing.max-error-rate}") double maxErrorRate,
+                                    @Value("${aws.cognito.routing.probe-interval-ms}") long probeIntervalMs) {
+        this.secondaryRegion = secondaryRegion;
+        this.secondaryEndpoint = secondaryEndpoint;
+        this.secondaryUserPoolId = secondaryUserPoolId;
+        this.secondaryClientId = secondaryClientId;
+        this.secondaryClientSecret = secondaryClientSecret;
+        this.scoreAlpha = scoreAlpha;
+        this.maxLatencyMs = maxLatencyMs;
+        this.maxErrorRate = maxErrorRate;
+        this.probeIntervalMs = probeIntervalMs;
+    }
+
+    /**
+     * Tells whether a secondary user pool is configured.
+     *
+     * @return {@code true} if the secondary user pool ID is set.
+     */
+    public boolean hasSecondary() {
+        return !secondaryUserPoolId.isBlank();
+    }
+}
@@ -0,0 +1,54 @@
+package com.picbank.authservice.components;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for inspecting the dead-letter queue and replaying its messages to the main queue.
+ * <p>
+ * Replayed messages are processed by the worker like any other, so they are replayed at a fixed rate, shared by all
+ * redrives, that keeps the Cognito requests they cause under its quotas. Messages received from the DLQ but not
+ * replayed are held, i.e. kept hidden so they are not received again, until the peek or redrive ends. A redrive
+ * stops at its max duration, before the held messages reappear; a larger redrive is run again to replay the rest.
+ * </p>
+ */
+@Component
+@Getter
+public class DlqRedriveProperties {
+
+    private final double messagesPerSecond;
+    private final int visibilityTimeoutSeconds;
+    private final int maxHeldMessages;
+    private final int progressInterval;
+    private final int maxDurationSeconds;
+
+    /**
+     * Constructs a new instance of {@code DlqRedriveProperties} with values loaded from the application properties.
+     *
+     * @param messagesPerSecond        The maximum rate of replayed messages, across all redrives.
+     * @param visibilityTimeoutSeconds The time (in seconds) received messages stay hidden if the peek or redrive
+     *                                 cannot make them visible again, e.g. because the node died.
+     * @param maxHeldMessages          The maximum number of messages a redrive holds; it stops once it holds as many.
+     * @param progressInterval         The number of received messages between two progress events.
+     * @param maxDurationSeconds       The time (in seconds) after which a redrive stops and ends with its summary; it
+     *                                 must be shorter than the visibility timeout, so held messages do not reappear
+     *                                 while the redrive runs, and than the timeout of the streamed response.
+     * @throws IllegalArgumentException If the max duration is not positive or not shorter than the visibility timeout.
+     */
+    public DlqRedriveProperties(@Value("${aws.sqs.dlq-redrive.messages-per-second}") double messagesPerSecond,
+                                @Value("${aws.sqs.dlq-redrive.visibility-timeout-seconds}") int visibilityTimeoutSeconds,
+                                @Value("${aws.sqs.dlq-redrive.max-held-messages}") int maxHeldMessages,
+                                @Value("${aws.sqs.dlq-redrive.progress-interval}") int progressInterval,
+                                @Value("${aws.sqs.dlq-redrive.max-duration-seconds}") int maxDurationSeconds) {
+        if (maxDurationSeconds < 1 || maxDurationSeconds >= visibilityTimeoutSeconds) {
+            throw new IllegalArgumentException("aws.sqs.dlq-redrive.max-duration-seconds must be positive and shorter "
+                    + "than the visibility timeout (" + visibilityTimeoutSeconds + " s): " + maxDurationSeconds);
+        }
+        this.messagesPerSecond = messagesPerSecond;
+        this.visibilityTimeoutSeconds = visibilityTimeoutSeconds;
+        this.maxHeldMessages = maxHeldMessages;
+        this.progressInterval = progressInterval;
+        this.maxDurationSeconds = maxDurationSeconds;
+    }
+}
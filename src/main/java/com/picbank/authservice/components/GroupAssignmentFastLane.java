@@ -0,0 +1,328 @@
+package com.picbank.authservice.components;
+
+import com.picbank.authservice.model.dtos.CognitoUserGroupMessage;
+import com.picbank.authservice.model.enums.CognitoUserGroup;
+import com.picbank.authservice.services.EmailService;
+import com.picbank.authservice.services.MessageService;
+import com.picbank.authservice.services.QueueService;
+import com.picbank.authservice.services.UserGroupService;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.picbank.authservice.constants.MessageConstants.*;
+import static com.picbank.authservice.constants.MessagingConstants.SQS_MAX_BATCH_SIZE;
+import static com.picbank.authservice.constants.ObservabilityConstants.*;
+
+/**
+ * In-process fast lane of the group assignment of registered users, with SQS as the fallback.
+ * <p>
+ * Right after the sign-up, the assignment is handed to a bounded local executor, which adds the user to its group and
+ * sends the account-ready email within milliseconds, instead of on the next poll of the SQS worker. An assignment goes
+ * to SQS instead, to be processed by the worker as before, when:
+ * </p>
+ * <ul>
+ *     <li>the fast lane is disabled;</li>
+ *     <li>the queue of the executor is full;</li>
+ *     <li>the node is stopping (before a CRaC checkpoint or on shutdown): pending assignments are drained to SQS, and
+ *     the running ones are given the drain timeout to finish;</li>
+ *     <li>the assignment fails, e.g. Cognito is throttling.</li>
+ * </ul>
+ * <p>
+ * The trace context of the registration is carried over to the executor, so the Cognito and SES calls of the
+ * assignment belong to its trace. Assignments through the fast lane are timed by {@code user.group.assignment.latency}
+ * with the {@code fast} lane tag, and fallbacks are counted by {@code user.group.assignment.fallbacks} per reason.
+ * </p>
+ */
+@Slf4j
+@Component
+public class GroupAssignmentFastLane implements SmartLifecycle {
+
+    /**
+     * The lifecycle phase of the fast lane and its executor: after the SQS worker, before the web server drains.
+     */
+    public static final int PHASE = DEFAULT_PHASE - 1;
+
+    private static final ContextSnapshotFactory CONTEXT_SNAPSHOT_FACTORY = ContextSnapshotFactory.builder().build();
+
+    private final GroupAssignmentFastLaneProperties properties;
+    private final UserGroupService userGroupService;
+    private final EmailService emailService;
+    private final QueueService queueService;
+    private final MessageService messageService;
+    private final ThreadPoolTaskExecutor groupAssignmentExecutor;
+    private final Timer latencyTimer;
+    private final Counter rejectedCounter;
+    private final Counter stoppedCounter;
+    private final Counter failedCounter;
+    private final ReentrantReadWriteLock runningAssignments = new ReentrantReadWriteLock();
+    private volatile boolean running = true;
+
+    /**
+     * Constructs a new {@code GroupAssignmentFastLane} and registers its metrics.
+     *
+     * @param properties              The fast lane settings.
+     * @param userGroupService        The service adding users to their Cognito group.
+     * @param emailService            The service sending the account-ready email.
+     * @param queueService            The queue assignments fall back to.
+     * @param messageService          The service used for localized log messages.
+     * @param groupAssignmentExecutor The bounded executor assignments run on.
+     * @param meterRegistry           The registry the metrics are registered with.
+     */
+    public GroupAssignmentFastLane(GroupAssignmentFastLaneProperties properties,
+                                   UserGroupService userGroupService,
+                                   EmailService emailService,
+                                   QueueService queueService,
+                                   MessageService messageService,
+                                   @Qualifier("groupAssignmentExecutor") ThreadPoolTaskExecutor groupAssignmentExecutor,
+                                   MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.userGroupService = userGroupService;
+        this.emailService = emailService;
+        this.queueService = queueService;
+        this.messageService = messageService;
+        this.groupAssignmentExecutor = groupAssignmentExecutor;
+        this.latencyTimer = Timer.builder(USER_GROUP_ASSIGNMENT_LATENCY)
+                .description("Time between a registration being enqueued and the user being assigned to its group")
+                .tag(TAG_LANE, LANE_FAST)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofHours(4))
+                .register(meterRegistry);
+        this.rejectedCounter = fallbackCounter(meterRegistry, REASON_REJECTED);
+        this.stoppedCounter = fallbackCounter(meterRegistry, REASON_STOPPED);
+        this.failedCounter = fallbackCounter(meterRegistry, REASON_FAILED);
+    }
+
+    /**
+     * Assigns a registered user to its group in the fast lane, or sends the assignment to SQS.
+     *
+     * @param username The user's Cognito username.
+     * @param email    The user's email.
+     * @param group    The group to assign.
+     * @throws com.picbank.authservice.exceptions.SqsOperationException If the assignment could not be sent to SQS.
+     */
+    public void assign(String username, String email, CognitoUserGroup group) {
+        if (!handOff(username, email, group)) {
+            queueService.sendMessage(username, email, group.name());
+        }
+    }
+
+    /**
+     * Assigns a registered user to its group like {@link #assign(String, String, CognitoUserGroup)}, falling back to
+     * the asynchronous SQS client of the reactive deployment, without blocking the calling thread.
+     *
+     * @param username The user's Cognito username.
+     * @param email    The user's email.
+     * @param group    The group to assign.
+     * @return A future completed once the assignment is handed off or sent to SQS.
+     */
+    public CompletableFuture<Void> assignAsync(String username, String email, CognitoUserGroup group) {
+        if (handOff(username, email, group)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return queueService.sendMessageAsync(username, email, group.name());
+    }
+
+    /**
+     * Stops handing off assignments, sends the pending ones to SQS in batches and waits, up to the drain timeout, for the running
+     * ones to finish.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+
+        List<Runnable> pending = new ArrayList<>();
+        groupAssignmentExecutor.getThreadPoolExecutor().getQueue().drainTo(pending);
+        List<CognitoUserGroupMessage> messages = new ArrayList<>(pending.size());
+        for (Runnable runnable : pending) {
+            Assignment assignment = (Assignment) runnable;
+            recordFallback(stoppedCounter, assignment.email, REASON_STOPPED);
+            messages.add(new CognitoUserGroupMessage(assignment.username, assignment.email, assignment.group.name()));
+        }
+        sendToQueue(messages);
+        log.info(messageService.getMessage(WORKER_FAST_LANE_DRAINED, pending.size()));
+
+        try {
+            if (runningAssignments.writeLock().tryLock(properties.getDrainTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                runningAssignments.writeLock().unlock();
+            } else {
+                log.warn(messageService.getMessage(WORKER_FAST_LANE_DRAIN_TIMEOUT, properties.getDrainTimeoutMs()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Resumes handing off assignments after the context is started again, e.g. after a CRaC restore.
+     */
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops once the workers have drained, in a phase of its own so that its drain timeout does not add up to theirs
+     * within one shutdown phase, and before the web server drains, so registrations finishing meanwhile go to SQS. It
+     * depends on its executor, which shares its phase, so it is stopped before it.
+     *
+     * @return {@link #PHASE}.
+     */
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Hands an assignment to the executor if the fast lane is enabled, running and not full.
+     *
+     * @return {@code true} if the assignment was handed off, {@code false} if it must be sent to SQS.
+     */
+    private boolean handOff(String username, String email, CognitoUserGroup group) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        if (!running) {
+            recordFallback(stoppedCounter, email, REASON_STOPPED);
+            return false;
+        }
+        try {
+            groupAssignmentExecutor.execute(new Assignment(username, email, group));
+            return true;
+        } catch (RejectedExecutionException e) {
+            recordFallback(rejectedCounter, email, REASON_REJECTED);
+            return false;
+        }
+    }
+
+    /**
+     * Sends drained assignments to SQS in batches, so that a full executor queue drains within the shutdown phase.
+     */
+    private void sendToQueue(List<CognitoUserGroupMessage> messages) {
+        for (int from = 0; from < messages.size(); from += SQS_MAX_BATCH_SIZE) {
+            List<CognitoUserGroupMessage> batch = messages.subList(from, Math.min(from + SQS_MAX_BATCH_SIZE, messages.size()));
+            List<CognitoUserGroupMessage> unsent;
+            Exception failure = null;
+            try {
+                unsent = queueService.sendMessages(batch);
+            } catch (Exception e) {
+                unsent = batch;
+                failure = e;
+            }
+            for (CognitoUserGroupMessage message : unsent) {
+                log.error(messageService.getMessage(WORKER_FAST_LANE_LOST, message.email(), message.group()), failure);
+            }
+        }
+    }
+
+    private void recordFallback(Counter counter, String email, String reason) {
+        counter.increment();
+        log.info(messageService.getMessage(WORKER_FAST_LANE_FALLBACK, email, reason));
+    }
+
+    /**
+     * Notifies the user that the account is ready; failures are logged and never fail the assignment.
+     */
+    private void sendEmail(String email, CognitoUserGroup group) {
+        try {
+            emailService.sendEmail(
+                    email,
+                    messageService.getMessage(EMAIL_SUBJECT_USER_ACCOUNT_READY),
+                    messageService.getMessage(EMAIL_BODY_USER_ACCOUNT_READY, email, group)
+            );
+        } catch (Exception e) {
+            log.error(messageService.getMessage(EMAIL_SENT_FAILURE, email), e);
+        }
+    }
+
+    private static Counter fallbackCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(USER_GROUP_ASSIGNMENT_FALLBACKS)
+                .description("Group assignments sent to SQS instead of the fast lane")
+                .tag(TAG_REASON, reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A group assignment waiting for, or running on, the executor.
+     */
+    private final class Assignment implements Runnable {
+
+        private final String username;
+        private final String email;
+        private final CognitoUserGroup group;
+        private final ContextSnapshot context = CONTEXT_SNAPSHOT_FACTORY.captureAll();
+        private final long handedOffAt = System.nanoTime();
+
+        private Assignment(String username, String email, CognitoUserGroup group) {
+            this.username = username;
+            this.email = email;
+            this.group = group;
+        }
+
+        @Override
+        public void run() {
+            try (ContextSnapshot.Scope ignored = context.setThreadLocals()) {
+                if (!running || !runningAssignments.readLock().tryLock()) {
+                    // The fast lane is stopping: leave the assignment to a node whose clients stay open
+                    fallBack(stoppedCounter, REASON_STOPPED);
+                    return;
+                }
+                try {
+                    assign();
+                } finally {
+                    runningAssignments.readLock().unlock();
+                }
+            }
+        }
+
+        private void assign() {
+            try {
+                userGroupService.addUserToGroup(group, username);
+            } catch (Exception e) {
+                log.warn(messageService.getMessage(WORKER_FAST_LANE_FAILED, email), e);
+                fallBack(failedCounter, REASON_FAILED);
+                return;
+            }
+            Duration latency = Duration.ofNanos(System.nanoTime() - handedOffAt);
+            latencyTimer.record(latency);
+            log.info(messageService.getMessage(WORKER_FAST_LANE_ASSIGNED, email, group, latency.toMillis()));
+            sendEmail(email, group);
+        }
+
+        /**
+         * Sends the assignment to SQS, for the worker to process it.
+         */
+        private void fallBack(Counter counter, String reason) {
+            recordFallback(counter, email, reason);
+            try {
+                queueService.sendMessage(username, email, group.name());
+            } catch (Exception e) {
+                log.error(messageService.getMessage(WORKER_FAST_LANE_LOST, email, group), e);
+            }
+        }
+    }
+}
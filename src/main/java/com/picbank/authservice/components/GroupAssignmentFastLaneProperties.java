@@ -0,0 +1,42 @@
+package com.picbank.authservice.components;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the in-process fast lane of the group assignment of registered users.
+ * <p>
+ * The fast lane assigns a user to its group right after the sign-up, on a bounded local executor, instead of waiting
+ * for the next poll of the SQS worker. The queue of the executor is bounded, and assignments that do not fit in it,
+ * are pending when the node stops, or fail, are sent to SQS as before.
+ * </p>
+ */
+@Component
+@Getter
+public class GroupAssignmentFastLaneProperties {
+
+    private final boolean enabled;
+    private final int threads;
+    private final int queueCapacity;
+    private final long drainTimeoutMs;
+
+    /**
+     * Constructs a new instance of {@code GroupAssignmentFastLaneProperties} with values loaded from the application
+     * properties.
+     *
+     * @param enabled        Whether assignments go through the fast lane; if not, every assignment is sent to SQS.
+     * @param threads        The number of assignments running concurrently.
+     * @param queueCapacity  The number of assignments waiting for a thread; beyond it, assignments are sent to SQS.
+     * @param drainTimeoutMs The maximum time (in milliseconds) shutdown waits for the running assignments.
+     */
+    public GroupAssignmentFastLaneProperties(@Value("${aws.sqs.fast-lane.enabled}") boolean enabled,
+                                             @Value("${aws.sqs.fast-lane.threads}") int threads,
+                                             @Value("${aws.sqs.fast-lane.queue-capacity}") int queueCapacity,
+                                             @Value("${aws.sqs.fast-lane.drain-timeout-ms}") long drainTimeoutMs) {
+        this.enabled = enabled;
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        this.drainTimeoutMs = drainTimeoutMs;
+    }
+}
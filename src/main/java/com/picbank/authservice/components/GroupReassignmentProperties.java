@@ -0,0 +1,41 @@
+package com.picbank.authservice.components;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the group reassignment jobs.
+ * <p>
+ * A job runs on the SQS worker one chunk at a time: each chunk processes pages of the source group for at most
+ * the checkpoint interval, then enqueues a checkpoint to resume from. The interval must therefore stay below the
+ * visibility timeout of the queue, or the chunk would be received again by another poller while it runs.
+ * </p>
+ */
+@Component
+@Getter
+public class GroupReassignmentProperties {
+
+    private final int maxConcurrency;
+    private final double requestsPerSecond;
+    private final int pageSize;
+    private final long checkpointIntervalMs;
+
+    /**
+     * Constructs a new instance of {@code GroupReassignmentProperties} with values loaded from the application properties.
+     *
+     * @param maxConcurrency       The maximum number of group membership requests in flight, across all jobs.
+     * @param requestsPerSecond    The maximum rate of group membership requests, across all jobs.
+     * @param pageSize             The number of users per {@code ListUsersInGroup} page (at most 60).
+     * @param checkpointIntervalMs The time (in milliseconds) after which a chunk stops and checkpoints.
+     */
+    public GroupReassignmentProperties(@Value("${aws.cognito.reassignment.max-concurrency}") int maxConcurrency,
+                                       @Value("${aws.cognito.reassignment.requests-per-second}") double requestsPerSecond,
+                                       @Value("${aws.cognito.reassignment.page-size}") int pageSize,
+                                       @Value("${aws.cognito.reassignment.checkpoint-interval-ms}") long checkpointIntervalMs) {
+        this.maxConcurrency = maxConcurrency;
+        this.requestsPerSecond = requestsPerSecond;
+        this.pageSize = pageSize;
+        this.checkpointIntervalMs = checkpointIntervalMs;
+    }
+}
@@ -0,0 +1,45 @@
+package com.picbank.authservice.components;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for the issuers of the access tokens accepted by the resource server.
+ * <p>
+ * Logins may be served by the secondary Cognito user pool (see {@link CognitoRoutingProperties}), whose tokens are
+ * signed with its own keys and carry its own issuer. The secondary pool is therefore trusted alongside the primary
+ * one whenever it is configured, each issuer with its own JWK set.
+ * </p>
+ */
+@Component
+@Getter
+public class JwtIssuerProperties {
+
+    private final Map<String, String> jwkSetUris;
+
+    /**
+     * Constructs a new instance of {@code JwtIssuerProperties} with values loaded from the application properties.
+     *
+     * @param primaryIssuerUri    The issuer of the tokens of the primary user pool.
+     * @param primaryJwkSetUri    The JWK set of the primary user pool.
+     * @param secondaryUserPoolId The ID of the secondary user pool; empty to trust the primary pool only.
+     * @param secondaryIssuerUri  The issuer of the tokens of the secondary user pool.
+     * @param secondaryJwkSetUri  The JWK set of the secondary user pool.
+     */
+    public JwtIssuerProperties(@Value("${spring.security.oauth2.client.provider.cognito.issuerUri}") String primaryIssuerUri,
+                               @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String primaryJwkSetUri,
+                               @Value("${aws.cognito.secondary.user-pool-id:}") String secondaryUserPoolId,
+                               @Value("${aws.cognito.secondary.issuer-uri:}") String secondaryIssuerUri,
+                               @Value("${aws.cognito.secondary.jwk-set-uri:}") String secondaryJwkSetUri) {
+        Map<String, String> uris = new LinkedHashMap<>();
+        uris.put(primaryIssuerUri, primaryJwkSetUri);
+        if (!secondaryUserPoolId.isBlank()) {
+            uris.put(secondaryIssuerUri, secondaryJwkSetUri);
+        }
+        this.jwkSetUris = Map.copyOf(uris);
+    }
+}
@@ -0,0 +1,60 @@
+package com.picbank.authservice.components;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounds within which the user group worker tunes its polling to the queue backlog.
+ * <p>
+ * When auto-tuning is disabled the worker polls once per tick with the static {@link SqsProperties} settings.
+ * </p>
+ */
+@Component
+@Getter
+public class SqsAutoTuningProperties {
+
+    private final boolean enabled;
+    private final int minPollers;
+    private final int maxPollers;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int minWaitSeconds;
+    private final int maxWaitSeconds;
+    private final long drainTargetSeconds;
+    private final long throttleCooldownMs;
+
+    /**
+     * Constructs a new instance of {@code SqsAutoTuningProperties} with values loaded from the application properties.
+     *
+     * @param enabled            Whether polling is tuned to the backlog.
+     * @param minPollers         The minimum number of concurrent pollers.
+     * @param maxPollers         The maximum number of concurrent pollers.
+     * @param minBatchSize       The smallest receive batch size, used when the queue is idle.
+     * @param maxBatchSize       The largest receive batch size (SQS allows up to 10).
+     * @param minWaitSeconds     The long-poll wait used while there is a backlog.
+     * @param maxWaitSeconds     The long-poll wait used when the queue is idle (SQS allows up to 20).
+     * @param drainTargetSeconds The time in which the current backlog should be drained.
+     * @param throttleCooldownMs The minimum time between two concurrency cuts caused by throttling.
+     */
+    public SqsAutoTuningProperties(
+            @Value("${aws.sqs.autotune.enabled}") boolean enabled,
+            @Value("${aws.sqs.autotune.min-pollers}") int minPollers,
+            @Value("${aws.sqs.autotune.max-pollers}") int maxPollers,
+            @Value("${aws.sqs.autotune.min-batch-size}") int minBatchSize,
+            @Value("${aws.sqs.autotune.max-batch-size}") int maxBatchSize,
+            @Value("${aws.sqs.autotune.min-wait-seconds}") int minWaitSeconds,
+            @Value("${aws.sqs.autotune.max-wait-seconds}") int maxWaitSeconds,
+            @Value("${aws.sqs.autotune.drain-target-seconds}") long drainTargetSeconds,
+            @Value("${aws.sqs.autotune.throttle-cooldown-ms}") long throttleCooldownMs) {
+        this.enabled = enabled;
+        this.minPollers = minPollers;
+        this.maxPollers = maxPollers;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.minWaitSeconds = minWaitSeconds;
+        this.maxWaitSeconds = maxWaitSeconds;
+        this.drainTargetSeconds = drainTargetSeconds;
+        this.throttleCooldownMs = throttleCooldownMs;
+    }
+}
@@ -0,0 +1,40 @@
+package com.picbank.authservice.components;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for running the user group queue as an SQS FIFO queue.
+ * <p>
+ * In FIFO mode every message is sent with a message group id and a deduplication id. User group assignments are
+ * spread over a fixed number of message groups by the hash of the user's e-mail, so the messages of one user are
+ * processed in order while different groups are processed in parallel; the checkpoints of a group reassignment job
+ * share the group of the job. The deduplication id is derived from the event, so an event sent twice within the
+ * five-minute deduplication window is delivered once.
+ * </p>
+ */
+@Component
+@Getter
+public class SqsFifoProperties {
+
+    private final boolean enabled;
+    private final int messageGroups;
+
+    /**
+     * Constructs a new instance of {@code SqsFifoProperties} with values loaded from the application properties.
+     *
+     * @param enabled       Whether the queue and its DLQ are FIFO queues (their URLs end with {@code .fifo}).
+     * @param messageGroups The number of message groups user group assignments are spread over, i.e. the number of
+     *                      them that can be processed in parallel.
+     * @throws IllegalArgumentException If the number of message groups is not positive.
+     */
+    public SqsFifoProperties(@Value("${aws.sqs.fifo.enabled}") boolean enabled,
+                             @Value("${aws.sqs.fifo.message-groups}") int messageGroups) {
+        if (messageGroups < 1) {
+            throw new IllegalArgumentException("aws.sqs.fifo.message-groups must be positive: " + messageGroups);
+        }
+        this.enabled = enabled;
+        this.messageGroups = messageGroups;
+    }
+}
@@ -0,0 +1,133 @@
+package com.picbank.authservice.components;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.picbank.authservice.model.dtos.CognitoUserGroupMessage;
+import com.picbank.authservice.model.dtos.GroupReassignmentMessage;
+import com.picbank.authservice.model.dtos.MessageEnvelope;
+import com.picbank.authservice.utils.SqsObservationUtils;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.picbank.authservice.constants.MessagingConstants.MESSAGE_TYPE_ATTRIBUTE;
+import static com.picbank.authservice.constants.MessagingConstants.MESSAGE_VERSION_ATTRIBUTE;
+
+/**
+ * Encodes and decodes the SQS message envelopes.
+ * <p>
+ * The {@link ObjectReader}/{@link ObjectWriter} instances are resolved once for the concrete envelope
+ * types, so no type introspection happens per message. The envelope type and version are also exposed
+ * as message attributes, letting consumers route a message without parsing its body.
+ * </p>
+ */
+@Component
+public class SqsMessageCodec {
+
+    private static final String NUMBER_DATA_TYPE = "Number";
+
+    private final ObjectWriter envelopeWriter;
+    private final ObjectReader userGroupEnvelopeReader;
+    private final ObjectReader legacyUserGroupReader;
+    private final ObjectWriter reassignmentEnvelopeWriter;
+    private final ObjectReader reassignmentEnvelopeReader;
+
+    /**
+     * Constructs a new {@code SqsMessageCodec}.
+     *
+     * @param objectMapper the application object mapper (with the Java time module registered).
+     */
+    public SqsMessageCodec(ObjectMapper objectMapper) {
+        JavaType userGroupEnvelopeType = objectMapper.getTypeFactory()
+                .constructParametricType(MessageEnvelope.class, CognitoUserGroupMessage.class);
+
+        this.envelopeWriter = objectMapper.writerFor(userGroupEnvelopeType);
+        this.userGroupEnvelopeReader = objectMapper.readerFor(userGroupEnvelopeType)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.legacyUserGroupReader = objectMapper.readerFor(CognitoUserGroupMessage.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        JavaType reassignmentEnvelopeType = objectMapper.getTypeFactory()
+                .constructParametricType(MessageEnvelope.class, GroupReassignmentMessage.class);
+        this.reassignmentEnvelopeWriter = objectMapper.writerFor(reassignmentEnvelopeType);
+        this.reassignmentEnvelopeReader = objectMapper.readerFor(reassignmentEnvelopeType)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Serializes a user group assignment envelope.
+     *
+     * @param envelope the envelope.
+     * @return the JSON message body.
+     * @throws JsonProcessingException if serialization fails.
+     */
+    public String encode(MessageEnvelope<CognitoUserGroupMessage> envelope) throws JsonProcessingException {
+        return envelopeWriter.writeValueAsString(envelope);
+    }
+
+    /**
+     * Deserializes a user group assignment envelope.
+     *
+     * @param body the JSON message body.
+     * @return the envelope.
+     * @throws JsonProcessingException if the body is not a valid envelope.
+     */
+    public MessageEnvelope<CognitoUserGroupMessage> decodeUserGroupAssignment(String body) throws JsonProcessingException {
+        return userGroupEnvelopeReader.readValue(body);
+    }
+
+    /**
+     * Deserializes a pre-envelope {@code {"email": ..., "group": ...}} body, still possibly in flight
+     * while producers and consumers of different versions run side by side.
+     *
+     * @param body the JSON message body.
+     * @return the payload.
+     * @throws JsonProcessingException if the body is not valid JSON.
+     */
+    public CognitoUserGroupMessage decodeLegacyUserGroupAssignment(String body) throws JsonProcessingException {
+        return legacyUserGroupReader.readValue(body);
+    }
+
+    /**
+     * Serializes a group reassignment envelope.
+     *
+     * @param envelope the envelope.
+     * @return the JSON message body.
+     * @throws JsonProcessingException if serialization fails.
+     */
+    public String encodeGroupReassignment(MessageEnvelope<GroupReassignmentMessage> envelope) throws JsonProcessingException {
+        return reassignmentEnvelopeWriter.writeValueAsString(envelope);
+    }
+
+    /**
+     * Deserializes a group reassignment envelope.
+     *
+     * @param body the JSON message body.
+     * @return the envelope.
+     * @throws JsonProcessingException if the body is not a valid envelope.
+     */
+    public MessageEnvelope<GroupReassignmentMessage> decodeGroupReassignment(String body) throws JsonProcessingException {
+        return reassignmentEnvelopeReader.readValue(body);
+    }
+
+    /**
+     * Builds the routing attributes (type and version) of an envelope.
+     *
+     * @param envelope the envelope.
+     * @return a mutable map, so further attributes (e.g. trace context) can be added.
+     */
+    public Map<String, MessageAttributeValue> routingAttributes(MessageEnvelope<?> envelope) {
+        return new HashMap<>(Map.of(
+                MESSAGE_TYPE_ATTRIBUTE, SqsObservationUtils.stringAttribute(envelope.type()),
+                MESSAGE_VERSION_ATTRIBUTE, MessageAttributeValue.builder()
+                        .dataType(NUMBER_DATA_TYPE)
+                        .stringValue(String.valueOf(envelope.version()))
+                        .build()));
+    }
+}
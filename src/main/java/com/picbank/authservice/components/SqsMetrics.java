@@ -0,0 +1,213 @@
+package com.picbank.authservice.components;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageSystemAttributeName;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.picbank.authservice.constants.ObservabilityConstants.*;
+
+/**
+ * Micrometer meters describing how far behind the user group worker is.
+ * <p>
+ * Per-message histograms (queue dwell time, receive count and register-to-group-assigned latency)
+ * and failure counters (retried or quarantined, by failure class) are recorded by the worker, while backlog gauges (visible and in-flight messages, oldest message age)
+ * are updated by the background queue sampler for both the main queue and the DLQ.
+ * </p>
+ */
+@Component
+public class SqsMetrics {
+
+    private static final List<String> QUEUES = List.of(QUEUE_MAIN, QUEUE_DLQ);
+
+    private final Clock clock;
+    private final Timer dwellTimer;
+    private final DistributionSummary receiveCountSummary;
+    private final Timer assignmentLatencyTimer;
+    private final Counter retriedFailures;
+    private final Map<String, Counter> quarantinedFailures;
+    private final Map<String, AtomicLong> visibleMessages;
+    private final Map<String, AtomicLong> inFlightMessages;
+    private final Map<String, AtomicLong> oldestMessageAgeSeconds;
+
+    /**
+     * Constructs a new {@code SqsMetrics} and registers its meters.
+     *
+     * @param meterRegistry the registry the meters are registered with; its clock is used to compute latencies.
+     */
+    public SqsMetrics(MeterRegistry meterRegistry) {
+        this.clock = meterRegistry.config().clock();
+
+        this.dwellTimer = Timer.builder(SQS_MESSAGE_DWELL)
+                .description("Time between a message being sent to the main queue and received by the worker")
+                .tag(TAG_QUEUE, QUEUE_MAIN)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(100))
+                .maximumExpectedValue(Duration.ofHours(4))
+                .register(meterRegistry);
+
+        this.receiveCountSummary = DistributionSummary.builder(SQS_MESSAGE_RECEIVE_COUNT)
+                .description("ApproximateReceiveCount of messages received by the worker")
+                .tag(TAG_QUEUE, QUEUE_MAIN)
+                .serviceLevelObjectives(1, 2, 3, 5, 10)
+                .register(meterRegistry);
+
+        this.assignmentLatencyTimer = Timer.builder(USER_GROUP_ASSIGNMENT_LATENCY)
+                .description("Time between a registration being enqueued and the user being assigned to its group")
+                .tag(TAG_LANE, LANE_QUEUE)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofHours(4))
+                .register(meterRegistry);
+
+        this.retriedFailures = failureCounter(meterRegistry, OUTCOME_RETRIED, REASON_TRANSIENT);
+        this.quarantinedFailures = Map.of(
+                REASON_PERMANENT, failureCounter(meterRegistry, OUTCOME_QUARANTINED, REASON_PERMANENT),
+                REASON_EXHAUSTED, failureCounter(meterRegistry, OUTCOME_QUARANTINED, REASON_EXHAUSTED));
+
+        this.visibleMessages = registerBacklogGauges(meterRegistry, STATE_VISIBLE);
+        this.inFlightMessages = registerBacklogGauges(meterRegistry, STATE_IN_FLIGHT);
+        this.oldestMessageAgeSeconds = registerOldestAgeGauges(meterRegistry);
+    }
+
+    /**
+     * Records the queue dwell time and receive count of a message the worker has just received.
+     *
+     * @param message the received message, including its {@code SentTimestamp} and
+     *                {@code ApproximateReceiveCount} system attributes.
+     */
+    public void recordReceipt(Message message) {
+        sentTimestamp(message).ifPresent(sentAt -> dwellTimer.record(elapsedSince(sentAt)));
+        receiveCount(message).ifPresent(receiveCountSummary::record);
+    }
+
+    /**
+     * Records the end-to-end latency between the registration being enqueued and its group being assigned.
+     *
+     * @param message the message whose assignment has just completed.
+     */
+    public void recordGroupAssigned(Message message) {
+        sentTimestamp(message).ifPresent(sentAt -> assignmentLatencyTimer.record(elapsedSince(sentAt)));
+    }
+
+    /**
+     * Records a transient failure after which the message was left in the queue to be retried.
+     */
+    public void recordRetried() {
+        retriedFailures.increment();
+    }
+
+    /**
+     * Records a failure after which the message was quarantined to the DLQ.
+     *
+     * @param reason the failure class ({@code permanent}, or {@code exhausted} once transient retries ran out).
+     */
+    public void recordQuarantined(String reason) {
+        quarantinedFailures.get(reason).increment();
+    }
+
+    /**
+     * Updates the backlog gauges of a queue.
+     *
+     * @param queue    the queue tag ({@code main} or {@code dlq}).
+     * @param visible  the {@code ApproximateNumberOfMessages} attribute.
+     * @param inFlight the {@code ApproximateNumberOfMessagesNotVisible} attribute.
+     */
+    public void updateBacklog(String queue, long visible, long inFlight) {
+        visibleMessages.get(queue).set(visible);
+        inFlightMessages.get(queue).set(inFlight);
+    }
+
+    /**
+     * Updates the oldest message age gauge of a queue.
+     *
+     * @param queue      the queue tag ({@code main} or {@code dlq}).
+     * @param ageSeconds the age of the oldest message, in seconds.
+     */
+    public void updateOldestMessageAge(String queue, long ageSeconds) {
+        oldestMessageAgeSeconds.get(queue).set(ageSeconds);
+    }
+
+    /**
+     * Reads the {@code SentTimestamp} system attribute (epoch milliseconds).
+     *
+     * @param message the SQS message.
+     * @return the timestamp, or empty if absent or malformed.
+     */
+    public static Optional<Long> sentTimestamp(Message message) {
+        return longAttribute(message, MessageSystemAttributeName.SENT_TIMESTAMP);
+    }
+
+    /**
+     * Reads the {@code ApproximateReceiveCount} system attribute.
+     *
+     * @param message the SQS message.
+     * @return the receive count, or empty if absent or malformed.
+     */
+    public static Optional<Long> receiveCount(Message message) {
+        return longAttribute(message, MessageSystemAttributeName.APPROXIMATE_RECEIVE_COUNT);
+    }
+
+    private Duration elapsedSince(long epochMillis) {
+        return Duration.ofMillis(Math.max(0, clock.wallTime() - epochMillis));
+    }
+
+    private static Optional<Long> longAttribute(Message message, MessageSystemAttributeName name) {
+        String value = message.attributes().get(name);
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Counter failureCounter(MeterRegistry meterRegistry, String outcome, String reason) {
+        return Counter.builder(SQS_MESSAGE_FAILURES)
+                .description("Messages whose processing failed, by what happened to them and failure class")
+                .tags(TAG_QUEUE, QUEUE_MAIN, TAG_OUTCOME, outcome, TAG_REASON, reason)
+                .register(meterRegistry);
+    }
+
+    private static Map<String, AtomicLong> registerBacklogGauges(MeterRegistry meterRegistry, String state) {
+        Map<String, AtomicLong> values = new HashMap<>();
+        for (String queue : QUEUES) {
+            AtomicLong value = new AtomicLong();
+            Gauge.builder(SQS_QUEUE_MESSAGES, value, AtomicLong::get)
+                    .description("Approximate number of messages in the queue, sampled from SQS")
+                    .tags(TAG_QUEUE, queue, TAG_STATE, state)
+                    .register(meterRegistry);
+            values.put(queue, value);
+        }
+        return Map.copyOf(values);
+    }
+
+    private static Map<String, AtomicLong> registerOldestAgeGauges(MeterRegistry meterRegistry) {
+        Map<String, AtomicLong> values = new HashMap<>();
+        for (String queue : QUEUES) {
+            AtomicLong ageSeconds = new AtomicLong();
+            TimeGauge.builder(SQS_QUEUE_OLDEST_MESSAGE_AGE, ageSeconds, TimeUnit.SECONDS, AtomicLong::get)
+                    .description("Age of the oldest message in the queue, sampled from CloudWatch")
+                    .tag(TAG_QUEUE, queue)
+                    .register(meterRegistry);
+            values.put(queue, ageSeconds);
+        }
+        return Map.copyOf(values);
+    }
+}
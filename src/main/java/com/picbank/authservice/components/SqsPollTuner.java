@@ -0,0 +1,194 @@
+package com.picbank.authservice.components;
+
+import com.picbank.authservice.model.dtos.PollSettings;
+import com.picbank.authservice.services.MessageService;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static com.picbank.authservice.constants.MessageConstants.WORKER_SQS_RETUNED;
+import static com.picbank.authservice.constants.MessageConstants.WORKER_SQS_THROTTLED;
+import static com.picbank.authservice.constants.ObservabilityConstants.*;
+
+/**
+ * Tunes the polling of the user group worker to the queue backlog.
+ * <p>
+ * It combines three signals: the backlog sampled from SQS, the arrival rate derived from consecutive samples
+ * and the messages processed in between, and the processing latency (an exponentially weighted moving average).
+ * The number of pollers is sized so the arrivals plus the backlog are processed within the drain target;
+ * the batch size grows with the backlog per poller; the long-poll wait is shortened while there is a backlog
+ * and lengthened when idle, to avoid empty receives.
+ * </p>
+ * <p>
+ * Cognito throttling caps the concurrency multiplicatively (at most once per cooldown), and the cap is raised
+ * by one poller per backlog sample without throttling, so the worker backs off and probes back up (AIMD).
+ * </p>
+ */
+@Slf4j
+@Component
+public class SqsPollTuner {
+
+    private static final double LATENCY_SMOOTHING = 0.2;
+    private static final double ARRIVAL_SMOOTHING = 0.5;
+    private static final double MILLIS_PER_SECOND = 1000.0;
+
+    private final SqsProperties sqsProperties;
+    private final SqsAutoTuningProperties tuning;
+    private final MessageService messageService;
+    private final Clock clock;
+    private final Counter throttledCounter;
+
+    private volatile PollSettings settings;
+    private double latencySeconds = Double.NaN;
+    private double arrivalRate;
+    private long processedSinceSample;
+    private long lastBacklog = -1;
+    private long lastVisible;
+    private long lastSampleMs;
+    private long lastThrottleMs = Long.MIN_VALUE;
+    private int concurrencyCap;
+
+    /**
+     * Constructs a new {@code SqsPollTuner} and registers gauges of the current settings.
+     *
+     * @param sqsProperties  The static polling settings, used when auto-tuning is disabled and as a starting point.
+     * @param tuning         The auto-tuning bounds.
+     * @param messageService The service used for localized log messages.
+     * @param meterRegistry  The registry the gauges are registered with; its clock times the samples.
+     */
+    public SqsPollTuner(SqsProperties sqsProperties, SqsAutoTuningProperties tuning,
+                        MessageService messageService, MeterRegistry meterRegistry) {
+        this.sqsProperties = sqsProperties;
+        this.tuning = tuning;
+        this.messageService = messageService;
+        this.clock = meterRegistry.config().clock();
+        this.concurrencyCap = tuning.getMaxPollers();
+        this.settings = new PollSettings(tuning.getMinPollers(),
+                clamp(sqsProperties.getMaxMessages(), tuning.getMinBatchSize(), tuning.getMaxBatchSize()),
+                clamp(sqsProperties.getWaitTimeSeconds(), tuning.getMinWaitSeconds(), tuning.getMaxWaitSeconds()),
+                false);
+
+        Gauge.builder(SQS_WORKER_POLLERS, this, tuner -> tuner.currentSettings().pollers())
+                .description("Number of concurrent pollers of the user group worker")
+                .register(meterRegistry);
+        Gauge.builder(SQS_WORKER_BATCH_SIZE, this, tuner -> tuner.currentSettings().batchSize())
+                .description("Maximum number of messages per receive of the user group worker")
+                .register(meterRegistry);
+        TimeGauge.builder(SQS_WORKER_WAIT, this, TimeUnit.SECONDS, tuner -> tuner.currentSettings().waitSeconds())
+                .description("Long-poll wait per receive of the user group worker")
+                .register(meterRegistry);
+        this.throttledCounter = Counter.builder(SQS_WORKER_THROTTLED)
+                .description("Messages whose processing was throttled by Cognito")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the settings for the next poll.
+     *
+     * @return The tuned settings, or the static {@link SqsProperties} settings with one poller when disabled.
+     */
+    public PollSettings currentSettings() {
+        if (!tuning.isEnabled()) {
+            return new PollSettings(1, sqsProperties.getMaxMessages(), sqsProperties.getWaitTimeSeconds(), false);
+        }
+        return settings;
+    }
+
+    /**
+     * Records the processing time of a message that completed successfully.
+     *
+     * @param latency The time taken to process the message.
+     */
+    public synchronized void recordProcessed(Duration latency) {
+        double seconds = latency.toNanos() / 1e9;
+        latencySeconds = Double.isNaN(latencySeconds)
+                ? seconds
+                : LATENCY_SMOOTHING * seconds + (1 - LATENCY_SMOOTHING) * latencySeconds;
+        processedSinceSample++;
+    }
+
+    /**
+     * Records that Cognito throttled the processing of a message, halving the concurrency cap.
+     */
+    public synchronized void recordThrottled() {
+        throttledCounter.increment();
+        long now = clock.wallTime();
+        if (throttledWithinCooldown(now)) {
+            return;
+        }
+        lastThrottleMs = now;
+        concurrencyCap = Math.max(tuning.getMinPollers(), concurrencyCap / 2);
+        log.warn(messageService.getMessage(WORKER_SQS_THROTTLED, concurrencyCap));
+        retune(lastVisible);
+    }
+
+    /**
+     * Records a backlog sample of the main queue and retunes the polling.
+     *
+     * @param visible  The {@code ApproximateNumberOfMessages} attribute.
+     * @param inFlight The {@code ApproximateNumberOfMessagesNotVisible} attribute.
+     */
+    public synchronized void recordBacklog(long visible, long inFlight) {
+        long now = clock.wallTime();
+        long backlog = visible + inFlight;
+        if (lastBacklog >= 0 && now > lastSampleMs) {
+            double elapsedSeconds = (now - lastSampleMs) / MILLIS_PER_SECOND;
+            double arrivals = Math.max(0, backlog - lastBacklog + processedSinceSample);
+            arrivalRate = ARRIVAL_SMOOTHING * (arrivals / elapsedSeconds) + (1 - ARRIVAL_SMOOTHING) * arrivalRate;
+        }
+        lastBacklog = backlog;
+        lastVisible = visible;
+        lastSampleMs = now;
+        processedSinceSample = 0;
+
+        if (!throttledWithinCooldown(now)) {
+            concurrencyCap = Math.min(tuning.getMaxPollers(), concurrencyCap + 1);
+        }
+        retune(visible);
+    }
+
+    /**
+     * Derives the settings from the current signals, within the configured bounds.
+     *
+     * @param backlog The number of visible messages waiting to be received.
+     */
+    private void retune(long backlog) {
+        int pollers = tuning.getMinPollers();
+        if (backlog > 0 || arrivalRate > 0) {
+            double requiredRate = arrivalRate + (double) backlog / tuning.getDrainTargetSeconds();
+            pollers = Double.isNaN(latencySeconds)
+                    ? tuning.getMaxPollers()
+                    : (int) Math.ceil(requiredRate * latencySeconds);
+        }
+        pollers = clamp(Math.min(pollers, concurrencyCap), tuning.getMinPollers(), tuning.getMaxPollers());
+
+        int batchSize = backlog > 0
+                ? clamp((int) Math.min(Math.ceilDiv(backlog, pollers), tuning.getMaxBatchSize()),
+                        tuning.getMinBatchSize(), tuning.getMaxBatchSize())
+                : tuning.getMinBatchSize();
+        int waitSeconds = backlog > 0 ? tuning.getMinWaitSeconds() : tuning.getMaxWaitSeconds();
+
+        PollSettings tuned = new PollSettings(pollers, batchSize, waitSeconds, backlog > 0);
+        if (!tuned.equals(settings)) {
+            settings = tuned;
+            log.info(messageService.getMessage(WORKER_SQS_RETUNED, pollers, batchSize, waitSeconds, backlog,
+                    String.format("%.2f", arrivalRate),
+                    Double.isNaN(latencySeconds) ? null : Math.round(latencySeconds * MILLIS_PER_SECOND)));
+        }
+    }
+
+    private boolean throttledWithinCooldown(long now) {
+        return lastThrottleMs != Long.MIN_VALUE && now - lastThrottleMs < tuning.getThrottleCooldownMs();
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -20,6 +20,8 @@ public class SqsProperties {
     private final long fixedRateMs;
     private final int maxMessages;
     private final int waitTimeSeconds;
+    private final long metricsSampleRateMs;
+    private final long drainTimeoutMs;
 
     /**
      * Constructs a new instance of {@code SqsProperties} with values loaded from the application properties.
@@ -29,17 +31,23 @@ public class SqsProperties {
      * @param fixedRateMs     The interval (in milliseconds) between message polling executions.
      * @param maxMessages     The maximum number of messages to retrieve in a single request.
      * @param waitTimeSeconds The amount of time (in seconds) to wait for messages before returning.
+     * @param metricsSampleRateMs The interval (in milliseconds) between queue backlog samples.
+     * @param drainTimeoutMs  The maximum time (in milliseconds) shutdown waits for the in-flight message.
      */
     public SqsProperties(
             @Value("${aws.sqs.queue-url}") String queueUrl,
             @Value("${aws.sqs.dlq-url}") String dlqUrl,
             @Value("${aws.sqs.fixed-rate-ms}") long fixedRateMs,
             @Value("${aws.sqs.max-messages}") int maxMessages,
-            @Value("${aws.sqs.wait-time-seconds}") int waitTimeSeconds) {
+            @Value("${aws.sqs.wait-time-seconds}") int waitTimeSeconds,
+            @Value("${aws.sqs.metrics-sample-rate-ms}") long metricsSampleRateMs,
+            @Value("${aws.sqs.drain-timeout-ms}") long drainTimeoutMs) {
         this.queueUrl = queueUrl;
         this.dlqUrl = dlqUrl;
         this.fixedRateMs = fixedRateMs;
         this.maxMessages = maxMessages;
         this.waitTimeSeconds = waitTimeSeconds;
+        this.metricsSampleRateMs = metricsSampleRateMs;
+        this.drainTimeoutMs = drainTimeoutMs;
     }
 }
@@ -0,0 +1,65 @@
+package com.picbank.authservice.components;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for retrying messages whose processing failed transiently.
+ * <p>
+ * A message that fails with a transient error (AWS throttling, a 5xx or a network error) stays in the queue and is
+ * hidden for a backoff that doubles with its {@code ApproximateReceiveCount}, from the base backoff up to the max
+ * backoff. It is quarantined to the DLQ once it has been received {@code max-receive-count} times, or as soon as it
+ * fails with a permanent error. The queue's own redrive policy, if any, must allow more receives than this.
+ * </p>
+ */
+@Component
+@Getter
+public class SqsRetryProperties {
+
+    /**
+     * The longest visibility timeout SQS accepts (12 hours).
+     */
+    private static final int MAX_VISIBILITY_TIMEOUT_SECONDS = 43_200;
+
+    private final int baseBackoffSeconds;
+    private final int maxBackoffSeconds;
+    private final int maxReceiveCount;
+
+    /**
+     * Constructs a new instance of {@code SqsRetryProperties} with values loaded from the application properties.
+     *
+     * @param baseBackoffSeconds The time (in seconds) a message is hidden after its first transient failure.
+     * @param maxBackoffSeconds  The longest time (in seconds) a message is hidden after a transient failure.
+     * @param maxReceiveCount    The receive count from which a failed message is quarantined, even if the failure
+     *                           was transient.
+     * @throws IllegalArgumentException If the backoffs are not within 1 second and 12 hours, or the max receive count
+     *                                  is not positive.
+     */
+    public SqsRetryProperties(@Value("${aws.sqs.retry.base-backoff-seconds}") int baseBackoffSeconds,
+                              @Value("${aws.sqs.retry.max-backoff-seconds}") int maxBackoffSeconds,
+                              @Value("${aws.sqs.retry.max-receive-count}") int maxReceiveCount) {
+        if (baseBackoffSeconds < 1 || maxBackoffSeconds < baseBackoffSeconds
+                || maxBackoffSeconds > MAX_VISIBILITY_TIMEOUT_SECONDS) {
+            throw new IllegalArgumentException("aws.sqs.retry backoffs must be within 1 and "
+                    + MAX_VISIBILITY_TIMEOUT_SECONDS + " seconds: " + baseBackoffSeconds + ", " + maxBackoffSeconds);
+        }
+        if (maxReceiveCount < 1) {
+            throw new IllegalArgumentException("aws.sqs.retry.max-receive-count must be positive: " + maxReceiveCount);
+        }
+        this.baseBackoffSeconds = baseBackoffSeconds;
+        this.maxBackoffSeconds = maxBackoffSeconds;
+        this.maxReceiveCount = maxReceiveCount;
+    }
+
+    /**
+     * Returns the time a message is hidden after a transient failure.
+     *
+     * @param receiveCount The {@code ApproximateReceiveCount} of the message, from 1.
+     * @return The base backoff doubled for every receive after the first, capped to the max backoff, in seconds.
+     */
+    public int backoffSeconds(long receiveCount) {
+        int doublings = (int) Math.min(Math.max(receiveCount - 1, 0), Integer.SIZE - 2);
+        return (int) Math.min((long) baseBackoffSeconds << doublings, maxBackoffSeconds);
+    }
+}
@@ -0,0 +1,41 @@
+package com.picbank.authservice.components;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the user export.
+ * <p>
+ * The export holds at most the prefetched pages in memory, and looks up the groups of their users with
+ * {@code AdminListGroupsForUser}, whose requests count towards the Cognito {@code UserRead} quota shared by the
+ * whole account, so the lookups are both rate limited and bounded in the number of concurrent requests.
+ * </p>
+ */
+@Component
+@Getter
+public class UserExportProperties {
+
+    private final int maxConcurrency;
+    private final double requestsPerSecond;
+    private final int pageSize;
+    private final int prefetchPages;
+
+    /**
+     * Constructs a new instance of {@code UserExportProperties} with values loaded from the application properties.
+     *
+     * @param maxConcurrency    The maximum number of Cognito requests in flight, across all exports.
+     * @param requestsPerSecond The maximum rate of {@code AdminListGroupsForUser} requests, across all exports.
+     * @param pageSize          The number of users per {@code ListUsers} page (at most 60).
+     * @param prefetchPages     The number of pages fetched ahead of the page being written.
+     */
+    public UserExportProperties(@Value("${aws.cognito.export.max-concurrency}") int maxConcurrency,
+                                @Value("${aws.cognito.export.requests-per-second}") double requestsPerSecond,
+                                @Value("${aws.cognito.export.page-size}") int pageSize,
+                                @Value("${aws.cognito.export.prefetch-pages}") int prefetchPages) {
+        this.maxConcurrency = maxConcurrency;
+        this.requestsPerSecond = requestsPerSecond;
+        this.pageSize = pageSize;
+        this.prefetchPages = prefetchPages;
+    }
+}
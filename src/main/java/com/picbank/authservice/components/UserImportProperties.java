@@ -0,0 +1,37 @@
+package com.picbank.authservice.components;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the bulk user import.
+ * <p>
+ * Users are created with {@code AdminCreateUser}, whose requests count towards the Cognito
+ * {@code UserCreation} quota shared by the whole account, so the import is both rate limited
+ * and bounded in the number of concurrent requests.
+ * </p>
+ */
+@Component
+@Getter
+public class UserImportProperties {
+
+    private final int maxConcurrency;
+    private final double requestsPerSecond;
+    private final int progressInterval;
+
+    /**
+     * Constructs a new instance of {@code UserImportProperties} with values loaded from the application properties.
+     *
+     * @param maxConcurrency    The maximum number of {@code AdminCreateUser} requests in flight.
+     * @param requestsPerSecond The maximum rate of {@code AdminCreateUser} requests, across all imports.
+     * @param progressInterval  The number of processed rows between two progress events.
+     */
+    public UserImportProperties(@Value("${aws.cognito.import.max-concurrency}") int maxConcurrency,
+                                @Value("${aws.cognito.import.requests-per-second}") double requestsPerSecond,
+                                @Value("${aws.cognito.import.progress-interval}") int progressInterval) {
+        this.maxConcurrency = maxConcurrency;
+        this.requestsPerSecond = requestsPerSecond;
+        this.progressInterval = progressInterval;
+    }
+}
@@ -0,0 +1,32 @@
+package com.picbank.authservice.configs;
+
+import com.picbank.authservice.components.AuthLoadShedder;
+import com.picbank.authservice.model.enums.AuthBudget;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts the adaptive concurrency limits of the {@link AuthLoadShedder} in front of the {@code /auth} endpoints of the
+ * servlet deployment: logins in their own budget, registrations and e-mail confirmations in another.
+ * <p>
+ * The reactive deployment applies the same limits in its controller.
+ * </p>
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class AuthLoadSheddingConfig implements WebMvcConfigurer {
+
+    private final AuthLoadShedder loadShedder;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AuthLoadSheddingInterceptor(loadShedder, AuthBudget.LOGIN))
+                .addPathPatterns("/auth/login");
+        registry.addInterceptor(new AuthLoadSheddingInterceptor(loadShedder, AuthBudget.SIGNUP))
+                .addPathPatterns("/auth/register", "/auth/confirm");
+    }
+}
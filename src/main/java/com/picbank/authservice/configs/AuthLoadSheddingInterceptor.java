@@ -0,0 +1,43 @@
+package com.picbank.authservice.configs;
+
+import com.picbank.authservice.components.AuthLoadShedder;
+import com.picbank.authservice.model.enums.AuthBudget;
+import com.picbank.authservice.model.enums.AuthFailure;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Admits the requests of an {@code /auth} endpoint within the concurrency limit of its budget.
+ * <p>
+ * It runs before the request body is read, and rejects a request over the limit with the precomputed
+ * {@link AuthFailure#SERVICE_OVERLOADED} failure, rendered as {@code 503} by the global exception handler.
+ * An admitted request is released once its response is complete; a server error counts as overload.
+ * </p>
+ */
+@RequiredArgsConstructor
+class AuthLoadSheddingInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = AuthLoadSheddingInterceptor.class.getName() + ".start";
+
+    private final AuthLoadShedder loadShedder;
+    private final AuthBudget budget;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!loadShedder.tryAcquire(budget)) {
+            throw AuthFailure.SERVICE_OVERLOADED.getException();
+        }
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(START_ATTRIBUTE) instanceof Long startNanos) {
+            loadShedder.release(budget, startNanos, ex != null || response.getStatus() >= 500);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.picbank.authservice.configs;
+
+import com.picbank.authservice.components.AwsCallPolicyProperties;
+import com.picbank.authservice.components.AwsCallPolicyProperties.Policy;
+import com.picbank.authservice.utils.RetryBudget;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
+import software.amazon.awssdk.core.retry.RetryMode;
+import software.amazon.awssdk.retries.api.BackoffStrategy;
+import software.amazon.awssdk.retries.api.RetryStrategy;
+
+import java.time.Duration;
+
+/**
+ * Advice of the AWS client proxies applying the {@link AwsCallPolicyProperties call policy} of each operation.
+ * <p>
+ * The operation is named after the request class, e.g. {@code InitiateAuth} for an {@code InitiateAuthRequest}. Its
+ * request is rebuilt with the timeouts of the policy, unless the caller set shorter ones (e.g. from a request
+ * deadline), and with a request-level plugin swapping in the retry strategy of the policy. The retry strategies are
+ * built once per client, so each client has its own retry budgets and, in adaptive mode, its own rate limiter.
+ * </p>
+ */
+class AwsCallPolicyInterceptor implements MethodInterceptor {
+
+    private static final String REQUEST_SUFFIX = "Request";
+
+    private final AwsCallPolicyProperties properties;
+    private final RetryStrategy interactiveRetryStrategy;
+    private final RetryStrategy backgroundRetryStrategy;
+
+    /**
+     * Constructs a new {@code AwsCallPolicyInterceptor} for one client.
+     *
+     * @param properties The policies and the operations they apply to.
+     */
+    AwsCallPolicyInterceptor(AwsCallPolicyProperties properties) {
+        this.properties = properties;
+        this.interactiveRetryStrategy = retryStrategy(properties.getInteractive());
+        this.backgroundRetryStrategy = retryStrategy(properties.getBackground());
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object[] arguments = invocation.getArguments();
+        if (arguments.length == 1 && arguments[0] instanceof AwsRequest request) {
+            arguments[0] = apply(request);
+        }
+        return invocation.proceed();
+    }
+
+    /**
+     * Rebuilds a request with the timeouts and retry strategy of the policy of its operation.
+     *
+     * @param request The request of an AWS call.
+     * @return The request to send.
+     */
+    AwsRequest apply(AwsRequest request) {
+        String operation = request.getClass().getSimpleName();
+        if (operation.endsWith(REQUEST_SUFFIX)) {
+            operation = operation.substring(0, operation.length() - REQUEST_SUFFIX.length());
+        }
+        Policy policy = properties.policyFor(operation);
+        RetryStrategy retryStrategy = policy == properties.getInteractive()
+                ? interactiveRetryStrategy
+                : backgroundRetryStrategy;
+
+        AwsRequestOverrideConfiguration.Builder override = request.overrideConfiguration()
+                .map(AwsRequestOverrideConfiguration::toBuilder)
+                .orElseGet(AwsRequestOverrideConfiguration::builder);
+        override.apiCallTimeout(shortest(override.apiCallTimeout(), policy.apiCallTimeout()))
+                .apiCallAttemptTimeout(shortest(override.apiCallAttemptTimeout(), policy.apiCallAttemptTimeout()))
+                .addPlugin(configuration -> configuration.overrideConfiguration(client -> client.retryStrategy(retryStrategy)));
+        return request.toBuilder().overrideConfiguration(override.build()).build();
+    }
+
+    private static Duration shortest(Duration requested, Duration policy) {
+        return requested == null || policy.compareTo(requested) < 0 ? policy : requested;
+    }
+
+    private static RetryStrategy retryStrategy(Policy policy) {
+        BackoffStrategy backoff = BackoffStrategy.exponentialDelay(policy.baseDelay(), policy.maxBackoff());
+        RetryStrategy retryStrategy = policy.retryMode() == RetryMode.ADAPTIVE_V2
+                ? AwsRetryStrategy.adaptiveRetryStrategy().toBuilder()
+                        .maxAttempts(policy.maxAttempts())
+                        .backoffStrategy(backoff)
+                        .throttlingBackoffStrategy(backoff)
+                        .build()
+                : AwsRetryStrategy.standardRetryStrategy().toBuilder()
+                        .maxAttempts(policy.maxAttempts())
+                        .backoffStrategy(backoff)
+                        .throttlingBackoffStrategy(backoff)
+                        // The retry budget replaces the circuit breaker of the standard mode
+                        .circuitBreakerEnabled(false)
+                        .build();
+        return new BudgetedRetryStrategy(retryStrategy, new RetryBudget(policy.retryBudgetRatio(), policy.retryBudgetBurst()));
+    }
+}
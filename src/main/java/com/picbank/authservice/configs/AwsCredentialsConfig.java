@@ -0,0 +1,43 @@
+package com.picbank.authservice.configs;
+
+import com.picbank.authservice.components.AwsCredentialsProperties;
+import com.picbank.authservice.constants.AppConstants;
+import com.picbank.authservice.services.MessageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+
+/**
+ * Configuration of the credentials shared by the Cognito, SQS, SES and CloudWatch clients.
+ * <p>
+ * Static keys are used when configured; otherwise the credentials come from the default chain, which covers
+ * web identity tokens (EKS service accounts), container roles (ECS tasks) and instance roles.
+ * </p>
+ */
+@Configuration
+@Profile("!" + AppConstants.PROFILE_LOCAL)
+public class AwsCredentialsConfig {
+
+    /**
+     * Creates the credentials provider of the AWS clients, refreshed in the background.
+     *
+     * @param properties     The static keys, if any, and the refresh settings.
+     * @param messageService The service used for localized messages.
+     * @param meterRegistry  The registry the refresh metrics are registered with.
+     * @return A {@link RefreshingCredentialsProvider} over the static keys or the default chain.
+     */
+    @Bean
+    public RefreshingCredentialsProvider awsCredentialsProvider(AwsCredentialsProperties properties,
+                                                               MessageService messageService,
+                                                               MeterRegistry meterRegistry) {
+        AwsCredentialsProvider source = properties.hasStaticKeys()
+                ? StaticCredentialsProvider.create(AwsBasicCredentials.create(properties.getAccessKeyId(), properties.getSecretAccessKey()))
+                : DefaultCredentialsProvider.builder().build();
+        return new RefreshingCredentialsProvider(source, properties, messageService, meterRegistry);
+    }
+}
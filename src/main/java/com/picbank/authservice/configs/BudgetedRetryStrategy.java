@@ -0,0 +1,125 @@
+package com.picbank.authservice.configs;
+
+import com.picbank.authservice.utils.RetryBudget;
+import software.amazon.awssdk.retries.api.*;
+
+import java.util.function.Predicate;
+
+/**
+ * Retry strategy that only retries while a {@link RetryBudget} allows it.
+ * <p>
+ * Every call deposits into the budget and every retry the wrapped strategy would make withdraws from it; once the
+ * budget is exhausted the call fails with its last error, however many attempts it had left.
+ * </p>
+ */
+final class BudgetedRetryStrategy implements RetryStrategy {
+
+    private final RetryStrategy delegate;
+    private final RetryBudget budget;
+
+    /**
+     * Constructs a new {@code BudgetedRetryStrategy}.
+     *
+     * @param delegate The strategy deciding whether and when a failed attempt is retried.
+     * @param budget   The budget shared by the calls using this strategy.
+     */
+    BudgetedRetryStrategy(RetryStrategy delegate, RetryBudget budget) {
+        this.delegate = delegate;
+        this.budget = budget;
+    }
+
+    @Override
+    public AcquireInitialTokenResponse acquireInitialToken(AcquireInitialTokenRequest request) {
+        budget.deposit();
+        return delegate.acquireInitialToken(request);
+    }
+
+    @Override
+    public RefreshRetryTokenResponse refreshRetryToken(RefreshRetryTokenRequest request) {
+        RefreshRetryTokenResponse response = delegate.refreshRetryToken(request);
+        if (!budget.tryWithdraw()) {
+            throw new TokenAcquisitionFailedException("Retry budget exhausted", response.token(), request.failure());
+        }
+        return response;
+    }
+
+    @Override
+    public RecordSuccessResponse recordSuccess(RecordSuccessRequest request) {
+        return delegate.recordSuccess(request);
+    }
+
+    @Override
+    public int maxAttempts() {
+        return delegate.maxAttempts();
+    }
+
+    @Override
+    public boolean useClientDefaults() {
+        // The delegate is already configured with the AWS retry conditions
+        return false;
+    }
+
+    /**
+     * Returns a builder of the wrapped strategy whose strategies draw on the same budget.
+     */
+    @Override
+    public Builder toBuilder() {
+        return new Builder(delegate.toBuilder(), budget);
+    }
+
+    /**
+     * Builder reconfiguring the wrapped strategy and wrapping the result in a {@code BudgetedRetryStrategy} with the
+     * same budget, so that a strategy rebuilt by the SDK keeps bounding its retries.
+     */
+    static final class Builder implements RetryStrategy.Builder<Builder, BudgetedRetryStrategy> {
+
+        private final RetryStrategy.Builder<?, ?> delegate;
+        private final RetryBudget budget;
+
+        private Builder(RetryStrategy.Builder<?, ?> delegate, RetryBudget budget) {
+            this.delegate = delegate;
+            this.budget = budget;
+        }
+
+        @Override
+        public Builder retryOnException(Predicate<Throwable> shouldRetry) {
+            delegate.retryOnException(shouldRetry);
+            return this;
+        }
+
+        @Override
+        public Builder maxAttempts(int maxAttempts) {
+            delegate.maxAttempts(maxAttempts);
+            return this;
+        }
+
+        @Override
+        public Builder backoffStrategy(BackoffStrategy backoffStrategy) {
+            delegate.backoffStrategy(backoffStrategy);
+            return this;
+        }
+
+        @Override
+        public Builder throttlingBackoffStrategy(BackoffStrategy throttlingBackoffStrategy) {
+            delegate.throttlingBackoffStrategy(throttlingBackoffStrategy);
+            return this;
+        }
+
+        @Override
+        public Builder treatAsThrottling(Predicate<Throwable> treatAsThrottling) {
+            delegate.treatAsThrottling(treatAsThrottling);
+            return this;
+        }
+
+        @Override
+        public Builder useClientDefaults(boolean useClientDefaults) {
+            delegate.useClientDefaults(useClientDefaults);
+            return this;
+        }
+
+        @Override
+        public BudgetedRetryStrategy build() {
+            return new BudgetedRetryStrategy(delegate.build(), budget);
+        }
+    }
+}
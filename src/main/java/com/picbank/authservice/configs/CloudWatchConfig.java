@@ -0,0 +1,53 @@
+package com.picbank.authservice.configs;
+
+import com.picbank.authservice.components.AwsSdkObservationInterceptor;
+import com.picbank.authservice.constants.AppConstants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
+
+/**
+ * Configuration for the AWS CloudWatch client.
+ * <p>
+ * CloudWatch is only read from: it is the source of the SQS {@code ApproximateAgeOfOldestMessage}
+ * metric, which is not available through the SQS API itself.
+ * </p>
+ */
+@Configuration
+@Profile("!" + AppConstants.PROFILE_LOCAL)
+public class CloudWatchConfig {
+
+    /**
+     * Creates and configures the AWS CloudWatch client.
+     *
+     * @return The lifecycle-managed holder of a configured {@link CloudWatchClient}.
+     */
+    @Bean
+    public RestorableAwsClient<CloudWatchClient> restorableCloudWatchClient(@Value("${aws.region}") String region,
+                                                                            AwsSdkObservationInterceptor observationInterceptor,
+                                                                            AwsCredentialsProvider awsCredentialsProvider) {
+        return new RestorableAwsClient<>(CloudWatchClient.class, () -> CloudWatchClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(awsCredentialsProvider)
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .addExecutionInterceptor(observationInterceptor)
+                        .build())
+                .build());
+    }
+
+    /**
+     * Exposes the current CloudWatch client; its connection pool is rebuilt after a CRaC restore.
+     *
+     * @param restorableCloudWatchClient The lifecycle-managed holder of the client.
+     * @return A {@link CloudWatchClient} proxy delegating to the current client.
+     */
+    @Bean
+    public CloudWatchClient cloudWatchClient(RestorableAwsClient<CloudWatchClient> restorableCloudWatchClient) {
+        return restorableCloudWatchClient.client();
+    }
+}
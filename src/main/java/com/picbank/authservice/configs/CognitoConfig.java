@@ -1,43 +1,142 @@
 package com.picbank.authservice.configs;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.picbank.authservice.components.AwsCallPolicyProperties;
+import com.picbank.authservice.components.AwsSdkObservationInterceptor;
+import com.picbank.authservice.components.CognitoEndpointRouter;
+import com.picbank.authservice.components.CognitoProperties;
+import com.picbank.authservice.components.CognitoRoutingProperties;
+import com.picbank.authservice.constants.AppConstants;
+import com.picbank.authservice.services.MessageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import org.springframework.context.annotation.Profile;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClientBuilder;
+
+import java.net.URI;
+import java.util.Optional;
 
 /**
  * Configuration for AWS Cognito Identity Provider client.
  * <p>
  * This class provides a configured {@link CognitoIdentityProviderClient} bean
  * to interact with AWS Cognito for authentication and user management.
+ * When a secondary user pool is configured, a second client is built for its region,
+ * and logins are routed between both pools by the {@link CognitoEndpointRouter}.
  * </p>
  */
 @Configuration
+@Profile("!" + AppConstants.PROFILE_LOCAL)
 public class CognitoConfig {
 
-    @Value("${aws.access-key-id}")
-    private String accessKeyId;
+    /**
+     * Creates and configures the Cognito Identity Provider client.
+     *
+     * @param cognitoProperties      The region and endpoint override of the primary user pool.
+     * @param observationInterceptor Interceptor that records a span and timer for every Cognito call.
+     * @param awsCredentialsProvider The credentials shared by the AWS clients.
+     * @param callPolicies           The timeout, retry and backoff policies of the Cognito operations.
+     * @return The lifecycle-managed holder of a fully configured {@link CognitoIdentityProviderClient}.
+     */
+    @Bean
+    public RestorableAwsClient<CognitoIdentityProviderClient> restorableCognitoClient(
+            CognitoProperties cognitoProperties,
+            AwsSdkObservationInterceptor observationInterceptor,
+            AwsCredentialsProvider awsCredentialsProvider,
+            AwsCallPolicyProperties callPolicies) {
+        return new RestorableAwsClient<>(CognitoIdentityProviderClient.class, () -> buildClient(
+                cognitoProperties.getRegion(), cognitoProperties.getEndpoint(), observationInterceptor, awsCredentialsProvider),
+                callPolicies);
+    }
 
-    @Value("${aws.secret-access-key}")
-    private String secretAccessKey;
+    /**
+     * Creates the client of the secondary user pool, only used for logins; it is not exposed as a
+     * {@link CognitoIdentityProviderClient} bean, so every other call keeps going to the primary pool.
+     *
+     * @param routingProperties      The region and endpoint override of the secondary user pool.
+     * @param observationInterceptor Interceptor that records a span and timer for every Cognito call.
+     * @param awsCredentialsProvider The credentials shared by the AWS clients.
+     * @param callPolicies           The timeout, retry and backoff policies of the Cognito operations.
+     * @return The lifecycle-managed holder of the secondary client.
+     */
+    @Bean
+    @ConditionalOnExpression("!'${aws.cognito.secondary.user-pool-id:}'.isBlank()")
+    public RestorableAwsClient<CognitoIdentityProviderClient> restorableSecondaryCognitoClient(
+            CognitoRoutingProperties routingProperties,
+            AwsSdkObservationInterceptor observationInterceptor,
+            AwsCredentialsProvider awsCredentialsProvider,
+            AwsCallPolicyProperties callPolicies) {
+        return new RestorableAwsClient<>(CognitoIdentityProviderClient.class, () -> buildClient(
+                routingProperties.getSecondaryRegion(), routingProperties.getSecondaryEndpoint(), observationInterceptor,
+                awsCredentialsProvider), callPolicies);
+    }
 
     /**
-     * Creates and configures the Cognito Identity Provider client.
+     * Exposes the current Cognito client; its connection pool is rebuilt after a CRaC restore.
+     *
+     * @param restorableCognitoClient The lifecycle-managed holder of the client.
+     * @return A {@link CognitoIdentityProviderClient} proxy delegating to the current client.
+     */
+    @Bean
+    public CognitoIdentityProviderClient cognitoClient(
+            @Qualifier("restorableCognitoClient") RestorableAwsClient<CognitoIdentityProviderClient> restorableCognitoClient) {
+        return restorableCognitoClient.client();
+    }
+
+    /**
+     * Creates the router of logins between the primary and, if configured, the secondary user pool; in the reactive
+     * deployment it also routes logins on the asynchronous clients of {@link ReactiveAwsConfig}.
      *
-     * @return A fully configured {@link CognitoIdentityProviderClient} instance.
+     * @param cognitoClient                         The client of the primary user pool.
+     * @param restorableSecondaryCognitoClient      The lifecycle-managed holder of the secondary client, if configured.
+     * @param cognitoAsyncClient                    The asynchronous client of the primary user pool, if reactive.
+     * @param restorableSecondaryCognitoAsyncClient The lifecycle-managed holder of the secondary asynchronous client,
+     *                                              if reactive and configured.
+     * @param cognitoProperties                     The primary user pool settings.
+     * @param routingProperties                     The secondary user pool and scoring settings.
+     * @param messageService                        The service used for localized messages.
+     * @param meterRegistry                         The registry the routing metrics are registered with.
+     * @return The {@link CognitoEndpointRouter}.
      */
     @Bean
-    public CognitoIdentityProviderClient cognitoClient() {
-        return CognitoIdentityProviderClient.builder()
-                .region(Region.US_EAST_1)
-                .credentialsProvider(
-                        StaticCredentialsProvider.create(
-                                AwsBasicCredentials.create(accessKeyId, secretAccessKey)
-                        )
-                )
-                .build();
+    public CognitoEndpointRouter cognitoEndpointRouter(
+            CognitoIdentityProviderClient cognitoClient,
+            @Qualifier("restorableSecondaryCognitoClient")
+            Optional<RestorableAwsClient<CognitoIdentityProviderClient>> restorableSecondaryCognitoClient,
+            Optional<CognitoIdentityProviderAsyncClient> cognitoAsyncClient,
+            @Qualifier("restorableSecondaryCognitoAsyncClient")
+            Optional<RestorableAwsClient<CognitoIdentityProviderAsyncClient>> restorableSecondaryCognitoAsyncClient,
+            CognitoProperties cognitoProperties,
+            CognitoRoutingProperties routingProperties,
+            MessageService messageService,
+            MeterRegistry meterRegistry) {
+        return new CognitoEndpointRouter(cognitoClient,
+                restorableSecondaryCognitoClient.map(RestorableAwsClient::client).orElse(null),
+                cognitoAsyncClient.orElse(null),
+                restorableSecondaryCognitoAsyncClient.map(RestorableAwsClient::client).orElse(null),
+                cognitoProperties, routingProperties, messageService, meterRegistry);
+    }
+
+    private static CognitoIdentityProviderClient buildClient(String region,
+                                                             String endpoint,
+                                                             AwsSdkObservationInterceptor observationInterceptor,
+                                                             AwsCredentialsProvider awsCredentialsProvider) {
+        CognitoIdentityProviderClientBuilder builder = CognitoIdentityProviderClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(awsCredentialsProvider)
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .addExecutionInterceptor(observationInterceptor)
+                        .build());
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
     }
 }
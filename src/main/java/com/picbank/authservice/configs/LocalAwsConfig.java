@@ -0,0 +1,175 @@
+package com.picbank.authservice.configs;
+
+import com.picbank.authservice.components.CognitoEndpointRouter;
+import com.picbank.authservice.components.CognitoProperties;
+import com.picbank.authservice.components.CognitoRoutingProperties;
+import com.picbank.authservice.constants.AppConstants;
+import com.picbank.authservice.local.*;
+import com.picbank.authservice.services.MessageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration of in-process fakes for Cognito, SQS, SES and CloudWatch, active with the {@code local} profile.
+ * <p>
+ * Replaces {@link CognitoConfig}, {@link SqsConfig}, {@link SesConfig} and {@link CloudWatchConfig} so the
+ * whole register → worker → e-mail pipeline runs offline without AWS credentials. Each fake has its own
+ * configurable latency, jitter and error rate (see {@code application-local.yml}). In the reactive deployment, the
+ * Cognito and SQS fakes are also exposed as asynchronous clients.
+ * </p>
+ */
+@Configuration
+@Profile(AppConstants.PROFILE_LOCAL)
+public class LocalAwsConfig {
+
+    private static final String USER_PASSWORD_SEPARATOR = ":";
+
+    /**
+     * Creates the fake Cognito client, seeded with the configured confirmed users.
+     *
+     * @param latencyMs        Fixed latency of every call, in milliseconds.
+     * @param jitterMs         Maximum random latency added to every call, in milliseconds.
+     * @param errorRate        Probability of a call failing with a 503.
+     * @param confirmationCode The code accepted when confirming any user.
+     * @param seedUsers        Confirmed users to create at startup, as {@code email:password}.
+     * @return The {@link FakeCognitoIdentityProviderClient}.
+     */
+    @Bean
+    public FakeCognitoIdentityProviderClient cognitoClient(@Value("${local.aws.cognito.latency-ms}") long latencyMs,
+                                                           @Value("${local.aws.cognito.jitter-ms}") long jitterMs,
+                                                           @Value("${local.aws.cognito.error-rate}") double errorRate,
+                                                           @Value("${local.aws.cognito.confirmation-code}") String confirmationCode,
+                                                           @Value("${local.aws.cognito.seed-users}") List<String> seedUsers) {
+        return seededCognitoClient(new FaultInjector(latencyMs, jitterMs, errorRate), confirmationCode, seedUsers);
+    }
+
+    /**
+     * Exposes the fake Cognito client as an asynchronous client, for the reactive deployment.
+     *
+     * @param cognitoClient The fake Cognito client.
+     * @return The {@link FakeCognitoIdentityProviderAsyncClient}.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public FakeCognitoIdentityProviderAsyncClient cognitoAsyncClient(FakeCognitoIdentityProviderClient cognitoClient) {
+        return new FakeCognitoIdentityProviderAsyncClient(cognitoClient);
+    }
+
+    /**
+     * Creates the router of logins, with a second fake Cognito client standing in for the secondary user pool
+     * if one is configured, so failover can be exercised offline by degrading either fake.
+     *
+     * @param cognitoClient      The fake Cognito client of the primary user pool.
+     * @param cognitoAsyncClient The asynchronous view of the primary fake, in the reactive deployment.
+     * @param latencyMs          Fixed latency of every call to the secondary stand-in, in milliseconds.
+     * @param jitterMs           Maximum random latency added to every call to the secondary stand-in, in milliseconds.
+     * @param errorRate          Probability of a call to the secondary stand-in failing with a 503.
+     * @param confirmationCode   The code accepted when confirming any user.
+     * @param seedUsers          Confirmed users to create in the secondary stand-in, as {@code email:password}.
+     * @param cognitoProperties  The primary user pool settings.
+     * @param routingProperties  The secondary user pool and scoring settings.
+     * @param messageService     The service used for localized messages.
+     * @param meterRegistry      The registry the routing metrics are registered with.
+     * @return The {@link CognitoEndpointRouter}.
+     */
+    @Bean
+    public CognitoEndpointRouter cognitoEndpointRouter(FakeCognitoIdentityProviderClient cognitoClient,
+                                                       ObjectProvider<FakeCognitoIdentityProviderAsyncClient> cognitoAsyncClient,
+                                                       @Value("${local.aws.cognito.secondary.latency-ms}") long latencyMs,
+                                                       @Value("${local.aws.cognito.secondary.jitter-ms}") long jitterMs,
+                                                       @Value("${local.aws.cognito.secondary.error-rate}") double errorRate,
+                                                       @Value("${local.aws.cognito.confirmation-code}") String confirmationCode,
+                                                       @Value("${local.aws.cognito.seed-users}") List<String> seedUsers,
+                                                       CognitoProperties cognitoProperties,
+                                                       CognitoRoutingProperties routingProperties,
+                                                       MessageService messageService,
+                                                       MeterRegistry meterRegistry) {
+        FakeCognitoIdentityProviderClient secondaryClient = routingProperties.hasSecondary()
+                ? seededCognitoClient(new FaultInjector(latencyMs, jitterMs, errorRate), confirmationCode, seedUsers)
+                : null;
+        FakeCognitoIdentityProviderAsyncClient primaryAsyncClient = cognitoAsyncClient.getIfAvailable();
+        FakeCognitoIdentityProviderAsyncClient secondaryAsyncClient = primaryAsyncClient != null && secondaryClient != null
+                ? new FakeCognitoIdentityProviderAsyncClient(secondaryClient)
+                : null;
+        return new CognitoEndpointRouter(cognitoClient, secondaryClient, primaryAsyncClient, secondaryAsyncClient,
+                cognitoProperties, routingProperties, messageService, meterRegistry);
+    }
+
+    /**
+     * Creates the fake SQS client.
+     *
+     * @param latencyMs                Fixed latency of every call, in milliseconds.
+     * @param jitterMs                 Maximum random latency added to every call, in milliseconds.
+     * @param errorRate                Probability of a call failing with a 503.
+     * @param visibilityTimeoutSeconds Default visibility timeout of received messages.
+     * @return The {@link FakeSqsClient}.
+     */
+    @Bean
+    public FakeSqsClient sqsClient(@Value("${local.aws.sqs.latency-ms}") long latencyMs,
+                                   @Value("${local.aws.sqs.jitter-ms}") long jitterMs,
+                                   @Value("${local.aws.sqs.error-rate}") double errorRate,
+                                   @Value("${local.aws.sqs.visibility-timeout-seconds}") long visibilityTimeoutSeconds) {
+        return new FakeSqsClient(new FaultInjector(latencyMs, jitterMs, errorRate), Duration.ofSeconds(visibilityTimeoutSeconds));
+    }
+
+    /**
+     * Exposes the fake SQS client as an asynchronous client, for the reactive deployment.
+     *
+     * @param sqsClient The fake SQS client.
+     * @return The {@link FakeSqsAsyncClient}.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public FakeSqsAsyncClient sqsAsyncClient(FakeSqsClient sqsClient) {
+        return new FakeSqsAsyncClient(sqsClient);
+    }
+
+    /**
+     * Creates the fake SES client.
+     *
+     * @param latencyMs Fixed latency of every call, in milliseconds.
+     * @param jitterMs  Maximum random latency added to every call, in milliseconds.
+     * @param errorRate Probability of a call failing with a 503.
+     * @param capacity  Number of sent e-mails kept in memory.
+     * @return The {@link FakeSesClient}.
+     */
+    @Bean
+    public FakeSesClient sesClient(@Value("${local.aws.ses.latency-ms}") long latencyMs,
+                                   @Value("${local.aws.ses.jitter-ms}") long jitterMs,
+                                   @Value("${local.aws.ses.error-rate}") double errorRate,
+                                   @Value("${local.aws.ses.capacity}") int capacity) {
+        return new FakeSesClient(new FaultInjector(latencyMs, jitterMs, errorRate), capacity);
+    }
+
+    private static FakeCognitoIdentityProviderClient seededCognitoClient(FaultInjector faultInjector,
+                                                                         String confirmationCode,
+                                                                         List<String> seedUsers) {
+        FakeCognitoIdentityProviderClient client = new FakeCognitoIdentityProviderClient(faultInjector, confirmationCode);
+        seedUsers.stream()
+                .filter(user -> user.contains(USER_PASSWORD_SEPARATOR))
+                .forEach(user -> {
+                    int separator = user.indexOf(USER_PASSWORD_SEPARATOR);
+                    client.seedConfirmedUser(user.substring(0, separator).trim(), user.substring(separator + 1).trim());
+                });
+        return client;
+    }
+
+    /**
+     * Creates the fake CloudWatch client, which reads the queue ages from the fake SQS client.
+     *
+     * @param sqsClient The fake SQS client.
+     * @return The {@link FakeCloudWatchClient}.
+     */
+    @Bean
+    public FakeCloudWatchClient cloudWatchClient(FakeSqsClient sqsClient) {
+        return new FakeCloudWatchClient(sqsClient);
+    }
+}
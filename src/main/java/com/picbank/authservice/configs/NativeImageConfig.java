@@ -0,0 +1,87 @@
+package com.picbank.authservice.configs;
+
+import com.picbank.authservice.api.AdminApi;
+import com.picbank.authservice.api.AuthApi;
+import com.picbank.authservice.components.SqsProperties;
+import com.picbank.authservice.model.*;
+import com.picbank.authservice.model.dtos.CognitoUserGroupMessage;
+import com.picbank.authservice.model.dtos.GroupReassignmentMessage;
+import com.picbank.authservice.model.dtos.MessageEnvelope;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+import java.util.List;
+
+/**
+ * GraalVM native image metadata that Spring AOT cannot infer from the bean definitions.
+ * <p>
+ * Hints are only consumed when building with the {@code native} Maven profile; on the JVM this class is a no-op.
+ * The AWS SDK, Jackson and springdoc ship their own reachability metadata (in their jars or in the GraalVM
+ * reachability metadata repository, which the profile enables), so only application classes are covered here:
+ * </p>
+ * <ul>
+ *     <li>the i18n bundles, which {@link MessageConfig} loads by name at runtime;</li>
+ *     <li>the SQS message records, the user import rows and events and the user export records, which are
+ *     (de)serialized by Jackson outside any controller signature;</li>
+ *     <li>the OpenAPI generated interfaces and models, whose annotations are introspected by springdoc;</li>
+ *     <li>the property holder read through SpEL in {@code @Scheduled} expressions;</li>
+ *     <li>the JDK proxies that {@link RestorableAwsClient} exposes as the AWS client beans.</li>
+ * </ul>
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.AuthServiceRuntimeHints.class)
+@RegisterReflectionForBinding({
+        MessageEnvelope.class,
+        CognitoUserGroupMessage.class,
+        GroupReassignmentMessage.class,
+        RegisterRequest.class,
+        LoginRequest.class,
+        ConfirmEmailRequest.class,
+        AuthResponse.class,
+        ErrorResponse.class,
+        UserImportRow.class,
+        UserImportEvent.class,
+        UserExportRecord.class,
+        GroupReassignmentRequest.class,
+        GroupReassignmentJob.class,
+        DlqMessage.class,
+        DlqRedriveRequest.class,
+        DlqRedriveEvent.class
+})
+public class NativeImageConfig {
+
+    /**
+     * Registers the resource and reflection hints of the application.
+     */
+    static class AuthServiceRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final String MESSAGE_BUNDLES = "i18n/messages*.properties";
+        private static final List<Class<?>> AWS_CLIENT_TYPES = List.of(
+                CognitoIdentityProviderClient.class, SqsClient.class, SesClient.class, CloudWatchClient.class);
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources().registerPattern(MESSAGE_BUNDLES);
+
+            for (Class<?> apiType : List.of(AuthApi.class, AdminApi.class)) {
+                hints.reflection().registerType(apiType, MemberCategory.INTROSPECT_PUBLIC_METHODS);
+            }
+
+            hints.reflection().registerType(SqsProperties.class,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            for (Class<?> clientType : AWS_CLIENT_TYPES) {
+                hints.proxies().registerJdkProxy(AopProxyUtils.completeJdkProxyInterfaces(clientType));
+            }
+        }
+    }
+}
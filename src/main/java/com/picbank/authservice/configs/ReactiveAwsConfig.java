@@ -0,0 +1,166 @@
+package com.picbank.authservice.configs;
+
+import com.picbank.authservice.components.AwsAsyncHttpProperties;
+import com.picbank.authservice.components.AwsCallPolicyProperties;
+import com.picbank.authservice.components.AwsSdkObservationInterceptor;
+import com.picbank.authservice.components.CognitoProperties;
+import com.picbank.authservice.components.CognitoRoutingProperties;
+import com.picbank.authservice.constants.AppConstants;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClientBuilder;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+
+import java.net.URI;
+
+/**
+ * Configuration of the asynchronous Cognito and SQS clients used by the reactive deployment of the {@code /auth} API.
+ * <p>
+ * These clients send their requests on Netty event loops and complete a future with the response, so a login waiting
+ * on Cognito holds a connection but no thread. They share the credentials and the observation interceptor of the
+ * synchronous clients, which keep serving the workers and the admin services. SES is only called by the worker, so it
+ * has no asynchronous client.
+ * </p>
+ */
+@Configuration
+@Profile("!" + AppConstants.PROFILE_LOCAL)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAwsConfig {
+
+    /**
+     * Creates the asynchronous client of the primary Cognito user pool.
+     *
+     * @param cognitoProperties      The region and endpoint override of the primary user pool.
+     * @param httpProperties         The connection pool and event-loop settings.
+     * @param observationInterceptor Interceptor that records a span and timer for every Cognito call.
+     * @param awsCredentialsProvider The credentials shared by the AWS clients.
+     * @param callPolicies           The timeout, retry and backoff policies of the operations.
+     * @return The lifecycle-managed holder of the {@link CognitoIdentityProviderAsyncClient}.
+     */
+    @Bean
+    public RestorableAwsClient<CognitoIdentityProviderAsyncClient> restorableCognitoAsyncClient(
+            CognitoProperties cognitoProperties,
+            AwsAsyncHttpProperties httpProperties,
+            AwsSdkObservationInterceptor observationInterceptor,
+            AwsCredentialsProvider awsCredentialsProvider,
+            AwsCallPolicyProperties callPolicies) {
+        return new RestorableAwsClient<>(CognitoIdentityProviderAsyncClient.class, () -> buildCognitoClient(
+                cognitoProperties.getRegion(), cognitoProperties.getEndpoint(), httpProperties, observationInterceptor,
+                awsCredentialsProvider), callPolicies);
+    }
+
+    /**
+     * Creates the asynchronous client of the secondary Cognito user pool, only used for logins.
+     *
+     * @param routingProperties      The region and endpoint override of the secondary user pool.
+     * @param httpProperties         The connection pool and event-loop settings.
+     * @param observationInterceptor Interceptor that records a span and timer for every Cognito call.
+     * @param awsCredentialsProvider The credentials shared by the AWS clients.
+     * @param callPolicies           The timeout, retry and backoff policies of the operations.
+     * @return The lifecycle-managed holder of the secondary asynchronous client.
+     */
+    @Bean
+    @ConditionalOnExpression("!'${aws.cognito.secondary.user-pool-id:}'.isBlank()")
+    public RestorableAwsClient<CognitoIdentityProviderAsyncClient> restorableSecondaryCognitoAsyncClient(
+            CognitoRoutingProperties routingProperties,
+            AwsAsyncHttpProperties httpProperties,
+            AwsSdkObservationInterceptor observationInterceptor,
+            AwsCredentialsProvider awsCredentialsProvider,
+            AwsCallPolicyProperties callPolicies) {
+        return new RestorableAwsClient<>(CognitoIdentityProviderAsyncClient.class, () -> buildCognitoClient(
+                routingProperties.getSecondaryRegion(), routingProperties.getSecondaryEndpoint(), httpProperties,
+                observationInterceptor, awsCredentialsProvider), callPolicies);
+    }
+
+    /**
+     * Exposes the current asynchronous client of the primary user pool.
+     *
+     * @param restorableCognitoAsyncClient The lifecycle-managed holder of the client.
+     * @return A {@link CognitoIdentityProviderAsyncClient} proxy delegating to the current client.
+     */
+    @Bean
+    public CognitoIdentityProviderAsyncClient cognitoAsyncClient(
+            @Qualifier("restorableCognitoAsyncClient")
+            RestorableAwsClient<CognitoIdentityProviderAsyncClient> restorableCognitoAsyncClient) {
+        return restorableCognitoAsyncClient.client();
+    }
+
+    /**
+     * Creates the asynchronous SQS client, used to enqueue the group assignment of registered users.
+     *
+     * @param region                 The AWS region of the queue.
+     * @param httpProperties         The connection pool and event-loop settings.
+     * @param observationInterceptor Interceptor that records a span and timer for every SQS call.
+     * @param awsCredentialsProvider The credentials shared by the AWS clients.
+     * @param callPolicies           The timeout, retry and backoff policies of the operations.
+     * @return The lifecycle-managed holder of the {@link SqsAsyncClient}.
+     */
+    @Bean
+    public RestorableAwsClient<SqsAsyncClient> restorableSqsAsyncClient(@Value("${aws.region}") String region,
+                                                                        AwsAsyncHttpProperties httpProperties,
+                                                                        AwsSdkObservationInterceptor observationInterceptor,
+                                                                        AwsCredentialsProvider awsCredentialsProvider,
+                                                                        AwsCallPolicyProperties callPolicies) {
+        return new RestorableAwsClient<>(SqsAsyncClient.class, () -> SqsAsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(awsCredentialsProvider)
+                .httpClientBuilder(httpClientBuilder(httpProperties))
+                .overrideConfiguration(overrideConfiguration(observationInterceptor))
+                .build(), callPolicies);
+    }
+
+    /**
+     * Exposes the current asynchronous SQS client.
+     *
+     * @param restorableSqsAsyncClient The lifecycle-managed holder of the client.
+     * @return A {@link SqsAsyncClient} proxy delegating to the current client.
+     */
+    @Bean
+    public SqsAsyncClient sqsAsyncClient(RestorableAwsClient<SqsAsyncClient> restorableSqsAsyncClient) {
+        return restorableSqsAsyncClient.client();
+    }
+
+    private static CognitoIdentityProviderAsyncClient buildCognitoClient(String region,
+                                                                         String endpoint,
+                                                                         AwsAsyncHttpProperties httpProperties,
+                                                                         AwsSdkObservationInterceptor observationInterceptor,
+                                                                         AwsCredentialsProvider awsCredentialsProvider) {
+        CognitoIdentityProviderAsyncClientBuilder builder = CognitoIdentityProviderAsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(awsCredentialsProvider)
+                .httpClientBuilder(httpClientBuilder(httpProperties))
+                .overrideConfiguration(overrideConfiguration(observationInterceptor));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
+    private static NettyNioAsyncHttpClient.Builder httpClientBuilder(AwsAsyncHttpProperties httpProperties) {
+        NettyNioAsyncHttpClient.Builder builder = NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(httpProperties.getMaxConcurrency())
+                .maxPendingConnectionAcquires(httpProperties.getMaxPendingConnectionAcquires());
+        if (httpProperties.getEventLoopThreads() > 0) {
+            builder.eventLoopGroupBuilder(SdkEventLoopGroup.builder()
+                    .numberOfThreads(httpProperties.getEventLoopThreads()));
+        }
+        return builder;
+    }
+
+    private static ClientOverrideConfiguration overrideConfiguration(AwsSdkObservationInterceptor observationInterceptor) {
+        return ClientOverrideConfiguration.builder()
+                .addExecutionInterceptor(observationInterceptor)
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.picbank.authservice.configs;
+
+import com.picbank.authservice.components.JwtIssuerProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtIssuerReactiveAuthenticationManagerResolver;
+import org.springframework.security.oauth2.server.resource.authentication.JwtReactiveAuthenticationManager;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.picbank.authservice.constants.AuthConstants.*;
+
+/**
+ * Security configuration of the reactive deployment, which only serves the {@code /auth} API.
+ * <p>
+ * Mirrors {@link SecurityConfig} on WebFlux: the authentication endpoints and health are public, the metrics
+ * (actuator and Prometheus) and the startup step timings are restricted to the Cognito Admin group, and every other
+ * request requires a Cognito access token (JWT) of either user pool.
+ * </p>
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    /**
+     * Configures the security filter chain for HTTP requests.
+     *
+     * @param http                The {@link ServerHttpSecurity} object to configure security settings.
+     * @param jwtIssuerProperties The trusted token issuers and their JWK sets.
+     * @return A configured {@link SecurityWebFilterChain} instance.
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtIssuerProperties jwtIssuerProperties) {
+        http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers(
+                                "/auth/register",
+                                "/auth/confirm",
+                                "/auth/login",
+                                "/actuator/health/**"
+                        ).permitAll()
+                        .pathMatchers("/actuator/metrics/**", "/actuator/prometheus", "/actuator/startup").hasAuthority(GROUP_AUTHORITY_PREFIX + ADMIN_GROUP)
+                        .anyExchange().authenticated()
+                )
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .authenticationManagerResolver(cognitoIssuersResolver(jwtIssuerProperties)));
+
+        return http.build();
+    }
+
+    /**
+     * Picks the token decoder of the issuer of each token, as {@link SecurityConfig#cognitoIssuersResolver} does.
+     *
+     * @param jwtIssuerProperties The trusted token issuers and their JWK sets.
+     * @return A {@link JwtIssuerReactiveAuthenticationManagerResolver} over the trusted issuers.
+     */
+    static JwtIssuerReactiveAuthenticationManagerResolver cognitoIssuersResolver(JwtIssuerProperties jwtIssuerProperties) {
+        Map<String, ReactiveAuthenticationManager> managers = jwtIssuerProperties.getJwkSetUris().entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, issuer -> {
+                    NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withJwkSetUri(issuer.getValue()).build();
+                    decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer.getKey()));
+                    JwtReactiveAuthenticationManager manager = new JwtReactiveAuthenticationManager(decoder);
+                    manager.setJwtAuthenticationConverter(
+                            new ReactiveJwtAuthenticationConverterAdapter(SecurityConfig.cognitoGroupsConverter()));
+                    return manager;
+                }));
+        return new JwtIssuerReactiveAuthenticationManagerResolver(issuer -> Mono.justOrEmpty(managers.get(issuer)));
+    }
+}
@@ -0,0 +1,28 @@
+package com.picbank.authservice.configs;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Web server of the reactive deployment.
+ * <p>
+ * Tomcat stays on the classpath for the default servlet deployment, and Spring Boot would otherwise run WebFlux on it;
+ * Netty serves every connection from a few event-loop threads instead.
+ * </p>
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig {
+
+    /**
+     * Creates the Netty web server factory; the {@code server.*} settings (port, graceful shutdown) still apply to it.
+     *
+     * @return The {@link NettyReactiveWebServerFactory}.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,192 @@
+package com.picbank.authservice.configs;
+
+import com.picbank.authservice.components.AwsCredentialsProperties;
+import com.picbank.authservice.services.MessageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.picbank.authservice.constants.MessageConstants.*;
+import static com.picbank.authservice.constants.ObservabilityConstants.*;
+
+/**
+ * Credentials provider shared by the AWS clients, which resolves the credentials on a background thread.
+ * <p>
+ * The credentials are resolved by a source provider, e.g. the default chain with its web identity, container and
+ * instance role providers, and cached: {@link #resolveCredentials()} only reads the cache, so SDK calls never wait
+ * for STS or a credentials endpoint. Expiring credentials are resolved again {@code refresh-before-ms} ahead of their
+ * expiration; a failed refresh keeps the current credentials and is retried every {@code retry-interval-ms}.
+ * Credentials without an expiration, such as static keys, are resolved once.
+ * </p>
+ * <p>
+ * Like the clients, it is lifecycle-managed, in a lower phase: the credentials are resolved before the clients
+ * start and the refreshes stop after they stop, so a CRaC restore resolves fresh credentials instead of reusing
+ * those of the checkpoint.
+ * </p>
+ */
+@Slf4j
+public class RefreshingCredentialsProvider implements AwsCredentialsProvider, SmartLifecycle, SdkAutoCloseable {
+
+    /**
+     * Phase of the credentials: before the AWS clients start, after they stop.
+     */
+    public static final int PHASE = RestorableAwsClient.PHASE - 1;
+
+    private static final String THREAD_NAME = "aws-credentials-refresh";
+
+    private final AwsCredentialsProvider source;
+    private final AwsCredentialsProperties properties;
+    private final MessageService messageService;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private volatile AwsCredentials credentials;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs a new {@code RefreshingCredentialsProvider} and registers its meters; nothing is resolved until it
+     * is started.
+     *
+     * @param source         The provider the credentials are resolved with.
+     * @param properties     The refresh settings.
+     * @param messageService The service used for localized messages.
+     * @param meterRegistry  The registry the refresh timers and the expiration gauge are registered with.
+     */
+    public RefreshingCredentialsProvider(AwsCredentialsProvider source,
+                                         AwsCredentialsProperties properties,
+                                         MessageService messageService,
+                                         MeterRegistry meterRegistry) {
+        this.source = source;
+        this.properties = properties;
+        this.messageService = messageService;
+        this.successTimer = Timer.builder(AWS_CREDENTIALS_REFRESH)
+                .description("Time taken to resolve the AWS credentials")
+                .tag(TAG_OUTCOME, OUTCOME_SUCCESS)
+                .register(meterRegistry);
+        this.failureTimer = Timer.builder(AWS_CREDENTIALS_REFRESH)
+                .description("Time taken to resolve the AWS credentials")
+                .tag(TAG_OUTCOME, OUTCOME_FAILED)
+                .register(meterRegistry);
+        TimeGauge.builder(AWS_CREDENTIALS_EXPIRATION, this, TimeUnit.SECONDS, RefreshingCredentialsProvider::secondsUntilExpiration)
+                .description("Time until the cached AWS credentials expire")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached credentials, without ever calling the source provider.
+     *
+     * @return The last resolved credentials, even if a later refresh failed.
+     * @throws SdkClientException If the credentials have not been resolved yet.
+     */
+    @Override
+    public AwsCredentials resolveCredentials() {
+        AwsCredentials current = credentials;
+        if (current == null) {
+            throw SdkClientException.create(messageService.getMessage(AWS_CREDENTIALS_UNAVAILABLE));
+        }
+        return current;
+    }
+
+    /**
+     * Resolves the credentials on the calling thread, then schedules their refreshes.
+     * <p>
+     * If they cannot be resolved, startup goes on and they are retried in the background; until then the AWS
+     * calls fail fast.
+     * </p>
+     */
+    @Override
+    public synchronized void start() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name(THREAD_NAME).daemon().factory());
+            refresh();
+        }
+    }
+
+    /**
+     * Cancels the scheduled refresh; the cached credentials are kept.
+     */
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Stops the refreshes and closes the source provider, e.g. the STS client of the web identity provider.
+     */
+    @Override
+    public void close() {
+        stop();
+        if (source instanceof SdkAutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Resolves the credentials with the source provider and schedules the next refresh.
+     *
+     * @return The delay until the next refresh in milliseconds, or {@code -1} if the credentials do not expire.
+     */
+    long refresh() {
+        long startNanos = System.nanoTime();
+        try {
+            AwsCredentials resolved = source.resolveCredentials();
+            long elapsedNanos = System.nanoTime() - startNanos;
+            successTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            credentials = resolved;
+
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            if (resolved.expirationTime().isEmpty()) {
+                log.info(messageService.getMessage(AWS_CREDENTIALS_STATIC, elapsedMs));
+                return -1;
+            }
+            Instant expiration = resolved.expirationTime().get();
+            long delayMs = Math.max(properties.getRetryIntervalMs(),
+                    Duration.between(Instant.now(), expiration).toMillis() - properties.getRefreshBeforeMs());
+            log.info(messageService.getMessage(AWS_CREDENTIALS_REFRESHED, elapsedMs, expiration, delayMs));
+            return schedule(delayMs);
+        } catch (RuntimeException e) {
+            failureTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            log.warn(messageService.getMessage(AWS_CREDENTIALS_REFRESH_ERROR, properties.getRetryIntervalMs(), e.getMessage()));
+            return schedule(properties.getRetryIntervalMs());
+        }
+    }
+
+    private synchronized long schedule(long delayMs) {
+        if (scheduler != null) {
+            scheduler.schedule(this::refresh, delayMs, TimeUnit.MILLISECONDS);
+        }
+        return delayMs;
+    }
+
+    private double secondsUntilExpiration() {
+        AwsCredentials current = credentials;
+        if (current == null || current.expirationTime().isEmpty()) {
+            return Double.NaN;
+        }
+        return Duration.between(Instant.now(), current.expirationTime().get()).toMillis() / 1000.0;
+    }
+}
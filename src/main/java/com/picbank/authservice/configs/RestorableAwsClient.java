@@ -0,0 +1,117 @@
+package com.picbank.authservice.configs;
+
+import com.picbank.authservice.components.AwsCallPolicyProperties;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.target.HotSwappableTargetSource;
+import org.springframework.context.SmartLifecycle;
+import software.amazon.awssdk.core.SdkClient;
+
+import java.util.function.Supplier;
+
+/**
+ * Lifecycle-managed holder of an AWS SDK client whose HTTP connection pool can be discarded and rebuilt.
+ * <p>
+ * Beans receive a proxy of the client interface that always delegates to the current instance.
+ * When the context is stopped (before a CRaC checkpoint or on shutdown) the current client is closed,
+ * releasing its pooled sockets; when it is started again (after a restore) a fresh client is built
+ * from the same factory, so connections are never carried across a checkpoint.
+ * </p>
+ * <p>
+ * Its phase is lower than the web server and the workers, so it is stopped after them and started before them.
+ * </p>
+ * <p>
+ * If call policies are given, the proxy also applies the timeouts and retry strategy of its operation to every request,
+ * see {@link AwsCallPolicyInterceptor}.
+ * </p>
+ *
+ * @param <T> The SDK client interface.
+ */
+public class RestorableAwsClient<T extends SdkClient> implements SmartLifecycle {
+
+    /**
+     * Phase of the AWS clients: after the web server and workers stop, before they start.
+     */
+    public static final int PHASE = 0;
+
+    private final Supplier<T> factory;
+    private final HotSwappableTargetSource targetSource;
+    private final T proxy;
+    private volatile boolean running;
+
+    /**
+     * Builds the first client and its proxy.
+     *
+     * @param clientType The SDK client interface exposed to other beans.
+     * @param factory    Builds a new client with its own HTTP connection pool.
+     */
+    public RestorableAwsClient(Class<T> clientType, Supplier<T> factory) {
+        this(clientType, factory, null);
+    }
+
+    /**
+     * Builds the first client and its proxy, which applies the call policy of each operation.
+     *
+     * @param clientType   The SDK client interface exposed to other beans.
+     * @param factory      Builds a new client with its own HTTP connection pool.
+     * @param callPolicies The timeout, retry and backoff policies of the operations; {@code null} for the client defaults.
+     */
+    public RestorableAwsClient(Class<T> clientType, Supplier<T> factory, AwsCallPolicyProperties callPolicies) {
+        this.factory = factory;
+        this.targetSource = new HotSwappableTargetSource(factory.get());
+        this.running = true;
+
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setInterfaces(clientType);
+        proxyFactory.setTargetSource(targetSource);
+        if (callPolicies != null) {
+            proxyFactory.addAdvice(new AwsCallPolicyInterceptor(callPolicies));
+        }
+        this.proxy = clientType.cast(proxyFactory.getProxy(clientType.getClassLoader()));
+    }
+
+    /**
+     * Returns the proxy to be exposed as the client bean.
+     *
+     * @return A client that delegates to the current instance.
+     */
+    public T client() {
+        return proxy;
+    }
+
+    /**
+     * Builds a new client if the previous one was closed by {@link #stop()}.
+     */
+    @Override
+    public synchronized void start() {
+        if (!running) {
+            targetSource.swap(factory.get());
+            running = true;
+        }
+    }
+
+    /**
+     * Closes the current client and its connection pool.
+     */
+    @Override
+    public synchronized void stop() {
+        if (running) {
+            current().close();
+            running = false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T current() {
+        return (T) targetSource.getTarget();
+    }
+}
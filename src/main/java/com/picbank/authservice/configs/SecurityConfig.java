@@ -1,35 +1,55 @@
 package com.picbank.authservice.configs;
 
+import com.picbank.authservice.components.JwtIssuerProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtIssuerAuthenticationManagerResolver;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.picbank.authservice.constants.AuthConstants.*;
+
 /**
  * Security configuration for the authentication and authorization of API endpoints.
  * <p>
  * This class configures Spring Security settings, including CSRF protection,
  * authentication requirements, and public API endpoints.
+ * The reactive deployment is secured by {@link ReactiveSecurityConfig} instead.
  * </p>
  */
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SecurityConfig {
 
     /**
      * Configures the security filter chain for HTTP requests.
      * <p>
      * - Disables CSRF protection for simplicity.
-     * - Allows public access to API documentation and authentication endpoints.
-     * - Requires authentication for all other requests.
+     * - Allows public access to API documentation, authentication endpoints and health.
+     * - Restricts the admin endpoints, the metrics (actuator and Prometheus) and the startup step timings, which
+     *   expose queue backlogs, JVM internals and the bean timeline, to users of the Cognito Admin group.
+     * - Requires authentication for all other requests, with a Cognito access token (JWT) of the primary user pool
+     *   or, as logins fail over to it, of the secondary one.
      * </p>
      *
-     * @param http The {@link HttpSecurity} object to configure security settings.
+     * @param http                The {@link HttpSecurity} object to configure security settings.
+     * @param jwtIssuerProperties The trusted token issuers and their JWK sets.
      * @return A configured {@link SecurityFilterChain} instance.
      * @throws Exception If an error occurs while building the security configuration.
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtIssuerProperties jwtIssuerProperties) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
@@ -39,11 +59,49 @@ public class SecurityConfig {
                                 "/swagger-ui.html",
                                 "/auth/register",
                                 "/auth/confirm",
-                                "/auth/login"
+                                "/auth/login",
+                                "/actuator/health/**"
                         ).permitAll()
+                        .requestMatchers("/admin/**", "/actuator/metrics/**", "/actuator/prometheus", "/actuator/startup").hasAuthority(GROUP_AUTHORITY_PREFIX + ADMIN_GROUP)
                         .anyRequest().authenticated()
-                );
+                )
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .authenticationManagerResolver(cognitoIssuersResolver(jwtIssuerProperties)));
 
         return http.build();
     }
+
+    /**
+     * Picks the token decoder of the issuer ({@code iss} claim) of each token, among the trusted user pools; tokens
+     * of any other issuer are rejected.
+     *
+     * @param jwtIssuerProperties The trusted token issuers and their JWK sets.
+     * @return A {@link JwtIssuerAuthenticationManagerResolver} over the trusted issuers.
+     */
+    static JwtIssuerAuthenticationManagerResolver cognitoIssuersResolver(JwtIssuerProperties jwtIssuerProperties) {
+        Map<String, AuthenticationManager> managers = jwtIssuerProperties.getJwkSetUris().entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, issuer -> {
+                    NimbusJwtDecoder decoder = NimbusJwtDecoder.withJwkSetUri(issuer.getValue()).build();
+                    decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer.getKey()));
+                    JwtAuthenticationProvider provider = new JwtAuthenticationProvider(decoder);
+                    provider.setJwtAuthenticationConverter(cognitoGroupsConverter());
+                    return provider::authenticate;
+                }));
+        return new JwtIssuerAuthenticationManagerResolver(managers::get);
+    }
+
+    /**
+     * Maps the {@code cognito:groups} claim of the token to {@code GROUP_}-prefixed authorities.
+     *
+     * @return A {@link JwtAuthenticationConverter} for Cognito tokens.
+     */
+    static JwtAuthenticationConverter cognitoGroupsConverter() {
+        JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
+        authoritiesConverter.setAuthoritiesClaimName(GROUPS_CLAIM);
+        authoritiesConverter.setAuthorityPrefix(GROUP_AUTHORITY_PREFIX);
+
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authoritiesConverter);
+        return converter;
+    }
 }
@@ -1,10 +1,14 @@
 package com.picbank.authservice.configs;
 
+import com.picbank.authservice.components.AwsCallPolicyProperties;
+import com.picbank.authservice.components.AwsSdkObservationInterceptor;
+import com.picbank.authservice.constants.AppConstants;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import org.springframework.context.annotation.Profile;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.ses.SesClient;
 
@@ -12,20 +16,36 @@ import software.amazon.awssdk.services.ses.SesClient;
  * Configuration class for AWS Simple Email Service (SES).
  */
 @Configuration
+@Profile("!" + AppConstants.PROFILE_LOCAL)
 public class SesConfig {
 
     /**
      * Creates an SES client bean for sending emails.
      *
-     * @return the SES client
+     * @return the lifecycle-managed holder of the SES client
      */
     @Bean
-    public SesClient sesClient(@Value("${aws.access-key-id}") String accessKey,
-                               @Value("${aws.secret-access-key}") String secretKey,
-                               @Value("${aws.region}") String region) {
-        return SesClient.builder()
+    public RestorableAwsClient<SesClient> restorableSesClient(@Value("${aws.region}") String region,
+                                                              AwsSdkObservationInterceptor observationInterceptor,
+                                                              AwsCredentialsProvider awsCredentialsProvider,
+                                                              AwsCallPolicyProperties callPolicies) {
+        return new RestorableAwsClient<>(SesClient.class, () -> SesClient.builder()
                 .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
-                .build();
+                .credentialsProvider(awsCredentialsProvider)
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .addExecutionInterceptor(observationInterceptor)
+                        .build())
+                .build(), callPolicies);
+    }
+
+    /**
+     * Exposes the current SES client; its connection pool is rebuilt after a CRaC restore.
+     *
+     * @param restorableSesClient The lifecycle-managed holder of the client.
+     * @return A {@link SesClient} proxy delegating to the current client.
+     */
+    @Bean
+    public SesClient sesClient(RestorableAwsClient<SesClient> restorableSesClient) {
+        return restorableSesClient.client();
     }
 }
@@ -1,10 +1,14 @@
 package com.picbank.authservice.configs;
 
+import com.picbank.authservice.components.AwsCallPolicyProperties;
+import com.picbank.authservice.components.AwsSdkObservationInterceptor;
+import com.picbank.authservice.constants.AppConstants;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import org.springframework.context.annotation.Profile;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.sqs.SqsClient;
 
@@ -12,29 +16,45 @@ import software.amazon.awssdk.services.sqs.SqsClient;
  * Configuration for the AWS SQS (Simple Queue Service) client.
  * <p>
  * This class provides a {@link SqsClient} bean to interact with AWS SQS queues,
- * using credentials from environment variables.
+ * using the credentials shared by the AWS clients.
  * </p>
  */
 @Configuration
+@Profile("!" + AppConstants.PROFILE_LOCAL)
 public class SqsConfig {
 
     /**
      * Creates and configures the AWS SQS client.
      * <p>
-     * The client is configured to use credentials from environment variables
-     * and connects to the specified AWS region.
+     * The client is configured to use the shared, background-refreshed credentials
+     * and connects to the specified AWS region; every call follows the timeout and retry policy of its operation.
      * </p>
      *
-     * @return A configured {@link SqsClient} instance.
+     * @return The lifecycle-managed holder of a configured {@link SqsClient}.
      */
     @Bean
-    public SqsClient sqsClient(@Value("${aws.access-key-id}") String accessKey,
-                               @Value("${aws.secret-access-key}") String secretKey,
-                               @Value("${aws.region}") String region) {
-        return SqsClient.builder()
+    public RestorableAwsClient<SqsClient> restorableSqsClient(@Value("${aws.region}") String region,
+                                                              AwsSdkObservationInterceptor observationInterceptor,
+                                                              AwsCredentialsProvider awsCredentialsProvider,
+                                                              AwsCallPolicyProperties callPolicies) {
+        return new RestorableAwsClient<>(SqsClient.class, () -> SqsClient.builder()
                 .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
-                .build();
+                .credentialsProvider(awsCredentialsProvider)
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .addExecutionInterceptor(observationInterceptor)
+                        .build())
+                .build(), callPolicies);
+    }
+
+    /**
+     * Exposes the current SQS client; its connection pool is rebuilt after a CRaC restore.
+     *
+     * @param restorableSqsClient The lifecycle-managed holder of the client.
+     * @return A {@link SqsClient} proxy delegating to the current client.
+     */
+    @Bean
+    public SqsClient sqsClient(RestorableAwsClient<SqsClient> restorableSqsClient) {
+        return restorableSqsClient.client();
     }
 
 }
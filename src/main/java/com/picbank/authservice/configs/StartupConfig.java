@@ -0,0 +1,45 @@
+package com.picbank.authservice.configs;
+
+import com.picbank.authservice.api.AuthApi;
+import com.picbank.authservice.constants.AppConstants;
+import com.picbank.authservice.services.AuthService;
+import com.picbank.authservice.services.QueueService;
+import com.picbank.authservice.workers.CognitoUserGroupWorker;
+import com.picbank.authservice.workers.SqsQueueMetricsSampler;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+/**
+ * Startup tuning of the {@code prod} profile.
+ * <p>
+ * The profile turns on lazy initialization, so beans that are not needed to serve traffic are only created on
+ * first use. The hot path is kept eager so the first {@code /auth} request does not pay for its creation, and
+ * the workers are kept eager because their {@code @Scheduled} methods are only registered once the bean exists.
+ * </p>
+ */
+@Configuration
+@Profile(AppConstants.PROFILE_PROD)
+public class StartupConfig {
+
+    /**
+     * Excludes the {@code /auth} request path and the scheduled workers from lazy initialization.
+     *
+     * @return The {@link LazyInitializationExcludeFilter} of the eager beans.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeansFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                AuthApi.class,
+                AuthService.class,
+                QueueService.class,
+                CognitoIdentityProviderClient.class,
+                SqsClient.class,
+                RestorableAwsClient.class,
+                CognitoUserGroupWorker.class,
+                SqsQueueMetricsSampler.class);
+    }
+}
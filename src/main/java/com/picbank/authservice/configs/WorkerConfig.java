@@ -0,0 +1,135 @@
+package com.picbank.authservice.configs;
+
+import com.picbank.authservice.components.GroupAssignmentFastLane;
+import com.picbank.authservice.components.GroupAssignmentFastLaneProperties;
+import com.picbank.authservice.components.GroupReassignmentProperties;
+import com.picbank.authservice.components.SqsAutoTuningProperties;
+import com.picbank.authservice.components.UserExportProperties;
+import com.picbank.authservice.components.UserImportProperties;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration of the executors background work runs on.
+ */
+@Configuration
+public class WorkerConfig {
+
+    private static final String POLLER_THREAD_PREFIX = "sqs-poller-";
+    private static final String USER_IMPORT_THREAD_PREFIX = "user-import-";
+    private static final String GROUP_REASSIGNMENT_THREAD_PREFIX = "group-reassignment-";
+    private static final String USER_EXPORT_THREAD_PREFIX = "user-export-";
+    private static final String GROUP_ASSIGNMENT_THREAD_PREFIX = "group-assignment-";
+
+    /**
+     * Creates the executor the worker's pollers run on, sized to the maximum number of pollers.
+     * <p>
+     * It is lifecycle-managed, so on shutdown it waits for the pollers while the worker drains.
+     * </p>
+     *
+     * @param tuningProperties The auto-tuning bounds, which set the pool size.
+     * @return A configured {@link ThreadPoolTaskExecutor}.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor sqsPollerExecutor(SqsAutoTuningProperties tuningProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(tuningProperties.getMaxPollers());
+        executor.setMaxPoolSize(tuningProperties.getMaxPollers());
+        executor.setThreadNamePrefix(POLLER_THREAD_PREFIX);
+        return executor;
+    }
+
+    /**
+     * Creates the executor the {@code AdminCreateUser} requests of the bulk user import run on.
+     * <p>
+     * It is sized to the import concurrency and shared by concurrent imports, so together they never exceed it.
+     * </p>
+     *
+     * @param importProperties The import settings, which set the pool size.
+     * @return A configured {@link ThreadPoolTaskExecutor}.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor userImportExecutor(UserImportProperties importProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(importProperties.getMaxConcurrency());
+        executor.setMaxPoolSize(importProperties.getMaxConcurrency());
+        executor.setThreadNamePrefix(USER_IMPORT_THREAD_PREFIX);
+        return executor;
+    }
+
+    /**
+     * Creates the executor the {@code ListUsers} and {@code AdminListGroupsForUser} requests of the user export run on.
+     * <p>
+     * It is sized to the export concurrency and shared by concurrent exports, so together they never exceed it.
+     * </p>
+     *
+     * @param exportProperties The export settings, which set the pool size.
+     * @return A configured {@link ThreadPoolTaskExecutor}.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor userExportExecutor(UserExportProperties exportProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(exportProperties.getMaxConcurrency());
+        executor.setMaxPoolSize(exportProperties.getMaxConcurrency());
+        executor.setThreadNamePrefix(USER_EXPORT_THREAD_PREFIX);
+        return executor;
+    }
+
+    /**
+     * Creates the executor the fast lane assigns registered users to their group on.
+     * <p>
+     * Its queue is bounded, so a burst of registrations cannot pile up in memory: an assignment it rejects is sent to
+     * SQS instead. It stops in the phase of the fast lane, which drains it on shutdown.
+     * </p>
+     *
+     * @param fastLaneProperties The fast lane settings, which set the pool size and queue capacity.
+     * @return A configured {@link ThreadPoolTaskExecutor}.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor groupAssignmentExecutor(GroupAssignmentFastLaneProperties fastLaneProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(fastLaneProperties.getThreads());
+        executor.setMaxPoolSize(fastLaneProperties.getThreads());
+        executor.setQueueCapacity(fastLaneProperties.getQueueCapacity());
+        executor.setThreadNamePrefix(GROUP_ASSIGNMENT_THREAD_PREFIX);
+        executor.setPhase(GroupAssignmentFastLane.PHASE);
+        return executor;
+    }
+
+    /**
+     * Creates the executor the group membership requests of the group reassignment jobs run on.
+     * <p>
+     * It has one thread more than the job concurrency, for the {@code ListUsersInGroup} request of the next page,
+     * which is submitted before the users of the current page so it runs alongside them.
+     * </p>
+     *
+     * @param reassignmentProperties The reassignment settings, which set the pool size.
+     * @return A configured {@link ThreadPoolTaskExecutor}.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor groupReassignmentExecutor(GroupReassignmentProperties reassignmentProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(reassignmentProperties.getMaxConcurrency() + 1);
+        executor.setMaxPoolSize(reassignmentProperties.getMaxConcurrency() + 1);
+        executor.setThreadNamePrefix(GROUP_REASSIGNMENT_THREAD_PREFIX);
+        return executor;
+    }
+
+    /**
+     * Creates the default application executor, which Spring Boot backs off from once other executors are defined.
+     * <p>
+     * Spring MVC runs asynchronous requests, such as streamed responses, on it. It is built from the
+     * {@code spring.task.execution} properties, as the auto-configured one would be.
+     * </p>
+     *
+     * @param builder The builder configured from the {@code spring.task.execution} properties.
+     * @return A configured {@link ThreadPoolTaskExecutor}.
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+}
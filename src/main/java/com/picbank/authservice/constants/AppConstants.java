@@ -5,4 +5,7 @@ import lombok.experimental.UtilityClass;
 @UtilityClass
 public final class AppConstants {
     public static final String LOCALE_PARAMETER = "lang";
+    public static final String PROFILE_LOCAL = "local";
+    public static final String PROFILE_PROD = "prod";
+    public static final int STARTUP_STEPS_CAPACITY = 4096;
 }
\ No newline at end of file
@@ -11,4 +11,13 @@ public final class AuthConstants {
     public static final String PASSWORD = "PASSWORD";
     public static final String SECRET_HASH = "SECRET_HASH";
     public static final String HASH_ALGORITHM = "HmacSHA256";
+
+    public static final String ATTRIBUTE_EMAIL = "email";
+    public static final String ATTRIBUTE_EMAIL_VERIFIED = "email_verified";
+    public static final String ATTRIBUTE_NAME = "name";
+    public static final String ATTRIBUTE_DOCUMENT = "custom:document";
+
+    public static final String GROUPS_CLAIM = "cognito:groups";
+    public static final String GROUP_AUTHORITY_PREFIX = "GROUP_";
+    public static final String ADMIN_GROUP = "Admin";
 }
\ No newline at end of file
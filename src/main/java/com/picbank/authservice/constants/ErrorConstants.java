@@ -10,4 +10,14 @@ public final class ErrorConstants {
     public static final String VALIDATION_ERROR = "VALIDATION_ERROR";
     public static final String AUTH_ERROR = "AUTH_ERROR";
     public static final String INTERNAL_SERVER_ERROR = "INTERNAL_SERVER_ERROR";
+    public static final String INVALID_CREDENTIALS = "INVALID_CREDENTIALS";
+    public static final String USER_NOT_CONFIRMED = "USER_NOT_CONFIRMED";
+    public static final String PASSWORD_RESET_REQUIRED = "PASSWORD_RESET_REQUIRED";
+    public static final String USER_EXISTS = "USER_EXISTS";
+    public static final String INVALID_PASSWORD = "INVALID_PASSWORD";
+    public static final String INVALID_CONFIRMATION_CODE = "INVALID_CONFIRMATION_CODE";
+    public static final String EXPIRED_CONFIRMATION_CODE = "EXPIRED_CONFIRMATION_CODE";
+    public static final String TOO_MANY_ATTEMPTS = "TOO_MANY_ATTEMPTS";
+    public static final String SERVICE_OVERLOADED = "SERVICE_OVERLOADED";
+    public static final String DEADLINE_EXCEEDED = "DEADLINE_EXCEEDED";
 }
@@ -20,8 +20,27 @@ public final class MessageConstants {
     public static final String AUTH_REGISTER_START = "auth.register.start";
     public static final String AUTH_REGISTER_SUCCESS = "auth.register.success";
     public static final String AUTH_REGISTER_FAILURE = "auth.register.failure";
+    public static final String AUTH_REGISTER_TIMEOUT = "auth.register.timeout";
     public static final String AUTH_ERROR_VALIDATION = "auth.error.validation";
     public static final String AUTH_ADD_USER_GROUP_SUCCESS = "auth.add.user.group.success";
+    public static final String AUTH_FAILURE_EXPECTED = "auth.failure.expected";
+    public static final String AUTH_FAILURE_INVALID_CREDENTIALS = "auth.failure.invalid.credentials";
+    public static final String AUTH_FAILURE_USER_NOT_CONFIRMED = "auth.failure.user.not.confirmed";
+    public static final String AUTH_FAILURE_PASSWORD_RESET_REQUIRED = "auth.failure.password.reset.required";
+    public static final String AUTH_FAILURE_USER_EXISTS = "auth.failure.user.exists";
+    public static final String AUTH_FAILURE_INVALID_PASSWORD = "auth.failure.invalid.password";
+    public static final String AUTH_FAILURE_INVALID_CODE = "auth.failure.invalid.code";
+    public static final String AUTH_FAILURE_EXPIRED_CODE = "auth.failure.expired.code";
+    public static final String AUTH_FAILURE_TOO_MANY_ATTEMPTS = "auth.failure.too.many.attempts";
+    public static final String AUTH_FAILURE_SERVICE_OVERLOADED = "auth.failure.service.overloaded";
+    public static final String AUTH_FAILURE_DEADLINE_EXCEEDED = "auth.failure.deadline.exceeded";
+    public static final String AUTH_DEADLINE_EXCEEDED = "auth.deadline.exceeded";
+    public static final String AUTH_LOAD_SHED = "auth.load.shed";
+
+    public static final String AWS_CREDENTIALS_REFRESHED = "aws.credentials.refreshed";
+    public static final String AWS_CREDENTIALS_STATIC = "aws.credentials.static";
+    public static final String AWS_CREDENTIALS_REFRESH_ERROR = "aws.credentials.refresh.error";
+    public static final String AWS_CREDENTIALS_UNAVAILABLE = "aws.credentials.unavailable";
 
     public static final String COGNITO_HASH_START = "cognito.hash.start";
     public static final String COGNITO_HASH_INIT = "cognito.hash.init";
@@ -29,6 +48,9 @@ public final class MessageConstants {
     public static final String COGNITO_HASH_FINALIZE = "cognito.hash.finalize";
     public static final String COGNITO_HASH_SUCCESS = "cognito.hash.success";
     public static final String COGNITO_HASH_ERROR = "cognito.hash.error";
+    public static final String COGNITO_ROUTING_FAILOVER = "cognito.routing.failover";
+    public static final String COGNITO_ROUTING_DEGRADED = "cognito.routing.degraded";
+    public static final String COGNITO_ROUTING_RECOVERED = "cognito.routing.recovered";
 
     public static final String EMAIL_SENT_SUCCESS = "email.sent.success";
     public static final String EMAIL_SENT_FAILURE = "email.sent.failure";
@@ -41,6 +63,42 @@ public final class MessageConstants {
     public static final String SQS_SEND_START = "sqs.send.start";
     public static final String SQS_SEND_SUCCESS = "sqs.send.success";
     public static final String SQS_SEND_ERROR = "sqs.send.error";
+    public static final String SQS_SEND_BATCH_START = "sqs.send.batch.start";
+    public static final String SQS_SEND_BATCH_PARTIAL = "sqs.send.batch.partial";
+    public static final String SQS_SEND_BATCH_ERROR = "sqs.send.batch.error";
+    public static final String SQS_SEND_REASSIGNMENT_START = "sqs.send.reassignment.start";
+    public static final String SQS_SEND_REASSIGNMENT_ERROR = "sqs.send.reassignment.error";
+
+    public static final String USER_IMPORT_START = "user.import.start";
+    public static final String USER_IMPORT_FINISHED = "user.import.finished";
+    public static final String USER_IMPORT_ABORTED = "user.import.aborted";
+    public static final String USER_IMPORT_ROW_REJECTED = "user.import.row.rejected";
+    public static final String USER_IMPORT_REASON_MALFORMED = "user.import.reason.malformed";
+    public static final String USER_IMPORT_REASON_ENQUEUE = "user.import.reason.enqueue";
+
+    public static final String USER_EXPORT_START = "user.export.start";
+    public static final String USER_EXPORT_FINISHED = "user.export.finished";
+    public static final String USER_EXPORT_ABORTED = "user.export.aborted";
+
+    public static final String GROUP_REASSIGNMENT_STARTED = "group.reassignment.started";
+    public static final String GROUP_REASSIGNMENT_CHECKPOINT = "group.reassignment.checkpoint";
+    public static final String GROUP_REASSIGNMENT_FINISHED = "group.reassignment.finished";
+    public static final String GROUP_REASSIGNMENT_USER_FAILED = "group.reassignment.user.failed";
+    public static final String GROUP_REASSIGNMENT_LIST_ERROR = "group.reassignment.list.error";
+    public static final String GROUP_REASSIGNMENT_UNKNOWN_GROUP = "group.reassignment.unknown.group";
+    public static final String GROUP_REASSIGNMENT_SAME_GROUP = "group.reassignment.same.group";
+    public static final String GROUP_REASSIGNMENT_STOPPED = "group.reassignment.stopped";
+
+    public static final String DLQ_PEEK_START = "dlq.peek.start";
+    public static final String DLQ_PEEK_FINISHED = "dlq.peek.finished";
+    public static final String DLQ_REDRIVE_START_ALL = "dlq.redrive.start.all";
+    public static final String DLQ_REDRIVE_START_SELECTED = "dlq.redrive.start.selected";
+    public static final String DLQ_REDRIVE_FINISHED = "dlq.redrive.finished";
+    public static final String DLQ_REDRIVE_ABORTED = "dlq.redrive.aborted";
+    public static final String DLQ_REDRIVE_TIMED_OUT = "dlq.redrive.timed.out";
+    public static final String DLQ_REDRIVE_SEND_FAILED = "dlq.redrive.send.failed";
+    public static final String DLQ_REDRIVE_DELETE_FAILED = "dlq.redrive.delete.failed";
+    public static final String DLQ_RELEASE_FAILED = "dlq.release.failed";
 
     public static final String WORKER_SQS_CHECKING = "worker.sqs.checking";
     public static final String WORKER_SQS_RETRIEVED = "worker.sqs.retrieved";
@@ -50,10 +108,34 @@ public final class MessageConstants {
     public static final String WORKER_SQS_INVALID_FIELDS = "worker.sqs.invalid.fields";
     public static final String WORKER_SQS_INVALID_GROUP = "worker.sqs.invalid.group";
     public static final String WORKER_SQS_DELETED = "worker.sqs.deleted";
-    public static final String WORKER_SQS_SENT_DLQ = "worker.sqs.sent.dlq";
     public static final String WORKER_SQS_ERROR_CONSUMING = "worker.sqs.error.consuming";
     public static final String WORKER_SQS_ERROR_PROCESSING = "worker.sqs.error.processing";
     public static final String WORKER_SQS_ERROR_DLQ = "worker.sqs.error.dlq";
+    public static final String WORKER_SQS_RECEIVED = "worker.sqs.received";
+    public static final String WORKER_SQS_METRICS_SAMPLED = "worker.sqs.metrics.sampled";
+    public static final String WORKER_SQS_METRICS_ERROR = "worker.sqs.metrics.error";
+    public static final String WORKER_SQS_UNSUPPORTED_TYPE = "worker.sqs.unsupported.type";
+    public static final String WORKER_SQS_PAUSED = "worker.sqs.paused";
+    public static final String WORKER_SQS_RESUMED = "worker.sqs.resumed";
+    public static final String WORKER_SQS_DRAIN_TIMEOUT = "worker.sqs.drain.timeout";
+    public static final String WORKER_SQS_RELEASED = "worker.sqs.released";
+    public static final String WORKER_SQS_ERROR_RELEASE = "worker.sqs.error.release";
+    public static final String WORKER_SQS_ERROR_RELEASE_ENTRY = "worker.sqs.error.release.entry";
+    public static final String WORKER_SQS_RETUNED = "worker.sqs.retuned";
+    public static final String WORKER_SQS_THROTTLED = "worker.sqs.throttled";
+    public static final String WORKER_SQS_RETRY_SCHEDULED = "worker.sqs.retry.scheduled";
+    public static final String WORKER_SQS_ERROR_RETRY = "worker.sqs.error.retry";
+    public static final String WORKER_SQS_ERROR_DELETE = "worker.sqs.error.delete";
+    public static final String WORKER_SQS_QUARANTINED = "worker.sqs.quarantined";
+    public static final String WORKER_SQS_KEPT = "worker.sqs.kept";
+    public static final String WORKER_SQS_HELD = "worker.sqs.held";
+
+    public static final String WORKER_FAST_LANE_ASSIGNED = "worker.fast.lane.assigned";
+    public static final String WORKER_FAST_LANE_FALLBACK = "worker.fast.lane.fallback";
+    public static final String WORKER_FAST_LANE_FAILED = "worker.fast.lane.failed";
+    public static final String WORKER_FAST_LANE_LOST = "worker.fast.lane.lost";
+    public static final String WORKER_FAST_LANE_DRAINED = "worker.fast.lane.drained";
+    public static final String WORKER_FAST_LANE_DRAIN_TIMEOUT = "worker.fast.lane.drain.timeout";
 
     public static final String UNKNOWN_ERROR = "application.error.unknown";
 }
@@ -0,0 +1,29 @@
+package com.picbank.authservice.constants;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Defines the SQS message types, envelope versions and routing attribute names.
+ */
+@UtilityClass
+public final class MessagingConstants {
+    public static final String MESSAGE_TYPE_ATTRIBUTE = "picbank-message-type";
+    public static final String MESSAGE_VERSION_ATTRIBUTE = "picbank-message-version";
+    public static final String FAILURE_CLASS_ATTRIBUTE = "picbank-failure-class";
+    public static final String FAILURE_REASON_ATTRIBUTE = "picbank-failure-reason";
+
+    public static final String FAILURE_CLASS_PERMANENT = "permanent";
+    public static final String FAILURE_CLASS_EXHAUSTED = "exhausted";
+
+    public static final String USER_GROUP_ASSIGNMENT = "user.group.assignment";
+    public static final int USER_GROUP_ASSIGNMENT_VERSION = 1;
+    public static final String USER_GROUP_REASSIGNMENT = "user.group.reassignment";
+    public static final int USER_GROUP_REASSIGNMENT_VERSION = 1;
+    /** Users a move may leave behind before it stops, which keeps its checkpoints well under the SQS message size. */
+    public static final int USER_GROUP_REASSIGNMENT_MAX_FAILED_USERS = 1000;
+
+    public static final String USER_GROUP_ASSIGNMENT_MESSAGE_GROUP_PREFIX = "user-group-assignment-";
+    public static final String USER_GROUP_REASSIGNMENT_MESSAGE_GROUP_PREFIX = "user-group-reassignment-";
+
+    public static final int SQS_MAX_BATCH_SIZE = 10;
+}
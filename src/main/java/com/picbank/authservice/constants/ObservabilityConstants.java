@@ -0,0 +1,68 @@
+package com.picbank.authservice.constants;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Defines observation (span and metric) names and tag keys used throughout the application.
+ */
+@UtilityClass
+public final class ObservabilityConstants {
+    public static final String AWS_SDK_CALL = "aws.sdk.call";
+    public static final String AWS_CREDENTIALS_REFRESH = "aws.credentials.refresh";
+    public static final String AWS_CREDENTIALS_EXPIRATION = "aws.credentials.expiration";
+    public static final String SQS_MESSAGE_SEND = "sqs.message.send";
+    public static final String SQS_MESSAGE_PROCESS = "sqs.message.process";
+
+    public static final String SQS_MESSAGE_DWELL = "sqs.message.dwell";
+    public static final String SQS_MESSAGE_RECEIVE_COUNT = "sqs.message.receive.count";
+    public static final String SQS_MESSAGE_FAILURES = "sqs.message.failures";
+    public static final String SQS_QUEUE_MESSAGES = "sqs.queue.messages";
+    public static final String SQS_QUEUE_OLDEST_MESSAGE_AGE = "sqs.queue.oldest.message.age";
+    public static final String USER_GROUP_ASSIGNMENT_LATENCY = "user.group.assignment.latency";
+    public static final String USER_GROUP_ASSIGNMENT_FALLBACKS = "user.group.assignment.fallbacks";
+    public static final String SQS_WORKER_POLLERS = "sqs.worker.pollers";
+    public static final String SQS_WORKER_BATCH_SIZE = "sqs.worker.batch.size";
+    public static final String SQS_WORKER_WAIT = "sqs.worker.wait";
+    public static final String SQS_WORKER_THROTTLED = "sqs.worker.throttled";
+    public static final String USER_GROUP_REASSIGNMENT_USERS = "user.group.reassignment.users";
+    public static final String COGNITO_ENDPOINT_LATENCY = "cognito.endpoint.latency";
+    public static final String COGNITO_ENDPOINT_ERROR_RATE = "cognito.endpoint.error.rate";
+    public static final String COGNITO_ENDPOINT_FAILOVERS = "cognito.endpoint.failovers";
+    public static final String AUTH_CONCURRENCY_LIMIT = "auth.concurrency.limit";
+    public static final String AUTH_CONCURRENCY_IN_FLIGHT = "auth.concurrency.in.flight";
+    public static final String AUTH_CONCURRENCY_REJECTED = "auth.concurrency.rejected";
+
+    public static final String TAG_AWS_SERVICE = "aws.service";
+    public static final String TAG_AWS_OPERATION = "aws.operation";
+    public static final String TAG_MESSAGING_SYSTEM = "messaging.system";
+    public static final String TAG_MESSAGING_DESTINATION = "messaging.destination.name";
+    public static final String TAG_QUEUE = "queue";
+    public static final String TAG_STATE = "state";
+    public static final String TAG_OUTCOME = "outcome";
+    public static final String TAG_ENDPOINT = "endpoint";
+    public static final String TAG_BUDGET = "budget";
+    public static final String TAG_LANE = "lane";
+    public static final String TAG_REASON = "reason";
+
+    public static final String QUEUE_MAIN = "main";
+    public static final String QUEUE_DLQ = "dlq";
+    public static final String STATE_VISIBLE = "visible";
+    public static final String STATE_IN_FLIGHT = "in_flight";
+    public static final String OUTCOME_REASSIGNED = "reassigned";
+    public static final String OUTCOME_FAILED = "failed";
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_RETRIED = "retried";
+    public static final String OUTCOME_QUARANTINED = "quarantined";
+    public static final String ENDPOINT_PRIMARY = "primary";
+    public static final String ENDPOINT_SECONDARY = "secondary";
+    public static final String LANE_QUEUE = "queue";
+    public static final String LANE_FAST = "fast";
+    public static final String REASON_REJECTED = "rejected";
+    public static final String REASON_STOPPED = "stopped";
+    public static final String REASON_FAILED = "failed";
+    public static final String REASON_TRANSIENT = "transient";
+    public static final String REASON_PERMANENT = "permanent";
+    public static final String REASON_EXHAUSTED = "exhausted";
+
+    public static final String MESSAGING_SYSTEM_SQS = "aws_sqs";
+}
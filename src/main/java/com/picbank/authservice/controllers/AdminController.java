@@ -0,0 +1,149 @@
+package com.picbank.authservice.controllers;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.picbank.authservice.api.AdminApi;
+import com.picbank.authservice.model.DlqMessage;
+import com.picbank.authservice.model.DlqRedriveEvent;
+import com.picbank.authservice.model.DlqRedriveRequest;
+import com.picbank.authservice.model.GroupReassignmentJob;
+import com.picbank.authservice.model.GroupReassignmentRequest;
+import com.picbank.authservice.model.UserExportRecord;
+import com.picbank.authservice.model.UserImportEvent;
+import com.picbank.authservice.model.enums.UserImportFormat;
+import com.picbank.authservice.services.DeadLetterQueueService;
+import com.picbank.authservice.services.GroupReassignmentService;
+import com.picbank.authservice.services.UserExportService;
+import com.picbank.authservice.services.UserImportService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AdminController implements AdminApi {
+
+    private static final int LINE_SEPARATOR = '\n';
+    private static final int DEFAULT_DLQ_PEEK_LIMIT = 100;
+
+    private final UserImportService userImportService;
+    private final UserExportService userExportService;
+    private final GroupReassignmentService groupReassignmentService;
+    private final DeadLetterQueueService deadLetterQueueService;
+    private final ObjectWriter eventWriter;
+    private final ObjectWriter recordWriter;
+    private final ObjectWriter dlqMessageWriter;
+    private final ObjectWriter redriveEventWriter;
+    private final NativeWebRequest request;
+
+    /**
+     * Constructs a new {@code AdminController}.
+     *
+     * @param userImportService        The service that imports the users.
+     * @param userExportService        The service that exports the users.
+     * @param groupReassignmentService The service that starts the group reassignment jobs.
+     * @param deadLetterQueueService   The service that inspects and redrives the dead-letter queue.
+     * @param objectMapper             The application mapper; events and records are written without their unset fields.
+     * @param request                  The current request.
+     */
+    public AdminController(UserImportService userImportService, UserExportService userExportService,
+                           GroupReassignmentService groupReassignmentService,
+                           DeadLetterQueueService deadLetterQueueService, ObjectMapper objectMapper,
+                           NativeWebRequest request) {
+        this.userImportService = userImportService;
+        this.userExportService = userExportService;
+        this.groupReassignmentService = groupReassignmentService;
+        this.deadLetterQueueService = deadLetterQueueService;
+        ObjectMapper lineMapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        this.eventWriter = lineMapper.writerFor(UserImportEvent.class);
+        this.recordWriter = lineMapper.writerFor(UserExportRecord.class);
+        this.dlqMessageWriter = lineMapper.writerFor(DlqMessage.class);
+        this.redriveEventWriter = lineMapper.writerFor(DlqRedriveEvent.class);
+        this.request = request;
+    }
+
+    @Override
+    public Optional<NativeWebRequest> getRequest() {
+        return Optional.of(request);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> importUsers(InputStreamResource body) {
+        var format = UserImportFormat.of(MediaType.parseMediaType(request.getHeader(HttpHeaders.CONTENT_TYPE)));
+        StreamingResponseBody events = output ->
+                userImportService.importUsers(body.getInputStream(), format, event -> writeLine(output, eventWriter, event, true));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(events);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportUsers(Boolean includeGroups) {
+        StreamingResponseBody users = output ->
+                userExportService.exportUsers(!Boolean.FALSE.equals(includeGroups), user -> writeLine(output, recordWriter, user, false));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(users);
+    }
+
+    @Override
+    public ResponseEntity<GroupReassignmentJob> startGroupReassignment(GroupReassignmentRequest groupReassignmentRequest) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(groupReassignmentService.startReassignment(groupReassignmentRequest));
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> peekDlqMessages(Integer limit) {
+        int peekLimit = limit == null ? DEFAULT_DLQ_PEEK_LIMIT : limit;
+        StreamingResponseBody messages = output ->
+                deadLetterQueueService.peekMessages(peekLimit, message -> writeLine(output, dlqMessageWriter, message, false));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(messages);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> redriveDlqMessages(DlqRedriveRequest dlqRedriveRequest) {
+        StreamingResponseBody events = output ->
+                deadLetterQueueService.redriveMessages(dlqRedriveRequest, event -> writeLine(output, redriveEventWriter, event, true));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(events);
+    }
+
+    /**
+     * Writes a value as an NDJSON line.
+     * <p>
+     * The write blocks while the response buffer is full and the client is not reading, which slows down the
+     * producer of the lines.
+     * </p>
+     *
+     * @param output The response body.
+     * @param writer The writer of the value type.
+     * @param value  The import event, export record, DLQ message or redrive event.
+     * @param flush  Whether to flush the line, so the client sees it as it happens instead of once the buffer is full.
+     */
+    private static void writeLine(OutputStream output, ObjectWriter writer, Object value, boolean flush) {
+        try {
+            output.write(writer.writeValueAsBytes(value));
+            output.write(LINE_SEPARATOR);
+            if (flush) {
+                output.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,37 +1,55 @@
 package com.picbank.authservice.controllers;
 
 import com.picbank.authservice.api.AuthApi;
+import com.picbank.authservice.components.AuthDeadlines;
 import com.picbank.authservice.model.AuthResponse;
 import com.picbank.authservice.model.ConfirmEmailRequest;
 import com.picbank.authservice.model.LoginRequest;
 import com.picbank.authservice.model.RegisterRequest;
+import com.picbank.authservice.model.enums.AuthBudget;
 import com.picbank.authservice.services.AuthService;
+import com.picbank.authservice.utils.Deadline;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.util.Optional;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 public class AuthController implements AuthApi {
 
     private final AuthService authService;
+    private final AuthDeadlines authDeadlines;
+    private final NativeWebRequest request;
+
+    @Override
+    public Optional<NativeWebRequest> getRequest() {
+        return Optional.of(request);
+    }
 
     @Override
     public ResponseEntity<AuthResponse> login(LoginRequest loginRequest) {
-        var response = authService.login(loginRequest);
+        var response = authService.login(loginRequest, deadline(AuthBudget.LOGIN));
         return ResponseEntity.ok(response);
     }
 
     @Override
     public ResponseEntity<Void> register(RegisterRequest registerRequest) {
-        var status = authService.register(registerRequest);
+        var status = authService.register(registerRequest, deadline(AuthBudget.SIGNUP));
         return ResponseEntity.status(status).build();
     }
 
     @Override
     public ResponseEntity<Void> confirmEmail(ConfirmEmailRequest confirmEmailRequest) {
-        authService.confirmEmail(confirmEmailRequest);
+        authService.confirmEmail(confirmEmailRequest, deadline(AuthBudget.SIGNUP));
         return ResponseEntity.ok().build();
     }
-}
 
+    private Deadline deadline(AuthBudget budget) {
+        return authDeadlines.resolve(budget, request.getHeader(authDeadlines.getHeader()));
+    }
+}
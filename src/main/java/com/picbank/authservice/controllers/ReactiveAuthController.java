@@ -0,0 +1,82 @@
+package com.picbank.authservice.controllers;
+
+import com.picbank.authservice.api.reactive.AuthApi;
+import com.picbank.authservice.components.AuthDeadlines;
+import com.picbank.authservice.components.AuthLoadShedder;
+import com.picbank.authservice.exceptions.AuthFailureException;
+import com.picbank.authservice.model.AuthResponse;
+import com.picbank.authservice.model.ConfirmEmailRequest;
+import com.picbank.authservice.model.LoginRequest;
+import com.picbank.authservice.model.RegisterRequest;
+import com.picbank.authservice.model.enums.AuthBudget;
+import com.picbank.authservice.model.enums.AuthFailure;
+import com.picbank.authservice.services.AuthService;
+import com.picbank.authservice.utils.Deadline;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveAuthController implements AuthApi {
+
+    private final AuthService authService;
+    private final AuthLoadShedder loadShedder;
+    private final AuthDeadlines authDeadlines;
+
+    @Override
+    public Mono<ResponseEntity<AuthResponse>> login(Mono<LoginRequest> loginRequest, ServerWebExchange exchange) {
+        Deadline deadline = deadline(AuthBudget.LOGIN, exchange);
+        return admitted(AuthBudget.LOGIN, loginRequest
+                .flatMap(request -> Mono.fromFuture(() -> authService.loginAsync(request, deadline)))
+                .map(ResponseEntity::ok));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> register(Mono<RegisterRequest> registerRequest, ServerWebExchange exchange) {
+        Deadline deadline = deadline(AuthBudget.SIGNUP, exchange);
+        return admitted(AuthBudget.SIGNUP, registerRequest
+                .flatMap(request -> Mono.fromFuture(() -> authService.registerAsync(request, deadline)))
+                .map(status -> ResponseEntity.status(status).build()));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> confirmEmail(Mono<ConfirmEmailRequest> confirmEmailRequest, ServerWebExchange exchange) {
+        Deadline deadline = deadline(AuthBudget.SIGNUP, exchange);
+        return admitted(AuthBudget.SIGNUP, confirmEmailRequest
+                .flatMap(request -> Mono.fromFuture(() -> authService.confirmEmailAsync(request, deadline)))
+                .then(Mono.fromSupplier(() -> ResponseEntity.ok().build())));
+    }
+
+    /**
+     * Subscribes to the call only if it is admitted within the concurrency limit of its budget, before the request
+     * body is read, and releases it exactly once, whether it completes, fails or is cancelled.
+     */
+    private <T> Mono<T> admitted(AuthBudget budget, Mono<T> call) {
+        return Mono.usingWhen(
+                Mono.defer(() -> loadShedder.tryAcquire(budget)
+                        ? Mono.just(System.nanoTime())
+                        : Mono.error(AuthFailure.SERVICE_OVERLOADED.getException())),
+                startNanos -> call,
+                startNanos -> Mono.fromRunnable(() -> loadShedder.release(budget, startNanos, false)),
+                (startNanos, error) -> Mono.fromRunnable(() -> loadShedder.release(budget, startNanos, serverError(error))),
+                startNanos -> Mono.fromRunnable(() -> loadShedder.release(budget, startNanos, false)));
+    }
+
+    private Deadline deadline(AuthBudget budget, ServerWebExchange exchange) {
+        return authDeadlines.resolve(budget, exchange.getRequest().getHeaders().getFirst(authDeadlines.getHeader()));
+    }
+
+    private static boolean serverError(Throwable error) {
+        return switch (error) {
+            case AuthFailureException failure -> failure.getFailure().getStatus().is5xxServerError();
+            case ResponseStatusException status -> status.getStatusCode().is5xxServerError();
+            default -> true;
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.picbank.authservice.exceptions;
+
+import com.picbank.authservice.model.enums.AuthFailure;
+import lombok.Getter;
+
+/**
+ * Exception thrown when an authentication request has an expected, client-side outcome, such as a wrong password.
+ * <p>
+ * It records neither a stack trace nor suppressed exceptions, so the single instance of each {@link AuthFailure}
+ * can be thrown by every request; it is rendered with the status and code of its failure.
+ * </p>
+ */
+@Getter
+public class AuthFailureException extends RuntimeException {
+
+    private final transient AuthFailure failure;
+
+    /**
+     * Constructs the {@code AuthFailureException} of a failure; use {@link AuthFailure#getException()} instead.
+     *
+     * @param failure the expected outcome.
+     */
+    public AuthFailureException(AuthFailure failure) {
+        super(failure.name(), null, false, false);
+        this.failure = failure;
+    }
+}
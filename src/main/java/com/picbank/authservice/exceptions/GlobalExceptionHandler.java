@@ -1,17 +1,22 @@
 package com.picbank.authservice.exceptions;
 
+import com.picbank.authservice.components.AuthConcurrencyProperties;
 import com.picbank.authservice.constants.ErrorConstants;
 import com.picbank.authservice.model.ErrorResponse;
+import com.picbank.authservice.model.enums.AuthFailure;
 import com.picbank.authservice.services.MessageService;
 import jakarta.security.auth.message.AuthException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -30,6 +35,7 @@ import static com.picbank.authservice.constants.MessageConstants.*;
 public class GlobalExceptionHandler {
 
     private final MessageService messageService;
+    private final AuthConcurrencyProperties authConcurrencyProperties;
 
     /**
      * Handles validation errors caused by invalid request data.
@@ -39,7 +45,22 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
-        List<String> details = ex.getBindingResult().getAllErrors().stream()
+        return validationError(ex.getBindingResult());
+    }
+
+    /**
+     * Handles validation errors caused by invalid request data in the reactive deployment.
+     *
+     * @param ex the exception thrown by WebFlux due to validation failures.
+     * @return a {@link ResponseEntity} containing an {@link ErrorResponse} with details about the validation errors.
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleWebExchangeBindException(WebExchangeBindException ex) {
+        return validationError(ex.getBindingResult());
+    }
+
+    private ResponseEntity<ErrorResponse> validationError(BindingResult bindingResult) {
+        List<String> details = bindingResult.getAllErrors().stream()
                 .map(error -> (error instanceof FieldError fieldError) ?
                         fieldError.getField() + ": " + fieldError.getDefaultMessage() :
                         error.getDefaultMessage())
@@ -56,6 +77,25 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    /**
+     * Handles requests that passed validation but cannot be carried out, e.g. because they refer to unknown resources.
+     *
+     * @param ex the exception describing why the request is invalid.
+     * @return a {@link ResponseEntity} containing an {@link ErrorResponse} with the reason.
+     */
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequestException(InvalidRequestException ex) {
+        ErrorResponse errorResponse = buildErrorResponse(
+                HttpStatus.BAD_REQUEST,
+                ErrorConstants.VALIDATION_ERROR,
+                messageService.getMessage(ERROR_VALIDATION),
+                List.of(ex.getMessage())
+        );
+
+        log.warn("Invalid request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
     /**
      * Handles authentication and authorization failures.
      *
@@ -75,6 +115,33 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
     }
 
+    /**
+     * Handles expected outcomes of the authentication endpoints, such as a wrong password or an existing user.
+     * <p>
+     * These are rendered from their precomputed status, code and message without logging, since they are client
+     * errors and, under credential-stuffing, most of the traffic. A request shed under load also tells the client
+     * when to retry.
+     * </p>
+     *
+     * @param ex the stackless {@link AuthFailureException} of the failure.
+     * @return a {@link ResponseEntity} containing an {@link ErrorResponse} with the status and code of the failure.
+     */
+    @ExceptionHandler(AuthFailureException.class)
+    public ResponseEntity<ErrorResponse> handleAuthFailureException(AuthFailureException ex) {
+        var failure = ex.getFailure();
+        ErrorResponse errorResponse = buildErrorResponse(
+                failure.getStatus(),
+                failure.getCode(),
+                messageService.getMessage(failure.getMessageKey())
+        );
+
+        var response = ResponseEntity.status(failure.getStatus());
+        if (failure == AuthFailure.SERVICE_OVERLOADED) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(authConcurrencyProperties.getRetryAfterSeconds()));
+        }
+        return response.body(errorResponse);
+    }
+
     /**
      * Handles all unexpected errors that are not explicitly caught by other exception handlers.
      *
@@ -0,0 +1,20 @@
+package com.picbank.authservice.exceptions;
+
+/**
+ * Exception thrown when a request is well-formed but cannot be carried out as given.
+ * <p>
+ * It covers the checks that bean validation cannot express, such as references to resources that do not exist,
+ * and is mapped to an HTTP 400 Bad Request response.
+ * </p>
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    /**
+     * Constructs a new {@code InvalidRequestException} with the specified detail message.
+     *
+     * @param message the detail message explaining why the request is invalid.
+     */
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
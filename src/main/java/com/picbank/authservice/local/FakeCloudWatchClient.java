@@ -0,0 +1,76 @@
+package com.picbank.authservice.local;
+
+import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
+import software.amazon.awssdk.services.cloudwatch.model.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory {@link CloudWatchClient} for the {@code local} profile.
+ * <p>
+ * Only answers the SQS {@code ApproximateAgeOfOldestMessage} metric, computed from the queues of the
+ * {@link FakeSqsClient}; any other metric returns no datapoints.
+ * </p>
+ */
+public class FakeCloudWatchClient implements CloudWatchClient {
+
+    private static final String SQS_NAMESPACE = "AWS/SQS";
+    private static final String OLDEST_MESSAGE_AGE_METRIC = "ApproximateAgeOfOldestMessage";
+    private static final String QUEUE_NAME_DIMENSION = "QueueName";
+
+    private final FakeSqsClient sqsClient;
+
+    /**
+     * Constructs a new {@code FakeCloudWatchClient}.
+     *
+     * @param sqsClient The fake SQS client whose queues are measured.
+     */
+    public FakeCloudWatchClient(FakeSqsClient sqsClient) {
+        this.sqsClient = sqsClient;
+    }
+
+    @Override
+    public GetMetricDataResponse getMetricData(GetMetricDataRequest request) {
+        Instant now = Instant.now();
+        List<MetricDataResult> results = request.metricDataQueries().stream()
+                .map(query -> {
+                    List<Double> values = oldestMessageAgeSeconds(query.metricStat(), now);
+                    return MetricDataResult.builder()
+                            .id(query.id())
+                            .statusCode(StatusCode.COMPLETE)
+                            .values(values)
+                            .timestamps(values.isEmpty() ? List.of() : List.of(now))
+                            .build();
+                })
+                .toList();
+        return GetMetricDataResponse.builder().metricDataResults(results).build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release: all state lives in memory.
+    }
+
+    private List<Double> oldestMessageAgeSeconds(MetricStat metricStat, Instant now) {
+        if (metricStat == null
+                || !SQS_NAMESPACE.equals(metricStat.metric().namespace())
+                || !OLDEST_MESSAGE_AGE_METRIC.equals(metricStat.metric().metricName())) {
+            return List.of();
+        }
+        return metricStat.metric().dimensions().stream()
+                .filter(dimension -> QUEUE_NAME_DIMENSION.equals(dimension.name()))
+                .findFirst()
+                .map(dimension -> sqsClient.oldestSentTimestamp(dimension.value()))
+                .filter(OptionalLong::isPresent)
+                .map(timestamp -> List.of((double) TimeUnit.MILLISECONDS.toSeconds(now.toEpochMilli() - timestamp.getAsLong())))
+                .orElse(List.of(0d));
+    }
+}
@@ -0,0 +1,57 @@
+package com.picbank.authservice.local;
+
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Asynchronous view of a {@link FakeCognitoIdentityProviderClient} for the reactive deployment with the {@code local}
+ * profile.
+ * <p>
+ * Supports the operations of the {@code /auth} API: sign-up, confirmation and login. Each call runs on its own virtual
+ * thread, so the injected latency of the fake never blocks the caller, like a call waiting on the network; errors
+ * complete the future exceptionally, as the SDK clients do.
+ * </p>
+ */
+public class FakeCognitoIdentityProviderAsyncClient implements CognitoIdentityProviderAsyncClient {
+
+    private final FakeCognitoIdentityProviderClient delegate;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Constructs a new {@code FakeCognitoIdentityProviderAsyncClient}.
+     *
+     * @param delegate The fake holding the users, whose latency and errors are injected on every call.
+     */
+    public FakeCognitoIdentityProviderAsyncClient(FakeCognitoIdentityProviderClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CompletableFuture<SignUpResponse> signUp(SignUpRequest request) {
+        return CompletableFuture.supplyAsync(() -> delegate.signUp(request), executor);
+    }
+
+    @Override
+    public CompletableFuture<ConfirmSignUpResponse> confirmSignUp(ConfirmSignUpRequest request) {
+        return CompletableFuture.supplyAsync(() -> delegate.confirmSignUp(request), executor);
+    }
+
+    @Override
+    public CompletableFuture<InitiateAuthResponse> initiateAuth(InitiateAuthRequest request) {
+        return CompletableFuture.supplyAsync(() -> delegate.initiateAuth(request), executor);
+    }
+
+    @Override
+    public String serviceName() {
+        return delegate.serviceName();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
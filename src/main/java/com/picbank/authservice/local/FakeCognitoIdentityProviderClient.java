@@ -0,0 +1,297 @@
+package com.picbank.authservice.local;
+
+import com.picbank.authservice.constants.AuthConstants;
+import com.picbank.authservice.model.enums.CognitoUserGroup;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory {@link CognitoIdentityProviderClient} for the {@code local} profile.
+ * <p>
+ * Supports the user pool operations used by the service: sign-up, admin creation (with a temporary password),
+ * confirmation with a fixed code, {@code USER_PASSWORD_AUTH} login (issuing opaque tokens) and group membership. Users, their attributes
+ * and their groups are kept in memory; errors mirror the Cognito exceptions the real service returns.
+ * The application groups exist from the start, and any group a user is added to is created with it.
+ * {@code ListUsers} and {@code ListUsersInGroup} pages are ordered by username and their token is the last username
+ * returned, so pages are stable while users are added or removed.
+ * </p>
+ */
+public class FakeCognitoIdentityProviderClient implements CognitoIdentityProviderClient {
+
+    private static final int BAD_REQUEST = 400;
+    private static final int OK = 200;
+    private static final int TOKEN_EXPIRES_IN_SECONDS = 3600;
+    private static final String TOKEN_TYPE = "Bearer";
+    private static final String USERNAME = "USERNAME";
+    private static final String PASSWORD = "PASSWORD";
+    private static final int MAX_PAGE_SIZE = 60;
+
+    private final Map<String, FakeUser> users = new ConcurrentHashMap<>();
+    private final Set<String> groups = Stream.concat(
+                    Arrays.stream(CognitoUserGroup.values()).map(CognitoUserGroup::getGroupName),
+                    Stream.of(AuthConstants.ADMIN_GROUP))
+            .collect(Collectors.toCollection(ConcurrentHashMap::newKeySet));
+    private final FaultInjector faultInjector;
+    private final String confirmationCode;
+
+    /**
+     * Constructs a new {@code FakeCognitoIdentityProviderClient}.
+     *
+     * @param faultInjector    Latency and error injection applied to every call.
+     * @param confirmationCode The code accepted by {@code ConfirmSignUp} for every user.
+     */
+    public FakeCognitoIdentityProviderClient(FaultInjector faultInjector, String confirmationCode) {
+        this.faultInjector = faultInjector;
+        this.confirmationCode = confirmationCode;
+    }
+
+    /**
+     * Adds an already confirmed user, e.g. the account used by the load test to log in.
+     *
+     * @param username The username (e-mail).
+     * @param password The password.
+     */
+    public void seedConfirmedUser(String username, String password) {
+        FakeUser user = new FakeUser(password, Map.of());
+        user.confirmed = true;
+        users.put(username, user);
+    }
+
+    /**
+     * Returns the groups a user belongs to.
+     *
+     * @param username The username (e-mail).
+     * @return The group names, empty if the user does not exist.
+     */
+    public Set<String> groupsOf(String username) {
+        return Optional.ofNullable(users.get(username))
+                .map(user -> Set.copyOf(user.groups))
+                .orElse(Set.of());
+    }
+
+    @Override
+    public SignUpResponse signUp(SignUpRequest request) {
+        faultInjector.apply(CognitoIdentityProviderException.builder(), request);
+        Map<String, String> attributes = request.userAttributes().stream()
+                .collect(Collectors.toMap(AttributeType::name, AttributeType::value, (first, second) -> second));
+        FakeUser user = new FakeUser(request.password(), attributes);
+        if (users.putIfAbsent(request.username(), user) != null) {
+            throw error(UsernameExistsException.builder(), "UsernameExistsException", "User already exists");
+        }
+        SignUpResponse.Builder response = SignUpResponse.builder()
+                .userSub(user.sub)
+                .userConfirmed(false);
+        response.sdkHttpResponse(SdkHttpResponse.builder().statusCode(OK).build());
+        return response.build();
+    }
+
+    @Override
+    public AdminCreateUserResponse adminCreateUser(AdminCreateUserRequest request) {
+        faultInjector.apply(CognitoIdentityProviderException.builder());
+        Map<String, String> attributes = request.userAttributes().stream()
+                .collect(Collectors.toMap(AttributeType::name, AttributeType::value, (first, second) -> second));
+        String temporaryPassword = Optional.ofNullable(request.temporaryPassword()).orElseGet(() -> UUID.randomUUID().toString());
+        FakeUser user = new FakeUser(temporaryPassword, attributes);
+        if (users.putIfAbsent(request.username(), user) != null) {
+            throw error(UsernameExistsException.builder(), "UsernameExistsException", "User account already exists");
+        }
+        return AdminCreateUserResponse.builder()
+                .user(UserType.builder()
+                        .username(request.username())
+                        .attributes(request.userAttributes())
+                        .userStatus(UserStatusType.FORCE_CHANGE_PASSWORD)
+                        .enabled(true)
+                        .build())
+                .build();
+    }
+
+    @Override
+    public ConfirmSignUpResponse confirmSignUp(ConfirmSignUpRequest request) {
+        faultInjector.apply(CognitoIdentityProviderException.builder(), request);
+        FakeUser user = findUser(request.username());
+        if (!confirmationCode.equals(request.confirmationCode())) {
+            throw error(CodeMismatchException.builder(), "CodeMismatchException", "Invalid verification code provided, please try again.");
+        }
+        user.confirmed = true;
+        return ConfirmSignUpResponse.builder().build();
+    }
+
+    @Override
+    public InitiateAuthResponse initiateAuth(InitiateAuthRequest request) {
+        faultInjector.apply(CognitoIdentityProviderException.builder(), request);
+        if (request.authFlow() != AuthFlowType.USER_PASSWORD_AUTH) {
+            throw error(InvalidParameterException.builder(), "InvalidParameterException", "Unsupported auth flow " + request.authFlowAsString());
+        }
+        FakeUser user = users.get(request.authParameters().get(USERNAME));
+        if (user == null || !user.password.equals(request.authParameters().get(PASSWORD))) {
+            throw error(NotAuthorizedException.builder(), "NotAuthorizedException", "Incorrect username or password.");
+        }
+        if (!user.confirmed) {
+            throw error(UserNotConfirmedException.builder(), "UserNotConfirmedException", "User is not confirmed.");
+        }
+        return InitiateAuthResponse.builder()
+                .authenticationResult(AuthenticationResultType.builder()
+                        .accessToken(UUID.randomUUID().toString())
+                        .idToken(UUID.randomUUID().toString())
+                        .refreshToken(UUID.randomUUID().toString())
+                        .expiresIn(TOKEN_EXPIRES_IN_SECONDS)
+                        .tokenType(TOKEN_TYPE)
+                        .build())
+                .build();
+    }
+
+    @Override
+    public AdminAddUserToGroupResponse adminAddUserToGroup(AdminAddUserToGroupRequest request) {
+        faultInjector.apply(CognitoIdentityProviderException.builder());
+        findUser(request.username()).groups.add(request.groupName());
+        groups.add(request.groupName());
+        return AdminAddUserToGroupResponse.builder().build();
+    }
+
+    @Override
+    public AdminRemoveUserFromGroupResponse adminRemoveUserFromGroup(AdminRemoveUserFromGroupRequest request) {
+        faultInjector.apply(CognitoIdentityProviderException.builder());
+        findUser(request.username()).groups.remove(request.groupName());
+        return AdminRemoveUserFromGroupResponse.builder().build();
+    }
+
+    @Override
+    public GetGroupResponse getGroup(GetGroupRequest request) {
+        faultInjector.apply(CognitoIdentityProviderException.builder());
+        if (!groups.contains(request.groupName())) {
+            throw error(ResourceNotFoundException.builder(), "ResourceNotFoundException", "Group not found.");
+        }
+        return GetGroupResponse.builder()
+                .group(GroupType.builder().groupName(request.groupName()).userPoolId(request.userPoolId()).build())
+                .build();
+    }
+
+    @Override
+    public ListUsersInGroupResponse listUsersInGroup(ListUsersInGroupRequest request) {
+        faultInjector.apply(CognitoIdentityProviderException.builder());
+        if (!groups.contains(request.groupName())) {
+            throw error(ResourceNotFoundException.builder(), "ResourceNotFoundException", "Group not found.");
+        }
+        UsernamePage page = page(username -> users.get(username).groups.contains(request.groupName()),
+                request.nextToken(), request.limit());
+        return ListUsersInGroupResponse.builder()
+                .users(page.usernames().stream().map(this::toUserType).toList())
+                .nextToken(page.nextToken())
+                .build();
+    }
+
+    @Override
+    public ListUsersResponse listUsers(ListUsersRequest request) {
+        faultInjector.apply(CognitoIdentityProviderException.builder());
+        UsernamePage page = page(username -> true, request.paginationToken(), request.limit());
+        return ListUsersResponse.builder()
+                .users(page.usernames().stream().map(this::toUserType).toList())
+                .paginationToken(page.nextToken())
+                .build();
+    }
+
+    @Override
+    public AdminListGroupsForUserResponse adminListGroupsForUser(AdminListGroupsForUserRequest request) {
+        faultInjector.apply(CognitoIdentityProviderException.builder());
+        return AdminListGroupsForUserResponse.builder()
+                .groups(findUser(request.username()).groups.stream()
+                        .sorted()
+                        .map(group -> GroupType.builder().groupName(group).userPoolId(request.userPoolId()).build())
+                        .toList())
+                .build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release: all state lives in memory.
+    }
+
+    /**
+     * Returns a page of the usernames that match the filter, in username order, after the one the token refers to.
+     * One more username than the limit is looked up, to tell whether there is a next page.
+     */
+    private UsernamePage page(Predicate<String> filter, String token, Integer limit) {
+        int pageSize = Optional.ofNullable(limit).orElse(MAX_PAGE_SIZE);
+        String after = Optional.ofNullable(token)
+                .map(value -> new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8))
+                .orElse("");
+        List<String> usernames = users.keySet().stream()
+                .filter(username -> username.compareTo(after) > 0)
+                .filter(filter)
+                .sorted()
+                .limit(pageSize + 1L)
+                .toList();
+        if (usernames.size() <= pageSize) {
+            return new UsernamePage(usernames, null);
+        }
+        List<String> page = usernames.subList(0, pageSize);
+        return new UsernamePage(page,
+                Base64.getUrlEncoder().encodeToString(page.get(pageSize - 1).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private UserType toUserType(String username) {
+        FakeUser user = users.get(username);
+        return UserType.builder()
+                .username(username)
+                .attributes(user.attributes.entrySet().stream()
+                        .map(attribute -> AttributeType.builder().name(attribute.getKey()).value(attribute.getValue()).build())
+                        .toList())
+                .userStatus(user.confirmed ? UserStatusType.CONFIRMED : UserStatusType.UNCONFIRMED)
+                .userCreateDate(user.createdAt)
+                .userLastModifiedDate(user.createdAt)
+                .enabled(true)
+                .build();
+    }
+
+    private FakeUser findUser(String username) {
+        FakeUser user = users.get(username);
+        if (user == null) {
+            throw error(UserNotFoundException.builder(), "UserNotFoundException", "User does not exist.");
+        }
+        return user;
+    }
+
+    private static AwsServiceException error(AwsServiceException.Builder builder, String errorCode, String message) {
+        return builder
+                .statusCode(BAD_REQUEST)
+                .message(message)
+                .awsErrorDetails(AwsErrorDetails.builder()
+                        .errorCode(errorCode)
+                        .errorMessage(message)
+                        .build())
+                .build();
+    }
+
+    private record UsernamePage(List<String> usernames, String nextToken) {
+    }
+
+    private static final class FakeUser {
+        private final String sub = UUID.randomUUID().toString();
+        private final Instant createdAt = Instant.now();
+        private final String password;
+        private final Map<String, String> attributes;
+        private final Set<String> groups = ConcurrentHashMap.newKeySet();
+        private volatile boolean confirmed;
+
+        private FakeUser(String password, Map<String, String> attributes) {
+            this.password = password;
+            this.attributes = Map.copyOf(attributes);
+        }
+    }
+}
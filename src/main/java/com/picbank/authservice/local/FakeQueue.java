@@ -0,0 +1,196 @@
+package com.picbank.authservice.local;
+
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sqs.model.MessageSystemAttributeName;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * A single in-memory standard queue of the {@link FakeSqsClient}.
+ * <p>
+ * Messages keep their SQS lifecycle: a received message becomes invisible for the visibility timeout and
+ * reappears afterwards with an incremented receive count unless it is deleted with its latest receipt handle.
+ * Long polling blocks until a message becomes visible or the wait time elapses.
+ * </p>
+ */
+final class FakeQueue {
+
+    private static final long POLL_SLICE_MS = 50;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition messageAvailable = lock.newCondition();
+    private final Map<String, StoredMessage> messages = new LinkedHashMap<>();
+    private final Map<String, StoredMessage> byReceiptHandle = new HashMap<>();
+
+    String send(String body, Map<String, MessageAttributeValue> messageAttributes, long delayMs) {
+        StoredMessage message = new StoredMessage(UUID.randomUUID().toString(), body, Map.copyOf(messageAttributes),
+                System.currentTimeMillis(), delayMs);
+        lock.lock();
+        try {
+            messages.put(message.id, message);
+            messageAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return message.id;
+    }
+
+    List<Message> receive(int maxMessages, long waitMs, long visibilityTimeoutMs,
+                          Predicate<MessageSystemAttributeName> systemAttributeFilter,
+                          Predicate<String> messageAttributeFilter) {
+        long deadline = System.currentTimeMillis() + waitMs;
+        lock.lock();
+        try {
+            while (true) {
+                List<Message> received = takeVisible(maxMessages, visibilityTimeoutMs, systemAttributeFilter, messageAttributeFilter);
+                long remainingMs = deadline - System.currentTimeMillis();
+                if (!received.isEmpty() || remainingMs <= 0) {
+                    return received;
+                }
+                messageAvailable.await(Math.min(remainingMs, POLL_SLICE_MS), TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void delete(String receiptHandle) {
+        lock.lock();
+        try {
+            StoredMessage message = byReceiptHandle.remove(receiptHandle);
+            if (message != null) {
+                messages.remove(message.id);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Changes the visibility of a received message.
+     *
+     * @return {@code false} if the receipt handle is unknown (deleted or superseded by a newer receive).
+     */
+    boolean changeVisibility(String receiptHandle, long visibilityTimeoutMs) {
+        lock.lock();
+        try {
+            StoredMessage message = byReceiptHandle.get(receiptHandle);
+            if (message == null) {
+                return false;
+            }
+            message.visibleAtMs = System.currentTimeMillis() + visibilityTimeoutMs;
+            messageAvailable.signalAll();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long visibleCount() {
+        return count(true);
+    }
+
+    long inFlightCount() {
+        return count(false);
+    }
+
+    OptionalLong oldestSentTimestamp() {
+        lock.lock();
+        try {
+            return messages.values().stream().mapToLong(message -> message.sentTimestamp).min();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long count(boolean visible) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            return messages.values().stream().filter(message -> (message.visibleAtMs <= now) == visible).count();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Message> takeVisible(int maxMessages, long visibilityTimeoutMs,
+                                      Predicate<MessageSystemAttributeName> systemAttributeFilter,
+                                      Predicate<String> messageAttributeFilter) {
+        long now = System.currentTimeMillis();
+        List<Message> received = new ArrayList<>();
+        for (StoredMessage message : messages.values()) {
+            if (received.size() == maxMessages) {
+                break;
+            }
+            if (message.visibleAtMs > now) {
+                continue;
+            }
+            if (message.receiptHandle != null) {
+                byReceiptHandle.remove(message.receiptHandle);
+            }
+            message.receiptHandle = UUID.randomUUID().toString();
+            message.receiveCount++;
+            if (message.firstReceiveTimestamp == 0) {
+                message.firstReceiveTimestamp = now;
+            }
+            message.visibleAtMs = now + visibilityTimeoutMs;
+            byReceiptHandle.put(message.receiptHandle, message);
+            received.add(message.toMessage(systemAttributeFilter, messageAttributeFilter));
+        }
+        return received;
+    }
+
+    private static final class StoredMessage {
+        private final String id;
+        private final String body;
+        private final Map<String, MessageAttributeValue> messageAttributes;
+        private final long sentTimestamp;
+        private long visibleAtMs;
+        private long firstReceiveTimestamp;
+        private int receiveCount;
+        private String receiptHandle;
+
+        private StoredMessage(String id, String body, Map<String, MessageAttributeValue> messageAttributes,
+                              long sentTimestamp, long delayMs) {
+            this.id = id;
+            this.body = body;
+            this.messageAttributes = messageAttributes;
+            this.sentTimestamp = sentTimestamp;
+            this.visibleAtMs = sentTimestamp + delayMs;
+        }
+
+        private Message toMessage(Predicate<MessageSystemAttributeName> systemAttributeFilter,
+                                  Predicate<String> messageAttributeFilter) {
+            Map<MessageSystemAttributeName, String> systemAttributes = new HashMap<>();
+            systemAttributes.put(MessageSystemAttributeName.SENT_TIMESTAMP, String.valueOf(sentTimestamp));
+            systemAttributes.put(MessageSystemAttributeName.APPROXIMATE_RECEIVE_COUNT, String.valueOf(receiveCount));
+            systemAttributes.put(MessageSystemAttributeName.APPROXIMATE_FIRST_RECEIVE_TIMESTAMP, String.valueOf(firstReceiveTimestamp));
+            systemAttributes.keySet().removeIf(systemAttributeFilter.negate());
+
+            Map<String, MessageAttributeValue> attributes = new HashMap<>(messageAttributes);
+            attributes.keySet().removeIf(messageAttributeFilter.negate());
+
+            return Message.builder()
+                    .messageId(id)
+                    .receiptHandle(receiptHandle)
+                    .body(body)
+                    .attributes(systemAttributes)
+                    .messageAttributes(attributes)
+                    .build();
+        }
+    }
+}
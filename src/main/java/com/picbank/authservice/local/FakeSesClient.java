@@ -0,0 +1,88 @@
+package com.picbank.authservice.local;
+
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.model.SendEmailRequest;
+import software.amazon.awssdk.services.ses.model.SendEmailResponse;
+import software.amazon.awssdk.services.ses.model.SesException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory {@link SesClient} for the {@code local} profile.
+ * <p>
+ * Sent e-mails are not delivered; the most recent ones are kept in memory (up to {@code capacity})
+ * so the register → worker → e-mail pipeline can be inspected.
+ * </p>
+ */
+public class FakeSesClient implements SesClient {
+
+    private final ConcurrentLinkedDeque<SentEmail> sentEmails = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final FaultInjector faultInjector;
+    private final int capacity;
+
+    /**
+     * A captured e-mail.
+     *
+     * @param messageId The SES message id returned to the caller.
+     * @param source    The sender address.
+     * @param to        The recipient addresses.
+     * @param subject   The subject.
+     * @param body      The text body.
+     * @param sentAt    When the e-mail was sent.
+     */
+    public record SentEmail(String messageId, String source, List<String> to, String subject, String body, Instant sentAt) {
+    }
+
+    /**
+     * Constructs a new {@code FakeSesClient}.
+     *
+     * @param faultInjector Latency and error injection applied to every call.
+     * @param capacity      Maximum number of e-mails kept in memory; older ones are discarded.
+     */
+    public FakeSesClient(FaultInjector faultInjector, int capacity) {
+        this.faultInjector = faultInjector;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the captured e-mails, oldest first.
+     *
+     * @return A snapshot of the sent e-mails.
+     */
+    public List<SentEmail> sentEmails() {
+        return List.copyOf(sentEmails);
+    }
+
+    @Override
+    public SendEmailResponse sendEmail(SendEmailRequest request) {
+        faultInjector.apply(SesException.builder());
+        SentEmail email = new SentEmail(
+                UUID.randomUUID().toString(),
+                request.source(),
+                List.copyOf(request.destination().toAddresses()),
+                request.message().subject().data(),
+                request.message().body().text() == null ? null : request.message().body().text().data(),
+                Instant.now());
+
+        sentEmails.addLast(email);
+        if (size.incrementAndGet() > capacity && sentEmails.pollFirst() != null) {
+            size.decrementAndGet();
+        }
+        return SendEmailResponse.builder().messageId(email.messageId()).build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release: all state lives in memory.
+    }
+}
@@ -0,0 +1,46 @@
+package com.picbank.authservice.local;
+
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Asynchronous view of a {@link FakeSqsClient} for the reactive deployment with the {@code local} profile.
+ * <p>
+ * Only sends messages, which land in the queues of the fake read by the worker. Each call runs on its own virtual
+ * thread, so the injected latency of the fake never blocks the caller.
+ * </p>
+ */
+public class FakeSqsAsyncClient implements SqsAsyncClient {
+
+    private final FakeSqsClient delegate;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Constructs a new {@code FakeSqsAsyncClient}.
+     *
+     * @param delegate The fake holding the queues, whose latency and errors are injected on every call.
+     */
+    public FakeSqsAsyncClient(FakeSqsClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CompletableFuture<SendMessageResponse> sendMessage(SendMessageRequest request) {
+        return CompletableFuture.supplyAsync(() -> delegate.sendMessage(request), executor);
+    }
+
+    @Override
+    public String serviceName() {
+        return delegate.serviceName();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,176 @@
+package com.picbank.authservice.local;
+
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * In-memory {@link SqsClient} for the {@code local} profile.
+ * <p>
+ * Queues are created on first use and identified by their URL. Messages honour visibility timeouts,
+ * delays, long polling and receive counts, and expose the {@code SentTimestamp},
+ * {@code ApproximateReceiveCount} and {@code ApproximateFirstReceiveTimestamp} system attributes.
+ * </p>
+ */
+public class FakeSqsClient implements SqsClient {
+
+    private static final String ALL = "All";
+    private static final String ALL_PATTERN = ".*";
+    private static final int DEFAULT_MAX_MESSAGES = 1;
+    private static final int BAD_REQUEST = 400;
+    private static final String RECEIPT_HANDLE_INVALID = "ReceiptHandleIsInvalid";
+
+    private final Map<String, FakeQueue> queues = new ConcurrentHashMap<>();
+    private final FaultInjector faultInjector;
+    private final Duration defaultVisibilityTimeout;
+
+    /**
+     * Constructs a new {@code FakeSqsClient}.
+     *
+     * @param faultInjector            Latency and error injection applied to every call.
+     * @param defaultVisibilityTimeout The visibility timeout used when a receive request does not set one.
+     */
+    public FakeSqsClient(FaultInjector faultInjector, Duration defaultVisibilityTimeout) {
+        this.faultInjector = faultInjector;
+        this.defaultVisibilityTimeout = defaultVisibilityTimeout;
+    }
+
+    /**
+     * Returns the timestamp of the oldest message of a queue, looked up by queue name.
+     *
+     * @param queueName The queue name (last path segment of its URL).
+     * @return The {@code SentTimestamp} of the oldest message, or empty if the queue is empty or unknown.
+     */
+    public OptionalLong oldestSentTimestamp(String queueName) {
+        return queues.entrySet().stream()
+                .filter(entry -> entry.getKey().endsWith("/" + queueName))
+                .findFirst()
+                .map(entry -> entry.getValue().oldestSentTimestamp())
+                .orElse(OptionalLong.empty());
+    }
+
+    @Override
+    public SendMessageResponse sendMessage(SendMessageRequest request) {
+        faultInjector.apply(SqsException.builder());
+        long delayMs = request.delaySeconds() == null ? 0 : Duration.ofSeconds(request.delaySeconds()).toMillis();
+        String messageId = queue(request.queueUrl()).send(request.messageBody(), request.messageAttributes(), delayMs);
+        return SendMessageResponse.builder().messageId(messageId).build();
+    }
+
+    @Override
+    public SendMessageBatchResponse sendMessageBatch(SendMessageBatchRequest request) {
+        faultInjector.apply(SqsException.builder());
+        FakeQueue queue = queue(request.queueUrl());
+        List<SendMessageBatchResultEntry> successful = new ArrayList<>();
+        for (SendMessageBatchRequestEntry entry : request.entries()) {
+            long delayMs = entry.delaySeconds() == null ? 0 : Duration.ofSeconds(entry.delaySeconds()).toMillis();
+            String messageId = queue.send(entry.messageBody(), entry.messageAttributes(), delayMs);
+            successful.add(SendMessageBatchResultEntry.builder().id(entry.id()).messageId(messageId).build());
+        }
+        return SendMessageBatchResponse.builder().successful(successful).failed(List.of()).build();
+    }
+
+    @Override
+    public ReceiveMessageResponse receiveMessage(ReceiveMessageRequest request) {
+        faultInjector.apply(SqsException.builder());
+        int maxMessages = request.maxNumberOfMessages() == null ? DEFAULT_MAX_MESSAGES : request.maxNumberOfMessages();
+        long waitMs = request.waitTimeSeconds() == null ? 0 : Duration.ofSeconds(request.waitTimeSeconds()).toMillis();
+        long visibilityTimeoutMs = request.visibilityTimeout() == null
+                ? defaultVisibilityTimeout.toMillis()
+                : Duration.ofSeconds(request.visibilityTimeout()).toMillis();
+
+        List<Message> messages = queue(request.queueUrl()).receive(maxMessages, waitMs, visibilityTimeoutMs,
+                systemAttributeFilter(request), messageAttributeFilter(request.messageAttributeNames()));
+        return ReceiveMessageResponse.builder().messages(messages).build();
+    }
+
+    @Override
+    public DeleteMessageResponse deleteMessage(DeleteMessageRequest request) {
+        faultInjector.apply(SqsException.builder());
+        queue(request.queueUrl()).delete(request.receiptHandle());
+        return DeleteMessageResponse.builder().build();
+    }
+
+    @Override
+    public ChangeMessageVisibilityResponse changeMessageVisibility(ChangeMessageVisibilityRequest request) {
+        faultInjector.apply(SqsException.builder());
+        long visibilityTimeoutMs = Duration.ofSeconds(request.visibilityTimeout()).toMillis();
+        if (!queue(request.queueUrl()).changeVisibility(request.receiptHandle(), visibilityTimeoutMs)) {
+            throw ReceiptHandleIsInvalidException.builder()
+                    .statusCode(BAD_REQUEST)
+                    .awsErrorDetails(AwsErrorDetails.builder()
+                            .errorCode(RECEIPT_HANDLE_INVALID)
+                            .errorMessage("The receipt handle is not valid for this message")
+                            .build())
+                    .build();
+        }
+        return ChangeMessageVisibilityResponse.builder().build();
+    }
+
+    @Override
+    public ChangeMessageVisibilityBatchResponse changeMessageVisibilityBatch(ChangeMessageVisibilityBatchRequest request) {
+        faultInjector.apply(SqsException.builder());
+        FakeQueue queue = queue(request.queueUrl());
+        List<ChangeMessageVisibilityBatchResultEntry> successful = new ArrayList<>();
+        List<BatchResultErrorEntry> failed = new ArrayList<>();
+        for (ChangeMessageVisibilityBatchRequestEntry entry : request.entries()) {
+            long visibilityTimeoutMs = Duration.ofSeconds(entry.visibilityTimeout()).toMillis();
+            if (queue.changeVisibility(entry.receiptHandle(), visibilityTimeoutMs)) {
+                successful.add(ChangeMessageVisibilityBatchResultEntry.builder().id(entry.id()).build());
+            } else {
+                failed.add(BatchResultErrorEntry.builder()
+                        .id(entry.id())
+                        .code(RECEIPT_HANDLE_INVALID)
+                        .message("The receipt handle is not valid for this message")
+                        .senderFault(true)
+                        .build());
+            }
+        }
+        return ChangeMessageVisibilityBatchResponse.builder().successful(successful).failed(failed).build();
+    }
+
+    @Override
+    public GetQueueAttributesResponse getQueueAttributes(GetQueueAttributesRequest request) {
+        faultInjector.apply(SqsException.builder());
+        FakeQueue queue = queue(request.queueUrl());
+        Map<QueueAttributeName, String> attributes = new EnumMap<>(QueueAttributeName.class);
+        attributes.put(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES, String.valueOf(queue.visibleCount()));
+        attributes.put(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES_NOT_VISIBLE, String.valueOf(queue.inFlightCount()));
+        if (!request.attributeNames().contains(QueueAttributeName.ALL)) {
+            attributes.keySet().retainAll(request.attributeNames());
+        }
+        return GetQueueAttributesResponse.builder().attributes(attributes).build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release: all state lives in memory.
+    }
+
+    private FakeQueue queue(String queueUrl) {
+        return queues.computeIfAbsent(queueUrl, url -> new FakeQueue());
+    }
+
+    private static Predicate<MessageSystemAttributeName> systemAttributeFilter(ReceiveMessageRequest request) {
+        List<MessageSystemAttributeName> names = request.messageSystemAttributeNames();
+        return names.contains(MessageSystemAttributeName.ALL) ? name -> true : names::contains;
+    }
+
+    private static Predicate<String> messageAttributeFilter(List<String> names) {
+        return names.contains(ALL) || names.contains(ALL_PATTERN) ? name -> true : names::contains;
+    }
+}
@@ -0,0 +1,88 @@
+package com.picbank.authservice.local;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates the network and service behaviour of an AWS endpoint for the in-process fakes.
+ * <p>
+ * Every call is delayed by {@code latencyMs} plus a uniformly distributed jitter of up to {@code jitterMs},
+ * and fails with a {@code 503 ServiceUnavailable} service exception with probability {@code errorRate}. Calls that
+ * pass their request can also time out at its {@code apiCallTimeout}, as they would on the SDK.
+ * </p>
+ *
+ * @param latencyMs Fixed latency added to every call, in milliseconds.
+ * @param jitterMs  Maximum random latency added on top of {@code latencyMs}, in milliseconds.
+ * @param errorRate Probability (0..1) of a call failing.
+ */
+public record FaultInjector(long latencyMs, long jitterMs, double errorRate) {
+
+    static final int SERVICE_UNAVAILABLE = 503;
+    static final String SERVICE_UNAVAILABLE_CODE = "ServiceUnavailable";
+    static final String INJECTED_FAULT_MESSAGE = "Fault injected by the local fake";
+
+    /**
+     * A fault injector that neither delays nor fails calls.
+     */
+    public static final FaultInjector NONE = new FaultInjector(0, 0, 0);
+
+    /**
+     * Applies the configured latency, then possibly fails the call.
+     *
+     * @param exceptionBuilder Builder of the service-specific exception thrown on an injected failure.
+     */
+    public void apply(AwsServiceException.Builder exceptionBuilder) {
+        apply(exceptionBuilder, Long.MAX_VALUE);
+    }
+
+    /**
+     * Applies the configured latency like {@link #apply(AwsServiceException.Builder)}, but times the call out like
+     * the SDK when the latency exceeds the {@code apiCallTimeout} set on the request.
+     *
+     * @param exceptionBuilder Builder of the service-specific exception thrown on an injected failure.
+     * @param request          The request, whose override configuration may carry a call timeout.
+     * @throws ApiCallTimeoutException If the latency exceeds the call timeout of the request.
+     */
+    public void apply(AwsServiceException.Builder exceptionBuilder, AwsRequest request) {
+        apply(exceptionBuilder, request.overrideConfiguration()
+                .flatMap(AwsRequestOverrideConfiguration::apiCallTimeout)
+                .map(Duration::toMillis)
+                .orElse(Long.MAX_VALUE));
+    }
+
+    private void apply(AwsServiceException.Builder exceptionBuilder, long timeoutMs) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delayMs = latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+        sleep(Math.min(delayMs, timeoutMs));
+        if (delayMs > timeoutMs) {
+            throw ApiCallTimeoutException.create(timeoutMs);
+        }
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            throw exceptionBuilder
+                    .statusCode(SERVICE_UNAVAILABLE)
+                    .message(INJECTED_FAULT_MESSAGE)
+                    .awsErrorDetails(AwsErrorDetails.builder()
+                            .errorCode(SERVICE_UNAVAILABLE_CODE)
+                            .errorMessage(INJECTED_FAULT_MESSAGE)
+                            .build())
+                    .build();
+        }
+    }
+
+    private static void sleep(long delayMs) {
+        if (delayMs > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -1,4 +1,21 @@
 package com.picbank.authservice.model.dtos;
 
-public record CognitoUserGroupMessage(String username, String email, String group) { }
+/**
+ * Payload of a {@code user.group.assignment} message.
+ *
+ * @param username The Cognito username of the registered user.
+ * @param email    The user's e-mail, used for the notification.
+ * @param group    The group the user must be added to.
+ */
+public record CognitoUserGroupMessage(String username, String email, String group) {
 
+    /**
+     * Returns the username to use with Cognito. Messages enqueued before the username was populated
+     * fall back to the e-mail, which is the username the user signed up with.
+     *
+     * @return The Cognito username.
+     */
+    public String cognitoUsername() {
+        return username != null ? username : email;
+    }
+}
@@ -0,0 +1,39 @@
+package com.picbank.authservice.model.dtos;
+
+import java.util.List;
+
+/**
+ * Payload of a {@code user.group.reassignment} message: a group reassignment job and its checkpoint.
+ *
+ * @param jobId            The id of the job, shared by all its checkpoints.
+ * @param sourceGroup      The group whose users are reassigned.
+ * @param targetGroup      The group the users are added to.
+ * @param removeFromSource Whether the users are removed from the source group once added to the target group.
+ * @param nextToken        The {@code ListUsersInGroup} token of the next page, {@code null} to start from the first;
+ *                         always {@code null} when moving, as removing users shifts the pages.
+ * @param processed        The number of users processed by the previous checkpoints.
+ * @param failed           The number of those users that could not be reassigned.
+ * @param failedUsers      The users a move could not reassign, which stay in the source group and are skipped by
+ *                         the next listings; empty when copying.
+ */
+public record GroupReassignmentMessage(String jobId, String sourceGroup, String targetGroup, boolean removeFromSource,
+                                       String nextToken, long processed, long failed, List<String> failedUsers) {
+
+    public GroupReassignmentMessage {
+        failedUsers = failedUsers == null ? List.of() : List.copyOf(failedUsers);
+    }
+
+    /**
+     * Returns the checkpoint that resumes the job from the given page.
+     *
+     * @param nextToken   The token of the next page to process.
+     * @param processed   The number of users processed so far.
+     * @param failed      The number of users that could not be reassigned so far.
+     * @param failedUsers The users a move could not reassign so far.
+     * @return A new checkpoint of the same job.
+     */
+    public GroupReassignmentMessage resumeAt(String nextToken, long processed, long failed, List<String> failedUsers) {
+        return new GroupReassignmentMessage(jobId, sourceGroup, targetGroup, removeFromSource, nextToken, processed,
+                failed, failedUsers);
+    }
+}
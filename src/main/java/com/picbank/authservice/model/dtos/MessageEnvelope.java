@@ -0,0 +1,30 @@
+package com.picbank.authservice.model.dtos;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Versioned envelope of every message the service publishes to SQS.
+ *
+ * @param version   The schema version of the payload for the given type.
+ * @param type      The message type discriminator (e.g. {@code user.group.assignment}).
+ * @param id        A unique id assigned by the producer, stable across redeliveries.
+ * @param createdAt When the producer created the message.
+ * @param payload   The typed payload.
+ * @param <T>       The payload type.
+ */
+public record MessageEnvelope<T>(int version, String type, String id, Instant createdAt, T payload) {
+
+    /**
+     * Wraps a payload in a new envelope.
+     *
+     * @param type    The message type.
+     * @param version The payload schema version.
+     * @param payload The payload.
+     * @param <T>     The payload type.
+     * @return A new envelope with a random id, created now.
+     */
+    public static <T> MessageEnvelope<T> of(String type, int version, T payload) {
+        return new MessageEnvelope<>(version, type, UUID.randomUUID().toString(), Instant.now(), payload);
+    }
+}
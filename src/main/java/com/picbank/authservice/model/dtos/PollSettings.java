@@ -0,0 +1,12 @@
+package com.picbank.authservice.model.dtos;
+
+/**
+ * Polling parameters of the user group worker for the next tick.
+ *
+ * @param pollers           The number of concurrent pollers.
+ * @param batchSize         The maximum number of messages per receive.
+ * @param waitSeconds       The long-poll wait per receive.
+ * @param drainContinuously Whether each poller keeps receiving until the queue is empty, instead of once per tick.
+ */
+public record PollSettings(int pollers, int batchSize, int waitSeconds, boolean drainContinuously) {
+}
@@ -0,0 +1,18 @@
+package com.picbank.authservice.model.enums;
+
+import lombok.Getter;
+
+/**
+ * Separate concurrency budgets of the {@code /auth} endpoints, so a flood of registrations cannot starve logins.
+ */
+@Getter
+public enum AuthBudget {
+    LOGIN("login"),
+    SIGNUP("signup");
+
+    private final String tag;
+
+    AuthBudget(String tag) {
+        this.tag = tag;
+    }
+}
@@ -0,0 +1,42 @@
+package com.picbank.authservice.model.enums;
+
+import com.picbank.authservice.constants.ErrorConstants;
+import com.picbank.authservice.exceptions.AuthFailureException;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import static com.picbank.authservice.constants.MessageConstants.*;
+
+/**
+ * Expected outcomes of the authentication endpoints that are not errors of the service, such as a wrong password
+ * or a request shed under load or abandoned past its deadline.
+ * <p>
+ * Each outcome carries its HTTP status, error code and message key, and a single precomputed, stackless
+ * {@link AuthFailureException}, so rejecting a request costs neither a stack walk nor an allocation.
+ * </p>
+ */
+@Getter
+public enum AuthFailure {
+    INVALID_CREDENTIALS(HttpStatus.UNAUTHORIZED, ErrorConstants.INVALID_CREDENTIALS, AUTH_FAILURE_INVALID_CREDENTIALS),
+    USER_NOT_CONFIRMED(HttpStatus.FORBIDDEN, ErrorConstants.USER_NOT_CONFIRMED, AUTH_FAILURE_USER_NOT_CONFIRMED),
+    PASSWORD_RESET_REQUIRED(HttpStatus.FORBIDDEN, ErrorConstants.PASSWORD_RESET_REQUIRED, AUTH_FAILURE_PASSWORD_RESET_REQUIRED),
+    USER_EXISTS(HttpStatus.CONFLICT, ErrorConstants.USER_EXISTS, AUTH_FAILURE_USER_EXISTS),
+    INVALID_PASSWORD(HttpStatus.BAD_REQUEST, ErrorConstants.INVALID_PASSWORD, AUTH_FAILURE_INVALID_PASSWORD),
+    INVALID_CODE(HttpStatus.BAD_REQUEST, ErrorConstants.INVALID_CONFIRMATION_CODE, AUTH_FAILURE_INVALID_CODE),
+    EXPIRED_CODE(HttpStatus.BAD_REQUEST, ErrorConstants.EXPIRED_CONFIRMATION_CODE, AUTH_FAILURE_EXPIRED_CODE),
+    TOO_MANY_ATTEMPTS(HttpStatus.TOO_MANY_REQUESTS, ErrorConstants.TOO_MANY_ATTEMPTS, AUTH_FAILURE_TOO_MANY_ATTEMPTS),
+    SERVICE_OVERLOADED(HttpStatus.SERVICE_UNAVAILABLE, ErrorConstants.SERVICE_OVERLOADED, AUTH_FAILURE_SERVICE_OVERLOADED),
+    DEADLINE_EXCEEDED(HttpStatus.GATEWAY_TIMEOUT, ErrorConstants.DEADLINE_EXCEEDED, AUTH_FAILURE_DEADLINE_EXCEEDED);
+
+    private final HttpStatus status;
+    private final String code;
+    private final String messageKey;
+    private final AuthFailureException exception;
+
+    AuthFailure(HttpStatus status, String code, String messageKey) {
+        this.status = status;
+        this.code = code;
+        this.messageKey = messageKey;
+        this.exception = new AuthFailureException(this);
+    }
+}
@@ -0,0 +1,26 @@
+package com.picbank.authservice.model.enums;
+
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+@Getter
+public enum UserImportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(MediaType.parseMediaType("text/csv"));
+
+    private final MediaType mediaType;
+
+    UserImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Resolves the format of an import file from its content type.
+     *
+     * @param contentType The {@code Content-Type} of the upload.
+     * @return The matching format; NDJSON unless the content type is CSV.
+     */
+    public static UserImportFormat of(MediaType contentType) {
+        return CSV.mediaType.isCompatibleWith(contentType) ? CSV : NDJSON;
+    }
+}
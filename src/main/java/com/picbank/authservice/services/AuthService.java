@@ -4,10 +4,16 @@ import com.picbank.authservice.model.AuthResponse;
 import com.picbank.authservice.model.ConfirmEmailRequest;
 import com.picbank.authservice.model.LoginRequest;
 import com.picbank.authservice.model.RegisterRequest;
+import com.picbank.authservice.utils.Deadline;
 import org.springframework.http.HttpStatus;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AuthService {
-    AuthResponse login(LoginRequest loginRequest);
-    HttpStatus register(RegisterRequest registerRequest);
-    void confirmEmail(ConfirmEmailRequest confirmEmailRequest);
+    AuthResponse login(LoginRequest loginRequest, Deadline deadline);
+    HttpStatus register(RegisterRequest registerRequest, Deadline deadline);
+    void confirmEmail(ConfirmEmailRequest confirmEmailRequest, Deadline deadline);
+    CompletableFuture<AuthResponse> loginAsync(LoginRequest loginRequest, Deadline deadline);
+    CompletableFuture<HttpStatus> registerAsync(RegisterRequest registerRequest, Deadline deadline);
+    CompletableFuture<Void> confirmEmailAsync(ConfirmEmailRequest confirmEmailRequest, Deadline deadline);
 }
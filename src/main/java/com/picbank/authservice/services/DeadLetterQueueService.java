@@ -0,0 +1,12 @@
+package com.picbank.authservice.services;
+
+import com.picbank.authservice.model.DlqMessage;
+import com.picbank.authservice.model.DlqRedriveEvent;
+import com.picbank.authservice.model.DlqRedriveRequest;
+
+import java.util.function.Consumer;
+
+public interface DeadLetterQueueService {
+    long peekMessages(int limit, Consumer<DlqMessage> listener);
+    DlqRedriveEvent redriveMessages(DlqRedriveRequest request, Consumer<DlqRedriveEvent> listener);
+}
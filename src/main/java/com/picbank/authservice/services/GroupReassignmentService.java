@@ -0,0 +1,12 @@
+package com.picbank.authservice.services;
+
+import com.picbank.authservice.model.GroupReassignmentJob;
+import com.picbank.authservice.model.GroupReassignmentRequest;
+import com.picbank.authservice.model.dtos.GroupReassignmentMessage;
+
+import java.util.function.BooleanSupplier;
+
+public interface GroupReassignmentService {
+    GroupReassignmentJob startReassignment(GroupReassignmentRequest request);
+    void reassign(GroupReassignmentMessage checkpoint, BooleanSupplier running);
+}
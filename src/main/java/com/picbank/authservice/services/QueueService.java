@@ -1,5 +1,14 @@
 package com.picbank.authservice.services;
 
+import com.picbank.authservice.model.dtos.CognitoUserGroupMessage;
+import com.picbank.authservice.model.dtos.GroupReassignmentMessage;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public interface QueueService {
-    void sendMessage(String email, String group);
+    void sendMessage(String username, String email, String group);
+    CompletableFuture<Void> sendMessageAsync(String username, String email, String group);
+    List<CognitoUserGroupMessage> sendMessages(List<CognitoUserGroupMessage> messages);
+    void sendGroupReassignment(GroupReassignmentMessage checkpoint);
 }
@@ -0,0 +1,9 @@
+package com.picbank.authservice.services;
+
+import com.picbank.authservice.model.UserExportRecord;
+
+import java.util.function.Consumer;
+
+public interface UserExportService {
+    long exportUsers(boolean includeGroups, Consumer<UserExportRecord> listener);
+}
@@ -0,0 +1,12 @@
+package com.picbank.authservice.services;
+
+import com.picbank.authservice.model.UserImportEvent;
+import com.picbank.authservice.model.enums.UserImportFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+public interface UserImportService {
+    UserImportEvent importUsers(InputStream input, UserImportFormat format, Consumer<UserImportEvent> listener) throws IOException;
+}
@@ -1,26 +1,35 @@
 package com.picbank.authservice.services.impl;
 
+import com.picbank.authservice.components.CognitoEndpointRouter;
 import com.picbank.authservice.components.CognitoProperties;
+import com.picbank.authservice.components.GroupAssignmentFastLane;
 import com.picbank.authservice.exceptions.AuthException;
+import com.picbank.authservice.exceptions.AuthFailureException;
 import com.picbank.authservice.exceptions.CognitoOperationException;
 import com.picbank.authservice.model.AuthResponse;
 import com.picbank.authservice.model.ConfirmEmailRequest;
 import com.picbank.authservice.model.LoginRequest;
 import com.picbank.authservice.model.RegisterRequest;
+import com.picbank.authservice.model.enums.AuthFailure;
 import com.picbank.authservice.model.enums.CognitoUserGroup;
 import com.picbank.authservice.services.AuthService;
 import com.picbank.authservice.services.MessageService;
-import com.picbank.authservice.services.QueueService;
+import com.picbank.authservice.utils.AwsExceptionUtils;
 import com.picbank.authservice.utils.CognitoUtils;
+import com.picbank.authservice.utils.Deadline;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
 import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static com.picbank.authservice.constants.AuthConstants.*;
 import static com.picbank.authservice.constants.MessageConstants.*;
@@ -30,11 +39,13 @@ import static com.picbank.authservice.constants.MessageConstants.*;
 @Slf4j
 public class CognitoAuthService implements AuthService {
 
-    private final QueueService queueService;
+    private final GroupAssignmentFastLane groupAssignmentFastLane;
     private final CognitoProperties cognitoProperties;
     private final CognitoIdentityProviderClient cognitoClient;
     private final CognitoUtils cognitoUtils;
     private final MessageService messageService;
+    private final CognitoEndpointRouter cognitoEndpointRouter;
+    private final ObjectProvider<CognitoIdentityProviderAsyncClient> cognitoAsyncClient;
 
     /**
      * Builds the authentication response based on the Cognito response.
@@ -69,9 +80,9 @@ public class CognitoAuthService implements AuthService {
                 .username(registerRequest.getEmail())
                 .password(registerRequest.getPassword())
                 .userAttributes(
-                        AttributeType.builder().name("email").value(registerRequest.getEmail()).build(),
-                        AttributeType.builder().name("name").value(registerRequest.getName()).build(),
-                        AttributeType.builder().name("custom:document").value(registerRequest.getDocument()).build()
+                        AttributeType.builder().name(ATTRIBUTE_EMAIL).value(registerRequest.getEmail()).build(),
+                        AttributeType.builder().name(ATTRIBUTE_NAME).value(registerRequest.getName()).build(),
+                        AttributeType.builder().name(ATTRIBUTE_DOCUMENT).value(registerRequest.getDocument()).build()
                 )
                 .build();
     }
@@ -81,10 +92,12 @@ public class CognitoAuthService implements AuthService {
      *
      * @param request    The request containing the email and confirmation code.
      * @param secretHash The secret hash used for client authentication.
+     * @param deadline   The deadline of the request, bounding the timeouts of the call.
      * @return A ConfirmSignUpRequest object ready to be sent to AWS Cognito.
      */
-    private ConfirmSignUpRequest getConfirmSignUpRequest(ConfirmEmailRequest request, String secretHash) {
+    private ConfirmSignUpRequest getConfirmSignUpRequest(ConfirmEmailRequest request, String secretHash, Deadline deadline) {
         return ConfirmSignUpRequest.builder()
+                .overrideConfiguration(deadline.overrideConfiguration())
                 .clientId(cognitoProperties.getClientId())
                 .secretHash(secretHash)
                 .username(request.getEmail())
@@ -93,135 +106,405 @@ public class CognitoAuthService implements AuthService {
     }
 
     /**
-     * Initiates authentication with Cognito.
+     * Builds the authentication request for a Cognito user pool, with the app client and secret hash of that pool.
+     * It is built right before each call, so that a failover gets the budget left after the failed call, and none if
+     * the deadline has passed.
      *
-     * @param request Login request containing user credentials.
-     * @param secretHash Secret hash for authentication.
-     * @return Cognito authentication response.
+     * @param request  Login request containing user credentials.
+     * @param endpoint The user pool the request is sent to.
+     * @param deadline The deadline of the login, bounding the timeouts of the call.
+     * @return InitiateAuthRequest object to be sent to Cognito.
+     * @throws AuthFailureException If the deadline has passed.
      */
-    private InitiateAuthResponse getInitiateAuthResponse(LoginRequest request, String secretHash) {
-        return cognitoClient.initiateAuth(InitiateAuthRequest.builder()
+    private InitiateAuthRequest getInitiateAuthRequest(LoginRequest request, CognitoEndpointRouter.Endpoint endpoint,
+                                                       Deadline deadline) {
+        var secretHash = cognitoUtils.calculateSecretHash(
+                endpoint.clientId(),
+                endpoint.clientSecret(),
+                request.getUsername()
+        );
+        if (deadline.isExpired()) {
+            throw deadlineExceeded(request.getUsername());
+        }
+
+        return InitiateAuthRequest.builder()
                 .authFlow(AuthFlowType.USER_PASSWORD_AUTH)
                 .authParameters(Map.of(
                         USERNAME, request.getUsername(),
                         PASSWORD, request.getPassword(),
                         SECRET_HASH, secretHash
                 ))
-                .clientId(cognitoProperties.getClientId())
-                .build());
+                .clientId(endpoint.clientId())
+                .overrideConfiguration(deadline.overrideConfiguration())
+                .build();
+    }
+
+    /**
+     * Maps a Cognito error that is an expected outcome of the request, such as a wrong password, to its failure.
+     *
+     * @param e                   The Cognito error.
+     * @param unauthorizedFailure The failure of a {@code NotAuthorizedException} or {@code UserNotFoundException}.
+     * @return The failure, or {@code null} if the error is not an expected outcome.
+     */
+    private static AuthFailure expectedFailure(CognitoIdentityProviderException e, AuthFailure unauthorizedFailure) {
+        return switch (e) {
+            case NotAuthorizedException ignored -> unauthorizedFailure;
+            case UserNotFoundException ignored -> unauthorizedFailure;
+            case UserNotConfirmedException ignored -> AuthFailure.USER_NOT_CONFIRMED;
+            case PasswordResetRequiredException ignored -> AuthFailure.PASSWORD_RESET_REQUIRED;
+            case UsernameExistsException ignored -> AuthFailure.USER_EXISTS;
+            case AliasExistsException ignored -> AuthFailure.USER_EXISTS;
+            case InvalidPasswordException ignored -> AuthFailure.INVALID_PASSWORD;
+            case CodeMismatchException ignored -> AuthFailure.INVALID_CODE;
+            case ExpiredCodeException ignored -> AuthFailure.EXPIRED_CODE;
+            case TooManyFailedAttemptsException ignored -> AuthFailure.TOO_MANY_ATTEMPTS;
+            case LimitExceededException ignored -> AuthFailure.TOO_MANY_ATTEMPTS;
+            default -> null;
+        };
+    }
+
+    /**
+     * Returns the precomputed exception of an expected failure, logging it at debug level only: under
+     * credential-stuffing these are most of the traffic, and neither a stack trace nor an error log is worth it.
+     *
+     * @param failure The expected failure.
+     * @param user    The user the request was made for.
+     * @param e       The Cognito error the failure was mapped from.
+     * @return The stackless exception shared by every request with this failure.
+     */
+    private AuthFailureException rejected(AuthFailure failure, String user, CognitoIdentityProviderException e) {
+        if (log.isDebugEnabled()) {
+            log.debug(messageService.getMessage(AUTH_FAILURE_EXPECTED, failure, user, e.awsErrorDetails().errorCode()));
+        }
+        return failure.getException();
     }
 
     /**
-     * Authenticates a user using AWS Cognito.
+     * Returns the precomputed exception of a request abandoned past its deadline, logging it at debug level only:
+     * its client has already given up, and under load these come in bursts.
      *
-     * @param request LoginRequest containing user credentials.
+     * @param user The user the request was made for.
+     * @return The stackless exception shared by every request abandoned past its deadline.
+     */
+    private AuthFailureException deadlineExceeded(String user) {
+        if (log.isDebugEnabled()) {
+            log.debug(messageService.getMessage(AUTH_DEADLINE_EXCEEDED, user));
+        }
+        return AuthFailure.DEADLINE_EXCEEDED.getException();
+    }
+
+    /**
+     * Maps an error that ends a request without it being a failure of the service: an expected failure raised before
+     * calling Cognito, or the call timing out at the deadline of the request.
+     *
+     * @param e    The error.
+     * @param user The user the request was made for.
+     * @return The exception returned to the client, or {@code null} if the error is not one of these.
+     */
+    private AuthFailureException abandoned(Throwable e, String user) {
+        if (e instanceof AuthFailureException failure) {
+            return failure;
+        }
+        if (e instanceof ApiCallTimeoutException) {
+            return deadlineExceeded(user);
+        }
+        return null;
+    }
+
+    /**
+     * Authenticates a user using AWS Cognito, on the primary user pool or, if it is degraded, on the secondary one.
+     *
+     * @param request  LoginRequest containing user credentials.
+     * @param deadline The deadline of the login; the Cognito calls time out at it, and none is made after it.
      * @return AuthResponse containing authentication details.
      */
     @Override
-    public AuthResponse login(LoginRequest request) {
+    public AuthResponse login(LoginRequest request, Deadline deadline) {
         log.info(messageService.getMessage(AUTH_LOGIN_START, request.getUsername()));
 
-        var secretHash = cognitoUtils.calculateSecretHash(
-                cognitoProperties.getClientId(),
-                cognitoProperties.getClientSecret(),
-                request.getUsername()
-        );
-
         try {
-            var response = getInitiateAuthResponse(request, secretHash);
+            var response = cognitoEndpointRouter.initiateAuth(endpoint -> getInitiateAuthRequest(request, endpoint, deadline));
             return getAuthResponse(response);
-
-        } catch (CognitoIdentityProviderException e) {
-            log.error(messageService.getMessage(AUTH_ERROR_COGNITO, request.getUsername(), e.awsErrorDetails().errorMessage()), e);
-            throw new AuthException(messageService.getMessage(AUTH_ERROR_INTERNAL));
         } catch (Exception e) {
-            log.error(messageService.getMessage(AUTH_ERROR_UNEXPECTED, request.getUsername(), e.getMessage()), e);
-            throw new AuthException(messageService.getMessage(AUTH_ERROR_UNEXPECTED));
+            throw loginFailure(request, e);
+        }
+    }
+
+    /**
+     * Authenticates a user like {@link #login(LoginRequest, Deadline)}, on the asynchronous Cognito clients of the
+     * reactive deployment, without blocking the calling thread.
+     *
+     * @param request  LoginRequest containing user credentials.
+     * @param deadline The deadline of the login; the Cognito calls time out at it, and none is made after it.
+     * @return A future completed with the authentication details, or with the exception {@code login} would throw.
+     */
+    @Override
+    public CompletableFuture<AuthResponse> loginAsync(LoginRequest request, Deadline deadline) {
+        log.info(messageService.getMessage(AUTH_LOGIN_START, request.getUsername()));
+
+        return cognitoEndpointRouter.initiateAuthAsync(endpoint -> getInitiateAuthRequest(request, endpoint, deadline))
+                .thenApply(this::getAuthResponse)
+                .exceptionally(e -> {
+                    throw loginFailure(request, AwsExceptionUtils.unwrap(e));
+                });
+    }
+
+    /**
+     * Maps a failed login to the exception returned to the client: an expected failure for a rejected login, an
+     * {@link AuthException} otherwise.
+     */
+    private RuntimeException loginFailure(LoginRequest request, Throwable e) {
+        AuthFailureException abandoned = abandoned(e, request.getUsername());
+        if (abandoned != null) {
+            return abandoned;
         }
+        if (e instanceof CognitoIdentityProviderException cognitoException) {
+            AuthFailure failure = expectedFailure(cognitoException, AuthFailure.INVALID_CREDENTIALS);
+            if (failure != null) {
+                return rejected(failure, request.getUsername(), cognitoException);
+            }
+            log.error(messageService.getMessage(AUTH_ERROR_COGNITO, request.getUsername(), cognitoException.awsErrorDetails().errorMessage()), e);
+            return new AuthException(messageService.getMessage(AUTH_ERROR_INTERNAL));
+        }
+        log.error(messageService.getMessage(AUTH_ERROR_UNEXPECTED, request.getUsername(), e.getMessage()), e);
+        return new AuthException(messageService.getMessage(AUTH_ERROR_UNEXPECTED));
     }
 
     /**
      * Registers a new user in AWS Cognito.
+     * <p>
+     * Once Cognito has created the user, its group assignment is handed to the {@link GroupAssignmentFastLane}, which
+     * sends it to SQS if it cannot run it right away. The deadline is only checked before the sign-up, which keeps the
+     * timeouts of its call policy. A sign-up that times out may still have created the user, so its assignment is
+     * handed off all the same before the registration fails: it is idempotent, and ends up in the DLQ if the user was
+     * not created. The assignment is handed off even if the deadline has passed meanwhile.
+     * </p>
      *
      * @param registerRequest Request containing user registration details.
+     * @param deadline        The deadline of the registration; the sign-up is not made after it.
      * @return HTTP Status indicating success or failure.
      */
     @Override
-    public HttpStatus register(RegisterRequest registerRequest) {
+    public HttpStatus register(RegisterRequest registerRequest, Deadline deadline) {
         log.info(messageService.getMessage(AUTH_REGISTER_START, registerRequest.getEmail()));
 
-        var secretHash = cognitoUtils.calculateSecretHash(
-                cognitoProperties.getClientId(),
-                cognitoProperties.getClientSecret(),
-                registerRequest.getEmail()
-        );
-
-        var signUpRequest = buildSignUpRequest(registerRequest, secretHash);
+        var signUpRequest = buildSignUpRequest(registerRequest);
+        if (deadline.isExpired()) {
+            throw deadlineExceeded(registerRequest.getEmail());
+        }
 
         try {
-            var response = cognitoClient.signUp(signUpRequest);
+            var response = signUp(signUpRequest, registerRequest);
 
             if (response.sdkHttpResponse().isSuccessful()) {
-                var group = registerRequest.getIsMerchant() ? CognitoUserGroup.MERCHANT : CognitoUserGroup.STANDARD;
-
-                log.info(messageService.getMessage(AUTH_REGISTER_SUCCESS, registerRequest.getEmail(), group));
-                queueService.sendMessage(registerRequest.getEmail(), group.name());
+                var group = registeredGroup(registerRequest);
+                groupAssignmentFastLane.assign(signUpRequest.username(), registerRequest.getEmail(), group);
 
                 return HttpStatus.CREATED;
             }
 
             log.warn(messageService.getMessage(AUTH_REGISTER_FAILURE, registerRequest.getEmail()));
             return HttpStatus.BAD_REQUEST;
+        } catch (Exception e) {
+            throw registerFailure(registerRequest, e);
+        }
+    }
 
-        } catch (CognitoIdentityProviderException e) {
-            String errorMessage = messageService.getMessage(AUTH_ERROR_COGNITO, registerRequest.getEmail(), e.awsErrorDetails().errorMessage());
-            log.error(errorMessage, e);
-            throw new CognitoOperationException(errorMessage, e);
+    /**
+     * Registers a new user like {@link #register(RegisterRequest, Deadline)}, on the asynchronous Cognito and SQS
+     * clients of the reactive deployment, without blocking the calling thread.
+     *
+     * @param registerRequest Request containing user registration details.
+     * @param deadline        The deadline of the registration; the sign-up is not made after it.
+     * @return A future completed with the HTTP status, or with the exception {@code register} would throw.
+     */
+    @Override
+    public CompletableFuture<HttpStatus> registerAsync(RegisterRequest registerRequest, Deadline deadline) {
+        log.info(messageService.getMessage(AUTH_REGISTER_START, registerRequest.getEmail()));
 
-        } catch (SdkClientException e) {
-            String errorMessage = messageService.getMessage(AUTH_ERROR_INTERNAL, registerRequest.getEmail(), e.getMessage());
-            log.error(errorMessage, e);
-            throw new CognitoOperationException(errorMessage, e);
+        var signUpRequest = buildSignUpRequest(registerRequest);
+        if (deadline.isExpired()) {
+            return CompletableFuture.failedFuture(deadlineExceeded(registerRequest.getEmail()));
+        }
 
-        } catch (Exception e) {
-            String errorMessage = messageService.getMessage(AUTH_ERROR_UNEXPECTED, registerRequest.getEmail(), e.getMessage());
+        return cognitoAsyncClient.getObject().signUp(signUpRequest)
+                .exceptionallyCompose(e -> AwsExceptionUtils.unwrap(e) instanceof ApiCallTimeoutException
+                        ? groupAssignmentFastLane.assignAsync(signUpRequest.username(), registerRequest.getEmail(),
+                                        groupOf(registerRequest))
+                                .thenCompose(sent -> CompletableFuture.<SignUpResponse>failedFuture(e))
+                        : CompletableFuture.failedFuture(e))
+                .thenCompose(response -> {
+                    if (!response.sdkHttpResponse().isSuccessful()) {
+                        log.warn(messageService.getMessage(AUTH_REGISTER_FAILURE, registerRequest.getEmail()));
+                        return CompletableFuture.completedFuture(HttpStatus.BAD_REQUEST);
+                    }
+                    var group = registeredGroup(registerRequest);
+                    return groupAssignmentFastLane.assignAsync(signUpRequest.username(), registerRequest.getEmail(), group)
+                            .thenApply(sent -> HttpStatus.CREATED);
+                })
+                .exceptionally(e -> {
+                    throw registerFailure(registerRequest, AwsExceptionUtils.unwrap(e));
+                });
+    }
+
+    /**
+     * Builds the sign-up request of a registration, with the secret hash of the app client.
+     */
+    private SignUpRequest buildSignUpRequest(RegisterRequest registerRequest) {
+        var secretHash = cognitoUtils.calculateSecretHash(
+                cognitoProperties.getClientId(),
+                cognitoProperties.getClientSecret(),
+                registerRequest.getEmail()
+        );
+
+        return buildSignUpRequest(registerRequest, secretHash);
+    }
+
+    /**
+     * Signs a user up, handing off its group assignment if the sign-up times out, since Cognito may have created the
+     * user before the call timed out.
+     *
+     * @throws ApiCallTimeoutException If the sign-up timed out, once the assignment is handed off.
+     */
+    private SignUpResponse signUp(SignUpRequest signUpRequest, RegisterRequest registerRequest) {
+        try {
+            return cognitoClient.signUp(signUpRequest);
+        } catch (ApiCallTimeoutException e) {
+            groupAssignmentFastLane.assign(signUpRequest.username(), registerRequest.getEmail(), groupOf(registerRequest));
+            throw e;
+        }
+    }
+
+    private static CognitoUserGroup groupOf(RegisterRequest registerRequest) {
+        return registerRequest.getIsMerchant() ? CognitoUserGroup.MERCHANT : CognitoUserGroup.STANDARD;
+    }
+
+    /**
+     * Returns the group of a user Cognito has registered, logging the registration.
+     */
+    private CognitoUserGroup registeredGroup(RegisterRequest registerRequest) {
+        var group = groupOf(registerRequest);
+
+        log.info(messageService.getMessage(AUTH_REGISTER_SUCCESS, registerRequest.getEmail(), group));
+        return group;
+    }
+
+    /**
+     * Maps a failed registration to the exception returned to the client: an expected failure for a rejected
+     * registration, a {@link CognitoOperationException} otherwise. A sign-up that timed out is a failure of the
+     * service, not an abandoned request, since the user may have been created.
+     */
+    private RuntimeException registerFailure(RegisterRequest registerRequest, Throwable e) {
+        if (e instanceof ApiCallTimeoutException) {
+            String errorMessage = messageService.getMessage(AUTH_REGISTER_TIMEOUT, registerRequest.getEmail());
             log.error(errorMessage, e);
-            throw new CognitoOperationException(errorMessage, e);
+            return new CognitoOperationException(errorMessage, e);
         }
+        AuthFailureException abandoned = abandoned(e, registerRequest.getEmail());
+        if (abandoned != null) {
+            return abandoned;
+        }
+        String errorMessage;
+        if (e instanceof CognitoIdentityProviderException cognitoException) {
+            AuthFailure failure = expectedFailure(cognitoException, null);
+            if (failure != null) {
+                return rejected(failure, registerRequest.getEmail(), cognitoException);
+            }
+            errorMessage = messageService.getMessage(AUTH_ERROR_COGNITO, registerRequest.getEmail(), cognitoException.awsErrorDetails().errorMessage());
+        } else if (e instanceof SdkClientException) {
+            errorMessage = messageService.getMessage(AUTH_ERROR_INTERNAL, registerRequest.getEmail(), e.getMessage());
+        } else {
+            errorMessage = messageService.getMessage(AUTH_ERROR_UNEXPECTED, registerRequest.getEmail(), e.getMessage());
+        }
+        log.error(errorMessage, e);
+        return new CognitoOperationException(errorMessage, e);
     }
 
     /**
      * Confirms a user's email in AWS Cognito using the provided confirmation code.
      *
-     * @param request The request containing the email and confirmation code.
+     * @param request  The request containing the email and confirmation code.
+     * @param deadline The deadline of the confirmation; the call times out at it, and is not made after it.
+     * @throws AuthFailureException      If the code is wrong or expired, the user cannot be confirmed, or the deadline
+     *                                   has passed.
      * @throws CognitoOperationException If the confirmation fails due to an invalid code,
      *                                   user not found, or an unexpected error occurs.
      */
     @Override
-    public void confirmEmail(ConfirmEmailRequest request) {
+    public void confirmEmail(ConfirmEmailRequest request, Deadline deadline) {
+        log.info(messageService.getMessage(AUTH_CONFIRM_EMAIL_START, request.getEmail(), request.getConfirmationCode()));
+
+        var confirmSignUpRequest = getConfirmSignUpRequest(request, deadline);
+        if (deadline.isExpired()) {
+            throw deadlineExceeded(request.getEmail());
+        }
+
+        try {
+            cognitoClient.confirmSignUp(confirmSignUpRequest);
+
+            log.info(messageService.getMessage(AUTH_CONFIRM_EMAIL_SUCCESS, request.getEmail()));
+        } catch (Exception e) {
+            throw confirmEmailFailure(request, e);
+        }
+    }
+
+    /**
+     * Confirms a user's email like {@link #confirmEmail(ConfirmEmailRequest, Deadline)}, on the asynchronous Cognito
+     * client of the reactive deployment, without blocking the calling thread.
+     *
+     * @param request  The request containing the email and confirmation code.
+     * @param deadline The deadline of the confirmation; the call times out at it, and is not made after it.
+     * @return A future completed once the email is confirmed, or with the exception {@code confirmEmail} would throw.
+     */
+    @Override
+    public CompletableFuture<Void> confirmEmailAsync(ConfirmEmailRequest request, Deadline deadline) {
         log.info(messageService.getMessage(AUTH_CONFIRM_EMAIL_START, request.getEmail(), request.getConfirmationCode()));
 
+        var confirmSignUpRequest = getConfirmSignUpRequest(request, deadline);
+        if (deadline.isExpired()) {
+            return CompletableFuture.failedFuture(deadlineExceeded(request.getEmail()));
+        }
+        return cognitoAsyncClient.getObject().confirmSignUp(confirmSignUpRequest)
+                .thenAccept(response -> log.info(messageService.getMessage(AUTH_CONFIRM_EMAIL_SUCCESS, request.getEmail())))
+                .exceptionally(e -> {
+                    throw confirmEmailFailure(request, AwsExceptionUtils.unwrap(e));
+                });
+    }
+
+    /**
+     * Builds the confirmation request of an email, with the secret hash of the app client.
+     */
+    private ConfirmSignUpRequest getConfirmSignUpRequest(ConfirmEmailRequest request, Deadline deadline) {
         var secretHash = cognitoUtils.calculateSecretHash(
                 cognitoProperties.getClientId(),
                 cognitoProperties.getClientSecret(),
                 request.getEmail()
         );
 
-        try {
-            var response = getConfirmSignUpRequest(request, secretHash);
-            cognitoClient.confirmSignUp(response);
+        return getConfirmSignUpRequest(request, secretHash, deadline);
+    }
 
-            log.info(messageService.getMessage(AUTH_CONFIRM_EMAIL_SUCCESS, request.getEmail()));
-        } catch (CognitoIdentityProviderException e) {
-            String errorMessage = messageService.getMessage(AUTH_CONFIRM_EMAIL_FAILURE, request.getEmail(), e.awsErrorDetails().errorMessage());
-            log.error(errorMessage, e);
-            throw new CognitoOperationException(errorMessage, e);
-        } catch (Exception e) {
-            String errorMessage = messageService.getMessage(AUTH_CONFIRM_EMAIL_UNEXPECTED, request.getEmail(), e.getMessage());
-            log.error(errorMessage, e);
-            throw new CognitoOperationException(errorMessage, e);
+    /**
+     * Maps a failed confirmation to the exception returned to the client: an expected failure for a wrong or expired
+     * code, a {@link CognitoOperationException} otherwise.
+     */
+    private RuntimeException confirmEmailFailure(ConfirmEmailRequest request, Throwable e) {
+        AuthFailureException abandoned = abandoned(e, request.getEmail());
+        if (abandoned != null) {
+            return abandoned;
+        }
+        String errorMessage;
+        if (e instanceof CognitoIdentityProviderException cognitoException) {
+            AuthFailure failure = expectedFailure(cognitoException, AuthFailure.INVALID_CODE);
+            if (failure != null) {
+                return rejected(failure, request.getEmail(), cognitoException);
+            }
+            errorMessage = messageService.getMessage(AUTH_CONFIRM_EMAIL_FAILURE, request.getEmail(), cognitoException.awsErrorDetails().errorMessage());
+        } else {
+            errorMessage = messageService.getMessage(AUTH_CONFIRM_EMAIL_UNEXPECTED, request.getEmail(), e.getMessage());
         }
+        log.error(errorMessage, e);
+        return new CognitoOperationException(errorMessage, e);
     }
 
 }
-
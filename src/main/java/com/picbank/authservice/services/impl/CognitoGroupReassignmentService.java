@@ -0,0 +1,337 @@
+package com.picbank.authservice.services.impl;
+
+import com.picbank.authservice.components.CognitoProperties;
+import com.picbank.authservice.components.GroupReassignmentProperties;
+import com.picbank.authservice.exceptions.InvalidRequestException;
+import com.picbank.authservice.model.GroupReassignmentJob;
+import com.picbank.authservice.model.GroupReassignmentRequest;
+import com.picbank.authservice.model.dtos.GroupReassignmentMessage;
+import com.picbank.authservice.services.GroupReassignmentService;
+import com.picbank.authservice.services.MessageService;
+import com.picbank.authservice.services.QueueService;
+import com.picbank.authservice.utils.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.*;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static com.picbank.authservice.constants.MessageConstants.*;
+import static com.picbank.authservice.constants.MessagingConstants.USER_GROUP_REASSIGNMENT_MAX_FAILED_USERS;
+import static com.picbank.authservice.constants.ObservabilityConstants.*;
+
+/**
+ * Moves or copies the users of a Cognito group to another group, as a resumable background job.
+ * <p>
+ * A job is a chain of {@code user.group.reassignment} messages, each one a checkpoint holding where to resume and
+ * the counters so far. The worker runs a chunk per message: pages are processed for up to the checkpoint interval,
+ * then the next checkpoint is enqueued and the message deleted. A restart therefore loses at most the chunk in
+ * progress, which is processed again when its message becomes visible; since adding a user to a group and removing
+ * it are idempotent, reprocessing is harmless.
+ * </p>
+ * <p>
+ * A copy pages through the source group with the {@code ListUsersInGroup} token, listing the next page while the
+ * users of the current one are reassigned, and checkpoints the token. A move cannot: it removes the users it lists,
+ * which shifts the pages behind a token, so it lists the group from the start again after every page. The users a
+ * move could not reassign stay in the group; they are kept in the checkpoint and skipped by the next listings, and
+ * the job stops once {@value com.picbank.authservice.constants.MessagingConstants#USER_GROUP_REASSIGNMENT_MAX_FAILED_USERS}
+ * of them are left behind.
+ * </p>
+ * <p>
+ * The users of a page are reassigned on the reassignment executor, which bounds the requests in flight across all
+ * jobs, and every request goes through a rate limiter shared by all jobs to stay under the Cognito
+ * {@code UserUpdate} quota. Users that cannot be reassigned are logged and counted; running the job again picks
+ * them up, as they are still in the source group.
+ * </p>
+ */
+@Slf4j
+@Service
+public class CognitoGroupReassignmentService implements GroupReassignmentService {
+
+    private final CognitoIdentityProviderClient cognitoClient;
+    private final CognitoProperties cognitoProperties;
+    private final QueueService queueService;
+    private final MessageService messageService;
+    private final GroupReassignmentProperties reassignmentProperties;
+    private final Executor groupReassignmentExecutor;
+    private final RateLimiter rateLimiter;
+    private final Counter reassignedCounter;
+    private final Counter failedCounter;
+
+    /**
+     * Constructs a new {@code CognitoGroupReassignmentService}.
+     *
+     * @param cognitoClient             The Cognito client used to list the users and change their groups.
+     * @param cognitoProperties         The user pool settings.
+     * @param queueService              The queue the job checkpoints are sent to.
+     * @param messageService            The service used for localized messages.
+     * @param reassignmentProperties    The concurrency, rate, page size and checkpoint settings.
+     * @param meterRegistry             The registry the user counters are registered with.
+     * @param groupReassignmentExecutor The executor the page listings and group changes run on.
+     */
+    public CognitoGroupReassignmentService(CognitoIdentityProviderClient cognitoClient,
+                                           CognitoProperties cognitoProperties,
+                                           QueueService queueService,
+                                           MessageService messageService,
+                                           GroupReassignmentProperties reassignmentProperties,
+                                           MeterRegistry meterRegistry,
+                                           @Qualifier("groupReassignmentExecutor") Executor groupReassignmentExecutor) {
+        this.cognitoClient = cognitoClient;
+        this.cognitoProperties = cognitoProperties;
+        this.queueService = queueService;
+        this.messageService = messageService;
+        this.reassignmentProperties = reassignmentProperties;
+        this.groupReassignmentExecutor = groupReassignmentExecutor;
+        this.rateLimiter = new RateLimiter(reassignmentProperties.getRequestsPerSecond());
+        this.reassignedCounter = Counter.builder(USER_GROUP_REASSIGNMENT_USERS)
+                .description("Users processed by the group reassignment jobs")
+                .tag(TAG_OUTCOME, OUTCOME_REASSIGNED)
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder(USER_GROUP_REASSIGNMENT_USERS)
+                .description("Users processed by the group reassignment jobs")
+                .tag(TAG_OUTCOME, OUTCOME_FAILED)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks that both groups exist and enqueues the first checkpoint of a new job.
+     *
+     * @param request The source and target groups.
+     * @return The started job.
+     * @throws InvalidRequestException If the groups are the same or either of them does not exist.
+     */
+    @Override
+    public GroupReassignmentJob startReassignment(GroupReassignmentRequest request) {
+        if (request.getSourceGroup().equals(request.getTargetGroup())) {
+            throw new InvalidRequestException(messageService.getMessage(GROUP_REASSIGNMENT_SAME_GROUP));
+        }
+        requireGroup(request.getSourceGroup());
+        requireGroup(request.getTargetGroup());
+
+        boolean removeFromSource = !Boolean.FALSE.equals(request.getRemoveFromSource());
+        GroupReassignmentMessage checkpoint = new GroupReassignmentMessage(UUID.randomUUID().toString(),
+                request.getSourceGroup(), request.getTargetGroup(), removeFromSource, null, 0, 0, List.of());
+        queueService.sendGroupReassignment(checkpoint);
+
+        log.info(messageService.getMessage(GROUP_REASSIGNMENT_STARTED, checkpoint.jobId(),
+                checkpoint.sourceGroup(), checkpoint.targetGroup(), removeFromSource));
+        return new GroupReassignmentJob()
+                .jobId(checkpoint.jobId())
+                .sourceGroup(checkpoint.sourceGroup())
+                .targetGroup(checkpoint.targetGroup())
+                .removeFromSource(removeFromSource);
+    }
+
+    /**
+     * Runs a chunk of a job from its checkpoint and enqueues the next checkpoint, unless the job is finished.
+     * <p>
+     * The chunk ends once the checkpoint interval has elapsed or {@code running} turns false, after the page in
+     * progress. If listing a later page fails, the chunk checkpoints before it, so the page is retried with the
+     * next message; if the first page cannot be listed, the exception is thrown and the message is not
+     * acknowledged.
+     * </p>
+     *
+     * @param checkpoint The job and the page to resume from.
+     * @param running    Whether the chunk may go on with the next page, e.g. {@code false} while shutting down.
+     * @throws SdkException If the first page cannot be listed.
+     */
+    @Override
+    public void reassign(GroupReassignmentMessage checkpoint, BooleanSupplier running) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(reassignmentProperties.getCheckpointIntervalMs());
+        if (checkpoint.removeFromSource()) {
+            move(checkpoint, () -> running.getAsBoolean() && System.nanoTime() < deadline);
+        } else {
+            copy(checkpoint, () -> running.getAsBoolean() && System.nanoTime() < deadline);
+        }
+    }
+
+    /**
+     * Copies the users page by page, following the {@code ListUsersInGroup} token.
+     */
+    private void copy(GroupReassignmentMessage checkpoint, BooleanSupplier goOn) {
+        long processed = checkpoint.processed();
+        long failed = checkpoint.failed();
+        ListUsersInGroupResponse page = listUsers(checkpoint, checkpoint.nextToken());
+
+        while (true) {
+            String nextToken = page.nextToken();
+            CompletableFuture<ListUsersInGroupResponse> nextPage = null;
+            if (nextToken != null && goOn.getAsBoolean()) {
+                nextPage = CompletableFuture.supplyAsync(() -> listUsers(checkpoint, nextToken), groupReassignmentExecutor);
+            }
+
+            failed += reassignPage(checkpoint, page.users()).size();
+            processed += page.users().size();
+
+            if (nextToken == null) {
+                log.info(messageService.getMessage(GROUP_REASSIGNMENT_FINISHED, checkpoint.jobId(), processed, failed));
+                return;
+            }
+            if (nextPage == null) {
+                checkpoint(checkpoint.resumeAt(nextToken, processed, failed, List.of()));
+                return;
+            }
+            try {
+                page = nextPage.join();
+            } catch (CompletionException e) {
+                log.warn(messageService.getMessage(GROUP_REASSIGNMENT_LIST_ERROR, checkpoint.jobId(),
+                        checkpoint.sourceGroup(), e.getCause().getMessage()));
+                checkpoint(checkpoint.resumeAt(nextToken, processed, failed, List.of()));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves the users a page at a time, listing the source group from the start for every page, as the users moved
+     * so far have left it.
+     */
+    private void move(GroupReassignmentMessage checkpoint, BooleanSupplier goOn) {
+        long processed = checkpoint.processed();
+        long failed = checkpoint.failed();
+        Set<String> failedUsers = new LinkedHashSet<>(checkpoint.failedUsers());
+        List<UserType> users = usersToMove(checkpoint, failedUsers);
+
+        while (!users.isEmpty()) {
+            List<String> notMoved = reassignPage(checkpoint, users);
+            failedUsers.addAll(notMoved);
+            failed += notMoved.size();
+            processed += users.size();
+
+            if (failedUsers.size() >= USER_GROUP_REASSIGNMENT_MAX_FAILED_USERS) {
+                log.error(messageService.getMessage(GROUP_REASSIGNMENT_STOPPED, checkpoint.jobId(), processed,
+                        failedUsers.size(), checkpoint.sourceGroup()));
+                return;
+            }
+            if (!goOn.getAsBoolean()) {
+                checkpoint(checkpoint.resumeAt(null, processed, failed, List.copyOf(failedUsers)));
+                return;
+            }
+            try {
+                users = usersToMove(checkpoint, failedUsers);
+            } catch (SdkException e) {
+                log.warn(messageService.getMessage(GROUP_REASSIGNMENT_LIST_ERROR, checkpoint.jobId(),
+                        checkpoint.sourceGroup(), e.getMessage()));
+                checkpoint(checkpoint.resumeAt(null, processed, failed, List.copyOf(failedUsers)));
+                return;
+            }
+        }
+        log.info(messageService.getMessage(GROUP_REASSIGNMENT_FINISHED, checkpoint.jobId(), processed, failed));
+    }
+
+    /**
+     * Lists the source group from the start and returns the users of the first page that has any left to move,
+     * paging past the users that could not be moved; nothing is removed while paging, so the token stays valid.
+     *
+     * @return The users to move next, empty once only the users that could not be moved are left.
+     */
+    private List<UserType> usersToMove(GroupReassignmentMessage job, Set<String> failedUsers) {
+        String nextToken = null;
+        do {
+            ListUsersInGroupResponse page = listUsers(job, nextToken);
+            List<UserType> users = page.users().stream()
+                    .filter(user -> !failedUsers.contains(user.username()))
+                    .toList();
+            if (!users.isEmpty()) {
+                return users;
+            }
+            nextToken = page.nextToken();
+        } while (nextToken != null);
+        return List.of();
+    }
+
+    /**
+     * Reassigns the users of a page concurrently and waits for all of them.
+     *
+     * @return The usernames of the users that could not be reassigned.
+     */
+    private List<String> reassignPage(GroupReassignmentMessage job, List<UserType> users) {
+        List<CompletableFuture<String>> results = users.stream()
+                .map(user -> CompletableFuture.supplyAsync(
+                        () -> reassignUser(job, user.username()) ? null : user.username(), groupReassignmentExecutor))
+                .toList();
+        return results.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Adds a user to the target group and, when moving, removes it from the source group.
+     *
+     * @return {@code true} if the user was reassigned.
+     */
+    private boolean reassignUser(GroupReassignmentMessage job, String username) {
+        try {
+            rateLimiter.acquire();
+            cognitoClient.adminAddUserToGroup(AdminAddUserToGroupRequest.builder()
+                    .userPoolId(cognitoProperties.getUserPoolId())
+                    .username(username)
+                    .groupName(job.targetGroup())
+                    .build());
+            if (job.removeFromSource()) {
+                rateLimiter.acquire();
+                cognitoClient.adminRemoveUserFromGroup(AdminRemoveUserFromGroupRequest.builder()
+                        .userPoolId(cognitoProperties.getUserPoolId())
+                        .username(username)
+                        .groupName(job.sourceGroup())
+                        .build());
+            }
+            reassignedCounter.increment();
+            return true;
+        } catch (CognitoIdentityProviderException e) {
+            return userFailed(job, username, e.awsErrorDetails().errorMessage());
+        } catch (SdkException e) {
+            return userFailed(job, username, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return userFailed(job, username, e.getMessage());
+        }
+    }
+
+    private boolean userFailed(GroupReassignmentMessage job, String username, String reason) {
+        log.warn(messageService.getMessage(GROUP_REASSIGNMENT_USER_FAILED, job.jobId(), username, reason));
+        failedCounter.increment();
+        return false;
+    }
+
+    private ListUsersInGroupResponse listUsers(GroupReassignmentMessage job, String nextToken) {
+        return cognitoClient.listUsersInGroup(ListUsersInGroupRequest.builder()
+                .userPoolId(cognitoProperties.getUserPoolId())
+                .groupName(job.sourceGroup())
+                .limit(reassignmentProperties.getPageSize())
+                .nextToken(nextToken)
+                .build());
+    }
+
+    private void checkpoint(GroupReassignmentMessage checkpoint) {
+        queueService.sendGroupReassignment(checkpoint);
+        log.info(messageService.getMessage(GROUP_REASSIGNMENT_CHECKPOINT, checkpoint.jobId(),
+                checkpoint.processed(), checkpoint.failed()));
+    }
+
+    private void requireGroup(String groupName) {
+        try {
+            cognitoClient.getGroup(GetGroupRequest.builder()
+                    .userPoolId(cognitoProperties.getUserPoolId())
+                    .groupName(groupName)
+                    .build());
+        } catch (ResourceNotFoundException e) {
+            throw new InvalidRequestException(messageService.getMessage(GROUP_REASSIGNMENT_UNKNOWN_GROUP, groupName));
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.picbank.authservice.services.impl;
+
+import com.picbank.authservice.components.CognitoProperties;
+import com.picbank.authservice.components.UserExportProperties;
+import com.picbank.authservice.model.UserExportRecord;
+import com.picbank.authservice.services.MessageService;
+import com.picbank.authservice.services.UserExportService;
+import com.picbank.authservice.utils.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.*;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static com.picbank.authservice.constants.AuthConstants.ATTRIBUTE_EMAIL;
+import static com.picbank.authservice.constants.AuthConstants.ATTRIBUTE_NAME;
+import static com.picbank.authservice.constants.MessageConstants.*;
+
+/**
+ * Export of the users of the Cognito user pool and their groups.
+ * <p>
+ * The user pool is paged through with {@code ListUsers}, and each page is fetched, together with the groups of its
+ * users, on the export executor while the previous pages are written. At most {@code prefetch-pages} pages are
+ * fetched ahead of the page being written, and a page is only requested once one has been written: when the client
+ * reads slowly, the writes block and so does the fetching, so memory stays bounded by the prefetched pages.
+ * </p>
+ * <p>
+ * The group lookups go through a rate limiter shared by all exports to stay under the Cognito {@code UserRead} quota.
+ * </p>
+ */
+@Slf4j
+@Service
+public class CognitoUserExportService implements UserExportService {
+
+    private final CognitoIdentityProviderClient cognitoClient;
+    private final CognitoProperties cognitoProperties;
+    private final MessageService messageService;
+    private final UserExportProperties exportProperties;
+    private final Executor userExportExecutor;
+    private final RateLimiter rateLimiter;
+
+    /**
+     * Constructs a new {@code CognitoUserExportService}.
+     *
+     * @param cognitoClient      The Cognito client used to list the users and their groups.
+     * @param cognitoProperties  The user pool settings.
+     * @param messageService     The service used for localized messages.
+     * @param exportProperties   The concurrency, rate, page size and prefetch settings.
+     * @param userExportExecutor The executor the Cognito requests run on.
+     */
+    public CognitoUserExportService(CognitoIdentityProviderClient cognitoClient,
+                                    CognitoProperties cognitoProperties,
+                                    MessageService messageService,
+                                    UserExportProperties exportProperties,
+                                    @Qualifier("userExportExecutor") Executor userExportExecutor) {
+        this.cognitoClient = cognitoClient;
+        this.cognitoProperties = cognitoProperties;
+        this.messageService = messageService;
+        this.exportProperties = exportProperties;
+        this.userExportExecutor = userExportExecutor;
+        this.rateLimiter = new RateLimiter(exportProperties.getRequestsPerSecond());
+    }
+
+    /**
+     * Exports the users of the user pool, in pages, to the listener.
+     * <p>
+     * The listener is called on the calling thread, one user at a time. If it throws, e.g. because the client
+     * went away, the export stops and the pages fetched ahead are discarded.
+     * </p>
+     *
+     * @param includeGroups Whether to look up the groups of every user.
+     * @param listener      The consumer of the exported users; it may block to slow the export down.
+     * @return The number of exported users.
+     */
+    @Override
+    public long exportUsers(boolean includeGroups, Consumer<UserExportRecord> listener) {
+        log.info(messageService.getMessage(USER_EXPORT_START, includeGroups));
+        long startNanos = System.nanoTime();
+        long exported = 0;
+
+        CompletableFuture<ListUsersResponse> listing = CompletableFuture.supplyAsync(() -> listUsers(null), userExportExecutor);
+        Deque<CompletableFuture<List<UserExportRecord>>> pages = new ArrayDeque<>();
+        pages.add(listing.thenCompose(response -> toRecords(response, includeGroups)));
+        try {
+            while (true) {
+                while (pages.size() <= exportProperties.getPrefetchPages()) {
+                    listing = listing.thenApplyAsync(this::listNextPage, userExportExecutor);
+                    pages.add(listing.thenCompose(response -> toRecords(response, includeGroups)));
+                }
+
+                List<UserExportRecord> records = join(pages.poll());
+                if (records == null) {
+                    break;
+                }
+                for (UserExportRecord exportRecord : records) {
+                    listener.accept(exportRecord);
+                    exported++;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn(messageService.getMessage(USER_EXPORT_ABORTED, exported, e.getMessage()));
+            throw e;
+        } finally {
+            pages.forEach(page -> page.cancel(false));
+        }
+
+        log.info(messageService.getMessage(USER_EXPORT_FINISHED, exported,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
+        return exported;
+    }
+
+    /**
+     * Lists the page after the given one.
+     *
+     * @return The next page, or {@code null} if the given page was the last one.
+     */
+    private ListUsersResponse listNextPage(ListUsersResponse previous) {
+        if (previous == null || previous.paginationToken() == null) {
+            return null;
+        }
+        return listUsers(previous.paginationToken());
+    }
+
+    private ListUsersResponse listUsers(String paginationToken) {
+        return cognitoClient.listUsers(ListUsersRequest.builder()
+                .userPoolId(cognitoProperties.getUserPoolId())
+                .attributesToGet(ATTRIBUTE_EMAIL, ATTRIBUTE_NAME)
+                .limit(exportProperties.getPageSize())
+                .paginationToken(paginationToken)
+                .build());
+    }
+
+    /**
+     * Converts a page to export records, looking up the groups of its users concurrently if requested.
+     *
+     * @return The records of the page, or {@code null} past the last page.
+     */
+    private CompletableFuture<List<UserExportRecord>> toRecords(ListUsersResponse response, boolean includeGroups) {
+        if (response == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!includeGroups) {
+            return CompletableFuture.completedFuture(response.users().stream()
+                    .map(user -> toRecord(user, null))
+                    .toList());
+        }
+        List<CompletableFuture<UserExportRecord>> records = response.users().stream()
+                .map(user -> CompletableFuture.supplyAsync(() -> toRecord(user, groupsOf(user.username())), userExportExecutor))
+                .toList();
+        return CompletableFuture.allOf(records.toArray(CompletableFuture[]::new))
+                .thenApply(done -> records.stream().map(CompletableFuture::join).toList());
+    }
+
+    private List<String> groupsOf(String username) {
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        return cognitoClient.adminListGroupsForUserPaginator(AdminListGroupsForUserRequest.builder()
+                        .userPoolId(cognitoProperties.getUserPoolId())
+                        .username(username)
+                        .build())
+                .groups().stream()
+                .map(GroupType::groupName)
+                .toList();
+    }
+
+    private static UserExportRecord toRecord(UserType user, List<String> groups) {
+        Map<String, String> attributes = user.attributes().stream()
+                .collect(Collectors.toMap(AttributeType::name, AttributeType::value, (first, second) -> second));
+        return new UserExportRecord()
+                .username(user.username())
+                .email(attributes.get(ATTRIBUTE_EMAIL))
+                .name(attributes.get(ATTRIBUTE_NAME))
+                .status(user.userStatusAsString())
+                .enabled(user.enabled())
+                .createdAt(toOffsetDateTime(user.userCreateDate()))
+                .lastModifiedAt(toOffsetDateTime(user.userLastModifiedDate()))
+                .groups(groups);
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Instant instant) {
+        return instant == null ? null : instant.atOffset(ZoneOffset.UTC);
+    }
+
+    /**
+     * Waits for a page, rethrowing the failure of a Cognito request as is.
+     */
+    private static <T> T join(CompletableFuture<T> page) {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.picbank.authservice.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.picbank.authservice.components.CognitoProperties;
+import com.picbank.authservice.components.UserImportProperties;
+import com.picbank.authservice.exceptions.SqsOperationException;
+import com.picbank.authservice.model.UserImportEvent;
+import com.picbank.authservice.model.UserImportRow;
+import com.picbank.authservice.model.dtos.CognitoUserGroupMessage;
+import com.picbank.authservice.model.enums.CognitoUserGroup;
+import com.picbank.authservice.model.enums.UserImportFormat;
+import com.picbank.authservice.services.MessageService;
+import com.picbank.authservice.services.QueueService;
+import com.picbank.authservice.services.UserImportService;
+import com.picbank.authservice.utils.CsvUtils;
+import com.picbank.authservice.utils.RateLimiter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminCreateUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AttributeType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.CognitoIdentityProviderException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.DeliveryMediumType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static com.picbank.authservice.constants.AuthConstants.*;
+import static com.picbank.authservice.constants.MessageConstants.*;
+import static com.picbank.authservice.constants.MessagingConstants.SQS_MAX_BATCH_SIZE;
+
+/**
+ * Bulk import of users into the Cognito user pool.
+ * <p>
+ * The file is read one line at a time as it is uploaded. Each row is parsed and validated on the reading thread;
+ * valid rows are created with {@code AdminCreateUser} on the import executor, with at most
+ * {@code max-concurrency} rows in flight per import, so memory does not grow with the file size.
+ * Requests go through a rate limiter shared by all imports to stay under the Cognito {@code UserCreation} quota.
+ * The group assignments of the created users are enqueued ten at a time with {@code SendMessageBatch}.
+ * </p>
+ */
+@Slf4j
+@Service
+public class CognitoUserImportService implements UserImportService {
+
+    private static final String FIELD_NAME = "name";
+    private static final String FIELD_DOCUMENT = "document";
+    private static final String FIELD_EMAIL = "email";
+    private static final String FIELD_IS_MERCHANT = "isMerchant";
+    private static final String VIOLATION_SEPARATOR = "; ";
+
+    private final CognitoIdentityProviderClient cognitoClient;
+    private final CognitoProperties cognitoProperties;
+    private final QueueService queueService;
+    private final MessageService messageService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final UserImportProperties importProperties;
+    private final Executor userImportExecutor;
+    private final RateLimiter rateLimiter;
+
+    /**
+     * Constructs a new {@code CognitoUserImportService}.
+     *
+     * @param cognitoClient      The Cognito client used to create the users.
+     * @param cognitoProperties  The user pool settings.
+     * @param queueService       The queue the group assignments are sent to.
+     * @param messageService     The service used for localized messages.
+     * @param objectMapper       The mapper used to parse NDJSON rows.
+     * @param validator          The validator of the parsed rows.
+     * @param importProperties   The concurrency, rate and progress settings.
+     * @param userImportExecutor The executor the user creations run on.
+     */
+    public CognitoUserImportService(CognitoIdentityProviderClient cognitoClient,
+                                    CognitoProperties cognitoProperties,
+                                    QueueService queueService,
+                                    MessageService messageService,
+                                    ObjectMapper objectMapper,
+                                    Validator validator,
+                                    UserImportProperties importProperties,
+                                    @Qualifier("userImportExecutor") Executor userImportExecutor) {
+        this.cognitoClient = cognitoClient;
+        this.cognitoProperties = cognitoProperties;
+        this.queueService = queueService;
+        this.messageService = messageService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.importProperties = importProperties;
+        this.userImportExecutor = userImportExecutor;
+        this.rateLimiter = new RateLimiter(importProperties.getRequestsPerSecond());
+    }
+
+    /**
+     * Imports the users of an NDJSON or CSV file.
+     * <p>
+     * The listener receives a failure event for every rejected row, a progress event every
+     * {@code progress-interval} processed rows and, last, the summary. Its calls are serialized, but they may
+     * come from the import threads. If it throws, e.g. because the client went away, no further rows are read;
+     * the rows already in flight are completed and their group assignments enqueued.
+     * </p>
+     *
+     * @param input    The file contents, in UTF-8.
+     * @param format   The file format.
+     * @param listener The consumer of the import events.
+     * @return The summary event.
+     * @throws IOException If the file could not be read.
+     */
+    @Override
+    public UserImportEvent importUsers(InputStream input, UserImportFormat format,
+                                       Consumer<UserImportEvent> listener) throws IOException {
+        log.info(messageService.getMessage(USER_IMPORT_START, format));
+        long startNanos = System.nanoTime();
+        int maxConcurrency = importProperties.getMaxConcurrency();
+        Semaphore inFlight = new Semaphore(maxConcurrency);
+        ImportRun run = new ImportRun(listener);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> header = null;
+            long lineNumber = 0;
+            String line;
+            while (!run.isAborted() && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == UserImportFormat.CSV && header == null) {
+                    header = parseHeader(line);
+                    continue;
+                }
+                processLine(run, inFlight, lineNumber, line, format, header);
+            }
+        } finally {
+            inFlight.acquireUninterruptibly(maxConcurrency);
+            run.flush();
+        }
+
+        UserImportEvent summary = run.summary();
+        log.info(messageService.getMessage(USER_IMPORT_FINISHED, summary.getProcessed(), summary.getCreated(),
+                summary.getFailed(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
+        if (run.isAborted()) {
+            log.warn(messageService.getMessage(USER_IMPORT_ABORTED, summary.getProcessed(), run.abortCause.getMessage()));
+            throw run.abortCause;
+        }
+        run.emit(summary);
+        return summary;
+    }
+
+    /**
+     * Parses and validates a row and, if it is valid, submits its creation once a slot is free.
+     */
+    private void processLine(ImportRun run, Semaphore inFlight, long lineNumber, String line,
+                             UserImportFormat format, Map<String, Integer> header) {
+        UserImportRow row;
+        try {
+            row = format == UserImportFormat.CSV ? parseCsvRow(line, header) : objectMapper.readValue(line, UserImportRow.class);
+        } catch (JsonProcessingException e) {
+            run.failed(lineNumber, null, messageService.getMessage(USER_IMPORT_REASON_MALFORMED, e.getOriginalMessage()));
+            return;
+        } catch (IllegalArgumentException e) {
+            run.failed(lineNumber, null, messageService.getMessage(USER_IMPORT_REASON_MALFORMED, e.getMessage()));
+            return;
+        }
+
+        Set<ConstraintViolation<UserImportRow>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            run.failed(lineNumber, row.getEmail(), violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(VIOLATION_SEPARATOR)));
+            return;
+        }
+
+        inFlight.acquireUninterruptibly();
+        try {
+            userImportExecutor.execute(() -> {
+                try {
+                    createUser(run, lineNumber, row);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            run.failed(lineNumber, row.getEmail(), e.getMessage());
+        }
+    }
+
+    /**
+     * Creates a user with {@code AdminCreateUser}; Cognito e-mails them a temporary password.
+     */
+    private void createUser(ImportRun run, long lineNumber, UserImportRow row) {
+        try {
+            rateLimiter.acquire();
+            cognitoClient.adminCreateUser(AdminCreateUserRequest.builder()
+                    .userPoolId(cognitoProperties.getUserPoolId())
+                    .username(row.getEmail())
+                    .userAttributes(
+                            attribute(ATTRIBUTE_EMAIL, row.getEmail()),
+                            attribute(ATTRIBUTE_EMAIL_VERIFIED, Boolean.TRUE.toString()),
+                            attribute(ATTRIBUTE_NAME, row.getName()),
+                            attribute(ATTRIBUTE_DOCUMENT, row.getDocument()))
+                    .desiredDeliveryMediums(DeliveryMediumType.EMAIL)
+                    .build());
+            CognitoUserGroup group = Boolean.TRUE.equals(row.getIsMerchant()) ? CognitoUserGroup.MERCHANT : CognitoUserGroup.STANDARD;
+            run.created(lineNumber, new CognitoUserGroupMessage(row.getEmail(), row.getEmail(), group.name()));
+        } catch (CognitoIdentityProviderException e) {
+            run.failed(lineNumber, row.getEmail(), e.awsErrorDetails().errorMessage());
+        } catch (SdkException e) {
+            run.failed(lineNumber, row.getEmail(), e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.failed(lineNumber, row.getEmail(), e.getMessage());
+        }
+    }
+
+    private static Map<String, Integer> parseHeader(String line) {
+        List<String> columns = CsvUtils.parseLine(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim(), i);
+        }
+        return header;
+    }
+
+    private static UserImportRow parseCsvRow(String line, Map<String, Integer> header) {
+        List<String> fields = CsvUtils.parseLine(line);
+        String isMerchant = field(fields, header, FIELD_IS_MERCHANT);
+        if (isMerchant != null && !isMerchant.equalsIgnoreCase(Boolean.TRUE.toString())
+                && !isMerchant.equalsIgnoreCase(Boolean.FALSE.toString())) {
+            throw new IllegalArgumentException(FIELD_IS_MERCHANT + " must be true or false");
+        }
+        return new UserImportRow()
+                .name(field(fields, header, FIELD_NAME))
+                .document(field(fields, header, FIELD_DOCUMENT))
+                .email(field(fields, header, FIELD_EMAIL))
+                .isMerchant(isMerchant == null ? null : Boolean.parseBoolean(isMerchant));
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        if (index == null || index >= fields.size() || fields.get(index).isBlank()) {
+            return null;
+        }
+        return fields.get(index).trim();
+    }
+
+    private static AttributeType attribute(String name, String value) {
+        return AttributeType.builder().name(name).value(value).build();
+    }
+
+    /**
+     * State of a single import: its counters, the pending group assignments and the event listener.
+     * <p>
+     * A row is processed once it failed, or once its user was created and its group assignment enqueued.
+     * </p>
+     */
+    private final class ImportRun {
+
+        private final Consumer<UserImportEvent> listener;
+        private final List<PendingAssignment> pending = new ArrayList<>(SQS_MAX_BATCH_SIZE);
+        private long processed;
+        private long created;
+        private long failed;
+        private long nextProgress = importProperties.getProgressInterval();
+        private volatile RuntimeException abortCause;
+
+        private ImportRun(Consumer<UserImportEvent> listener) {
+            this.listener = listener;
+        }
+
+        private boolean isAborted() {
+            return abortCause != null;
+        }
+
+        private synchronized void failed(long lineNumber, String email, String reason) {
+            log.debug(messageService.getMessage(USER_IMPORT_ROW_REJECTED, lineNumber, email, reason));
+            failed++;
+            processed++;
+            emit(new UserImportEvent().type(UserImportEvent.TypeEnum.FAILURE).line(lineNumber).email(email).reason(reason));
+            emitProgress();
+        }
+
+        private synchronized void created(long lineNumber, CognitoUserGroupMessage assignment) {
+            pending.add(new PendingAssignment(lineNumber, assignment));
+            if (pending.size() == SQS_MAX_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        /**
+         * Enqueues the pending group assignments; the rows whose assignment was not enqueued are failed.
+         */
+        private synchronized void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<CognitoUserGroupMessage> messages = pending.stream().map(PendingAssignment::message).toList();
+            Collection<CognitoUserGroupMessage> unsent;
+            try {
+                unsent = new HashSet<>(queueService.sendMessages(messages));
+            } catch (SqsOperationException e) {
+                unsent = messages;
+            }
+
+            List<PendingAssignment> batch = List.copyOf(pending);
+            pending.clear();
+            for (PendingAssignment assignment : batch) {
+                if (unsent.contains(assignment.message())) {
+                    failed(assignment.lineNumber(), assignment.message().email(), messageService.getMessage(USER_IMPORT_REASON_ENQUEUE));
+                } else {
+                    created++;
+                    processed++;
+                    emitProgress();
+                }
+            }
+        }
+
+        private synchronized UserImportEvent summary() {
+            return counters(UserImportEvent.TypeEnum.SUMMARY);
+        }
+
+        private void emitProgress() {
+            if (processed >= nextProgress) {
+                nextProgress += importProperties.getProgressInterval();
+                emit(counters(UserImportEvent.TypeEnum.PROGRESS));
+            }
+        }
+
+        private UserImportEvent counters(UserImportEvent.TypeEnum type) {
+            return new UserImportEvent().type(type).processed(processed).created(created).failed(failed);
+        }
+
+        /**
+         * Hands an event to the listener; after the first failure, the import is aborted and events are dropped.
+         */
+        private synchronized void emit(UserImportEvent event) {
+            if (isAborted()) {
+                return;
+            }
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                abortCause = e;
+            }
+        }
+    }
+
+    private record PendingAssignment(long lineNumber, CognitoUserGroupMessage message) {
+    }
+}
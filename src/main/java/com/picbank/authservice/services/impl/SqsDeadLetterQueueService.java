@@ -0,0 +1,428 @@
+package com.picbank.authservice.services.impl;
+
+import com.picbank.authservice.components.DlqRedriveProperties;
+import com.picbank.authservice.components.SqsFifoProperties;
+import com.picbank.authservice.components.SqsMetrics;
+import com.picbank.authservice.components.SqsProperties;
+import com.picbank.authservice.model.DlqMessage;
+import com.picbank.authservice.model.DlqRedriveEvent;
+import com.picbank.authservice.model.DlqRedriveRequest;
+import com.picbank.authservice.services.DeadLetterQueueService;
+import com.picbank.authservice.services.MessageService;
+import com.picbank.authservice.utils.RateLimiter;
+import com.picbank.authservice.utils.SqsObservationUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.*;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static com.picbank.authservice.constants.MessageConstants.*;
+import static com.picbank.authservice.constants.MessagingConstants.*;
+
+/**
+ * Inspection of the dead-letter queue and replay of its messages to the main queue.
+ * <p>
+ * SQS cannot read a message without receiving it, so both operations receive the DLQ ten messages at a time with a
+ * long visibility timeout, so that a message is not received twice while the operation runs. The messages that are
+ * not replayed are held until the operation ends, then made visible again with {@code ChangeMessageVisibilityBatch};
+ * if the node dies meanwhile, they reappear after the visibility timeout.
+ * </p>
+ * <p>
+ * Replayed messages keep their body and attributes, trace context included. They are sent with
+ * {@code SendMessageBatch}, then deleted from the DLQ with {@code DeleteMessageBatch}, through a rate limiter shared
+ * by all redrives. On FIFO queues they keep their message group and are deduplicated by their DLQ message id.
+ * </p>
+ */
+@Slf4j
+@Service
+public class SqsDeadLetterQueueService implements DeadLetterQueueService {
+
+    private static final String ALL_MESSAGE_ATTRIBUTES = "All";
+    private static final int RECEIVE_WAIT_SECONDS = 1;
+
+    private final SqsClient sqsClient;
+    private final SqsProperties sqsProperties;
+    private final SqsFifoProperties fifoProperties;
+    private final DlqRedriveProperties redriveProperties;
+    private final MessageService messageService;
+    private final RateLimiter rateLimiter;
+
+    /**
+     * Constructs a new {@code SqsDeadLetterQueueService}.
+     *
+     * @param sqsClient         The SQS client used to receive, send and delete the messages.
+     * @param sqsProperties     The URLs of the queue and its DLQ.
+     * @param fifoProperties    The FIFO mode settings of the queues.
+     * @param redriveProperties The rate, visibility timeout and progress settings.
+     * @param messageService    The service used for localized messages.
+     */
+    public SqsDeadLetterQueueService(SqsClient sqsClient,
+                                     SqsProperties sqsProperties,
+                                     SqsFifoProperties fifoProperties,
+                                     DlqRedriveProperties redriveProperties,
+                                     MessageService messageService) {
+        this.sqsClient = sqsClient;
+        this.sqsProperties = sqsProperties;
+        this.fifoProperties = fifoProperties;
+        this.redriveProperties = redriveProperties;
+        this.messageService = messageService;
+        this.rateLimiter = new RateLimiter(redriveProperties.getMessagesPerSecond());
+    }
+
+    /**
+     * Writes the messages of the DLQ to the listener, leaving them in the DLQ.
+     * <p>
+     * The listener is called on the calling thread, one message at a time, as the batches are received. If it
+     * throws, e.g. because the client went away, the peek stops. Either way the peeked messages are made visible
+     * again.
+     * </p>
+     *
+     * @param limit    The maximum number of messages to peek at.
+     * @param listener The consumer of the messages.
+     * @return The number of messages peeked at.
+     */
+    @Override
+    public long peekMessages(int limit, Consumer<DlqMessage> listener) {
+        log.info(messageService.getMessage(DLQ_PEEK_START, limit));
+        Set<String> peeked = new HashSet<>();
+        List<String> held = new ArrayList<>();
+        try {
+            // Bounded by the received messages, so messages delivered twice cannot keep the peek going
+            while (held.size() < limit) {
+                List<Message> messages = receive(Math.min(SQS_MAX_BATCH_SIZE, limit - held.size()));
+                if (messages.isEmpty()) {
+                    break;
+                }
+                for (Message message : messages) {
+                    held.add(message.receiptHandle());
+                    // Standard queues may deliver a message twice
+                    if (peeked.add(message.messageId())) {
+                        listener.accept(toDlqMessage(message));
+                    }
+                }
+            }
+        } finally {
+            release(held);
+        }
+        log.info(messageService.getMessage(DLQ_PEEK_FINISHED, peeked.size()));
+        return peeked.size();
+    }
+
+    /**
+     * Replays the selected messages of the DLQ to the main queue.
+     * <p>
+     * Without message ids, every message that reached the DLQ before the redrive started is replayed; with them,
+     * the redrive stops once all of them were received. It also stops once {@code maxMessages} are replayed, the
+     * DLQ is empty, it holds {@code max-held-messages} messages it skipped, or it ran for {@code max-duration-seconds},
+     * before its held messages reappear; the summary then says it timed out, and a new redrive replays the rest.
+     * </p>
+     * <p>
+     * The listener receives a progress event every {@code progress-interval} received messages and, last, the
+     * summary. It is called on the calling thread; if it throws, the redrive stops. Either way the skipped messages
+     * and those that could not be replayed are made visible again.
+     * </p>
+     *
+     * @param request  The messages to replay.
+     * @param listener The consumer of the redrive events.
+     * @return The summary event.
+     */
+    @Override
+    public DlqRedriveEvent redriveMessages(DlqRedriveRequest request, Consumer<DlqRedriveEvent> listener) {
+        List<String> messageIds = request.getMessageIds();
+        Set<String> selected = messageIds == null || messageIds.isEmpty() ? null : new HashSet<>(messageIds);
+        if (selected == null) {
+            log.info(messageService.getMessage(DLQ_REDRIVE_START_ALL, redriveProperties.getMessagesPerSecond()));
+        } else {
+            log.info(messageService.getMessage(DLQ_REDRIVE_START_SELECTED, selected.size(),
+                    redriveProperties.getMessagesPerSecond()));
+        }
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.SECONDS.toNanos(redriveProperties.getMaxDurationSeconds());
+        RedriveRun run = new RedriveRun(listener, selected,
+                request.getMaxMessages() == null ? Long.MAX_VALUE : request.getMaxMessages());
+
+        try {
+            while (run.wantsMore()) {
+                if (System.nanoTime() - deadlineNanos >= 0) {
+                    run.timedOut = true;
+                    log.warn(messageService.getMessage(DLQ_REDRIVE_TIMED_OUT, redriveProperties.getMaxDurationSeconds(),
+                            run.replayed));
+                    break;
+                }
+                List<Message> messages = receive(SQS_MAX_BATCH_SIZE);
+                if (messages.isEmpty()) {
+                    break;
+                }
+                List<Message> batch = messages.stream().filter(run::select).toList();
+                try {
+                    for (int i = 0; i < batch.size(); i++) {
+                        rateLimiter.acquire();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    run.failed(batch);
+                    break;
+                }
+                replay(run, batch);
+                run.emitProgress();
+            }
+        } catch (RuntimeException e) {
+            log.warn(messageService.getMessage(DLQ_REDRIVE_ABORTED, run.replayed, e.getMessage()));
+            throw e;
+        } finally {
+            release(run.held);
+        }
+
+        DlqRedriveEvent summary = run.event(DlqRedriveEvent.TypeEnum.SUMMARY);
+        log.info(messageService.getMessage(DLQ_REDRIVE_FINISHED, run.received, run.replayed, run.failed, run.skipped,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
+        listener.accept(summary);
+        return summary;
+    }
+
+    /**
+     * Sends a batch of messages to the main queue and deletes the sent ones from the DLQ.
+     */
+    private void replay(RedriveRun run, List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        boolean fifo = fifoProperties.isEnabled();
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            Message message = messages.get(i);
+            entries.add(SendMessageBatchRequestEntry.builder()
+                    .id(String.valueOf(i))
+                    .messageBody(message.body())
+                    .messageAttributes(withoutFailureAttributes(message.messageAttributes()))
+                    .messageGroupId(fifo ? message.attributes().get(MessageSystemAttributeName.MESSAGE_GROUP_ID) : null)
+                    .messageDeduplicationId(fifo ? message.messageId() : null)
+                    .build());
+        }
+
+        SendMessageBatchResponse response;
+        try {
+            response = sqsClient.sendMessageBatch(SendMessageBatchRequest.builder()
+                    .queueUrl(sqsProperties.getQueueUrl())
+                    .entries(entries)
+                    .build());
+        } catch (SqsException e) {
+            log.warn(messageService.getMessage(DLQ_REDRIVE_SEND_FAILED, messages.size(), e.getMessage()), e);
+            run.failed(messages);
+            return;
+        }
+
+        if (!response.failed().isEmpty()) {
+            log.warn(messageService.getMessage(DLQ_REDRIVE_SEND_FAILED, response.failed().size(),
+                    response.failed().stream().map(BatchResultErrorEntry::code).distinct().toList()));
+            run.failed(response.failed().stream()
+                    .map(failure -> messages.get(Integer.parseInt(failure.id())))
+                    .toList());
+        }
+        List<Message> sent = response.successful().stream()
+                .map(success -> messages.get(Integer.parseInt(success.id())))
+                .toList();
+        delete(sent);
+        run.replayed += sent.size();
+    }
+
+    /**
+     * Deletes replayed messages from the DLQ; a message that could not be deleted may be replayed again later.
+     */
+    private void delete(List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            entries.add(DeleteMessageBatchRequestEntry.builder()
+                    .id(String.valueOf(i))
+                    .receiptHandle(messages.get(i).receiptHandle())
+                    .build());
+        }
+        try {
+            DeleteMessageBatchResponse response = sqsClient.deleteMessageBatch(DeleteMessageBatchRequest.builder()
+                    .queueUrl(sqsProperties.getDlqUrl())
+                    .entries(entries)
+                    .build());
+            if (!response.failed().isEmpty()) {
+                log.warn(messageService.getMessage(DLQ_REDRIVE_DELETE_FAILED, response.failed().size(),
+                        response.failed().stream().map(BatchResultErrorEntry::code).distinct().toList()));
+            }
+        } catch (SqsException e) {
+            log.warn(messageService.getMessage(DLQ_REDRIVE_DELETE_FAILED, messages.size(), e.getMessage()), e);
+        }
+    }
+
+    private List<Message> receive(int maxMessages) {
+        return sqsClient.receiveMessage(ReceiveMessageRequest.builder()
+                .queueUrl(sqsProperties.getDlqUrl())
+                .maxNumberOfMessages(maxMessages)
+                .waitTimeSeconds(RECEIVE_WAIT_SECONDS)
+                .visibilityTimeout(redriveProperties.getVisibilityTimeoutSeconds())
+                .messageAttributeNames(ALL_MESSAGE_ATTRIBUTES)
+                .messageSystemAttributeNames(MessageSystemAttributeName.SENT_TIMESTAMP,
+                        MessageSystemAttributeName.APPROXIMATE_RECEIVE_COUNT,
+                        MessageSystemAttributeName.MESSAGE_GROUP_ID)
+                .receiveRequestAttemptId(fifoProperties.isEnabled() ? UUID.randomUUID().toString() : null)
+                .build())
+                .messages();
+    }
+
+    /**
+     * Makes held messages visible again, ten at a time.
+     *
+     * @param receiptHandles The receipt handles of the held messages.
+     */
+    private void release(List<String> receiptHandles) {
+        for (int from = 0; from < receiptHandles.size(); from += SQS_MAX_BATCH_SIZE) {
+            List<String> chunk = receiptHandles.subList(from, Math.min(from + SQS_MAX_BATCH_SIZE, receiptHandles.size()));
+            List<ChangeMessageVisibilityBatchRequestEntry> entries = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                entries.add(ChangeMessageVisibilityBatchRequestEntry.builder()
+                        .id(String.valueOf(i))
+                        .receiptHandle(chunk.get(i))
+                        .visibilityTimeout(0)
+                        .build());
+            }
+            try {
+                ChangeMessageVisibilityBatchResponse response = sqsClient.changeMessageVisibilityBatch(
+                        ChangeMessageVisibilityBatchRequest.builder()
+                                .queueUrl(sqsProperties.getDlqUrl())
+                                .entries(entries)
+                                .build());
+                if (!response.failed().isEmpty()) {
+                    log.warn(messageService.getMessage(DLQ_RELEASE_FAILED, response.failed().size(),
+                            response.failed().stream().map(BatchResultErrorEntry::code).distinct().toList()));
+                }
+            } catch (SqsException e) {
+                log.warn(messageService.getMessage(DLQ_RELEASE_FAILED, chunk.size(), e.getMessage()), e);
+            }
+        }
+    }
+
+    /**
+     * Drops the failure attributes the worker added when it quarantined the message, so a message quarantined
+     * again is not described by a stale failure.
+     */
+    private static Map<String, MessageAttributeValue> withoutFailureAttributes(Map<String, MessageAttributeValue> attributes) {
+        Map<String, MessageAttributeValue> replayed = new HashMap<>(attributes);
+        replayed.remove(FAILURE_CLASS_ATTRIBUTE);
+        replayed.remove(FAILURE_REASON_ATTRIBUTE);
+        return replayed;
+    }
+
+    private static DlqMessage toDlqMessage(Message message) {
+        String version = SqsObservationUtils.readAttribute(message, MESSAGE_VERSION_ATTRIBUTE);
+        String failureClass = SqsObservationUtils.readAttribute(message, FAILURE_CLASS_ATTRIBUTE);
+        return new DlqMessage()
+                .messageId(message.messageId())
+                .type(SqsObservationUtils.readAttribute(message, MESSAGE_TYPE_ATTRIBUTE))
+                .version(version == null ? null : parseVersion(version))
+                .sentAt(SqsMetrics.sentTimestamp(message)
+                        .map(sentAt -> Instant.ofEpochMilli(sentAt).atOffset(ZoneOffset.UTC))
+                        .orElse(null))
+                .receiveCount(SqsMetrics.receiveCount(message).orElse(null))
+                .messageGroupId(message.attributes().get(MessageSystemAttributeName.MESSAGE_GROUP_ID))
+                .failureClass(failureClass == null ? null : parseFailureClass(failureClass))
+                .failureReason(SqsObservationUtils.readAttribute(message, FAILURE_REASON_ATTRIBUTE))
+                .body(message.body());
+    }
+
+    private static DlqMessage.FailureClassEnum parseFailureClass(String failureClass) {
+        try {
+            return DlqMessage.FailureClassEnum.fromValue(failureClass);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Integer parseVersion(String version) {
+        try {
+            return Integer.valueOf(version);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * State of a single redrive: the selection, its counters, the held messages and the event listener.
+     */
+    private final class RedriveRun {
+
+        private final Consumer<DlqRedriveEvent> listener;
+        private final Set<String> selected;
+        private final long maxMessages;
+        private final long startedAt = System.currentTimeMillis();
+        private final List<String> held = new ArrayList<>();
+        private long chosen;
+        private long received;
+        private long replayed;
+        private long failed;
+        private long skipped;
+        private boolean timedOut;
+        private long nextProgress = redriveProperties.getProgressInterval();
+
+        private RedriveRun(Consumer<DlqRedriveEvent> listener, Set<String> selected, long maxMessages) {
+            this.listener = listener;
+            this.selected = selected;
+            this.maxMessages = maxMessages;
+        }
+
+        private boolean wantsMore() {
+            return chosen < maxMessages
+                    && (selected == null || !selected.isEmpty())
+                    && held.size() < redriveProperties.getMaxHeldMessages();
+        }
+
+        /**
+         * Decides whether a received message is replayed, holding it otherwise.
+         */
+        private boolean select(Message message) {
+            received++;
+            if (chosen < maxMessages && (selected == null ? reachedDlqBeforeStart(message) : selected.remove(message.messageId()))) {
+                chosen++;
+                return true;
+            }
+            skipped++;
+            held.add(message.receiptHandle());
+            return false;
+        }
+
+        /**
+         * Messages moved to the DLQ after the redrive started are not replayed, so messages failing again are not
+         * replayed in a loop.
+         */
+        private boolean reachedDlqBeforeStart(Message message) {
+            return SqsMetrics.sentTimestamp(message).map(sentAt -> sentAt < startedAt).orElse(true);
+        }
+
+        private void failed(List<Message> messages) {
+            failed += messages.size();
+            messages.forEach(message -> held.add(message.receiptHandle()));
+        }
+
+        private void emitProgress() {
+            if (received >= nextProgress) {
+                nextProgress = received + redriveProperties.getProgressInterval();
+                listener.accept(event(DlqRedriveEvent.TypeEnum.PROGRESS));
+            }
+        }
+
+        private DlqRedriveEvent event(DlqRedriveEvent.TypeEnum type) {
+            return new DlqRedriveEvent()
+                    .type(type)
+                    .received(received)
+                    .replayed(replayed)
+                    .failed(failed)
+                    .skipped(skipped)
+                    .timedOut(type == DlqRedriveEvent.TypeEnum.SUMMARY ? timedOut : null);
+        }
+    }
+}
@@ -1,70 +1,355 @@
 package com.picbank.authservice.services.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.picbank.authservice.components.SqsFifoProperties;
+import com.picbank.authservice.components.SqsMessageCodec;
 import com.picbank.authservice.exceptions.SqsOperationException;
+import com.picbank.authservice.model.dtos.CognitoUserGroupMessage;
+import com.picbank.authservice.model.dtos.GroupReassignmentMessage;
+import com.picbank.authservice.model.dtos.MessageEnvelope;
 import com.picbank.authservice.services.MessageService;
 import com.picbank.authservice.services.QueueService;
+import com.picbank.authservice.utils.AwsExceptionUtils;
+import com.picbank.authservice.utils.SqsFifoUtils;
+import com.picbank.authservice.utils.SqsObservationUtils;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
 import software.amazon.awssdk.services.sqs.SqsClient;
-import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
-import software.amazon.awssdk.services.sqs.model.SqsException;
+import software.amazon.awssdk.services.sqs.model.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static com.picbank.authservice.constants.MessageConstants.*;
+import static com.picbank.authservice.constants.MessagingConstants.*;
+import static com.picbank.authservice.constants.ObservabilityConstants.SQS_MESSAGE_SEND;
 
 /**
  * Service for interacting with AWS SQS.
+ * <p>
+ * When the queue is a FIFO queue, every message is sent with the message group and deduplication ids described in
+ * {@link SqsFifoProperties}.
+ * </p>
  */
 @Service
 @Slf4j
 public class SqsService implements QueueService {
 
-    public static final String MESSAGE_BODY_FORMAT = "{\"email\": \"%s\", \"group\": \"%s\"}";
     private final SqsClient sqsClient;
+    private final ObjectProvider<SqsAsyncClient> sqsAsyncClient;
     private final MessageService messageService;
+    private final SqsMessageCodec messageCodec;
+    private final ObservationRegistry observationRegistry;
+    private final SqsFifoProperties fifoProperties;
     private final String queueUrl;
 
     /**
      * Constructs a new SqsService.
      *
      * @param sqsClient the AWS SQS client used to send messages
+     * @param sqsAsyncClient the asynchronous AWS SQS client, only available in the reactive deployment
      * @param messageService the service used to handle message logging
+     * @param messageCodec the codec used to encode the message envelope
+     * @param observationRegistry the registry used to trace the send and propagate the trace context
+     * @param fifoProperties the FIFO mode settings of the queue
      * @param queueUrl the URL of the SQS queue
      */
     public SqsService(SqsClient sqsClient,
+                      ObjectProvider<SqsAsyncClient> sqsAsyncClient,
                       MessageService messageService,
+                      SqsMessageCodec messageCodec,
+                      ObservationRegistry observationRegistry,
+                      SqsFifoProperties fifoProperties,
                       @Value("${aws.sqs.queue-url}") String queueUrl) {
         this.sqsClient = sqsClient;
+        this.sqsAsyncClient = sqsAsyncClient;
         this.messageService = messageService;
+        this.messageCodec = messageCodec;
+        this.observationRegistry = observationRegistry;
+        this.fifoProperties = fifoProperties;
         this.queueUrl = queueUrl;
     }
 
     /**
-     * Sends a message to the configured SQS queue containing the user's email and group.
+     * Sends a {@code user.group.assignment} message to the configured SQS queue.
+     * <p>
+     * The payload is wrapped in a versioned {@link MessageEnvelope}; its type and version are also sent as
+     * message attributes, together with the current trace context, so the worker can route the message
+     * and continue the trace of the request that enqueued it.
+     * </p>
      *
+     * @param username the user's Cognito username
      * @param email the user's email
      * @param group the user group to be assigned
      */
     @Override
-    public void sendMessage(String email, String group) {
-        String messageBody = String.format(MESSAGE_BODY_FORMAT, email, group);
+    public void sendMessage(String username, String email, String group) {
+        CognitoUserGroupMessage payload = new CognitoUserGroupMessage(username, email, group);
+        MessageEnvelope<CognitoUserGroupMessage> envelope = MessageEnvelope.of(USER_GROUP_ASSIGNMENT,
+                USER_GROUP_ASSIGNMENT_VERSION, payload);
+        Map<String, MessageAttributeValue> attributes = messageCodec.routingAttributes(envelope);
 
         try {
             log.info(messageService.getMessage(SQS_SEND_START, email, group));
+            String messageBody = messageCodec.encode(envelope);
 
-            SendMessageRequest sendMessageRequest = SendMessageRequest.builder()
-                    .queueUrl(queueUrl)
-                    .messageBody(messageBody)
-                    .build();
+            Observation.createNotStarted(SQS_MESSAGE_SEND,
+                            () -> SqsObservationUtils.senderContext(attributes, queueUrl), observationRegistry)
+                    .observe(() -> {
+                        SendMessageRequest sendMessageRequest = SendMessageRequest.builder()
+                                .queueUrl(queueUrl)
+                                .messageBody(messageBody)
+                                .messageAttributes(attributes)
+                                .messageGroupId(messageGroupId(payload))
+                                .messageDeduplicationId(deduplicationId(payload))
+                                .build();
 
-            sqsClient.sendMessage(sendMessageRequest);
+                        sqsClient.sendMessage(sendMessageRequest);
+                    });
 
             log.info(messageService.getMessage(SQS_SEND_SUCCESS, email, group));
         } catch (SqsException e) {
             String errorMessage = messageService.getMessage(SQS_SEND_ERROR, email, group, e.awsErrorDetails().errorMessage());
             log.error(errorMessage, e);
             throw new SqsOperationException(errorMessage, e);
+        } catch (JsonProcessingException e) {
+            String errorMessage = messageService.getMessage(SQS_SEND_ERROR, email, group, e.getOriginalMessage());
+            log.error(errorMessage, e);
+            throw new SqsOperationException(errorMessage, e);
+        }
+    }
+
+    /**
+     * Sends a {@code user.group.assignment} message like {@link #sendMessage(String, String, String)}, on the
+     * asynchronous SQS client of the reactive deployment, without blocking the calling thread.
+     *
+     * @param username the user's Cognito username
+     * @param email the user's email
+     * @param group the user group to be assigned
+     * @return a future completed once SQS has accepted the message, or with an {@link SqsOperationException}
+     */
+    @Override
+    public CompletableFuture<Void> sendMessageAsync(String username, String email, String group) {
+        CognitoUserGroupMessage payload = new CognitoUserGroupMessage(username, email, group);
+        MessageEnvelope<CognitoUserGroupMessage> envelope = MessageEnvelope.of(USER_GROUP_ASSIGNMENT,
+                USER_GROUP_ASSIGNMENT_VERSION, payload);
+        Map<String, MessageAttributeValue> attributes = messageCodec.routingAttributes(envelope);
+
+        log.info(messageService.getMessage(SQS_SEND_START, email, group));
+        String messageBody;
+        try {
+            messageBody = messageCodec.encode(envelope);
+        } catch (JsonProcessingException e) {
+            String errorMessage = messageService.getMessage(SQS_SEND_ERROR, email, group, e.getOriginalMessage());
+            log.error(errorMessage, e);
+            return CompletableFuture.failedFuture(new SqsOperationException(errorMessage, e));
+        }
+
+        Observation observation = Observation.createNotStarted(SQS_MESSAGE_SEND,
+                () -> SqsObservationUtils.senderContext(attributes, queueUrl), observationRegistry).start();
+        SendMessageRequest sendMessageRequest = SendMessageRequest.builder()
+                .queueUrl(queueUrl)
+                .messageBody(messageBody)
+                .messageAttributes(attributes)
+                .messageGroupId(messageGroupId(payload))
+                .messageDeduplicationId(deduplicationId(payload))
+                .build();
+
+        return sqsAsyncClient.getObject().sendMessage(sendMessageRequest)
+                .handle((response, error) -> {
+                    if (error == null) {
+                        observation.stop();
+                        log.info(messageService.getMessage(SQS_SEND_SUCCESS, email, group));
+                        return null;
+                    }
+                    Throwable cause = AwsExceptionUtils.unwrap(error);
+                    observation.error(cause);
+                    observation.stop();
+                    if (cause instanceof SqsException e) {
+                        String errorMessage = messageService.getMessage(SQS_SEND_ERROR, email, group, e.awsErrorDetails().errorMessage());
+                        log.error(errorMessage, e);
+                        throw new SqsOperationException(errorMessage, e);
+                    }
+                    throw cause instanceof RuntimeException runtimeException ? runtimeException : new CompletionException(cause);
+                });
+    }
+
+    /**
+     * Sends {@code user.group.assignment} messages to the configured SQS queue with a single {@code SendMessageBatch}.
+     * <p>
+     * Each message is wrapped and attributed as in {@link #sendMessage(String, String, String)}; the batch is traced
+     * as one send, whose trace context is propagated with every message.
+     * </p>
+     *
+     * @param messages the messages to send, at most ten (the SQS batch limit)
+     * @return the messages SQS rejected, empty if all of them were sent
+     * @throws SqsOperationException if the batch could not be sent at all
+     */
+    @Override
+    public List<CognitoUserGroupMessage> sendMessages(List<CognitoUserGroupMessage> messages) {
+        if (messages.size() > SQS_MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch holds at most " + SQS_MAX_BATCH_SIZE + " messages");
+        }
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+        Map<String, MessageAttributeValue> traceAttributes = new HashMap<>();
+
+        try {
+            log.info(messageService.getMessage(SQS_SEND_BATCH_START, messages.size()));
+            List<SendMessageBatchRequestEntry> entries = new ArrayList<>(messages.size());
+            for (int i = 0; i < messages.size(); i++) {
+                MessageEnvelope<CognitoUserGroupMessage> envelope = MessageEnvelope.of(USER_GROUP_ASSIGNMENT,
+                        USER_GROUP_ASSIGNMENT_VERSION, messages.get(i));
+                entries.add(SendMessageBatchRequestEntry.builder()
+                        .id(String.valueOf(i))
+                        .messageBody(messageCodec.encode(envelope))
+                        .messageAttributes(messageCodec.routingAttributes(envelope))
+                        .messageGroupId(messageGroupId(messages.get(i)))
+                        .messageDeduplicationId(deduplicationId(messages.get(i)))
+                        .build());
+            }
+
+            SendMessageBatchResponse response = Observation.createNotStarted(SQS_MESSAGE_SEND,
+                            () -> SqsObservationUtils.senderContext(traceAttributes, queueUrl), observationRegistry)
+                    .observe(() -> sqsClient.sendMessageBatch(SendMessageBatchRequest.builder()
+                            .queueUrl(queueUrl)
+                            .entries(entries.stream()
+                                    .map(entry -> withAttributes(entry, traceAttributes))
+                                    .toList())
+                            .build()));
+
+            if (!response.failed().isEmpty()) {
+                log.warn(messageService.getMessage(SQS_SEND_BATCH_PARTIAL, response.failed().size(), messages.size(),
+                        response.failed().stream().map(BatchResultErrorEntry::code).distinct().toList()));
+            }
+            return response.failed().stream()
+                    .map(failure -> messages.get(Integer.parseInt(failure.id())))
+                    .toList();
+        } catch (SqsException e) {
+            String errorMessage = messageService.getMessage(SQS_SEND_BATCH_ERROR, messages.size(), e.awsErrorDetails().errorMessage());
+            log.error(errorMessage, e);
+            throw new SqsOperationException(errorMessage, e);
+        } catch (JsonProcessingException e) {
+            String errorMessage = messageService.getMessage(SQS_SEND_BATCH_ERROR, messages.size(), e.getOriginalMessage());
+            log.error(errorMessage, e);
+            throw new SqsOperationException(errorMessage, e);
         }
     }
 
+    /**
+     * Sends a {@code user.group.reassignment} message, which starts or resumes a group reassignment job.
+     * <p>
+     * The message is the job checkpoint: the worker processing it enqueues the next checkpoint before deleting it,
+     * so a job interrupted by a restart resumes from its last checkpoint when the message becomes visible again.
+     * </p>
+     *
+     * @param checkpoint the job and the page to resume from
+     * @throws SqsOperationException if the message could not be sent
+     */
+    @Override
+    public void sendGroupReassignment(GroupReassignmentMessage checkpoint) {
+        MessageEnvelope<GroupReassignmentMessage> envelope = MessageEnvelope.of(USER_GROUP_REASSIGNMENT,
+                USER_GROUP_REASSIGNMENT_VERSION, checkpoint);
+        Map<String, MessageAttributeValue> attributes = messageCodec.routingAttributes(envelope);
+
+        try {
+            log.info(messageService.getMessage(SQS_SEND_REASSIGNMENT_START, checkpoint.jobId(), checkpoint.processed()));
+            String messageBody = messageCodec.encodeGroupReassignment(envelope);
+
+            Observation.createNotStarted(SQS_MESSAGE_SEND,
+                            () -> SqsObservationUtils.senderContext(attributes, queueUrl), observationRegistry)
+                    .observe(() -> sqsClient.sendMessage(SendMessageRequest.builder()
+                            .queueUrl(queueUrl)
+                            .messageBody(messageBody)
+                            .messageAttributes(attributes)
+                            .messageGroupId(messageGroupId(checkpoint))
+                            .messageDeduplicationId(deduplicationId(checkpoint))
+                            .build()));
+        } catch (SqsException e) {
+            String errorMessage = messageService.getMessage(SQS_SEND_REASSIGNMENT_ERROR, checkpoint.jobId(), e.awsErrorDetails().errorMessage());
+            log.error(errorMessage, e);
+            throw new SqsOperationException(errorMessage, e);
+        } catch (JsonProcessingException e) {
+            String errorMessage = messageService.getMessage(SQS_SEND_REASSIGNMENT_ERROR, checkpoint.jobId(), e.getOriginalMessage());
+            log.error(errorMessage, e);
+            throw new SqsOperationException(errorMessage, e);
+        }
+    }
+
+    /**
+     * Returns the FIFO message group of a user group assignment: one of the configured groups, by the user's e-mail,
+     * so the assignments of a user are processed in order.
+     *
+     * @param message the assignment
+     * @return the message group id, or {@code null} if the queue is not a FIFO queue
+     */
+    private String messageGroupId(CognitoUserGroupMessage message) {
+        return fifoProperties.isEnabled()
+                ? SqsFifoUtils.messageGroupId(USER_GROUP_ASSIGNMENT_MESSAGE_GROUP_PREFIX, message.email(),
+                        fifoProperties.getMessageGroups())
+                : null;
+    }
+
+    /**
+     * Returns the FIFO deduplication id of a user group assignment, derived from the user and the group, so an
+     * assignment sent twice (e.g. by a retried import) is delivered once.
+     *
+     * @param message the assignment
+     * @return the deduplication id, or {@code null} if the queue is not a FIFO queue
+     */
+    private String deduplicationId(CognitoUserGroupMessage message) {
+        return fifoProperties.isEnabled()
+                ? SqsFifoUtils.deduplicationId(USER_GROUP_ASSIGNMENT, message.cognitoUsername(), message.group())
+                : null;
+    }
+
+    /**
+     * Returns the FIFO message group of a group reassignment checkpoint: the checkpoints of a job share one group, so
+     * the job runs one chunk at a time.
+     *
+     * @param checkpoint the checkpoint
+     * @return the message group id, or {@code null} if the queue is not a FIFO queue
+     */
+    private String messageGroupId(GroupReassignmentMessage checkpoint) {
+        return fifoProperties.isEnabled() ? USER_GROUP_REASSIGNMENT_MESSAGE_GROUP_PREFIX + checkpoint.jobId() : null;
+    }
+
+    /**
+     * Returns the FIFO deduplication id of a group reassignment checkpoint, derived from the job and the page it
+     * resumes from, so a checkpoint enqueued again by a retried chunk is delivered once.
+     *
+     * @param checkpoint the checkpoint
+     * @return the deduplication id, or {@code null} if the queue is not a FIFO queue
+     */
+    private String deduplicationId(GroupReassignmentMessage checkpoint) {
+        return fifoProperties.isEnabled()
+                ? SqsFifoUtils.deduplicationId(USER_GROUP_REASSIGNMENT, checkpoint.jobId(), checkpoint.processed(),
+                        checkpoint.nextToken())
+                : null;
+    }
+
+    /**
+     * Adds attributes shared by the whole batch, such as the trace context, to an entry.
+     *
+     * @param entry      the batch entry
+     * @param attributes the attributes to add
+     * @return the entry with its own and the given attributes
+     */
+    private static SendMessageBatchRequestEntry withAttributes(SendMessageBatchRequestEntry entry,
+                                                               Map<String, MessageAttributeValue> attributes) {
+        Map<String, MessageAttributeValue> merged = new HashMap<>(entry.messageAttributes());
+        merged.putAll(attributes);
+        return entry.toBuilder().messageAttributes(merged).build();
+    }
+
 }
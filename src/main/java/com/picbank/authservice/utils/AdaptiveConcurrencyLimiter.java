@@ -0,0 +1,114 @@
+package com.picbank.authservice.utils;
+
+/**
+ * Non-blocking concurrency limiter whose limit follows the measured latency (gradient algorithm).
+ * <p>
+ * Every completed call is a latency sample. A slow moving average of the samples is the baseline latency, and the
+ * gradient {@code tolerance × baseline / sample}, capped to {@code [0.5, 1]}, scales the limit down as soon as calls
+ * get slower than the baseline; a queue allowance of {@code √limit} is then added so the limit keeps probing upwards
+ * while latency is stable. The new limit is smoothed and kept within {@code [minLimit, maxLimit]}. Calls that failed
+ * because the downstream is overloaded cut the limit multiplicatively instead of being sampled.
+ * </p>
+ * <p>
+ * Callers over the limit are rejected immediately rather than queued, so the backlog never outlives the clients.
+ * </p>
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double BASELINE_WINDOW = 500;
+    private static final double BASELINE_RECOVERY = 0.95;
+    private static final double OVERLOAD_BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private double limit;
+    private double baselineNanos = Double.NaN;
+    private int inFlight;
+
+    /**
+     * Constructs a new {@code AdaptiveConcurrencyLimiter}.
+     *
+     * @param initialLimit The limit until latency has been measured.
+     * @param minLimit     The lowest the limit is cut to.
+     * @param maxLimit     The highest the limit grows to.
+     * @param smoothing    The weight (0..1) of each new limit against the current one.
+     * @param tolerance    The ratio of a sample to the baseline latency tolerated before the limit is cut.
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.limit = clamp(initialLimit);
+    }
+
+    /**
+     * Admits a call if fewer calls than the limit are in flight.
+     *
+     * @return {@code true} if the call is admitted and must be {@linkplain #release released}, {@code false} if it
+     *         must be rejected.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Releases an admitted call and adapts the limit to its outcome.
+     *
+     * @param latencyNanos The time the call took.
+     * @param overloaded   Whether the call failed because the downstream is overloaded, e.g. throttled or timed out.
+     */
+    public synchronized void release(long latencyNanos, boolean overloaded) {
+        int inFlightBefore = inFlight;
+        inFlight = Math.max(0, inFlight - 1);
+        if (overloaded) {
+            limit = clamp(limit * OVERLOAD_BACKOFF);
+            return;
+        }
+        double sample = Math.max(1, latencyNanos);
+        baselineNanos = Double.isNaN(baselineNanos) ? sample : baselineNanos + (sample - baselineNanos) / BASELINE_WINDOW;
+        if (baselineNanos / sample > 2) {
+            // Latency dropped well below a baseline inflated by a past slowdown: let the baseline catch up faster
+            baselineNanos *= BASELINE_RECOVERY;
+        }
+        if (inFlightBefore < limit / 2) {
+            // Too little traffic to tell whether a higher limit would still be served as fast
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1, tolerance * baselineNanos / sample));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = clamp((1 - smoothing) * limit + smoothing * target);
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return The number of calls admitted concurrently.
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Returns the number of admitted calls not released yet.
+     *
+     * @return The calls in flight.
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
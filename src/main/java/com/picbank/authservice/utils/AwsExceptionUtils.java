@@ -0,0 +1,64 @@
+package com.picbank.authservice.utils;
+
+import lombok.experimental.UtilityClass;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * Utility class for classifying AWS SDK failures wrapped by the service layer.
+ */
+@UtilityClass
+public final class AwsExceptionUtils {
+
+    /**
+     * Checks whether a failure, or any of its causes, is an AWS throttling error
+     * (e.g. Cognito {@code TooManyRequestsException} or HTTP 429).
+     *
+     * @param throwable The failure.
+     * @return {@code true} if AWS throttled the call.
+     */
+    public static boolean isThrottling(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof AwsServiceException serviceException && serviceException.isThrottlingException()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a failure is transient, i.e. retrying the same request later may succeed.
+     * <p>
+     * The first AWS SDK error among the failure and its causes decides: throttling, server errors (5xx) and client
+     * errors (network failures and timeouts) are transient, while other service errors (4xx, e.g. an unknown user
+     * or group) are not. Failures without an AWS SDK error, such as invalid messages, are not transient.
+     * </p>
+     *
+     * @param throwable The failure.
+     * @return {@code true} if the failure is transient.
+     */
+    public static boolean isTransient(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof AwsServiceException serviceException) {
+                return serviceException.isThrottlingException() || serviceException.statusCode() >= 500;
+            }
+            if (cause instanceof SdkClientException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the failure a {@link CompletionException} wraps, as thrown by the futures of the asynchronous AWS clients,
+     * or the failure itself.
+     *
+     * @param throwable The failure a future completed with.
+     * @return The failure of the call.
+     */
+    public static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+}
@@ -0,0 +1,66 @@
+package com.picbank.authservice.utils;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class for parsing CSV (RFC 4180) lines.
+ * <p>
+ * Fields are separated by commas and may be enclosed in double quotes, in which case they can contain
+ * commas and escaped ({@code ""}) double quotes. Line breaks inside quoted fields are not supported,
+ * as files are read one line per record.
+ * </p>
+ */
+@UtilityClass
+public final class CsvUtils {
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+
+    /**
+     * Splits a CSV line into its fields.
+     *
+     * @param line The line, without its line terminator.
+     * @return The unquoted fields, in order.
+     * @throws IllegalArgumentException If a quoted field is not closed or is followed by other characters.
+     */
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean afterQuoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != QUOTE) {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == QUOTE) {
+                    field.append(QUOTE);
+                    i++;
+                } else {
+                    quoted = false;
+                    afterQuoted = true;
+                }
+            } else if (c == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+                afterQuoted = false;
+            } else if (afterQuoted) {
+                throw new IllegalArgumentException("Unexpected character after quoted field at position " + (i + 1));
+            } else if (c == QUOTE && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,74 @@
+package com.picbank.authservice.utils;
+
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+
+import java.time.Duration;
+
+/**
+ * The point in time after which nobody waits for the result of a request any more.
+ * <p>
+ * The remaining budget bounds the AWS calls made for the request: it is the timeout of each call, including its
+ * retries, and is split evenly into the timeout of each attempt, so that a slow attempt still leaves time to retry.
+ * </p>
+ *
+ * @param expiresAtNanos The {@link System#nanoTime()} at which the deadline passes.
+ * @param attempts       The number of attempts the remaining budget is split into for the attempt timeout.
+ */
+public record Deadline(long expiresAtNanos, int attempts) {
+
+    private static final Duration MIN_TIMEOUT = Duration.ofMillis(1);
+
+    /**
+     * A deadline that never passes; calls keep the timeouts of their client.
+     */
+    public static final Deadline NONE = new Deadline(Long.MAX_VALUE, 1);
+
+    /**
+     * Creates a deadline a budget from now.
+     *
+     * @param budget   The time left to serve the request.
+     * @param attempts The number of attempts the remaining budget is split into for the attempt timeout.
+     * @return The deadline.
+     */
+    public static Deadline after(Duration budget, int attempts) {
+        return new Deadline(System.nanoTime() + budget.toNanos(), Math.max(1, attempts));
+    }
+
+    /**
+     * Tells whether the deadline has passed.
+     *
+     * @return {@code true} if no time is left.
+     */
+    public boolean isExpired() {
+        return this != NONE && expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Returns the time left before the deadline.
+     *
+     * @return The remaining budget, never negative.
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    /**
+     * Builds the per-request override of the call and attempt timeouts of an AWS call, from the remaining budget.
+     *
+     * @return The override configuration, or {@code null} for {@link #NONE}, to keep the timeouts of the client.
+     */
+    public AwsRequestOverrideConfiguration overrideConfiguration() {
+        if (this == NONE) {
+            return null;
+        }
+        Duration remaining = remaining();
+        return AwsRequestOverrideConfiguration.builder()
+                .apiCallTimeout(max(remaining, MIN_TIMEOUT))
+                .apiCallAttemptTimeout(max(remaining.dividedBy(attempts), MIN_TIMEOUT))
+                .build();
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
@@ -0,0 +1,66 @@
+package com.picbank.authservice.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Blocking rate limiter that hands out permits evenly spaced at a fixed rate.
+ * <p>
+ * Each caller reserves the next free slot and sleeps until it, so bursts are smoothed instead of rejected.
+ * An instance is meant to be shared by every caller of a rate-limited API, so their combined rate stays
+ * under the quota.
+ * </p>
+ */
+public final class RateLimiter {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final long intervalNanos;
+    private final LongSupplier nanoTime;
+    private long nextFreeNanos;
+
+    /**
+     * Constructs a new {@code RateLimiter} timed by {@link System#nanoTime()}.
+     *
+     * @param permitsPerSecond The rate at which permits are handed out.
+     */
+    public RateLimiter(double permitsPerSecond) {
+        this(permitsPerSecond, System::nanoTime);
+    }
+
+    /**
+     * Constructs a new {@code RateLimiter}.
+     *
+     * @param permitsPerSecond The rate at which permits are handed out.
+     * @param nanoTime         The monotonic time source, in nanoseconds.
+     */
+    RateLimiter(double permitsPerSecond, LongSupplier nanoTime) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.intervalNanos = (long) (NANOS_PER_SECOND / permitsPerSecond);
+        this.nanoTime = nanoTime;
+        this.nextFreeNanos = nanoTime.getAsLong();
+    }
+
+    /**
+     * Acquires a permit, waiting for its slot if needed.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void acquire() throws InterruptedException {
+        TimeUnit.NANOSECONDS.sleep(reserve());
+    }
+
+    /**
+     * Reserves the next free slot.
+     *
+     * @return The time to wait for the slot, in nanoseconds.
+     */
+    synchronized long reserve() {
+        long now = nanoTime.getAsLong();
+        long slot = Math.max(now, nextFreeNanos);
+        nextFreeNanos = slot + intervalNanos;
+        return slot - now;
+    }
+}
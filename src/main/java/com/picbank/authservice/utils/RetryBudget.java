@@ -0,0 +1,61 @@
+package com.picbank.authservice.utils;
+
+/**
+ * Token bucket bounding retries to a fraction of the calls made.
+ * <p>
+ * Every call deposits {@code ratio} tokens and every retry withdraws a whole one, so in the long run at most
+ * {@code ratio} retries are made per call, however many attempts each call is allowed. The balance is capped at
+ * {@code burst}, which is also the number of retries available before any call has been made. When a downstream fails
+ * persistently the budget runs out and calls fail after their first attempt, instead of multiplying its load.
+ * </p>
+ */
+public final class RetryBudget {
+
+    private final double ratio;
+    private final double burst;
+    private double balance;
+
+    /**
+     * Constructs a new {@code RetryBudget}, full.
+     *
+     * @param ratio The tokens deposited by every call, i.e. the sustained number of retries per call.
+     * @param burst The maximum balance, i.e. the retries that can be made in a row.
+     */
+    public RetryBudget(double ratio, int burst) {
+        if (ratio < 0 || burst < 0) {
+            throw new IllegalArgumentException("ratio and burst must not be negative");
+        }
+        this.ratio = ratio;
+        this.burst = burst;
+        this.balance = burst;
+    }
+
+    /**
+     * Records a call, depositing its share of retries.
+     */
+    public synchronized void deposit() {
+        balance = Math.min(burst, balance + ratio);
+    }
+
+    /**
+     * Withdraws a retry if the budget allows one.
+     *
+     * @return {@code true} if the retry may be made, {@code false} if the budget is exhausted.
+     */
+    public synchronized boolean tryWithdraw() {
+        if (balance < 1) {
+            return false;
+        }
+        balance -= 1;
+        return true;
+    }
+
+    /**
+     * Returns the current balance.
+     *
+     * @return The retries that can be made in a row.
+     */
+    public synchronized double getBalance() {
+        return balance;
+    }
+}
@@ -0,0 +1,55 @@
+package com.picbank.authservice.utils;
+
+import lombok.experimental.UtilityClass;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Utility class deriving the message group and deduplication ids of messages sent to SQS FIFO queues.
+ */
+@UtilityClass
+public final class SqsFifoUtils {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final byte PART_SEPARATOR = 0;
+
+    /**
+     * Returns the message group of a key among a fixed number of groups.
+     * <p>
+     * The key is hashed case-insensitively with {@link String#hashCode()}, whose value is specified by the JLS, so
+     * every node maps the same key to the same group.
+     * </p>
+     *
+     * @param prefix The prefix of the group id, naming the kind of messages grouped.
+     * @param key    The key whose messages must be processed in order, e.g. an e-mail.
+     * @param groups The number of groups.
+     * @return The message group id, {@code prefix} followed by the index of the group.
+     */
+    public static String messageGroupId(String prefix, String key, int groups) {
+        return prefix + Math.floorMod(key.toLowerCase(Locale.ROOT).hashCode(), groups);
+    }
+
+    /**
+     * Derives a deduplication id from the fields identifying an event, so the same event sent twice gets the same id.
+     *
+     * @param parts The fields identifying the event; {@code null} fields are allowed.
+     * @return The hex SHA-256 digest of the fields (64 characters, within the 128 allowed by SQS).
+     */
+    public static String deduplicationId(Object... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            for (Object part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update(PART_SEPARATOR);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.picbank.authservice.utils;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.observation.transport.SenderContext;
+import lombok.experimental.UtilityClass;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+
+import java.util.Map;
+
+import static com.picbank.authservice.constants.ObservabilityConstants.*;
+
+/**
+ * Utility class for carrying trace context across SQS through message attributes.
+ * <p>
+ * The producer side injects the current trace context (e.g. W3C {@code traceparent}) into the
+ * outgoing message attributes; the consumer side extracts it so the processing span continues
+ * the trace started by the HTTP request that enqueued the message.
+ * </p>
+ */
+@UtilityClass
+public final class SqsObservationUtils {
+
+    private static final String STRING_DATA_TYPE = "String";
+
+    /**
+     * Creates a sender context that writes propagation headers into the given message attributes.
+     *
+     * @param attributes The mutable attribute map that will be sent with the message.
+     * @param queueUrl   The destination queue URL.
+     * @return A {@link SenderContext} to be used when observing the send operation.
+     */
+    public static SenderContext<Map<String, MessageAttributeValue>> senderContext(
+            Map<String, MessageAttributeValue> attributes, String queueUrl) {
+
+        SenderContext<Map<String, MessageAttributeValue>> context = new SenderContext<>(
+                (carrier, key, value) -> carrier.put(key, stringAttribute(value)));
+        context.setCarrier(attributes);
+        context.setRemoteServiceName(MESSAGING_SYSTEM_SQS);
+        context.addLowCardinalityKeyValue(KeyValue.of(TAG_MESSAGING_SYSTEM, MESSAGING_SYSTEM_SQS));
+        context.addHighCardinalityKeyValue(KeyValue.of(TAG_MESSAGING_DESTINATION, queueUrl));
+        return context;
+    }
+
+    /**
+     * Creates a receiver context that reads propagation headers from the message attributes.
+     *
+     * @param message  The received SQS message.
+     * @param queueUrl The source queue URL.
+     * @return A {@link ReceiverContext} to be used when observing the message processing.
+     */
+    public static ReceiverContext<Message> receiverContext(Message message, String queueUrl) {
+        ReceiverContext<Message> context = new ReceiverContext<>(SqsObservationUtils::readAttribute);
+        context.setCarrier(message);
+        context.setRemoteServiceName(MESSAGING_SYSTEM_SQS);
+        context.addLowCardinalityKeyValue(KeyValue.of(TAG_MESSAGING_SYSTEM, MESSAGING_SYSTEM_SQS));
+        context.addHighCardinalityKeyValue(KeyValue.of(TAG_MESSAGING_DESTINATION, queueUrl));
+        return context;
+    }
+
+    /**
+     * Reads a string message attribute.
+     *
+     * @param message The SQS message.
+     * @param key     The attribute name.
+     * @return The attribute value, or {@code null} if absent.
+     */
+    public static String readAttribute(Message message, String key) {
+        MessageAttributeValue value = message.messageAttributes().get(key);
+        return value == null ? null : value.stringValue();
+    }
+
+    /**
+     * Builds a {@code String} typed SQS message attribute.
+     *
+     * @param value The attribute value.
+     * @return The {@link MessageAttributeValue}.
+     */
+    public static MessageAttributeValue stringAttribute(String value) {
+        return MessageAttributeValue.builder()
+                .dataType(STRING_DATA_TYPE)
+                .stringValue(value)
+                .build();
+    }
+}
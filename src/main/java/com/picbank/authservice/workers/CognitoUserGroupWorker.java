@@ -1,102 +1,429 @@
 package com.picbank.authservice.workers;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.picbank.authservice.components.SqsFifoProperties;
+import com.picbank.authservice.components.SqsMessageCodec;
+import com.picbank.authservice.components.SqsMetrics;
+import com.picbank.authservice.components.SqsPollTuner;
 import com.picbank.authservice.components.SqsProperties;
+import com.picbank.authservice.components.SqsRetryProperties;
 import com.picbank.authservice.exceptions.InvalidSqsMessageException;
 import com.picbank.authservice.model.dtos.CognitoUserGroupMessage;
+import com.picbank.authservice.model.dtos.PollSettings;
 import com.picbank.authservice.model.enums.CognitoUserGroup;
 import com.picbank.authservice.services.EmailService;
+import com.picbank.authservice.services.GroupReassignmentService;
 import com.picbank.authservice.services.MessageService;
 import com.picbank.authservice.services.UserGroupService;
+import com.picbank.authservice.utils.AwsExceptionUtils;
+import com.picbank.authservice.utils.SqsObservationUtils;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.*;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
 
 import static com.picbank.authservice.constants.MessageConstants.*;
+import static com.picbank.authservice.constants.MessagingConstants.*;
+import static com.picbank.authservice.constants.ObservabilityConstants.REASON_EXHAUSTED;
+import static com.picbank.authservice.constants.ObservabilityConstants.REASON_PERMANENT;
+import static com.picbank.authservice.constants.ObservabilityConstants.SQS_MESSAGE_PROCESS;
 
+/**
+ * Worker that assigns newly registered users to their Cognito group from the SQS queue.
+ * <p>
+ * The same queue carries the checkpoints of the group reassignment jobs; each of them runs a chunk of its job,
+ * which enqueues the next checkpoint before the message is deleted.
+ * </p>
+ * <p>
+ * A message whose processing fails transiently (AWS throttling, a 5xx or a network error) stays in the queue, hidden
+ * for a backoff that grows with its receive count, so a throttled Cognito is not retried at once and the message is
+ * not lost to the DLQ. Messages that fail permanently (invalid messages, 4xx errors, unexpected failures), or
+ * transiently once they reached the max receive count, are quarantined to the DLQ with the failure class and reason
+ * as message attributes.
+ * </p>
+ * <p>
+ * Polling takes part in the context lifecycle: when the context is stopped (before a CRaC checkpoint
+ * or on shutdown) no new poll is started, the message being processed is allowed to finish (and be deleted)
+ * within the drain timeout, and the messages of the batch that were not started yet are returned to the queue
+ * with a zero visibility timeout, so another instance picks them up immediately instead of after the visibility
+ * timeout. Polling resumes when the context is started again after a restore.
+ * </p>
+ * <p>
+ * On a FIFO queue, SQS does not deliver a message while an earlier message of its message group is in flight, so the
+ * concurrent pollers never hold messages of the same group, and each of them processes its batch in the order it
+ * was received: the messages of a group are processed in order, while different groups are processed in parallel.
+ * Once a message is retried or quarantined, the later messages of its group in the batch are not processed but
+ * returned to the queue, where SQS holds them back until the failed message is deleted: a message waiting for its
+ * retry keeps its group blocked. Messages moved to the DLQ, which is then a FIFO queue too, keep their message group.
+ * </p>
+ * <p>
+ * The worker stops in the first shutdown phase, together with the task scheduler; the fast lane then drains in the
+ * next phase, the web server drains its in-flight requests and the AWS clients are closed last.
+ * </p>
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class CognitoUserGroupWorker {
+public class CognitoUserGroupWorker implements SmartLifecycle {
+
+    private static final String ALL_MESSAGE_ATTRIBUTES = "All";
+    private static final int MAX_FAILURE_REASON_LENGTH = 1024;
 
     private final UserGroupService userGroupService;
+    private final GroupReassignmentService groupReassignmentService;
     private final SqsProperties sqsProperties;
-    private final ObjectMapper objectMapper;
+    private final SqsFifoProperties fifoProperties;
+    private final SqsRetryProperties retryProperties;
+    private final SqsMessageCodec messageCodec;
     private final MessageService messageService;
     private final SqsClient sqsClient;
     private final EmailService emailService;
+    private final ObservationRegistry observationRegistry;
+    private final SqsMetrics sqsMetrics;
+    private final SqsPollTuner pollTuner;
+    private final Executor sqsPollerExecutor;
+    private final AtomicBoolean polling = new AtomicBoolean(true);
+    private final ReentrantLock pollLock = new ReentrantLock();
 
     /**
      * Periodically consumes messages from the SQS queue based on the configured interval.
-     * If a message fails to process, it is moved to the Dead Letter Queue (DLQ).
+     * If a message fails to process, it is retried later or quarantined to the Dead Letter Queue (DLQ).
+     * <p>
+     * Each tick runs the number of pollers chosen by the {@link SqsPollTuner}; while there is a backlog,
+     * each poller keeps receiving until the queue is empty or the tuner scales the pollers down.
+     * </p>
      */
     @Scheduled(fixedRateString = "#{sqsProperties.fixedRateMs}")
     public void consumeMessages() {
+        pollLock.lock();
+        try {
+            if (polling.get()) {
+                CompletableFuture.allOf(IntStream.range(0, pollTuner.currentSettings().pollers())
+                                .mapToObj(poller -> CompletableFuture.runAsync(() -> poll(poller), sqsPollerExecutor))
+                                .toArray(CompletableFuture[]::new))
+                        .join();
+            }
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    /**
+     * Resumes polling after the context is started again, e.g. after a CRaC restore.
+     */
+    @Override
+    public void start() {
+        if (polling.compareAndSet(false, true)) {
+            log.info(messageService.getMessage(WORKER_SQS_RESUMED, sqsProperties.getQueueUrl()));
+        }
+    }
+
+    /**
+     * Pauses polling and waits, up to the drain timeout, for the in-flight message to finish.
+     */
+    @Override
+    public void stop() {
+        if (polling.compareAndSet(true, false)) {
+            awaitInFlightBatch();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return polling.get();
+    }
+
+    /**
+     * Stops in the first shutdown phase, before the web server drains and the AWS clients are closed.
+     *
+     * @return {@link SmartLifecycle#DEFAULT_PHASE}.
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE;
+    }
+
+    /**
+     * Waits for the polling thread to release the in-flight batch; unstarted messages are released by that thread.
+     */
+    private void awaitInFlightBatch() {
+        try {
+            if (pollLock.tryLock(sqsProperties.getDrainTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                pollLock.unlock();
+                log.info(messageService.getMessage(WORKER_SQS_PAUSED, sqsProperties.getQueueUrl()));
+            } else {
+                log.warn(messageService.getMessage(WORKER_SQS_DRAIN_TIMEOUT,
+                        sqsProperties.getQueueUrl(), sqsProperties.getDrainTimeoutMs()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs one poller: a single receive, or receives until the queue is drained while the tuner asks for it.
+     * <p>
+     * A continuous drain lasts at most one polling interval, so the tick ends and the next one starts from the
+     * current settings even while the queue never empties.
+     * </p>
+     *
+     * @param poller The index of the poller; pollers above the tuned count stop after their current batch.
+     */
+    private void poll(int poller) {
+        long drainDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sqsProperties.getFixedRateMs());
+        PollSettings settings = pollTuner.currentSettings();
+        boolean received = pollQueue(settings);
+        while (received && polling.get() && System.nanoTime() - drainDeadline < 0) {
+            settings = pollTuner.currentSettings();
+            if (!settings.drainContinuously() || poller >= settings.pollers()) {
+                return;
+            }
+            received = pollQueue(settings);
+        }
+    }
+
+    /**
+     * Receives a batch of messages and processes each of them.
+     * <p>
+     * On a FIFO queue, the messages following a failed message of the same group are returned to the queue
+     * unprocessed, together with the unstarted messages once polling is paused.
+     * </p>
+     *
+     * @param settings The batch size and long-poll wait to receive with.
+     * @return {@code true} if any message was received.
+     */
+    private boolean pollQueue(PollSettings settings) {
         log.info(messageService.getMessage(WORKER_SQS_CHECKING, sqsProperties.getQueueUrl()));
 
         try {
             ReceiveMessageRequest receiveRequest = ReceiveMessageRequest.builder()
                     .queueUrl(sqsProperties.getQueueUrl())
-                    .maxNumberOfMessages(sqsProperties.getMaxMessages())
-                    .waitTimeSeconds(sqsProperties.getWaitTimeSeconds())
+                    .maxNumberOfMessages(settings.batchSize())
+                    .waitTimeSeconds(settings.waitSeconds())
+                    .messageAttributeNames(ALL_MESSAGE_ATTRIBUTES)
+                    .messageSystemAttributeNames(MessageSystemAttributeName.SENT_TIMESTAMP,
+                            MessageSystemAttributeName.APPROXIMATE_RECEIVE_COUNT,
+                            MessageSystemAttributeName.MESSAGE_GROUP_ID)
+                    // A receive retried by the SDK returns the same messages, instead of leaving them (and their
+                    // message groups) in flight until the visibility timeout
+                    .receiveRequestAttemptId(fifoProperties.isEnabled() ? UUID.randomUUID().toString() : null)
                     .build();
 
             List<Message> messages = sqsClient.receiveMessage(receiveRequest).messages();
             log.debug(messageService.getMessage(WORKER_SQS_RETRIEVED, messages.size()));
 
-            for (Message message : messages) {
-                processMessageSafely(message);
+            Set<String> failedGroups = new HashSet<>();
+            List<Message> unprocessed = new ArrayList<>();
+            for (int i = 0; i < messages.size(); i++) {
+                if (!polling.get()) {
+                    unprocessed.addAll(messages.subList(i, messages.size()));
+                    break;
+                }
+                Message message = messages.get(i);
+                String groupId = fifoProperties.isEnabled()
+                        ? message.attributes().get(MessageSystemAttributeName.MESSAGE_GROUP_ID)
+                        : null;
+                if (groupId != null && failedGroups.contains(groupId)) {
+                    log.info(messageService.getMessage(WORKER_SQS_HELD, message.messageId(), groupId));
+                    unprocessed.add(message);
+                } else if (!processMessageSafely(message) && groupId != null) {
+                    failedGroups.add(groupId);
+                }
             }
+            if (!unprocessed.isEmpty()) {
+                releaseMessages(unprocessed);
+            }
+            return !messages.isEmpty();
         } catch (SqsException e) {
             log.error(messageService.getMessage(WORKER_SQS_ERROR_CONSUMING), e);
+            return false;
         }
     }
 
     /**
-     * Handles message processing safely, ensuring errors are logged and failed messages go to the DLQ.
+     * Handles message processing safely, ensuring errors are logged and failed messages are retried or quarantined.
+     * <p>
+     * Processing runs inside an observation whose parent is the trace context carried in the
+     * message attributes, so Cognito and SES calls are attributed to the originating request.
+     * </p>
      *
      * @param message The SQS message to be processed.
+     * @return {@code true} if the message was processed, {@code false} if it was retried or quarantined.
      */
-    private void processMessageSafely(Message message) {
+    private boolean processMessageSafely(Message message) {
+        return Observation.createNotStarted(SQS_MESSAGE_PROCESS,
+                        () -> SqsObservationUtils.receiverContext(message, sqsProperties.getQueueUrl()), observationRegistry)
+                .observe(() -> handleMessage(message));
+    }
+
+    /**
+     * Processes a single message, deleting it on success and handling its failure otherwise.
+     *
+     * @param message The SQS message to be processed.
+     * @return {@code true} if the message was processed, {@code false} if it was retried or quarantined.
+     */
+    private boolean handleMessage(Message message) {
+        recordReceipt(message);
+
         try {
             log.info(messageService.getMessage(WORKER_SQS_PROCESSING, message.body()));
-            processMessage(message.body());
+            if (USER_GROUP_REASSIGNMENT.equals(SqsObservationUtils.readAttribute(message, MESSAGE_TYPE_ATTRIBUTE))) {
+                processGroupReassignment(message);
+            } else {
+                long startedAt = System.nanoTime();
+                processMessage(message);
+                pollTuner.recordProcessed(Duration.ofNanos(System.nanoTime() - startedAt));
+                sqsMetrics.recordGroupAssigned(message);
+            }
 
-            deleteMessage(message.receiptHandle());
+            deleteMessage(message);
+            return true;
 
         } catch (InvalidSqsMessageException e) {
             log.error(messageService.getMessage(WORKER_SQS_INVALID_MESSAGE, message.body()), e);
-            sendToDlq(message.body());
-            deleteMessage(message.receiptHandle());
+            quarantine(message, FAILURE_CLASS_PERMANENT, e);
+            return false;
         } catch (Exception e) {
             log.error(messageService.getMessage(WORKER_SQS_ERROR_PROCESSING, message.body()), e);
-            sendToDlq(message.body());
-            deleteMessage(message.receiptHandle());
+            if (AwsExceptionUtils.isThrottling(e)) {
+                pollTuner.recordThrottled();
+            }
+            handleFailure(message, e);
+            return false;
+        }
+    }
+
+    /**
+     * Retries a message that failed transiently, unless it reached the max receive count, and quarantines it
+     * otherwise.
+     *
+     * @param message The failed message.
+     * @param failure The failure.
+     */
+    private void handleFailure(Message message, Exception failure) {
+        if (!AwsExceptionUtils.isTransient(failure)) {
+            quarantine(message, FAILURE_CLASS_PERMANENT, failure);
+        } else if (receiveCount(message) >= retryProperties.getMaxReceiveCount()) {
+            quarantine(message, FAILURE_CLASS_EXHAUSTED, failure);
+        } else {
+            scheduleRetry(message);
+        }
+    }
+
+    /**
+     * Leaves a message in the queue, hidden for the backoff of its receive count.
+     * <p>
+     * If the visibility timeout cannot be changed, the message is retried after the queue's visibility timeout.
+     * </p>
+     *
+     * @param message The message that failed transiently.
+     */
+    private void scheduleRetry(Message message) {
+        long receiveCount = receiveCount(message);
+        int backoffSeconds = retryProperties.backoffSeconds(receiveCount);
+        sqsMetrics.recordRetried();
+        try {
+            sqsClient.changeMessageVisibility(ChangeMessageVisibilityRequest.builder()
+                    .queueUrl(sqsProperties.getQueueUrl())
+                    .receiptHandle(message.receiptHandle())
+                    .visibilityTimeout(backoffSeconds)
+                    .build());
+            log.warn(messageService.getMessage(WORKER_SQS_RETRY_SCHEDULED, message.messageId(), receiveCount, backoffSeconds));
+        } catch (SqsException e) {
+            log.error(messageService.getMessage(WORKER_SQS_ERROR_RETRY, message.messageId(), e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Moves a message to the DLQ and deletes it from the queue; if it cannot be moved, it stays in the queue.
+     *
+     * @param message      The failed message.
+     * @param failureClass {@code permanent}, or {@code exhausted} once transient retries ran out.
+     * @param failure      The failure.
+     */
+    private void quarantine(Message message, String failureClass, Exception failure) {
+        sqsMetrics.recordQuarantined(FAILURE_CLASS_EXHAUSTED.equals(failureClass) ? REASON_EXHAUSTED : REASON_PERMANENT);
+        String reason = failureReason(failure);
+        if (sendToDlq(message, failureClass, reason)) {
+            log.warn(messageService.getMessage(WORKER_SQS_QUARANTINED, message.messageId(), failureClass,
+                    receiveCount(message), reason));
+            deleteMessage(message);
+        } else {
+            log.warn(messageService.getMessage(WORKER_SQS_KEPT, message.messageId()));
+        }
+    }
+
+    private static long receiveCount(Message message) {
+        return SqsMetrics.receiveCount(message).orElse(1L);
+    }
+
+    /**
+     * Describes a failure by its innermost cause, which names the actual error rather than the layer wrapping it.
+     *
+     * @param failure The failure.
+     * @return The class and message of the innermost cause, truncated to fit in a message attribute.
+     */
+    private static String failureReason(Throwable failure) {
+        Throwable cause = failure;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
         }
+        String reason = cause.getMessage() == null
+                ? cause.getClass().getName()
+                : cause.getClass().getName() + ": " + cause.getMessage();
+        return reason.length() > MAX_FAILURE_REASON_LENGTH ? reason.substring(0, MAX_FAILURE_REASON_LENGTH) : reason;
+    }
+
+    /**
+     * Records the {@code SentTimestamp} and {@code ApproximateReceiveCount} of a received message.
+     *
+     * @param message The received SQS message.
+     */
+    private void recordReceipt(Message message) {
+        sqsMetrics.recordReceipt(message);
+        log.debug(messageService.getMessage(WORKER_SQS_RECEIVED, message.messageId(),
+                SqsMetrics.receiveCount(message).orElse(null),
+                SqsMetrics.sentTimestamp(message).map(Instant::ofEpochMilli).orElse(null)));
     }
 
     /**
      * Processes an SQS message by adding the user to a Cognito group.
      *
-     * @param messageBody JSON string containing "email" and "group".
+     * @param message The SQS message carrying a {@code user.group.assignment} payload.
      * @throws JsonProcessingException If message parsing fails.
-     * @throws InvalidSqsMessageException If the message contains invalid or missing fields.
+     * @throws InvalidSqsMessageException If the message type is unsupported or it contains invalid or missing fields.
      */
-    private void processMessage(String messageBody) throws JsonProcessingException {
+    private void processMessage(Message message) throws JsonProcessingException {
+        String messageBody = message.body();
         log.debug(messageService.getMessage(WORKER_SQS_PROCESSING, messageBody));
 
-        CognitoUserGroupMessage payload = objectMapper.readValue(messageBody, CognitoUserGroupMessage.class);
+        CognitoUserGroupMessage payload = decodePayload(message);
         validatePayload(payload, messageBody);
 
         try {
             CognitoUserGroup userGroup = CognitoUserGroup.valueOf(payload.group().toUpperCase());
-            userGroupService.addUserToGroup(userGroup, payload.email());
+            userGroupService.addUserToGroup(userGroup, payload.cognitoUsername());
 
             sendEmail(payload, userGroup);
 
@@ -110,9 +437,68 @@ public class CognitoUserGroupWorker {
     }
 
     /**
+     * Runs a chunk of a group reassignment job from the checkpoint carried by the message.
+     * <p>
+     * The chunk stops after its current page once polling is paused, so the job checkpoints within the drain
+     * timeout on shutdown. Chunks are not recorded by the poll tuner, whose latency model is that of single
+     * group assignments.
+     * </p>
      *
-     * @param payload
-     * @param userGroup
+     * @param message The SQS message carrying a {@code user.group.reassignment} payload.
+     * @throws JsonProcessingException If message parsing fails.
+     * @throws InvalidSqsMessageException If the message version is not supported.
+     */
+    private void processGroupReassignment(Message message) throws JsonProcessingException {
+        String version = SqsObservationUtils.readAttribute(message, MESSAGE_VERSION_ATTRIBUTE);
+        if (!isSupportedVersion(version, USER_GROUP_REASSIGNMENT_VERSION)) {
+            String errorMessage = messageService.getMessage(WORKER_SQS_UNSUPPORTED_TYPE, USER_GROUP_REASSIGNMENT, version);
+            log.error(errorMessage);
+            throw new InvalidSqsMessageException(errorMessage);
+        }
+        groupReassignmentService.reassign(messageCodec.decodeGroupReassignment(message.body()).payload(), polling::get);
+    }
+
+    /**
+     * Routes a message by its type and version attributes, then decodes its payload.
+     * <p>
+     * Only the attributes are inspected to decide whether the message can be handled, so messages of an
+     * unknown type or a newer version are rejected without parsing their body. Messages without a type
+     * attribute were published before the envelope was introduced and are decoded as the legacy body.
+     * </p>
+     *
+     * @param message The SQS message.
+     * @return The decoded payload.
+     * @throws JsonProcessingException If the body cannot be parsed.
+     * @throws InvalidSqsMessageException If the message type or version is not supported.
+     */
+    private CognitoUserGroupMessage decodePayload(Message message) throws JsonProcessingException {
+        String type = SqsObservationUtils.readAttribute(message, MESSAGE_TYPE_ATTRIBUTE);
+        if (type == null) {
+            return messageCodec.decodeLegacyUserGroupAssignment(message.body());
+        }
+
+        String version = SqsObservationUtils.readAttribute(message, MESSAGE_VERSION_ATTRIBUTE);
+        if (!USER_GROUP_ASSIGNMENT.equals(type) || !isSupportedVersion(version, USER_GROUP_ASSIGNMENT_VERSION)) {
+            String errorMessage = messageService.getMessage(WORKER_SQS_UNSUPPORTED_TYPE, type, version);
+            log.error(errorMessage);
+            throw new InvalidSqsMessageException(errorMessage);
+        }
+        return messageCodec.decodeUserGroupAssignment(message.body()).payload();
+    }
+
+    private static boolean isSupportedVersion(String version, int supportedVersion) {
+        try {
+            return version == null || Integer.parseInt(version) <= supportedVersion;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Notifies the user that the account is ready; failures are logged and never fail the assignment.
+     *
+     * @param payload   The processed message payload.
+     * @param userGroup The group the user was added to.
      */
     private void sendEmail(CognitoUserGroupMessage payload, CognitoUserGroup userGroup) {
         try {
@@ -141,36 +527,94 @@ public class CognitoUserGroupWorker {
     }
 
     /**
-     * Deletes a message from the SQS queue after successful processing.
+     * Deletes a message from the SQS queue after it was processed or moved to the DLQ.
+     * <p>
+     * A message that cannot be deleted is delivered again after the visibility timeout; the failure is logged and the
+     * rest of the batch goes on.
+     * </p>
      *
-     * @param receiptHandle The message receipt handle.
+     * @param message The message to delete.
      */
-    private void deleteMessage(String receiptHandle) {
+    private void deleteMessage(Message message) {
         DeleteMessageRequest deleteRequest = DeleteMessageRequest.builder()
                 .queueUrl(sqsProperties.getQueueUrl())
-                .receiptHandle(receiptHandle)
+                .receiptHandle(message.receiptHandle())
                 .build();
-        sqsClient.deleteMessage(deleteRequest);
-        log.debug(messageService.getMessage(WORKER_SQS_DELETED));
+        try {
+            sqsClient.deleteMessage(deleteRequest);
+            log.debug(messageService.getMessage(WORKER_SQS_DELETED));
+        } catch (SqsException e) {
+            log.error(messageService.getMessage(WORKER_SQS_ERROR_DELETE, message.messageId(), e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Returns unstarted messages to the queue by resetting their visibility timeout to zero.
+     *
+     * @param messages The messages that were received but not processed.
+     */
+    private void releaseMessages(List<Message> messages) {
+        List<ChangeMessageVisibilityBatchRequestEntry> entries = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            entries.add(ChangeMessageVisibilityBatchRequestEntry.builder()
+                    .id(String.valueOf(i))
+                    .receiptHandle(messages.get(i).receiptHandle())
+                    .visibilityTimeout(0)
+                    .build());
+        }
+
+        try {
+            ChangeMessageVisibilityBatchResponse response = sqsClient.changeMessageVisibilityBatch(
+                    ChangeMessageVisibilityBatchRequest.builder()
+                            .queueUrl(sqsProperties.getQueueUrl())
+                            .entries(entries)
+                            .build());
+            log.info(messageService.getMessage(WORKER_SQS_RELEASED, response.successful().size(), sqsProperties.getQueueUrl()));
+            for (BatchResultErrorEntry failure : response.failed()) {
+                Message message = messages.get(Integer.parseInt(failure.id()));
+                log.warn(messageService.getMessage(WORKER_SQS_ERROR_RELEASE_ENTRY, message.messageId(), failure.code(),
+                        failure.message()));
+            }
+        } catch (SqsException e) {
+            log.error(messageService.getMessage(WORKER_SQS_ERROR_RELEASE, messages.size(), e.getMessage()), e);
+        }
     }
 
     /**
-     * Sends failed messages to the Dead Letter Queue (DLQ).
+     * Sends failed messages to the Dead Letter Queue (DLQ), keeping their routing and trace attributes and adding
+     * the failure class and reason.
+     * <p>
+     * On a FIFO queue the message keeps its message group, and is deduplicated by its message id, so a failure
+     * processed twice moves it to the DLQ once.
+     * </p>
      *
-     * @param messageBody The message content.
+     * @param message      The failed message.
+     * @param failureClass The failure class attribute.
+     * @param reason       The failure reason attribute.
+     * @return {@code true} if the message was sent.
      */
-    private void sendToDlq(String messageBody) {
+    private boolean sendToDlq(Message message, String failureClass, String reason) {
+        String messageBody = message.body();
+        boolean fifo = fifoProperties.isEnabled();
+        Map<String, MessageAttributeValue> attributes = new HashMap<>(message.messageAttributes());
+        attributes.put(FAILURE_CLASS_ATTRIBUTE, SqsObservationUtils.stringAttribute(failureClass));
+        attributes.put(FAILURE_REASON_ATTRIBUTE, SqsObservationUtils.stringAttribute(reason));
         try {
             SendMessageRequest sendMessageRequest = SendMessageRequest.builder()
                     .queueUrl(sqsProperties.getDlqUrl())
                     .messageBody(messageBody)
+                    .messageAttributes(attributes)
+                    .messageGroupId(fifo ? message.attributes().get(MessageSystemAttributeName.MESSAGE_GROUP_ID) : null)
+                    .messageDeduplicationId(fifo ? message.messageId() : null)
                     .build();
 
             sqsClient.sendMessage(sendMessageRequest);
-            log.warn(messageService.getMessage(WORKER_SQS_SENT_DLQ, messageBody));
+            return true;
 
         } catch (SqsException e) {
             log.error(messageService.getMessage(WORKER_SQS_ERROR_DLQ, messageBody), e);
+            return false;
         }
     }
+
 }
@@ -0,0 +1,134 @@
+package com.picbank.authservice.workers;
+
+import com.picbank.authservice.components.SqsMetrics;
+import com.picbank.authservice.components.SqsPollTuner;
+import com.picbank.authservice.components.SqsProperties;
+import com.picbank.authservice.services.MessageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
+import software.amazon.awssdk.services.cloudwatch.model.*;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static com.picbank.authservice.constants.MessageConstants.*;
+import static com.picbank.authservice.constants.ObservabilityConstants.QUEUE_DLQ;
+import static com.picbank.authservice.constants.ObservabilityConstants.QUEUE_MAIN;
+
+/**
+ * Background sampler that publishes the backlog of the main queue and the DLQ as gauges.
+ * <p>
+ * The number of visible and in-flight messages comes from SQS {@code GetQueueAttributes};
+ * the age of the oldest message is only published by SQS to CloudWatch, so it is read from there.
+ * Autoscaling can then be driven by the real backlog instead of CPU, and the main queue backlog
+ * is handed to the {@link SqsPollTuner} to size the worker's polling.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SqsQueueMetricsSampler {
+
+    private static final String SQS_NAMESPACE = "AWS/SQS";
+    private static final String OLDEST_MESSAGE_AGE_METRIC = "ApproximateAgeOfOldestMessage";
+    private static final String QUEUE_NAME_DIMENSION = "QueueName";
+    private static final String MAXIMUM_STATISTIC = "Maximum";
+    private static final String QUERY_ID = "oldestMessageAge";
+    private static final int PERIOD_SECONDS = 60;
+    private static final Duration LOOKBACK = Duration.ofMinutes(5);
+
+    private final SqsProperties sqsProperties;
+    private final SqsClient sqsClient;
+    private final CloudWatchClient cloudWatchClient;
+    private final SqsMetrics sqsMetrics;
+    private final SqsPollTuner pollTuner;
+    private final MessageService messageService;
+
+    /**
+     * Periodically samples the backlog of the main queue and the DLQ.
+     */
+    @Scheduled(fixedRateString = "#{sqsProperties.metricsSampleRateMs}")
+    public void sampleQueues() {
+        sampleQueue(QUEUE_MAIN, sqsProperties.getQueueUrl());
+        sampleQueue(QUEUE_DLQ, sqsProperties.getDlqUrl());
+    }
+
+    /**
+     * Samples a single queue; failures are logged and never stop the other queue from being sampled.
+     *
+     * @param queue    The queue tag.
+     * @param queueUrl The queue URL.
+     */
+    private void sampleQueue(String queue, String queueUrl) {
+        try {
+            Map<QueueAttributeName, String> attributes = sqsClient.getQueueAttributes(GetQueueAttributesRequest.builder()
+                    .queueUrl(queueUrl)
+                    .attributeNames(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES,
+                            QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES_NOT_VISIBLE)
+                    .build()).attributes();
+
+            long visible = parseCount(attributes.get(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES));
+            long inFlight = parseCount(attributes.get(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES_NOT_VISIBLE));
+            sqsMetrics.updateBacklog(queue, visible, inFlight);
+            if (QUEUE_MAIN.equals(queue)) {
+                pollTuner.recordBacklog(visible, inFlight);
+            }
+
+            List<Double> ages = cloudWatchClient.getMetricData(buildOldestAgeRequest(queueName(queueUrl)))
+                    .metricDataResults().stream()
+                    .findFirst()
+                    .map(MetricDataResult::values)
+                    .orElse(List.of());
+            long oldestAgeSeconds = ages.isEmpty() ? 0 : ages.get(0).longValue();
+            sqsMetrics.updateOldestMessageAge(queue, oldestAgeSeconds);
+
+            log.debug(messageService.getMessage(WORKER_SQS_METRICS_SAMPLED, queue, visible, inFlight, oldestAgeSeconds));
+        } catch (SdkException e) {
+            log.warn(messageService.getMessage(WORKER_SQS_METRICS_ERROR, queue, e.getMessage()));
+        }
+    }
+
+    /**
+     * Builds the CloudWatch query for the most recent {@code ApproximateAgeOfOldestMessage} datapoint.
+     *
+     * @param queueName The queue name (CloudWatch dimension).
+     * @return The {@link GetMetricDataRequest}.
+     */
+    private GetMetricDataRequest buildOldestAgeRequest(String queueName) {
+        Instant now = Instant.now();
+        return GetMetricDataRequest.builder()
+                .startTime(now.minus(LOOKBACK))
+                .endTime(now)
+                .scanBy(ScanBy.TIMESTAMP_DESCENDING)
+                .metricDataQueries(MetricDataQuery.builder()
+                        .id(QUERY_ID)
+                        .metricStat(MetricStat.builder()
+                                .metric(Metric.builder()
+                                        .namespace(SQS_NAMESPACE)
+                                        .metricName(OLDEST_MESSAGE_AGE_METRIC)
+                                        .dimensions(Dimension.builder().name(QUEUE_NAME_DIMENSION).value(queueName).build())
+                                        .build())
+                                .period(PERIOD_SECONDS)
+                                .stat(MAXIMUM_STATISTIC)
+                                .build())
+                        .build())
+                .build();
+    }
+
+    private static String queueName(String queueUrl) {
+        return queueUrl.substring(queueUrl.lastIndexOf('/') + 1);
+    }
+
+    private static long parseCount(String value) {
+        return value == null ? 0 : Long.parseLong(value);
+    }
+}
@@ -0,0 +1,153 @@
+package com.picbank.authservice.components;
+
+import com.picbank.authservice.local.FakeCognitoIdentityProviderAsyncClient;
+import com.picbank.authservice.local.FakeCognitoIdentityProviderClient;
+import com.picbank.authservice.local.FaultInjector;
+import com.picbank.authservice.services.MessageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AuthFlowType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.CognitoIdentityProviderException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InitiateAuthRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.NotAuthorizedException;
+
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import static com.picbank.authservice.constants.AuthConstants.PASSWORD;
+import static com.picbank.authservice.constants.AuthConstants.USERNAME;
+import static com.picbank.authservice.constants.ObservabilityConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CognitoEndpointRouterTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final String SECRET = "Secret#2025";
+    private static final FaultInjector UNAVAILABLE = new FaultInjector(0, 0, 1.0);
+
+    @Mock private CognitoProperties cognitoProperties;
+    @Mock private MessageService messageService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldFailOverToTheSecondaryPoolWhenThePrimaryIsUnavailable() {
+        FakeCognitoIdentityProviderClient primary = spy(seeded(UNAVAILABLE));
+        FakeCognitoIdentityProviderClient secondary = spy(seeded(FaultInjector.NONE));
+        CognitoEndpointRouter router = router(primary, secondary, 60_000, 60_000);
+
+        assertNotNull(router.initiateAuth(request(SECRET)).authenticationResult());
+        assertEquals(1, meterRegistry.get(COGNITO_ENDPOINT_FAILOVERS).tag(TAG_ENDPOINT, ENDPOINT_PRIMARY).counter().count());
+        assertEquals(1.0, meterRegistry.get(COGNITO_ENDPOINT_ERROR_RATE).tag(TAG_ENDPOINT, ENDPOINT_PRIMARY).gauge().value());
+
+        assertNotNull(router.initiateAuth(request(SECRET)).authenticationResult());
+        verify(primary, times(1)).initiateAuth(any(InitiateAuthRequest.class));
+        verify(secondary, times(2)).initiateAuth(any(InitiateAuthRequest.class));
+    }
+
+    @Test
+    void shouldRouteAroundASlowPrimaryPool() {
+        FakeCognitoIdentityProviderClient primary = spy(seeded(new FaultInjector(50, 0, 0)));
+        FakeCognitoIdentityProviderClient secondary = spy(seeded(FaultInjector.NONE));
+        CognitoEndpointRouter router = router(primary, secondary, 10, 60_000);
+
+        router.initiateAuth(request(SECRET));
+        router.initiateAuth(request(SECRET));
+        router.initiateAuth(request(SECRET));
+
+        verify(primary, times(1)).initiateAuth(any(InitiateAuthRequest.class));
+        verify(secondary, times(2)).initiateAuth(any(InitiateAuthRequest.class));
+        assertEquals(0, meterRegistry.get(COGNITO_ENDPOINT_FAILOVERS).tag(TAG_ENDPOINT, ENDPOINT_PRIMARY).counter().count());
+    }
+
+    @Test
+    void shouldProbeADegradedPrimaryPoolAndGoBackToItOnceItRecovers() {
+        FakeCognitoIdentityProviderClient primary = spy(seeded(FaultInjector.NONE));
+        FakeCognitoIdentityProviderClient secondary = spy(seeded(FaultInjector.NONE));
+        doThrow(CognitoIdentityProviderException.builder().statusCode(503).message("Service unavailable").build())
+                .doCallRealMethod()
+                .when(primary).initiateAuth(any(InitiateAuthRequest.class));
+        CognitoEndpointRouter router = router(primary, secondary, 60_000, 0);
+
+        router.initiateAuth(request(SECRET));
+        router.initiateAuth(request(SECRET));
+        router.initiateAuth(request(SECRET));
+
+        verify(primary, times(3)).initiateAuth(any(InitiateAuthRequest.class));
+        verify(secondary, times(1)).initiateAuth(any(InitiateAuthRequest.class));
+    }
+
+    @Test
+    void shouldNotFailOverOnAWrongPassword() {
+        FakeCognitoIdentityProviderClient primary = seeded(FaultInjector.NONE);
+        FakeCognitoIdentityProviderClient secondary = spy(seeded(FaultInjector.NONE));
+        CognitoEndpointRouter router = router(primary, secondary, 60_000, 60_000);
+
+        assertThrows(NotAuthorizedException.class, () -> router.initiateAuth(request("wrong")));
+
+        verifyNoInteractions(secondary);
+        assertEquals(0.0, meterRegistry.get(COGNITO_ENDPOINT_ERROR_RATE).tag(TAG_ENDPOINT, ENDPOINT_PRIMARY).gauge().value());
+    }
+
+    @Test
+    void shouldSendEveryLoginToThePrimaryPoolWithoutASecondary() {
+        CognitoEndpointRouter router = router(seeded(UNAVAILABLE), null, 60_000, 60_000);
+
+        assertThrows(CognitoIdentityProviderException.class, () -> router.initiateAuth(request(SECRET)));
+        assertThrows(CognitoIdentityProviderException.class, () -> router.initiateAuth(request(SECRET)));
+        assertEquals(0, meterRegistry.get(COGNITO_ENDPOINT_FAILOVERS).tag(TAG_ENDPOINT, ENDPOINT_PRIMARY).counter().count());
+    }
+
+    @Test
+    void shouldFailOverAsynchronouslyAndShareTheScoresWithSynchronousLogins() {
+        FakeCognitoIdentityProviderClient primary = seeded(UNAVAILABLE);
+        FakeCognitoIdentityProviderClient secondary = spy(seeded(FaultInjector.NONE));
+        CognitoEndpointRouter router = new CognitoEndpointRouter(primary, secondary,
+                new FakeCognitoIdentityProviderAsyncClient(primary), new FakeCognitoIdentityProviderAsyncClient(secondary),
+                cognitoProperties, routingProperties(60_000, 60_000), messageService, meterRegistry);
+
+        assertNotNull(router.initiateAuthAsync(request(SECRET)).join().authenticationResult());
+        assertEquals(1, meterRegistry.get(COGNITO_ENDPOINT_FAILOVERS).tag(TAG_ENDPOINT, ENDPOINT_PRIMARY).counter().count());
+
+        assertNotNull(router.initiateAuth(request(SECRET)).authenticationResult());
+        verify(secondary, times(2)).initiateAuth(any(InitiateAuthRequest.class));
+
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> router.initiateAuthAsync(request("wrong")).join());
+        assertInstanceOf(NotAuthorizedException.class, exception.getCause());
+    }
+
+    private CognitoEndpointRouter router(FakeCognitoIdentityProviderClient primary,
+                                         FakeCognitoIdentityProviderClient secondary,
+                                         long maxLatencyMs,
+                                         long probeIntervalMs) {
+        return new CognitoEndpointRouter(primary, secondary, cognitoProperties,
+                routingProperties(maxLatencyMs, probeIntervalMs), messageService, meterRegistry);
+    }
+
+    private static CognitoRoutingProperties routingProperties(long maxLatencyMs, long probeIntervalMs) {
+        return new CognitoRoutingProperties("us-west-2", "", "us-west-2_secondary", "secondary-client", "secondary-secret",
+                1.0, maxLatencyMs, 0.3, probeIntervalMs);
+    }
+
+    private static FakeCognitoIdentityProviderClient seeded(FaultInjector faultInjector) {
+        FakeCognitoIdentityProviderClient client = new FakeCognitoIdentityProviderClient(faultInjector, "123456");
+        client.seedConfirmedUser(EMAIL, SECRET);
+        return client;
+    }
+
+    private static Function<CognitoEndpointRouter.Endpoint, InitiateAuthRequest> request(String password) {
+        return endpoint -> InitiateAuthRequest.builder()
+                .authFlow(AuthFlowType.USER_PASSWORD_AUTH)
+                .clientId(endpoint.clientId())
+                .authParameters(Map.of(USERNAME, EMAIL, PASSWORD, password))
+                .build();
+    }
+}
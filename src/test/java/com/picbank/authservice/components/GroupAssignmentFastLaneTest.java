@@ -0,0 +1,162 @@
+package com.picbank.authservice.components;
+
+import com.picbank.authservice.model.dtos.CognitoUserGroupMessage;
+import com.picbank.authservice.model.enums.CognitoUserGroup;
+import com.picbank.authservice.services.EmailService;
+import com.picbank.authservice.services.MessageService;
+import com.picbank.authservice.services.QueueService;
+import com.picbank.authservice.services.UserGroupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.picbank.authservice.constants.ObservabilityConstants.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupAssignmentFastLaneTest {
+
+    @Mock private UserGroupService userGroupService;
+    @Mock private EmailService emailService;
+    @Mock private QueueService queueService;
+    @Mock private MessageService messageService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldAssignTheUserAndSendTheEmailInProcess() {
+        GroupAssignmentFastLane fastLane = fastLane(true, 1);
+
+        fastLane.assign("user", "user@example.com", CognitoUserGroup.MERCHANT);
+
+        verify(userGroupService, timeout(1000)).addUserToGroup(CognitoUserGroup.MERCHANT, "user");
+        verify(emailService, timeout(1000)).sendEmail(eq("user@example.com"), any(), any());
+        verifyNoInteractions(queueService);
+        assertEquals(1, meterRegistry.get(USER_GROUP_ASSIGNMENT_LATENCY).tag(TAG_LANE, LANE_FAST).timer().count());
+    }
+
+    @Test
+    void shouldSendEveryAssignmentToSqsWhenDisabled() {
+        GroupAssignmentFastLane fastLane = fastLane(false, 1);
+
+        fastLane.assign("user", "user@example.com", CognitoUserGroup.STANDARD);
+
+        verify(queueService).sendMessage("user", "user@example.com", CognitoUserGroup.STANDARD.name());
+        verifyNoInteractions(userGroupService);
+    }
+
+    @Test
+    void shouldFallBackToSqsWhenTheQueueIsFull() {
+        GroupAssignmentFastLane fastLane = fastLane(true, 1);
+        blockFirstAssignment();
+
+        fastLane.assign("first", "first@example.com", CognitoUserGroup.STANDARD);
+        fastLane.assign("second", "second@example.com", CognitoUserGroup.STANDARD);
+        fastLane.assign("third", "third@example.com", CognitoUserGroup.STANDARD);
+
+        verify(queueService).sendMessage("third", "third@example.com", CognitoUserGroup.STANDARD.name());
+        release.countDown();
+        verify(userGroupService, timeout(1000)).addUserToGroup(CognitoUserGroup.STANDARD, "second");
+        verify(queueService, never()).sendMessage(eq("second"), anyString(), anyString());
+        assertEquals(1, fallbacks(REASON_REJECTED));
+    }
+
+    @Test
+    void shouldFallBackToSqsWhenTheAssignmentFails() {
+        GroupAssignmentFastLane fastLane = fastLane(true, 1);
+        doThrow(new RuntimeException("Throttled")).when(userGroupService).addUserToGroup(CognitoUserGroup.MERCHANT, "user");
+
+        fastLane.assign("user", "user@example.com", CognitoUserGroup.MERCHANT);
+
+        verify(queueService, timeout(1000)).sendMessage("user", "user@example.com", CognitoUserGroup.MERCHANT.name());
+        verifyNoInteractions(emailService);
+        assertEquals(1, fallbacks(REASON_FAILED));
+    }
+
+    @Test
+    void shouldDrainPendingAssignmentsToSqsOnStop() throws InterruptedException {
+        GroupAssignmentFastLane fastLane = fastLane(true, 1);
+        blockFirstAssignment();
+        fastLane.assign("first", "first@example.com", CognitoUserGroup.STANDARD);
+        fastLane.assign("second", "second@example.com", CognitoUserGroup.STANDARD);
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        fastLane.stop();
+        release.countDown();
+        fastLane.assign("third", "third@example.com", CognitoUserGroup.STANDARD);
+
+        verify(queueService).sendMessages(List.of(
+                new CognitoUserGroupMessage("second", "second@example.com", CognitoUserGroup.STANDARD.name())));
+        verify(queueService).sendMessage("third", "third@example.com", CognitoUserGroup.STANDARD.name());
+        verify(userGroupService, never()).addUserToGroup(CognitoUserGroup.STANDARD, "second");
+        assertEquals(2, fallbacks(REASON_STOPPED));
+    }
+
+    @Test
+    void shouldDrainPendingAssignmentsToSqsInBatchesOfTen() throws InterruptedException {
+        GroupAssignmentFastLane fastLane = fastLane(true, 12);
+        blockFirstAssignment();
+        fastLane.assign("first", "first@example.com", CognitoUserGroup.STANDARD);
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        for (int i = 0; i < 12; i++) {
+            fastLane.assign("user" + i, "user" + i + "@example.com", CognitoUserGroup.STANDARD);
+        }
+
+        fastLane.stop();
+
+        ArgumentCaptor<List<CognitoUserGroupMessage>> batches = ArgumentCaptor.captor();
+        verify(queueService, times(2)).sendMessages(batches.capture());
+        assertEquals(List.of(10, 2), batches.getAllValues().stream().map(List::size).toList());
+        verify(queueService, never()).sendMessage(anyString(), anyString(), anyString());
+        assertEquals(12, fallbacks(REASON_STOPPED));
+    }
+
+    private GroupAssignmentFastLane fastLane(boolean enabled, int queueCapacity) {
+        GroupAssignmentFastLaneProperties properties = new GroupAssignmentFastLaneProperties(enabled, 1, queueCapacity, 50);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getThreads());
+        executor.setMaxPoolSize(properties.getThreads());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.initialize();
+        return new GroupAssignmentFastLane(properties, userGroupService, emailService, queueService, messageService,
+                executor, meterRegistry);
+    }
+
+    /**
+     * Keeps the only thread of the executor busy with the assignment of {@code first} until {@link #release} is
+     * counted down.
+     */
+    private void blockFirstAssignment() {
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).when(userGroupService).addUserToGroup(CognitoUserGroup.STANDARD, "first");
+    }
+
+    private double fallbacks(String reason) {
+        return meterRegistry.get(USER_GROUP_ASSIGNMENT_FALLBACKS).tag(TAG_REASON, reason).counter().count();
+    }
+}
@@ -0,0 +1,54 @@
+package com.picbank.authservice.components;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.picbank.authservice.model.dtos.CognitoUserGroupMessage;
+import com.picbank.authservice.model.dtos.MessageEnvelope;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static com.picbank.authservice.constants.MessagingConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqsMessageCodecTest {
+
+    private final SqsMessageCodec codec = new SqsMessageCodec(new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Test
+    void shouldRoundTripEnvelope() throws JsonProcessingException {
+        MessageEnvelope<CognitoUserGroupMessage> envelope = new MessageEnvelope<>(1, USER_GROUP_ASSIGNMENT, "id-1",
+                Instant.parse("2025-01-01T10:00:00Z"), new CognitoUserGroupMessage("user", "a\"b@example.com", "MERCHANT"));
+
+        assertEquals(envelope, codec.decodeUserGroupAssignment(codec.encode(envelope)));
+    }
+
+    @Test
+    void shouldIgnoreUnknownEnvelopeFields() throws JsonProcessingException {
+        String body = "{\"version\":1,\"type\":\"user.group.assignment\",\"id\":\"id-1\",\"createdAt\":\"2025-01-01T10:00:00Z\","
+                + "\"traceId\":\"abc\",\"payload\":{\"username\":\"user\",\"email\":\"user@example.com\",\"group\":\"STANDARD\",\"extra\":true}}";
+
+        assertEquals("STANDARD", codec.decodeUserGroupAssignment(body).payload().group());
+    }
+
+    @Test
+    void shouldDecodeLegacyBodyWithEmailAsUsername() throws JsonProcessingException {
+        CognitoUserGroupMessage payload = codec.decodeLegacyUserGroupAssignment("{\"email\": \"user@example.com\", \"group\": \"MERCHANT\"}");
+
+        assertNull(payload.username());
+        assertEquals("user@example.com", payload.cognitoUsername());
+    }
+
+    @Test
+    void shouldExposeTypeAndVersionAsAttributes() {
+        Map<String, MessageAttributeValue> attributes = codec.routingAttributes(
+                MessageEnvelope.of(USER_GROUP_ASSIGNMENT, USER_GROUP_ASSIGNMENT_VERSION, new CognitoUserGroupMessage("u", "e", "g")));
+
+        assertEquals(USER_GROUP_ASSIGNMENT, attributes.get(MESSAGE_TYPE_ATTRIBUTE).stringValue());
+        assertEquals("Number", attributes.get(MESSAGE_VERSION_ATTRIBUTE).dataType());
+        assertEquals("1", attributes.get(MESSAGE_VERSION_ATTRIBUTE).stringValue());
+    }
+}
@@ -0,0 +1,84 @@
+package com.picbank.authservice.components;
+
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageSystemAttributeName;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.picbank.authservice.constants.ObservabilityConstants.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqsMetricsTest {
+
+    private MockClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private SqsMetrics sqsMetrics;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MockClock();
+        meterRegistry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+        sqsMetrics = new SqsMetrics(meterRegistry);
+    }
+
+    @Test
+    void shouldRecordDwellTimeAndReceiveCountOnReceipt() {
+        long sentAt = clock.wallTime();
+        clock.add(5, TimeUnit.SECONDS);
+
+        sqsMetrics.recordReceipt(message(String.valueOf(sentAt), "2"));
+
+        assertEquals(1, meterRegistry.get(SQS_MESSAGE_DWELL).timer().count());
+        assertEquals(5000, meterRegistry.get(SQS_MESSAGE_DWELL).timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(2, meterRegistry.get(SQS_MESSAGE_RECEIVE_COUNT).summary().totalAmount());
+    }
+
+    @Test
+    void shouldRecordAssignmentLatencySinceMessageWasSent() {
+        long sentAt = clock.wallTime();
+        clock.add(1500, TimeUnit.MILLISECONDS);
+
+        sqsMetrics.recordGroupAssigned(message(String.valueOf(sentAt), "1"));
+
+        assertEquals(1500, meterRegistry.get(USER_GROUP_ASSIGNMENT_LATENCY).timer().totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shouldIgnoreMissingOrMalformedSystemAttributes() {
+        sqsMetrics.recordReceipt(Message.builder().body("{}").build());
+        sqsMetrics.recordReceipt(message("not-a-number", "x"));
+
+        assertEquals(0, meterRegistry.get(SQS_MESSAGE_DWELL).timer().count());
+        assertEquals(0, meterRegistry.get(SQS_MESSAGE_RECEIVE_COUNT).summary().count());
+    }
+
+    @Test
+    void shouldCountFailuresByOutcomeAndReason() {
+        sqsMetrics.recordRetried();
+        sqsMetrics.recordRetried();
+        sqsMetrics.recordQuarantined(REASON_EXHAUSTED);
+
+        assertEquals(2, failures(OUTCOME_RETRIED, REASON_TRANSIENT));
+        assertEquals(1, failures(OUTCOME_QUARANTINED, REASON_EXHAUSTED));
+        assertEquals(0, failures(OUTCOME_QUARANTINED, REASON_PERMANENT));
+    }
+
+    private double failures(String outcome, String reason) {
+        return meterRegistry.get(SQS_MESSAGE_FAILURES).tags(TAG_OUTCOME, outcome, TAG_REASON, reason).counter().count();
+    }
+
+    private static Message message(String sentTimestamp, String receiveCount) {
+        return Message.builder()
+                .body("{}")
+                .attributes(Map.of(
+                        MessageSystemAttributeName.SENT_TIMESTAMP, sentTimestamp,
+                        MessageSystemAttributeName.APPROXIMATE_RECEIVE_COUNT, receiveCount))
+                .build();
+    }
+}
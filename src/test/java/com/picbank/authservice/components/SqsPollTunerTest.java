@@ -0,0 +1,103 @@
+package com.picbank.authservice.components;
+
+import com.picbank.authservice.model.dtos.PollSettings;
+import com.picbank.authservice.services.MessageService;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static com.picbank.authservice.constants.ObservabilityConstants.SQS_WORKER_POLLERS;
+import static com.picbank.authservice.constants.ObservabilityConstants.SQS_WORKER_THROTTLED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SqsPollTunerTest {
+
+    private static final SqsAutoTuningProperties TUNING =
+            new SqsAutoTuningProperties(true, 1, 8, 1, 10, 1, 20, 60, 10000);
+
+    @Mock private SqsProperties sqsProperties;
+    @Mock private MessageService messageService;
+
+    private MockClock clock;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MockClock();
+        meterRegistry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+    }
+
+    @Test
+    void shouldUseSinglePollerAndLongestWaitWhenIdle() {
+        SqsPollTuner tuner = new SqsPollTuner(sqsProperties, TUNING, messageService, meterRegistry);
+
+        tuner.recordBacklog(0, 0);
+
+        assertEquals(new PollSettings(1, 1, 20, false), tuner.currentSettings());
+        assertEquals(1, meterRegistry.get(SQS_WORKER_POLLERS).gauge().value());
+    }
+
+    @Test
+    void shouldScaleOutToMaxPollersWhileLatencyIsUnknown() {
+        SqsPollTuner tuner = new SqsPollTuner(sqsProperties, TUNING, messageService, meterRegistry);
+
+        tuner.recordBacklog(600, 0);
+
+        assertEquals(new PollSettings(8, 10, 1, true), tuner.currentSettings());
+    }
+
+    @Test
+    void shouldSizePollersToDrainBacklogWithinTarget() {
+        SqsPollTuner tuner = new SqsPollTuner(sqsProperties, TUNING, messageService, meterRegistry);
+
+        tuner.recordProcessed(Duration.ofMillis(200));
+        tuner.recordBacklog(600, 0);
+
+        // 600 messages in 60s = 10 msg/s, at 200ms each = 2 pollers
+        assertEquals(new PollSettings(2, 10, 1, true), tuner.currentSettings());
+    }
+
+    @Test
+    void shouldHalveConcurrencyOncePerCooldownWhenThrottled() {
+        SqsPollTuner tuner = new SqsPollTuner(sqsProperties, TUNING, messageService, meterRegistry);
+        tuner.recordBacklog(600, 0);
+
+        tuner.recordThrottled();
+        assertEquals(4, tuner.currentSettings().pollers());
+
+        tuner.recordThrottled();
+        tuner.recordBacklog(600, 0);
+        assertEquals(4, tuner.currentSettings().pollers());
+
+        clock.add(10, TimeUnit.SECONDS);
+        tuner.recordThrottled();
+        assertEquals(2, tuner.currentSettings().pollers());
+        assertEquals(3, meterRegistry.get(SQS_WORKER_THROTTLED).counter().count());
+
+        clock.add(10, TimeUnit.SECONDS);
+        tuner.recordBacklog(600, 0);
+        assertEquals(3, tuner.currentSettings().pollers());
+    }
+
+    @Test
+    void shouldUseStaticSettingsWhenDisabled() {
+        when(sqsProperties.getMaxMessages()).thenReturn(5);
+        when(sqsProperties.getWaitTimeSeconds()).thenReturn(10);
+        SqsPollTuner tuner = new SqsPollTuner(sqsProperties,
+                new SqsAutoTuningProperties(false, 1, 8, 1, 10, 1, 20, 60, 10000), messageService, meterRegistry);
+
+        tuner.recordBacklog(600, 0);
+
+        assertEquals(new PollSettings(1, 5, 10, false), tuner.currentSettings());
+    }
+}
@@ -0,0 +1,47 @@
+package com.picbank.authservice.configs;
+
+import com.picbank.authservice.utils.RetryBudget;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
+import software.amazon.awssdk.retries.api.AcquireInitialTokenRequest;
+import software.amazon.awssdk.retries.api.RefreshRetryTokenRequest;
+import software.amazon.awssdk.retries.api.RetryStrategy;
+import software.amazon.awssdk.retries.api.RetryToken;
+import software.amazon.awssdk.retries.api.TokenAcquisitionFailedException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BudgetedRetryStrategyTest {
+
+    @Test
+    void shouldKeepTheBudgetOfAStrategyRebuiltFromItsBuilder() {
+        RetryBudget budget = new RetryBudget(0, 1);
+        RetryStrategy strategy = new BudgetedRetryStrategy(AwsRetryStrategy.standardRetryStrategy().toBuilder()
+                .circuitBreakerEnabled(false)
+                .build(), budget);
+
+        RetryStrategy rebuilt = strategy.toBuilder()
+                .maxAttempts(5)
+                .retryOnException(IllegalStateException.class)
+                .build();
+
+        assertInstanceOf(BudgetedRetryStrategy.class, rebuilt);
+        assertEquals(5, rebuilt.maxAttempts());
+        RetryToken token = rebuilt.acquireInitialToken(AcquireInitialTokenRequest.create("test")).token();
+        token = rebuilt.refreshRetryToken(refresh(token)).token();
+        assertEquals(0, budget.getBalance());
+        RetryToken exhausted = token;
+        TokenAcquisitionFailedException exception = assertThrows(TokenAcquisitionFailedException.class,
+                () -> rebuilt.refreshRetryToken(refresh(exhausted)));
+        assertEquals("Retry budget exhausted", exception.getMessage());
+    }
+
+    private static RefreshRetryTokenRequest refresh(RetryToken token) {
+        return RefreshRetryTokenRequest.builder()
+                .token(token)
+                .failure(new IllegalStateException("failed"))
+                .build();
+    }
+}
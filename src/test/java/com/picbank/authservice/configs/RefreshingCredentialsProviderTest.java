@@ -0,0 +1,107 @@
+package com.picbank.authservice.configs;
+
+import com.picbank.authservice.components.AwsCredentialsProperties;
+import com.picbank.authservice.services.MessageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
+import software.amazon.awssdk.core.exception.SdkClientException;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static com.picbank.authservice.constants.ObservabilityConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshingCredentialsProviderTest {
+
+    private static final long REFRESH_BEFORE_MS = 240_000;
+    private static final long RETRY_INTERVAL_MS = 10_000;
+
+    @Mock private AwsCredentialsProvider source;
+    @Mock private MessageService messageService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RefreshingCredentialsProvider provider;
+
+    @AfterEach
+    void tearDown() {
+        provider.close();
+    }
+
+    @Test
+    void shouldServeCachedCredentialsAndRefreshThemAheadOfExpiration() {
+        AwsCredentials first = sessionCredentials("first", Duration.ofHours(1));
+        when(source.resolveCredentials()).thenReturn(first);
+        provider = newProvider();
+
+        provider.start();
+
+        assertSame(first, provider.resolveCredentials());
+        assertSame(first, provider.resolveCredentials());
+        verify(source, times(1)).resolveCredentials();
+
+        AwsCredentials second = sessionCredentials("second", Duration.ofHours(1));
+        when(source.resolveCredentials()).thenReturn(second);
+        long delayMs = provider.refresh();
+
+        assertSame(second, provider.resolveCredentials());
+        assertTrue(delayMs <= Duration.ofHours(1).toMillis() - REFRESH_BEFORE_MS);
+        assertTrue(delayMs > Duration.ofHours(1).toMillis() - REFRESH_BEFORE_MS - 60_000);
+        assertEquals(2, meterRegistry.get(AWS_CREDENTIALS_REFRESH).tag(TAG_OUTCOME, OUTCOME_SUCCESS).timer().count());
+        assertTrue(meterRegistry.get(AWS_CREDENTIALS_EXPIRATION).timeGauge().value() > 0);
+    }
+
+    @Test
+    void shouldKeepCurrentCredentialsAndRetryWhenRefreshFails() {
+        AwsCredentials current = sessionCredentials("current", Duration.ofMinutes(3));
+        when(source.resolveCredentials()).thenReturn(current);
+        provider = newProvider();
+        provider.start();
+
+        when(source.resolveCredentials()).thenThrow(SdkClientException.create("STS unavailable"));
+        long delayMs = provider.refresh();
+
+        assertSame(current, provider.resolveCredentials());
+        assertEquals(RETRY_INTERVAL_MS, delayMs);
+        assertEquals(1, meterRegistry.get(AWS_CREDENTIALS_REFRESH).tag(TAG_OUTCOME, OUTCOME_FAILED).timer().count());
+    }
+
+    @Test
+    void shouldResolveStaticCredentialsOnceAndFailFastBeforeTheFirstResolution() {
+        AwsCredentials keys = AwsBasicCredentials.create("access", "secret");
+        when(source.resolveCredentials()).thenReturn(keys);
+        provider = newProvider();
+
+        assertThrows(SdkClientException.class, provider::resolveCredentials);
+
+        provider.start();
+
+        assertSame(keys, provider.resolveCredentials());
+        assertEquals(-1, provider.refresh());
+        assertTrue(Double.isNaN(meterRegistry.get(AWS_CREDENTIALS_EXPIRATION).timeGauge().value()));
+    }
+
+    private RefreshingCredentialsProvider newProvider() {
+        return new RefreshingCredentialsProvider(source,
+                new AwsCredentialsProperties("", "", REFRESH_BEFORE_MS, RETRY_INTERVAL_MS), messageService, meterRegistry);
+    }
+
+    private static AwsCredentials sessionCredentials(String accessKey, Duration validity) {
+        return AwsSessionCredentials.builder()
+                .accessKeyId(accessKey)
+                .secretAccessKey("secret")
+                .sessionToken("token")
+                .expirationTime(Instant.now().plus(validity))
+                .build();
+    }
+}
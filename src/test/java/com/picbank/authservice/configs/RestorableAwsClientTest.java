@@ -0,0 +1,167 @@
+package com.picbank.authservice.configs;
+
+import com.picbank.authservice.components.AwsCallPolicyProperties;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.http.*;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlResponse;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SqsException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RestorableAwsClientTest {
+
+    private final Deque<SqsClient> createdClients = new ArrayDeque<>();
+
+    private SqsClient newClient() {
+        SqsClient client = mock(SqsClient.class);
+        createdClients.addLast(client);
+        return client;
+    }
+
+    @Test
+    void shouldDelegateToCurrentClient() {
+        RestorableAwsClient<SqsClient> restorable = new RestorableAwsClient<>(SqsClient.class, this::newClient);
+        GetQueueUrlResponse response = GetQueueUrlResponse.builder().queueUrl("url").build();
+        when(createdClients.getLast().getQueueUrl(any(GetQueueUrlRequest.class))).thenReturn(response);
+
+        assertSame(response, restorable.client().getQueueUrl(GetQueueUrlRequest.builder().build()));
+        assertTrue(restorable.isRunning());
+    }
+
+    @Test
+    void shouldCloseClientOnStopAndRebuildOnStart() {
+        RestorableAwsClient<SqsClient> restorable = new RestorableAwsClient<>(SqsClient.class, this::newClient);
+        SqsClient first = createdClients.getLast();
+
+        restorable.stop();
+
+        verify(first).close();
+        assertFalse(restorable.isRunning());
+
+        restorable.start();
+        SqsClient second = createdClients.getLast();
+        restorable.client().getQueueUrl(GetQueueUrlRequest.builder().build());
+
+        assertNotSame(first, second);
+        verify(second).getQueueUrl(any(GetQueueUrlRequest.class));
+        verify(first, never()).getQueueUrl(any(GetQueueUrlRequest.class));
+        assertTrue(restorable.isRunning());
+    }
+
+    @Test
+    void shouldNotRebuildClientWhenAlreadyRunning() {
+        RestorableAwsClient<SqsClient> restorable = new RestorableAwsClient<>(SqsClient.class, this::newClient);
+
+        restorable.start();
+
+        assertEquals(1, createdClients.size());
+    }
+
+    @Test
+    void shouldApplyThePolicyOfEachOperationAndKeepShorterTimeouts() {
+        RestorableAwsClient<SqsClient> restorable = new RestorableAwsClient<>(SqsClient.class, this::newClient,
+                callPolicies("GetQueueUrl", 2, 3, 10));
+        SqsClient client = createdClients.getLast();
+
+        restorable.client().getQueueUrl(GetQueueUrlRequest.builder()
+                .overrideConfiguration(override -> override.apiCallTimeout(Duration.ofMillis(300)))
+                .build());
+        restorable.client().receiveMessage(ReceiveMessageRequest.builder().build());
+
+        ArgumentCaptor<GetQueueUrlRequest> getQueueUrl = ArgumentCaptor.forClass(GetQueueUrlRequest.class);
+        verify(client).getQueueUrl(getQueueUrl.capture());
+        AwsRequestOverrideConfiguration interactive = getQueueUrl.getValue().overrideConfiguration().orElseThrow();
+        assertEquals(Optional.of(Duration.ofMillis(300)), interactive.apiCallTimeout());
+        assertEquals(Optional.of(Duration.ofMillis(500)), interactive.apiCallAttemptTimeout());
+        assertEquals(1, interactive.plugins().size());
+
+        ArgumentCaptor<ReceiveMessageRequest> receiveMessage = ArgumentCaptor.forClass(ReceiveMessageRequest.class);
+        verify(client).receiveMessage(receiveMessage.capture());
+        AwsRequestOverrideConfiguration background = receiveMessage.getValue().overrideConfiguration().orElseThrow();
+        assertEquals(Optional.of(Duration.ofSeconds(60)), background.apiCallTimeout());
+        assertEquals(Optional.of(Duration.ofSeconds(30)), background.apiCallAttemptTimeout());
+    }
+
+    @Test
+    void shouldRetryEachOperationAsOftenAsItsPolicyAllows() {
+        AtomicInteger attempts = new AtomicInteger();
+        RestorableAwsClient<SqsClient> restorable = new RestorableAwsClient<>(SqsClient.class,
+                () -> failingClient(attempts), callPolicies("GetQueueUrl", 2, 4, 10));
+
+        assertThrows(SqsException.class, () -> restorable.client().getQueueUrl(GetQueueUrlRequest.builder().build()));
+        assertEquals(2, attempts.getAndSet(0));
+
+        assertThrows(SqsException.class, () -> restorable.client().receiveMessage(ReceiveMessageRequest.builder().build()));
+        assertEquals(4, attempts.get());
+    }
+
+    @Test
+    void shouldStopRetryingOnceTheRetryBudgetIsExhausted() {
+        AtomicInteger attempts = new AtomicInteger();
+        RestorableAwsClient<SqsClient> restorable = new RestorableAwsClient<>(SqsClient.class,
+                () -> failingClient(attempts), callPolicies("", 2, 4, 1));
+
+        assertThrows(SqsException.class, () -> restorable.client().receiveMessage(ReceiveMessageRequest.builder().build()));
+        assertEquals(2, attempts.getAndSet(0));
+
+        assertThrows(SqsException.class, () -> restorable.client().receiveMessage(ReceiveMessageRequest.builder().build()));
+        assertEquals(1, attempts.get());
+    }
+
+    private static AwsCallPolicyProperties callPolicies(String interactiveOperations,
+                                                        int interactiveMaxAttempts,
+                                                        int backgroundMaxAttempts,
+                                                        int retryBudgetBurst) {
+        return new AwsCallPolicyProperties(interactiveOperations,
+                "standard", interactiveMaxAttempts, 1000, 500, 1, 1, 0, retryBudgetBurst,
+                "adaptive", backgroundMaxAttempts, 60_000, 30_000, 1, 1, 0, retryBudgetBurst);
+    }
+
+    private static SqsClient failingClient(AtomicInteger attempts) {
+        SdkHttpClient httpClient = new SdkHttpClient() {
+            @Override
+            public ExecutableHttpRequest prepareRequest(HttpExecuteRequest request) {
+                return new ExecutableHttpRequest() {
+                    @Override
+                    public HttpExecuteResponse call() {
+                        attempts.incrementAndGet();
+                        return HttpExecuteResponse.builder()
+                                .response(SdkHttpResponse.builder().statusCode(500).build())
+                                .build();
+                    }
+
+                    @Override
+                    public void abort() {
+                    }
+                };
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        return SqsClient.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("key", "secret")))
+                .endpointOverride(URI.create("http://localhost"))
+                .httpClient(httpClient)
+                .build();
+    }
+}
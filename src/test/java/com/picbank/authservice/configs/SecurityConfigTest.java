@@ -0,0 +1,145 @@
+package com.picbank.authservice.configs;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.picbank.authservice.components.JwtIssuerProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.picbank.authservice.constants.AuthConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecurityConfigTest {
+
+    private static final String PRIMARY_ISSUER = "https://cognito-idp.us-east-1.amazonaws.com/us-east-1_primary";
+    private static final String SECONDARY_ISSUER = "https://cognito-idp.us-west-2.amazonaws.com/us-west-2_secondary";
+
+    private HttpServer jwksServer;
+    private RSAKey primaryKey;
+    private RSAKey secondaryKey;
+    private JwtIssuerProperties jwtIssuerProperties;
+
+    @BeforeEach
+    void setUp() throws IOException, JOSEException {
+        primaryKey = new RSAKeyGenerator(2048).keyID("primary").generate();
+        secondaryKey = new RSAKeyGenerator(2048).keyID("secondary").generate();
+        jwksServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serveJwks("/primary/jwks.json", primaryKey);
+        serveJwks("/secondary/jwks.json", secondaryKey);
+        jwksServer.start();
+
+        String baseUrl = "http://localhost:" + jwksServer.getAddress().getPort();
+        jwtIssuerProperties = new JwtIssuerProperties(PRIMARY_ISSUER, baseUrl + "/primary/jwks.json",
+                "us-west-2_secondary", SECONDARY_ISSUER, baseUrl + "/secondary/jwks.json");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jwksServer.stop(0);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldAuthenticateTokensOfTheSecondaryUserPool() throws Exception {
+        // Arrange
+        BearerTokenAuthenticationFilter filter = new BearerTokenAuthenticationFilter(
+                SecurityConfig.cognitoIssuersResolver(jwtIssuerProperties));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token(SECONDARY_ISSUER, secondaryKey));
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> authentication.set(SecurityContextHolder.getContext().getAuthentication()));
+
+        // Assert
+        assertNotNull(authentication.get());
+        assertEquals("user", authentication.get().getName());
+        assertEquals(List.of(GROUP_AUTHORITY_PREFIX + ADMIN_GROUP),
+                authentication.get().getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    @Test
+    void shouldRejectTokensOfAnUntrustedIssuerOrSignedWithTheKeysOfTheOtherPool() throws Exception {
+        BearerTokenAuthenticationFilter filter = new BearerTokenAuthenticationFilter(
+                SecurityConfig.cognitoIssuersResolver(jwtIssuerProperties));
+
+        for (String token : List.of(token("https://issuer.example.com", secondaryKey), token(PRIMARY_ISSUER, secondaryKey))) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/admin/users/export");
+            request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(request, response, (req, res) -> fail("The request should not reach the application"));
+
+            assertEquals(401, response.getStatus());
+        }
+    }
+
+    @Test
+    void shouldAuthenticateTokensOfBothUserPoolsOnTheReactiveChain() throws Exception {
+        for (String token : List.of(token(PRIMARY_ISSUER, primaryKey), token(SECONDARY_ISSUER, secondaryKey))) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/prometheus")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+
+            Authentication authentication = ReactiveSecurityConfig.cognitoIssuersResolver(jwtIssuerProperties)
+                    .resolve(exchange)
+                    .flatMap(manager -> manager.authenticate(new BearerTokenAuthenticationToken(token)))
+                    .block();
+
+            assertNotNull(authentication);
+            assertTrue(authentication.isAuthenticated());
+            assertEquals("user", authentication.getName());
+        }
+    }
+
+    private void serveJwks(String path, RSAKey key) {
+        byte[] body = new JWKSet(key.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+        jwksServer.createContext(path, exchange -> {
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+    }
+
+    private static String token(String issuer, RSAKey key) throws JOSEException {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+                new JWTClaimsSet.Builder()
+                        .issuer(issuer)
+                        .subject("user")
+                        .claim(GROUPS_CLAIM, List.of(ADMIN_GROUP))
+                        .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+                        .build());
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
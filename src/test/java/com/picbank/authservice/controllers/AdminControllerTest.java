@@ -0,0 +1,163 @@
+package com.picbank.authservice.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.picbank.authservice.model.DlqRedriveEvent;
+import com.picbank.authservice.model.DlqRedriveRequest;
+import com.picbank.authservice.model.GroupReassignmentJob;
+import com.picbank.authservice.model.GroupReassignmentRequest;
+import com.picbank.authservice.model.UserExportRecord;
+import com.picbank.authservice.model.UserImportEvent;
+import com.picbank.authservice.model.enums.UserImportFormat;
+import com.picbank.authservice.services.DeadLetterQueueService;
+import com.picbank.authservice.services.GroupReassignmentService;
+import com.picbank.authservice.services.UserExportService;
+import com.picbank.authservice.services.UserImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminControllerTest {
+
+    @Mock
+    private UserImportService userImportService;
+
+    @Mock
+    private UserExportService userExportService;
+
+    @Mock
+    private GroupReassignmentService groupReassignmentService;
+
+    @Mock
+    private DeadLetterQueueService deadLetterQueueService;
+
+    @Mock
+    private NativeWebRequest request;
+
+    private AdminController adminController;
+
+    @BeforeEach
+    void setUp() {
+        adminController = new AdminController(userImportService, userExportService, groupReassignmentService,
+                deadLetterQueueService, new ObjectMapper(), request);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStreamImportEventsAsNdjson() throws IOException {
+        // Arrange
+        InputStream file = new ByteArrayInputStream("email,name,document,isMerchant\n".getBytes(StandardCharsets.UTF_8));
+        when(request.getHeader(HttpHeaders.CONTENT_TYPE)).thenReturn("text/csv; charset=UTF-8");
+        when(userImportService.importUsers(eq(file), eq(UserImportFormat.CSV), any())).thenAnswer(invocation -> {
+            Consumer<UserImportEvent> listener = invocation.getArgument(2);
+            listener.accept(new UserImportEvent().type(UserImportEvent.TypeEnum.FAILURE).line(2L).reason("invalid"));
+            UserImportEvent summary = new UserImportEvent().type(UserImportEvent.TypeEnum.SUMMARY).processed(1L).created(0L).failed(1L);
+            listener.accept(summary);
+            return summary;
+        });
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = adminController.importUsers(new InputStreamResource(file));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertNotNull(response.getBody());
+        response.getBody().writeTo(output);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("failure", new ObjectMapper().readTree(lines[0]).get("type").asText());
+        assertEquals(1, new ObjectMapper().readTree(lines[1]).get("failed").asInt());
+        assertFalse(new ObjectMapper().readTree(lines[1]).has("line"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStreamExportedUsersAsNdjson() throws IOException {
+        // Arrange
+        when(userExportService.exportUsers(eq(false), any())).thenAnswer(invocation -> {
+            Consumer<UserExportRecord> listener = invocation.getArgument(1);
+            listener.accept(new UserExportRecord().username("ana@example.com").status("CONFIRMED").enabled(true).groups(null));
+            listener.accept(new UserExportRecord().username("bia@example.com").status("UNCONFIRMED").enabled(true).groups(null));
+            return 2L;
+        });
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = adminController.exportUsers(false);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertNotNull(response.getBody());
+        response.getBody().writeTo(output);
+
+        // Assert
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("bia@example.com", new ObjectMapper().readTree(lines[1]).get("username").asText());
+        assertFalse(new ObjectMapper().readTree(lines[0]).has("groups"));
+    }
+
+    @Test
+    void shouldAcceptGroupReassignmentJobs() {
+        // Arrange
+        GroupReassignmentRequest reassignmentRequest = new GroupReassignmentRequest().sourceGroup("Standard").targetGroup("Merchant");
+        GroupReassignmentJob job = new GroupReassignmentJob().jobId("job").sourceGroup("Standard").targetGroup("Merchant").removeFromSource(true);
+        when(groupReassignmentService.startReassignment(reassignmentRequest)).thenReturn(job);
+
+        // Act
+        ResponseEntity<GroupReassignmentJob> response = adminController.startGroupReassignment(reassignmentRequest);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(job, response.getBody());
+    }
+
+    @Test
+    void shouldStreamRedriveEventsAsNdjson() throws IOException {
+        // Arrange
+        DlqRedriveRequest redriveRequest = new DlqRedriveRequest().maxMessages(5L);
+        when(deadLetterQueueService.redriveMessages(eq(redriveRequest), any())).thenAnswer(invocation -> {
+            Consumer<DlqRedriveEvent> listener = invocation.getArgument(1);
+            listener.accept(new DlqRedriveEvent().type(DlqRedriveEvent.TypeEnum.PROGRESS).received(3L).replayed(2L).failed(1L).skipped(0L));
+            DlqRedriveEvent summary = new DlqRedriveEvent().type(DlqRedriveEvent.TypeEnum.SUMMARY).received(5L).replayed(4L).failed(1L).skipped(0L);
+            listener.accept(summary);
+            return summary;
+        });
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = adminController.redriveDlqMessages(redriveRequest);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertNotNull(response.getBody());
+        response.getBody().writeTo(output);
+
+        // Assert
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("progress", new ObjectMapper().readTree(lines[0]).get("type").asText());
+        assertEquals(4, new ObjectMapper().readTree(lines[1]).get("replayed").asInt());
+    }
+}
@@ -1,29 +1,45 @@
 package com.picbank.authservice.controllers;
 
+import com.picbank.authservice.components.AuthDeadlines;
 import com.picbank.authservice.model.AuthResponse;
 import com.picbank.authservice.model.ConfirmEmailRequest;
 import com.picbank.authservice.model.LoginRequest;
 import com.picbank.authservice.model.RegisterRequest;
 import com.picbank.authservice.services.AuthService;
+import com.picbank.authservice.utils.Deadline;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AuthControllerTest {
 
+    private static final String DEADLINE_HEADER = "X-Request-Timeout-Ms";
+
     @Mock
     private AuthService authService;
 
+    @Mock
+    private NativeWebRequest request;
+
+    @Spy
+    private AuthDeadlines authDeadlines = new AuthDeadlines(DEADLINE_HEADER, 5000, 10000, 30000, 2);
+
     @InjectMocks
     private AuthController authController;
 
@@ -57,7 +73,7 @@ class AuthControllerTest {
     @Test
     void shouldReturnAuthResponseWhenLoginSuccess() {
         // Arrange
-        when(authService.login(loginRequest)).thenReturn(authResponse);
+        when(authService.login(eq(loginRequest), any(Deadline.class))).thenReturn(authResponse);
 
         // Act
         ResponseEntity<AuthResponse> response = authController.login(loginRequest);
@@ -66,13 +82,13 @@ class AuthControllerTest {
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(authResponse, response.getBody());
-        verify(authService, times(1)).login(loginRequest);
+        verify(authService, times(1)).login(eq(loginRequest), any(Deadline.class));
     }
 
     @Test
     void shouldReturnStatusCreatedWhenRegisterSuccess() {
         // Arrange
-        when(authService.register(registerRequest)).thenReturn(HttpStatus.CREATED);
+        when(authService.register(eq(registerRequest), any(Deadline.class))).thenReturn(HttpStatus.CREATED);
 
         // Act
         ResponseEntity<Void> response = authController.register(registerRequest);
@@ -80,13 +96,13 @@ class AuthControllerTest {
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
-        verify(authService, times(1)).register(registerRequest);
+        verify(authService, times(1)).register(eq(registerRequest), any(Deadline.class));
     }
 
     @Test
     void shouldReturnBadRequestWhenRegisterFails() {
         // Arrange
-        when(authService.register(registerRequest)).thenReturn(HttpStatus.BAD_REQUEST);
+        when(authService.register(eq(registerRequest), any(Deadline.class))).thenReturn(HttpStatus.BAD_REQUEST);
 
         // Act
         ResponseEntity<Void> response = authController.register(registerRequest);
@@ -94,7 +110,7 @@ class AuthControllerTest {
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
-        verify(authService, times(1)).register(registerRequest);
+        verify(authService, times(1)).register(eq(registerRequest), any(Deadline.class));
     }
 
     @Test
@@ -106,6 +122,38 @@ class AuthControllerTest {
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(authService, times(1)).confirmEmail(confirmEmailRequest);
+        verify(authService, times(1)).confirmEmail(eq(confirmEmailRequest), any(Deadline.class));
+    }
+
+    @Test
+    void shouldTakeTheDeadlineOfALoginFromTheHeaderUpToTheMaximum() {
+        when(authService.login(eq(loginRequest), any(Deadline.class))).thenReturn(authResponse);
+        ArgumentCaptor<Deadline> deadline = ArgumentCaptor.forClass(Deadline.class);
+
+        when(request.getHeader(DEADLINE_HEADER)).thenReturn("1500");
+        authController.login(loginRequest);
+        when(request.getHeader(DEADLINE_HEADER)).thenReturn("600000");
+        authController.login(loginRequest);
+
+        verify(authService, times(2)).login(eq(loginRequest), deadline.capture());
+        assertBudget(deadline.getAllValues().get(0), Duration.ofMillis(1500));
+        assertBudget(deadline.getAllValues().get(1), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void shouldUseTheDefaultDeadlineOfTheEndpointWithoutTheHeader() {
+        when(authService.register(eq(registerRequest), any(Deadline.class))).thenReturn(HttpStatus.CREATED);
+        ArgumentCaptor<Deadline> deadline = ArgumentCaptor.forClass(Deadline.class);
+
+        authController.register(registerRequest);
+
+        verify(authService).register(eq(registerRequest), deadline.capture());
+        assertBudget(deadline.getValue(), Duration.ofSeconds(10));
+    }
+
+    private static void assertBudget(Deadline deadline, Duration budget) {
+        Duration remaining = deadline.remaining();
+        assertTrue(remaining.compareTo(budget) <= 0 && remaining.compareTo(budget.minusMillis(500)) > 0,
+                "remaining budget " + remaining + " should be close to " + budget);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,78 @@
+package com.picbank.authservice.exceptions;
+
+import com.picbank.authservice.components.AuthConcurrencyProperties;
+import com.picbank.authservice.constants.ErrorConstants;
+import com.picbank.authservice.model.ErrorResponse;
+import com.picbank.authservice.model.enums.AuthFailure;
+import com.picbank.authservice.services.MessageService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static com.picbank.authservice.constants.MessageConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GlobalExceptionHandlerTest {
+
+    @Mock
+    private MessageService messageService;
+
+    @Mock
+    private AuthConcurrencyProperties authConcurrencyProperties;
+
+    @InjectMocks
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @Test
+    void shouldRenderInvalidCredentialsAsUnauthorized() {
+        when(messageService.getMessage(AUTH_FAILURE_INVALID_CREDENTIALS)).thenReturn("Incorrect username or password.");
+
+        ResponseEntity<ErrorResponse> response =
+                globalExceptionHandler.handleAuthFailureException(AuthFailure.INVALID_CREDENTIALS.getException());
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(401, response.getBody().getStatus());
+        assertEquals(ErrorConstants.INVALID_CREDENTIALS, response.getBody().getCode());
+        assertEquals("Incorrect username or password.", response.getBody().getMessage());
+    }
+
+    @Test
+    void shouldRenderExistingUserAsConflict() {
+        when(messageService.getMessage(AUTH_FAILURE_USER_EXISTS)).thenReturn("A user with this e-mail already exists.");
+
+        ResponseEntity<ErrorResponse> response =
+                globalExceptionHandler.handleAuthFailureException(AuthFailure.USER_EXISTS.getException());
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(ErrorConstants.USER_EXISTS, response.getBody().getCode());
+    }
+
+    @Test
+    void shouldRenderAShedRequestAsServiceUnavailableWithRetryAfter() {
+        when(messageService.getMessage(AUTH_FAILURE_SERVICE_OVERLOADED)).thenReturn("The service is overloaded.");
+        when(authConcurrencyProperties.getRetryAfterSeconds()).thenReturn(2L);
+
+        ResponseEntity<ErrorResponse> response =
+                globalExceptionHandler.handleAuthFailureException(AuthFailure.SERVICE_OVERLOADED.getException());
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(ErrorConstants.SERVICE_OVERLOADED, response.getBody().getCode());
+    }
+
+    @Test
+    void shouldNotAskToRetryOtherFailures() {
+        ResponseEntity<ErrorResponse> response =
+                globalExceptionHandler.handleAuthFailureException(AuthFailure.INVALID_PASSWORD.getException());
+
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.RETRY_AFTER));
+    }
+}
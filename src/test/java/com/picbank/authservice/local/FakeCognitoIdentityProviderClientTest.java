@@ -0,0 +1,131 @@
+package com.picbank.authservice.local;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FakeCognitoIdentityProviderClientTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final String PASSWORD = "Secret#123";
+    private static final String CODE = "123456";
+
+    private final FakeCognitoIdentityProviderClient cognitoClient = new FakeCognitoIdentityProviderClient(FaultInjector.NONE, CODE);
+
+    @Test
+    void shouldSignUpConfirmAndLogin() {
+        SignUpResponse signUp = signUp();
+        assertTrue(signUp.sdkHttpResponse().isSuccessful());
+
+        cognitoClient.confirmSignUp(ConfirmSignUpRequest.builder().username(EMAIL).confirmationCode(CODE).build());
+        InitiateAuthResponse auth = login(PASSWORD);
+
+        assertNotNull(auth.authenticationResult().accessToken());
+        assertEquals("Bearer", auth.authenticationResult().tokenType());
+    }
+
+    @Test
+    void shouldRejectDuplicateSignUp() {
+        signUp();
+
+        UsernameExistsException exception = assertThrows(UsernameExistsException.class, this::signUp);
+        assertEquals("UsernameExistsException", exception.awsErrorDetails().errorCode());
+    }
+
+    @Test
+    void shouldRejectWrongConfirmationCodeAndUnconfirmedLogin() {
+        signUp();
+
+        assertThrows(CodeMismatchException.class, () -> cognitoClient.confirmSignUp(
+                ConfirmSignUpRequest.builder().username(EMAIL).confirmationCode("000000").build()));
+        assertThrows(UserNotConfirmedException.class, () -> login(PASSWORD));
+    }
+
+    @Test
+    void shouldAdminCreateUserPendingPasswordChange() {
+        AdminCreateUserRequest request = AdminCreateUserRequest.builder()
+                .username(EMAIL)
+                .userAttributes(AttributeType.builder().name("email").value(EMAIL).build())
+                .build();
+
+        AdminCreateUserResponse response = cognitoClient.adminCreateUser(request);
+
+        assertEquals(UserStatusType.FORCE_CHANGE_PASSWORD, response.user().userStatus());
+        assertThrows(UsernameExistsException.class, () -> cognitoClient.adminCreateUser(request));
+    }
+
+    @Test
+    void shouldRejectInvalidCredentials() {
+        cognitoClient.seedConfirmedUser(EMAIL, PASSWORD);
+
+        assertThrows(NotAuthorizedException.class, () -> login("wrong"));
+    }
+
+    @Test
+    void shouldAddUserToGroup() {
+        cognitoClient.seedConfirmedUser(EMAIL, PASSWORD);
+
+        cognitoClient.adminAddUserToGroup(AdminAddUserToGroupRequest.builder().username(EMAIL).groupName("MERCHANT").build());
+
+        assertEquals(Set.of("MERCHANT"), cognitoClient.groupsOf(EMAIL));
+        assertThrows(UserNotFoundException.class, () -> cognitoClient.adminAddUserToGroup(
+                AdminAddUserToGroupRequest.builder().username("missing@example.com").groupName("MERCHANT").build()));
+    }
+
+    @Test
+    void shouldPageThroughGroupMembersWhileTheyAreRemoved() {
+        for (String username : new String[]{"a@example.com", "b@example.com", "c@example.com"}) {
+            cognitoClient.seedConfirmedUser(username, PASSWORD);
+            cognitoClient.adminAddUserToGroup(AdminAddUserToGroupRequest.builder().username(username).groupName("Standard").build());
+        }
+
+        ListUsersInGroupResponse first = cognitoClient.listUsersInGroup(ListUsersInGroupRequest.builder().groupName("Standard").limit(2).build());
+        cognitoClient.adminRemoveUserFromGroup(AdminRemoveUserFromGroupRequest.builder().username("a@example.com").groupName("Standard").build());
+        ListUsersInGroupResponse second = cognitoClient.listUsersInGroup(ListUsersInGroupRequest.builder()
+                .groupName("Standard").limit(2).nextToken(first.nextToken()).build());
+
+        assertEquals(2, first.users().size());
+        assertEquals("c@example.com", second.users().get(0).username());
+        assertNull(second.nextToken());
+        assertEquals(Set.of(), cognitoClient.groupsOf("a@example.com"));
+        assertThrows(ResourceNotFoundException.class, () -> cognitoClient.getGroup(GetGroupRequest.builder().groupName("Unknown").build()));
+    }
+
+    @Test
+    void shouldListUsersInPagesWithTheirGroups() {
+        for (String username : new String[]{"b@example.com", "a@example.com", "c@example.com"}) {
+            cognitoClient.seedConfirmedUser(username, PASSWORD);
+        }
+        cognitoClient.adminAddUserToGroup(AdminAddUserToGroupRequest.builder().username("c@example.com").groupName("Merchant").build());
+
+        ListUsersResponse first = cognitoClient.listUsers(ListUsersRequest.builder().limit(2).build());
+        ListUsersResponse second = cognitoClient.listUsers(ListUsersRequest.builder().limit(2).paginationToken(first.paginationToken()).build());
+
+        assertEquals(List.of("a@example.com", "b@example.com"), first.users().stream().map(UserType::username).toList());
+        assertEquals(UserStatusType.CONFIRMED, first.users().get(0).userStatus());
+        assertEquals(List.of("c@example.com"), second.users().stream().map(UserType::username).toList());
+        assertNull(second.paginationToken());
+        assertEquals(List.of("Merchant"), cognitoClient.adminListGroupsForUser(AdminListGroupsForUserRequest.builder()
+                .username("c@example.com").build()).groups().stream().map(GroupType::groupName).toList());
+    }
+
+    private SignUpResponse signUp() {
+        return cognitoClient.signUp(SignUpRequest.builder()
+                .username(EMAIL)
+                .password(PASSWORD)
+                .userAttributes(AttributeType.builder().name("email").value(EMAIL).build())
+                .build());
+    }
+
+    private InitiateAuthResponse login(String password) {
+        return cognitoClient.initiateAuth(InitiateAuthRequest.builder()
+                .authFlow(AuthFlowType.USER_PASSWORD_AUTH)
+                .authParameters(Map.of("USERNAME", EMAIL, "PASSWORD", password))
+                .build());
+    }
+}
@@ -0,0 +1,147 @@
+package com.picbank.authservice.local;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.sqs.model.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FakeSqsClientTest {
+
+    private static final String QUEUE_URL = "http://localhost/000000000000/main-queue";
+
+    private final FakeSqsClient sqsClient = new FakeSqsClient(FaultInjector.NONE, Duration.ofSeconds(30));
+
+    @Test
+    void shouldHideReceivedMessageUntilVisibilityTimeoutExpires() {
+        send("first");
+
+        List<Message> received = receive(null);
+        assertEquals(1, received.size());
+        assertEquals("first", received.get(0).body());
+        assertEquals("1", received.get(0).attributes().get(MessageSystemAttributeName.APPROXIMATE_RECEIVE_COUNT));
+        assertTrue(receive(null).isEmpty());
+        assertEquals(List.of("0", "1"), backlog());
+    }
+
+    @Test
+    void shouldRedeliverWithIncrementedReceiveCountAfterVisibilityTimeout() {
+        send("retry");
+
+        receive(0);
+        List<Message> redelivered = receive(0);
+
+        assertEquals(1, redelivered.size());
+        assertEquals("2", redelivered.get(0).attributes().get(MessageSystemAttributeName.APPROXIMATE_RECEIVE_COUNT));
+    }
+
+    @Test
+    void shouldRemoveMessageOnDeleteWithLatestReceiptHandle() {
+        send("done");
+        Message message = receive(null).get(0);
+
+        sqsClient.deleteMessage(DeleteMessageRequest.builder().queueUrl(QUEUE_URL).receiptHandle(message.receiptHandle()).build());
+
+        assertEquals(List.of("0", "0"), backlog());
+    }
+
+    @Test
+    void shouldMakeMessageVisibleAgainWhenVisibilityIsReset() {
+        send("release");
+        Message message = receive(null).get(0);
+
+        sqsClient.changeMessageVisibility(ChangeMessageVisibilityRequest.builder()
+                .queueUrl(QUEUE_URL).receiptHandle(message.receiptHandle()).visibilityTimeout(0).build());
+
+        assertEquals(1, receive(null).size());
+        assertThrows(ReceiptHandleIsInvalidException.class, () -> sqsClient.changeMessageVisibility(
+                ChangeMessageVisibilityRequest.builder()
+                        .queueUrl(QUEUE_URL).receiptHandle(message.receiptHandle()).visibilityTimeout(0).build()));
+    }
+
+    @Test
+    void shouldReleaseMessagesInBatchAndReportInvalidReceiptHandles() {
+        send("unstarted");
+        Message message = receive(null).get(0);
+
+        ChangeMessageVisibilityBatchResponse response = sqsClient.changeMessageVisibilityBatch(
+                ChangeMessageVisibilityBatchRequest.builder()
+                        .queueUrl(QUEUE_URL)
+                        .entries(ChangeMessageVisibilityBatchRequestEntry.builder()
+                                        .id("0").receiptHandle(message.receiptHandle()).visibilityTimeout(0).build(),
+                                ChangeMessageVisibilityBatchRequestEntry.builder()
+                                        .id("1").receiptHandle("unknown").visibilityTimeout(0).build())
+                        .build());
+
+        assertEquals(List.of("0"), response.successful().stream().map(ChangeMessageVisibilityBatchResultEntry::id).toList());
+        assertEquals(List.of("1"), response.failed().stream().map(BatchResultErrorEntry::id).toList());
+        assertEquals(List.of("1", "0"), backlog());
+    }
+
+    @Test
+    void shouldEnqueueEveryEntryOfABatch() {
+        SendMessageBatchResponse response = sqsClient.sendMessageBatch(SendMessageBatchRequest.builder()
+                .queueUrl(QUEUE_URL)
+                .entries(SendMessageBatchRequestEntry.builder().id("0").messageBody("first").build(),
+                        SendMessageBatchRequestEntry.builder().id("1").messageBody("second").build())
+                .build());
+
+        assertEquals(List.of("0", "1"), response.successful().stream().map(SendMessageBatchResultEntry::id).toList());
+        assertEquals(List.of("2", "0"), backlog());
+    }
+
+    @Test
+    void shouldReturnOnlyRequestedAttributes() {
+        sqsClient.sendMessage(SendMessageRequest.builder()
+                .queueUrl(QUEUE_URL)
+                .messageBody("{}")
+                .messageAttributes(Map.of("traceparent", MessageAttributeValue.builder().dataType("String").stringValue("tp").build()))
+                .build());
+
+        Message message = sqsClient.receiveMessage(ReceiveMessageRequest.builder()
+                .queueUrl(QUEUE_URL)
+                .messageSystemAttributeNames(MessageSystemAttributeName.SENT_TIMESTAMP)
+                .build()).messages().get(0);
+
+        assertTrue(message.attributes().containsKey(MessageSystemAttributeName.SENT_TIMESTAMP));
+        assertFalse(message.attributes().containsKey(MessageSystemAttributeName.APPROXIMATE_RECEIVE_COUNT));
+        assertTrue(message.messageAttributes().isEmpty());
+    }
+
+    @Test
+    void shouldFailCallsAccordingToErrorRate() {
+        FakeSqsClient failingClient = new FakeSqsClient(new FaultInjector(0, 0, 1.0), Duration.ofSeconds(30));
+
+        SqsException exception = assertThrows(SqsException.class, () -> failingClient.sendMessage(
+                SendMessageRequest.builder().queueUrl(QUEUE_URL).messageBody("{}").build()));
+
+        assertEquals(503, exception.statusCode());
+        assertEquals("ServiceUnavailable", exception.awsErrorDetails().errorCode());
+    }
+
+    private void send(String body) {
+        sqsClient.sendMessage(SendMessageRequest.builder().queueUrl(QUEUE_URL).messageBody(body).build());
+    }
+
+    private List<Message> receive(Integer visibilityTimeout) {
+        return sqsClient.receiveMessage(ReceiveMessageRequest.builder()
+                .queueUrl(QUEUE_URL)
+                .maxNumberOfMessages(10)
+                .visibilityTimeout(visibilityTimeout)
+                .messageSystemAttributeNames(MessageSystemAttributeName.ALL)
+                .build()).messages();
+    }
+
+    private List<String> backlog() {
+        Map<QueueAttributeName, String> attributes = sqsClient.getQueueAttributes(GetQueueAttributesRequest.builder()
+                .queueUrl(QUEUE_URL)
+                .attributeNames(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES,
+                        QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES_NOT_VISIBLE)
+                .build()).attributes();
+        return List.of(attributes.get(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES),
+                attributes.get(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES_NOT_VISIBLE));
+    }
+}
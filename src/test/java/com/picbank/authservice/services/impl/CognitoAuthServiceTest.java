@@ -1,29 +1,42 @@
 package com.picbank.authservice.services.impl;
 
+import com.picbank.authservice.components.CognitoEndpointRouter;
 import com.picbank.authservice.components.CognitoProperties;
+import com.picbank.authservice.components.CognitoRoutingProperties;
+import com.picbank.authservice.components.GroupAssignmentFastLane;
 import com.picbank.authservice.exceptions.AuthException;
+import com.picbank.authservice.exceptions.AuthFailureException;
 import com.picbank.authservice.exceptions.CognitoOperationException;
 import com.picbank.authservice.model.AuthResponse;
 import com.picbank.authservice.model.ConfirmEmailRequest;
 import com.picbank.authservice.model.LoginRequest;
 import com.picbank.authservice.model.RegisterRequest;
+import com.picbank.authservice.model.enums.AuthFailure;
 import com.picbank.authservice.model.enums.CognitoUserGroup;
 import com.picbank.authservice.services.MessageService;
-import com.picbank.authservice.services.QueueService;
 import com.picbank.authservice.utils.CognitoUtils;
+import com.picbank.authservice.utils.Deadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
 import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.*;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import static com.picbank.authservice.constants.MessageConstants.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -33,7 +46,7 @@ import static org.mockito.Mockito.*;
 class CognitoAuthServiceTest {
 
     @Mock
-    private QueueService queueService;
+    private GroupAssignmentFastLane groupAssignmentFastLane;
 
     @Mock
     private CognitoProperties cognitoProperties;
@@ -47,7 +60,9 @@ class CognitoAuthServiceTest {
     @Mock
     private CognitoUtils cognitoUtils;
 
-    @InjectMocks
+    @Mock
+    private ObjectProvider<CognitoIdentityProviderAsyncClient> cognitoAsyncClient;
+
     private CognitoAuthService authService;
 
     private LoginRequest loginRequest;
@@ -60,6 +75,11 @@ class CognitoAuthServiceTest {
         when(cognitoProperties.getClientId()).thenReturn("test-client-id");
         when(cognitoProperties.getClientSecret()).thenReturn("test-client-secret");
         when(cognitoUtils.calculateSecretHash(anyString(), anyString(), anyString())).thenReturn("mockedHash");
+        CognitoEndpointRouter router = new CognitoEndpointRouter(cognitoClient, null, cognitoProperties,
+                new CognitoRoutingProperties("us-west-2", "", "", "", "", 0.2, 1500, 0.3, 5000),
+                messageService, new SimpleMeterRegistry());
+        authService = new CognitoAuthService(groupAssignmentFastLane, cognitoProperties, cognitoClient, cognitoUtils, messageService,
+                router, cognitoAsyncClient);
     }
 
     @Test
@@ -75,7 +95,7 @@ class CognitoAuthServiceTest {
 
         when(cognitoClient.initiateAuth(any(InitiateAuthRequest.class))).thenReturn(authResponse);
 
-        AuthResponse response = authService.login(loginRequest);
+        AuthResponse response = authService.login(loginRequest, Deadline.NONE);
 
         assertNotNull(response);
         assertEquals("access-token", response.getAccessToken());
@@ -98,12 +118,129 @@ class CognitoAuthServiceTest {
         when(messageService.getMessage(AUTH_ERROR_INTERNAL)).thenReturn("Mocked Message AUTH_ERROR_INTERNAL");
 
         AuthException exception = assertThrows(AuthException.class, () -> {
-            authService.login(loginRequest);
+            authService.login(loginRequest, Deadline.NONE);
         });
 
         assertEquals("Mocked Message AUTH_ERROR_INTERNAL", exception.getMessage());
     }
 
+    @Test
+    void shouldRejectWrongPasswordWithThePrecomputedStacklessFailure() {
+        when(cognitoClient.initiateAuth(any(InitiateAuthRequest.class))).thenThrow(NotAuthorizedException.builder()
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("NotAuthorizedException").build())
+                .message("Incorrect username or password.")
+                .statusCode(400)
+                .build());
+
+        AuthFailureException first = assertThrows(AuthFailureException.class, () -> authService.login(loginRequest, Deadline.NONE));
+        AuthFailureException second = assertThrows(AuthFailureException.class, () -> authService.login(loginRequest, Deadline.NONE));
+
+        assertSame(AuthFailure.INVALID_CREDENTIALS.getException(), first);
+        assertSame(first, second);
+        assertEquals(0, first.getStackTrace().length);
+        verify(messageService, never()).getMessage(eq(AUTH_ERROR_COGNITO), any(), any());
+    }
+
+    @Test
+    void shouldRejectUnconfirmedUserOnLogin() {
+        when(cognitoClient.initiateAuth(any(InitiateAuthRequest.class))).thenThrow(UserNotConfirmedException.builder()
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("UserNotConfirmedException").build())
+                .statusCode(400)
+                .build());
+
+        AuthFailureException exception = assertThrows(AuthFailureException.class, () -> authService.login(loginRequest, Deadline.NONE));
+
+        assertEquals(AuthFailure.USER_NOT_CONFIRMED, exception.getFailure());
+    }
+
+    @Test
+    void shouldRejectWrongPasswordAsynchronouslyWithThePrecomputedFailure() {
+        CognitoIdentityProviderAsyncClient asyncClient = mock(CognitoIdentityProviderAsyncClient.class);
+        when(asyncClient.initiateAuth(any(InitiateAuthRequest.class))).thenReturn(CompletableFuture.failedFuture(
+                NotAuthorizedException.builder().statusCode(400).build()));
+        CognitoEndpointRouter router = new CognitoEndpointRouter(cognitoClient, null, asyncClient, null, cognitoProperties,
+                new CognitoRoutingProperties("us-west-2", "", "", "", "", 0.2, 1500, 0.3, 5000),
+                messageService, new SimpleMeterRegistry());
+        authService = new CognitoAuthService(groupAssignmentFastLane, cognitoProperties, cognitoClient, cognitoUtils, messageService,
+                router, cognitoAsyncClient);
+
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> authService.loginAsync(loginRequest, Deadline.NONE).join());
+
+        assertSame(AuthFailure.INVALID_CREDENTIALS.getException(), exception.getCause());
+        verifyNoInteractions(cognitoClient);
+    }
+
+    @Test
+    void shouldBoundTheCognitoCallsOfALoginByItsRemainingBudget() {
+        when(cognitoClient.initiateAuth(any(InitiateAuthRequest.class))).thenThrow(NotAuthorizedException.builder()
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("NotAuthorizedException").build())
+                .build());
+
+        assertThrows(AuthFailureException.class, () -> authService.login(loginRequest, Deadline.after(Duration.ofSeconds(4), 2)));
+
+        ArgumentCaptor<InitiateAuthRequest> request = ArgumentCaptor.forClass(InitiateAuthRequest.class);
+        verify(cognitoClient).initiateAuth(request.capture());
+        var overrideConfiguration = request.getValue().overrideConfiguration().orElseThrow();
+        Duration apiCallTimeout = overrideConfiguration.apiCallTimeout().orElseThrow();
+        Duration attemptTimeout = overrideConfiguration.apiCallAttemptTimeout().orElseThrow();
+        assertTrue(apiCallTimeout.compareTo(Duration.ofSeconds(4)) <= 0 && apiCallTimeout.compareTo(Duration.ofSeconds(3)) > 0);
+        assertTrue(attemptTimeout.compareTo(Duration.ofSeconds(2)) <= 0 && attemptTimeout.compareTo(Duration.ofSeconds(1)) > 0);
+    }
+
+    @Test
+    void shouldAbandonALoginPastItsDeadlineWithoutCallingCognito() {
+        AuthFailureException exception = assertThrows(AuthFailureException.class,
+                () -> authService.login(loginRequest, Deadline.after(Duration.ZERO, 1)));
+
+        assertEquals(AuthFailure.DEADLINE_EXCEEDED, exception.getFailure());
+        verify(cognitoClient, never()).initiateAuth(any(InitiateAuthRequest.class));
+    }
+
+    @Test
+    void shouldNotBoundASignUpByTheRemainingBudgetOfItsRegistration() {
+        SdkHttpResponse sdkHttpResponse = mock(SdkHttpResponse.class);
+        when(sdkHttpResponse.isSuccessful()).thenReturn(true);
+        SignUpResponse signUpResponse = mock(SignUpResponse.class);
+        when(signUpResponse.sdkHttpResponse()).thenReturn(sdkHttpResponse);
+        when(cognitoClient.signUp(any(SignUpRequest.class))).thenReturn(signUpResponse);
+
+        authService.register(registerRequest, Deadline.after(Duration.ofSeconds(4), 2));
+
+        ArgumentCaptor<SignUpRequest> request = ArgumentCaptor.forClass(SignUpRequest.class);
+        verify(cognitoClient).signUp(request.capture());
+        assertTrue(request.getValue().overrideConfiguration()
+                .flatMap(overrideConfiguration -> overrideConfiguration.apiCallTimeout())
+                .isEmpty());
+    }
+
+    @Test
+    void shouldHandOffTheGroupAssignmentOfASignUpThatTimedOut() {
+        when(cognitoClient.signUp(any(SignUpRequest.class))).thenThrow(ApiCallTimeoutException.create(1000));
+
+        assertThrows(CognitoOperationException.class,
+                () -> authService.register(registerRequest, Deadline.after(Duration.ofSeconds(10), 1)));
+
+        verify(messageService).getMessage(AUTH_REGISTER_TIMEOUT, registerRequest.getEmail());
+        verify(groupAssignmentFastLane).assign(registerRequest.getEmail(), registerRequest.getEmail(), CognitoUserGroup.MERCHANT);
+    }
+
+    @Test
+    void shouldHandOffTheGroupAssignmentOfAnAsynchronousSignUpThatTimedOut() {
+        CognitoIdentityProviderAsyncClient asyncClient = mock(CognitoIdentityProviderAsyncClient.class);
+        when(cognitoAsyncClient.getObject()).thenReturn(asyncClient);
+        when(asyncClient.signUp(any(SignUpRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(ApiCallTimeoutException.create(1000)));
+        when(groupAssignmentFastLane.assignAsync(registerRequest.getEmail(), registerRequest.getEmail(), CognitoUserGroup.MERCHANT))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> authService.registerAsync(registerRequest, Deadline.NONE).join());
+
+        assertInstanceOf(CognitoOperationException.class, exception.getCause());
+        verify(groupAssignmentFastLane).assignAsync(registerRequest.getEmail(), registerRequest.getEmail(), CognitoUserGroup.MERCHANT);
+    }
+
     @Test
     void shouldThrowAuthExceptionOnUnexpectedErrorDuringLogin() {
         when(cognitoClient.initiateAuth(any(InitiateAuthRequest.class)))
@@ -117,7 +254,7 @@ class CognitoAuthServiceTest {
                 .thenReturn("Mocked Message AUTH_ERROR_UNEXPECTED");
 
         AuthException exception = assertThrows(AuthException.class, () -> {
-            authService.login(loginRequest);
+            authService.login(loginRequest, Deadline.NONE);
         });
 
         assertEquals("Mocked Message AUTH_ERROR_UNEXPECTED", exception.getMessage());
@@ -133,12 +270,12 @@ class CognitoAuthServiceTest {
 
         when(cognitoClient.signUp(any(SignUpRequest.class))).thenReturn(signUpResponse);
 
-        var response = authService.register(registerRequest);
+        var response = authService.register(registerRequest, Deadline.NONE);
 
         assertEquals(201, response.value());
 
         verify(cognitoClient, times(1)).signUp(any(SignUpRequest.class));
-        verify(queueService, times(1)).sendMessage("test@example.com", CognitoUserGroup.MERCHANT.name());
+        verify(groupAssignmentFastLane, times(1)).assign("test@example.com", "test@example.com", CognitoUserGroup.MERCHANT);
     }
 
     @Test
@@ -153,12 +290,12 @@ class CognitoAuthServiceTest {
 
         when(cognitoClient.signUp(any(SignUpRequest.class))).thenReturn(signUpResponse);
 
-        var response = authService.register(registerRequest);
+        var response = authService.register(registerRequest, Deadline.NONE);
 
         assertEquals(201, response.value());
 
         verify(cognitoClient, times(1)).signUp(any(SignUpRequest.class));
-        verify(queueService, times(1)).sendMessage("test@example.com", CognitoUserGroup.STANDARD.name());
+        verify(groupAssignmentFastLane, times(1)).assign("test@example.com", "test@example.com", CognitoUserGroup.STANDARD);
     }
 
 
@@ -172,12 +309,12 @@ class CognitoAuthServiceTest {
 
         when(cognitoClient.signUp(any(SignUpRequest.class))).thenReturn(signUpResponse);
 
-        var response = authService.register(registerRequest);
+        var response = authService.register(registerRequest, Deadline.NONE);
 
         assertEquals(HttpStatus.BAD_REQUEST.value(), response.value());
 
         verify(cognitoClient, times(1)).signUp(any(SignUpRequest.class));
-        verify(queueService, never()).sendMessage(any(), any());
+        verify(groupAssignmentFastLane, never()).assign(any(), any(), any());
     }
 
     @Test
@@ -191,12 +328,42 @@ class CognitoAuthServiceTest {
         when(cognitoClient.signUp(any(SignUpRequest.class))).thenThrow(cognitoException);
 
         CognitoOperationException exception = assertThrows(CognitoOperationException.class, () -> {
-            authService.register(registerRequest);
+            authService.register(registerRequest, Deadline.NONE);
         });
 
         assertTrue(exception.getMessage().contains("Mocked Message AUTH_ERROR_COGNITO"));
     }
 
+    @Test
+    void shouldRejectRegistrationOfAnExistingUser() {
+        when(cognitoClient.signUp(any(SignUpRequest.class))).thenThrow(UsernameExistsException.builder()
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("UsernameExistsException").build())
+                .statusCode(400)
+                .build());
+
+        AuthFailureException exception = assertThrows(AuthFailureException.class, () -> authService.register(registerRequest, Deadline.NONE));
+
+        assertEquals(AuthFailure.USER_EXISTS, exception.getFailure());
+        verifyNoInteractions(groupAssignmentFastLane);
+    }
+
+    @Test
+    void shouldRegisterUserAsynchronously() {
+        CognitoIdentityProviderAsyncClient asyncClient = mock(CognitoIdentityProviderAsyncClient.class);
+        when(cognitoAsyncClient.getObject()).thenReturn(asyncClient);
+        SignUpResponse signUpResponse = (SignUpResponse) SignUpResponse.builder()
+                .sdkHttpResponse(SdkHttpResponse.builder().statusCode(200).build())
+                .build();
+        when(asyncClient.signUp(any(SignUpRequest.class))).thenReturn(CompletableFuture.completedFuture(signUpResponse));
+        when(groupAssignmentFastLane.assignAsync(registerRequest.getEmail(), registerRequest.getEmail(), CognitoUserGroup.MERCHANT))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(HttpStatus.CREATED, authService.registerAsync(registerRequest, Deadline.NONE).join());
+
+        verifyNoInteractions(cognitoClient);
+        verify(groupAssignmentFastLane, never()).assign(anyString(), anyString(), any());
+    }
+
     @Test
     void shouldThrowCognitoOperationExceptionOnSdkClientExceptionDuringRegister() {
         SdkClientException sdkClientException = mock(SdkClientException.class);
@@ -207,7 +374,7 @@ class CognitoAuthServiceTest {
         when(cognitoClient.signUp(any(SignUpRequest.class))).thenThrow(sdkClientException);
 
         CognitoOperationException exception = assertThrows(CognitoOperationException.class, () -> {
-            authService.register(registerRequest);
+            authService.register(registerRequest, Deadline.NONE);
         });
 
         assertTrue(exception.getMessage().contains("Mocked Message AUTH_ERROR_INTERNAL"));
@@ -226,7 +393,7 @@ class CognitoAuthServiceTest {
                 .thenReturn("Mocked Message AUTH_ERROR_UNEXPECTED");
 
         CognitoOperationException exception = assertThrows(CognitoOperationException.class, () -> {
-            authService.register(registerRequest);
+            authService.register(registerRequest, Deadline.NONE);
         });
 
         assertTrue(exception.getMessage().contains("Mocked Message AUTH_ERROR_UNEXPECTED"));
@@ -240,7 +407,7 @@ class CognitoAuthServiceTest {
         ConfirmEmailRequest request = new ConfirmEmailRequest(email, confirmationCode);
 
         // Act
-        authService.confirmEmail(request);
+        authService.confirmEmail(request, Deadline.NONE);
 
         // Assert
         verify(messageService).getMessage(AUTH_CONFIRM_EMAIL_START, email, confirmationCode);
@@ -269,7 +436,7 @@ class CognitoAuthServiceTest {
         when(cognitoClient.confirmSignUp(any(ConfirmSignUpRequest.class))).thenThrow(cognitoException);
 
         // Act & Assert
-        CognitoOperationException exception = assertThrows(CognitoOperationException.class, () -> authService.confirmEmail(request));
+        CognitoOperationException exception = assertThrows(CognitoOperationException.class, () -> authService.confirmEmail(request, Deadline.NONE));
 
         assertTrue(exception.getMessage().contains("Mocked Message AUTH_CONFIRM_EMAIL_FAILURE"));
 
@@ -279,6 +446,22 @@ class CognitoAuthServiceTest {
         verify(cognitoClient).confirmSignUp(any(ConfirmSignUpRequest.class));
     }
 
+    @Test
+    void shouldRejectWrongOrExpiredConfirmationCodes() {
+        ConfirmEmailRequest request = new ConfirmEmailRequest("test@example.com", "000000");
+        when(cognitoClient.confirmSignUp(any(ConfirmSignUpRequest.class)))
+                .thenThrow(CodeMismatchException.builder().statusCode(400).build())
+                .thenThrow(ExpiredCodeException.builder().statusCode(400).build())
+                .thenThrow(NotAuthorizedException.builder().statusCode(400).build());
+
+        assertEquals(AuthFailure.INVALID_CODE,
+                assertThrows(AuthFailureException.class, () -> authService.confirmEmail(request, Deadline.NONE)).getFailure());
+        assertEquals(AuthFailure.EXPIRED_CODE,
+                assertThrows(AuthFailureException.class, () -> authService.confirmEmail(request, Deadline.NONE)).getFailure());
+        assertEquals(AuthFailure.INVALID_CODE,
+                assertThrows(AuthFailureException.class, () -> authService.confirmEmail(request, Deadline.NONE)).getFailure());
+    }
+
     @Test
     void shouldThrowCognitoOperationExceptionWhenUnexpectedExceptionOccurs() {
         // Arrange
@@ -299,7 +482,7 @@ class CognitoAuthServiceTest {
 
         // Act & Assert
         CognitoOperationException exception = assertThrows(CognitoOperationException.class, () -> {
-            authService.confirmEmail(request);
+            authService.confirmEmail(request, Deadline.NONE);
         });
 
         assertTrue(exception.getMessage().contains("Mocked Message AUTH_CONFIRM_EMAIL_UNEXPECTED"));
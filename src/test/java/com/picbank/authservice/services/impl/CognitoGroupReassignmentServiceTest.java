@@ -0,0 +1,181 @@
+package com.picbank.authservice.services.impl;
+
+import com.picbank.authservice.components.CognitoProperties;
+import com.picbank.authservice.components.GroupReassignmentProperties;
+import com.picbank.authservice.exceptions.InvalidRequestException;
+import com.picbank.authservice.local.FakeCognitoIdentityProviderClient;
+import com.picbank.authservice.local.FaultInjector;
+import com.picbank.authservice.model.GroupReassignmentJob;
+import com.picbank.authservice.model.GroupReassignmentRequest;
+import com.picbank.authservice.model.dtos.GroupReassignmentMessage;
+import com.picbank.authservice.services.MessageService;
+import com.picbank.authservice.services.QueueService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminAddUserToGroupRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ListUsersInGroupRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ListUsersInGroupResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotFoundException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserType;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static com.picbank.authservice.constants.ObservabilityConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CognitoGroupReassignmentServiceTest {
+
+    private static final String STANDARD = "Standard";
+    private static final String MERCHANT = "Merchant";
+    private static final int USERS = 5;
+
+    @Mock private CognitoProperties cognitoProperties;
+    @Mock private QueueService queueService;
+    @Mock private MessageService messageService;
+
+    private final FakeCognitoIdentityProviderClient cognitoClient = new FakeCognitoIdentityProviderClient(FaultInjector.NONE, "123456");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CognitoGroupReassignmentService reassignmentService;
+
+    @BeforeEach
+    void setUp() {
+        reassignmentService = new CognitoGroupReassignmentService(cognitoClient, cognitoProperties, queueService,
+                messageService, new GroupReassignmentProperties(2, 1000, 2, 60000), meterRegistry, Runnable::run);
+        IntStream.range(0, USERS).mapToObj(CognitoGroupReassignmentServiceTest::username).forEach(username -> {
+            cognitoClient.seedConfirmedUser(username, "secret");
+            cognitoClient.adminAddUserToGroup(AdminAddUserToGroupRequest.builder().username(username).groupName(STANDARD).build());
+        });
+    }
+
+    @Test
+    void shouldMoveEveryPageOfTheSourceGroupAndFinish() {
+        reassignmentService.reassign(job(true), () -> true);
+
+        IntStream.range(0, USERS).forEach(i -> assertEquals(Set.of(MERCHANT), cognitoClient.groupsOf(username(i))));
+        verify(queueService, never()).sendGroupReassignment(any());
+        assertEquals(USERS, meterRegistry.get(USER_GROUP_REASSIGNMENT_USERS).tag(TAG_OUTCOME, OUTCOME_REASSIGNED).counter().count());
+    }
+
+    @Test
+    void shouldCheckpointWhenStoppedAndResumeFromTheCheckpoint() {
+        reassignmentService.reassign(job(false), () -> false);
+
+        ArgumentCaptor<GroupReassignmentMessage> captor = ArgumentCaptor.forClass(GroupReassignmentMessage.class);
+        verify(queueService).sendGroupReassignment(captor.capture());
+        GroupReassignmentMessage checkpoint = captor.getValue();
+        assertEquals(2, checkpoint.processed());
+        assertEquals(0, checkpoint.failed());
+        assertNotNull(checkpoint.nextToken());
+        assertEquals(Set.of(STANDARD, MERCHANT), cognitoClient.groupsOf(username(1)));
+        assertEquals(Set.of(STANDARD), cognitoClient.groupsOf(username(2)));
+
+        reset(queueService);
+        reassignmentService.reassign(checkpoint, () -> true);
+
+        verify(queueService, never()).sendGroupReassignment(any());
+        IntStream.range(0, USERS).forEach(i -> assertEquals(Set.of(STANDARD, MERCHANT), cognitoClient.groupsOf(username(i))));
+    }
+
+    @Test
+    void shouldCountUsersThatCannotBeReassignedAndGoOn() {
+        FakeCognitoIdentityProviderClient failingClient = spy(cognitoClient);
+        doAnswer(invocation -> {
+            if (invocation.<AdminAddUserToGroupRequest>getArgument(0).username().equals(username(3))) {
+                throw UserNotFoundException.builder()
+                        .awsErrorDetails(AwsErrorDetails.builder().errorMessage("User does not exist.").build())
+                        .build();
+            }
+            return invocation.callRealMethod();
+        }).when(failingClient).adminAddUserToGroup(any(AdminAddUserToGroupRequest.class));
+
+        new CognitoGroupReassignmentService(failingClient, cognitoProperties, queueService, messageService,
+                new GroupReassignmentProperties(2, 1000, 2, 60000), meterRegistry, Runnable::run)
+                .reassign(job(true), () -> true);
+
+        assertEquals(Set.of(STANDARD), cognitoClient.groupsOf(username(3)));
+        assertEquals(Set.of(MERCHANT), cognitoClient.groupsOf(username(4)));
+        assertEquals(1, meterRegistry.get(USER_GROUP_REASSIGNMENT_USERS).tag(TAG_OUTCOME, OUTCOME_FAILED).counter().count());
+        assertEquals(USERS - 1, meterRegistry.get(USER_GROUP_REASSIGNMENT_USERS).tag(TAG_OUTCOME, OUTCOME_REASSIGNED).counter().count());
+    }
+
+    @Test
+    void shouldMoveEveryUserWhenThePageTokensArePositions() {
+        // Cognito tokens point at a position in the group, which shifts as the users before it are removed
+        FakeCognitoIdentityProviderClient positionalClient = spy(cognitoClient);
+        doAnswer(invocation -> {
+            ListUsersInGroupRequest request = invocation.getArgument(0);
+            List<UserType> members = cognitoClient.listUsersInGroup(request.toBuilder().nextToken(null).limit(60).build()).users();
+            int from = Math.min(request.nextToken() == null ? 0 : Integer.parseInt(request.nextToken()), members.size());
+            int to = Math.min(from + request.limit(), members.size());
+            return ListUsersInGroupResponse.builder()
+                    .users(members.subList(from, to))
+                    .nextToken(to < members.size() ? String.valueOf(to) : null)
+                    .build();
+        }).when(positionalClient).listUsersInGroup(any(ListUsersInGroupRequest.class));
+        doAnswer(invocation -> {
+            if (invocation.<AdminAddUserToGroupRequest>getArgument(0).username().equals(username(0))) {
+                throw UserNotFoundException.builder()
+                        .awsErrorDetails(AwsErrorDetails.builder().errorMessage("User does not exist.").build())
+                        .build();
+            }
+            return invocation.callRealMethod();
+        }).when(positionalClient).adminAddUserToGroup(any(AdminAddUserToGroupRequest.class));
+        CognitoGroupReassignmentService service = new CognitoGroupReassignmentService(positionalClient, cognitoProperties,
+                queueService, messageService, new GroupReassignmentProperties(2, 1000, 2, 60000), meterRegistry, Runnable::run);
+
+        service.reassign(job(true), () -> false);
+
+        ArgumentCaptor<GroupReassignmentMessage> captor = ArgumentCaptor.forClass(GroupReassignmentMessage.class);
+        verify(queueService).sendGroupReassignment(captor.capture());
+        GroupReassignmentMessage checkpoint = captor.getValue();
+        assertNull(checkpoint.nextToken());
+        assertEquals(List.of(username(0)), checkpoint.failedUsers());
+
+        reset(queueService);
+        service.reassign(checkpoint, () -> true);
+
+        verify(queueService, never()).sendGroupReassignment(any());
+        assertEquals(Set.of(STANDARD), cognitoClient.groupsOf(username(0)));
+        IntStream.range(1, USERS).forEach(i -> assertEquals(Set.of(MERCHANT), cognitoClient.groupsOf(username(i))));
+        verify(positionalClient).adminAddUserToGroup(argThat((AdminAddUserToGroupRequest request) ->
+                request.username().equals(username(0))));
+        assertEquals(1, meterRegistry.get(USER_GROUP_REASSIGNMENT_USERS).tag(TAG_OUTCOME, OUTCOME_FAILED).counter().count());
+    }
+
+    @Test
+    void shouldStartJobsBetweenExistingDistinctGroupsOnly() {
+        GroupReassignmentJob job = reassignmentService.startReassignment(
+                new GroupReassignmentRequest().sourceGroup(STANDARD).targetGroup(MERCHANT));
+
+        ArgumentCaptor<GroupReassignmentMessage> captor = ArgumentCaptor.forClass(GroupReassignmentMessage.class);
+        verify(queueService).sendGroupReassignment(captor.capture());
+        assertEquals(new GroupReassignmentMessage(job.getJobId(), STANDARD, MERCHANT, true, null, 0, 0, List.of()), captor.getValue());
+        assertTrue(job.getRemoveFromSource());
+
+        assertThrows(InvalidRequestException.class, () -> reassignmentService.startReassignment(
+                new GroupReassignmentRequest().sourceGroup(STANDARD).targetGroup(STANDARD)));
+        assertThrows(InvalidRequestException.class, () -> reassignmentService.startReassignment(
+                new GroupReassignmentRequest().sourceGroup(STANDARD).targetGroup("Unknown")));
+        verifyNoMoreInteractions(queueService);
+    }
+
+    private static GroupReassignmentMessage job(boolean removeFromSource) {
+        return new GroupReassignmentMessage("job", STANDARD, MERCHANT, removeFromSource, null, 0, 0, List.of());
+    }
+
+    private static String username(int index) {
+        return "user" + index + "@example.com";
+    }
+}
@@ -0,0 +1,93 @@
+package com.picbank.authservice.services.impl;
+
+import com.picbank.authservice.components.CognitoProperties;
+import com.picbank.authservice.components.UserExportProperties;
+import com.picbank.authservice.local.FakeCognitoIdentityProviderClient;
+import com.picbank.authservice.local.FaultInjector;
+import com.picbank.authservice.model.UserExportRecord;
+import com.picbank.authservice.services.MessageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminAddUserToGroupRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminCreateUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminListGroupsForUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AttributeType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ListUsersRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CognitoUserExportServiceTest {
+
+    private static final int USERS = 5;
+
+    @Mock private CognitoProperties cognitoProperties;
+    @Mock private MessageService messageService;
+
+    private final FakeCognitoIdentityProviderClient cognitoClient = spy(new FakeCognitoIdentityProviderClient(FaultInjector.NONE, "123456"));
+    private final List<UserExportRecord> records = new ArrayList<>();
+    private CognitoUserExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new CognitoUserExportService(cognitoClient, cognitoProperties, messageService,
+                new UserExportProperties(2, 1000, 2, 1), Runnable::run);
+        IntStream.range(0, USERS).forEach(i -> cognitoClient.adminCreateUser(AdminCreateUserRequest.builder()
+                .username(username(i))
+                .userAttributes(AttributeType.builder().name("email").value(username(i)).build(),
+                        AttributeType.builder().name("name").value("User " + i).build())
+                .build()));
+        cognitoClient.adminAddUserToGroup(AdminAddUserToGroupRequest.builder().username(username(1)).groupName("Merchant").build());
+    }
+
+    @Test
+    void shouldExportEveryPageWithTheGroupsOfEachUser() {
+        long exported = exportService.exportUsers(true, records::add);
+
+        assertEquals(USERS, exported);
+        assertEquals(IntStream.range(0, USERS).mapToObj(CognitoUserExportServiceTest::username).toList(),
+                records.stream().map(UserExportRecord::getUsername).toList());
+        assertEquals("User 1", records.get(1).getName());
+        assertEquals(username(1), records.get(1).getEmail());
+        assertEquals(List.of("Merchant"), records.get(1).getGroups());
+        assertEquals(List.of(), records.get(0).getGroups());
+        assertNotNull(records.get(0).getCreatedAt());
+        verify(cognitoClient, times(3)).listUsers(any(ListUsersRequest.class));
+    }
+
+    @Test
+    void shouldSkipTheGroupLookupsWhenNotRequested() {
+        exportService.exportUsers(false, records::add);
+
+        assertEquals(USERS, records.size());
+        assertTrue(records.stream().allMatch(exportRecord -> exportRecord.getGroups() == null));
+        verify(cognitoClient, never()).adminListGroupsForUser(any(AdminListGroupsForUserRequest.class));
+    }
+
+    @Test
+    void shouldStopFetchingPagesWhenTheListenerFails() {
+        UncheckedIOException clientGone = new UncheckedIOException(new IOException("Broken pipe"));
+
+        UncheckedIOException thrown = assertThrows(UncheckedIOException.class, () -> exportService.exportUsers(false, exportRecord -> {
+            throw clientGone;
+        }));
+
+        assertSame(clientGone, thrown);
+        verify(cognitoClient, times(2)).listUsers(any(ListUsersRequest.class));
+    }
+
+    private static String username(int index) {
+        return "user" + index + "@example.com";
+    }
+}
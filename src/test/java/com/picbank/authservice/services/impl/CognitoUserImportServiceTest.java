@@ -0,0 +1,166 @@
+package com.picbank.authservice.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.picbank.authservice.components.CognitoProperties;
+import com.picbank.authservice.components.UserImportProperties;
+import com.picbank.authservice.exceptions.SqsOperationException;
+import com.picbank.authservice.model.UserImportEvent;
+import com.picbank.authservice.model.dtos.CognitoUserGroupMessage;
+import com.picbank.authservice.model.enums.UserImportFormat;
+import com.picbank.authservice.services.MessageService;
+import com.picbank.authservice.services.QueueService;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminCreateUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AttributeType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UsernameExistsException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.picbank.authservice.constants.MessageConstants.USER_IMPORT_REASON_ENQUEUE;
+import static com.picbank.authservice.model.UserImportEvent.TypeEnum.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CognitoUserImportServiceTest {
+
+    private static final String USER_POOL_ID = "us-east-1_pool";
+
+    @Mock private CognitoIdentityProviderClient cognitoClient;
+    @Mock private CognitoProperties cognitoProperties;
+    @Mock private QueueService queueService;
+    @Mock private MessageService messageService;
+
+    private ValidatorFactory validatorFactory;
+    private CognitoUserImportService importService;
+    private final List<UserImportEvent> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        importService = new CognitoUserImportService(cognitoClient, cognitoProperties, queueService, messageService,
+                new ObjectMapper(), validatorFactory.getValidator(), new UserImportProperties(2, 1000, 2), Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void shouldCreateValidRowsAndReportRejectedOnes() throws IOException {
+        when(cognitoProperties.getUserPoolId()).thenReturn(USER_POOL_ID);
+        when(queueService.sendMessages(anyList())).thenReturn(List.of());
+        String file = """
+                {"name":"Ana","document":"123","email":"ana@example.com","isMerchant":true}
+                {"name":"Bia","document":"456","email":"not-an-email","isMerchant":false}
+
+                {"name":
+                """;
+
+        UserImportEvent summary = importService.importUsers(stream(file), UserImportFormat.NDJSON, events::add);
+
+        ArgumentCaptor<AdminCreateUserRequest> captor = ArgumentCaptor.forClass(AdminCreateUserRequest.class);
+        verify(cognitoClient).adminCreateUser(captor.capture());
+        assertEquals(USER_POOL_ID, captor.getValue().userPoolId());
+        assertEquals("ana@example.com", captor.getValue().username());
+        assertEquals(Map.of("email", "ana@example.com", "email_verified", "true", "name", "Ana", "custom:document", "123"),
+                captor.getValue().userAttributes().stream().collect(Collectors.toMap(AttributeType::name, AttributeType::value)));
+        verify(queueService).sendMessages(List.of(new CognitoUserGroupMessage("ana@example.com", "ana@example.com", "MERCHANT")));
+
+        assertEquals(List.of(FAILURE, FAILURE, PROGRESS, SUMMARY), events.stream().map(UserImportEvent::getType).toList());
+        assertEquals(2L, events.get(0).getLine());
+        assertTrue(events.get(0).getReason().startsWith("email:"));
+        assertEquals(4L, events.get(1).getLine());
+        assertEquals(3L, summary.getProcessed());
+        assertEquals(1L, summary.getCreated());
+        assertEquals(2L, summary.getFailed());
+    }
+
+    @Test
+    void shouldReadCsvByHeaderAndEnqueueAssignmentsInBatchesOfTen() throws IOException {
+        when(cognitoProperties.getUserPoolId()).thenReturn(USER_POOL_ID);
+        when(queueService.sendMessages(anyList())).thenReturn(List.of());
+        String rows = IntStream.rangeClosed(1, 11)
+                .mapToObj(i -> "user" + i + "@example.com,\"Silva, User " + i + "\",false," + i)
+                .collect(Collectors.joining("\n"));
+
+        UserImportEvent summary = importService.importUsers(stream("email,name,isMerchant,document\n" + rows),
+                UserImportFormat.CSV, events::add);
+
+        verify(cognitoClient, times(11)).adminCreateUser(any(AdminCreateUserRequest.class));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CognitoUserGroupMessage>> captor = ArgumentCaptor.forClass(List.class);
+        verify(queueService, times(2)).sendMessages(captor.capture());
+        assertEquals(List.of(10, 1), captor.getAllValues().stream().map(List::size).toList());
+        assertEquals("STANDARD", captor.getAllValues().get(1).get(0).group());
+        assertEquals(11L, summary.getCreated());
+        assertEquals(0L, summary.getFailed());
+    }
+
+    @Test
+    void shouldReportCognitoAndEnqueueFailuresPerRow() throws IOException {
+        when(cognitoProperties.getUserPoolId()).thenReturn(USER_POOL_ID);
+        when(cognitoClient.adminCreateUser(any(AdminCreateUserRequest.class)))
+                .thenThrow(UsernameExistsException.builder()
+                        .awsErrorDetails(AwsErrorDetails.builder().errorMessage("User account already exists").build())
+                        .build())
+                .thenReturn(null);
+        when(queueService.sendMessages(anyList())).thenThrow(new SqsOperationException("unavailable", null));
+        lenient().when(messageService.getMessage(USER_IMPORT_REASON_ENQUEUE)).thenReturn("enqueue failed");
+        String file = """
+                {"name":"Ana","document":"123","email":"ana@example.com","isMerchant":true}
+                {"name":"Bia","document":"456","email":"bia@example.com","isMerchant":false}
+                """;
+
+        UserImportEvent summary = importService.importUsers(stream(file), UserImportFormat.NDJSON, events::add);
+
+        assertEquals("User account already exists", events.get(0).getReason());
+        assertEquals("ana@example.com", events.get(0).getEmail());
+        assertEquals("enqueue failed", events.get(1).getReason());
+        assertEquals(2L, events.get(1).getLine());
+        assertEquals(0L, summary.getCreated());
+        assertEquals(2L, summary.getFailed());
+    }
+
+    @Test
+    void shouldStopReadingWhenListenerFails() {
+        String file = """
+                {"name":"Ana"}
+                {"name":"Bia"}
+                """;
+
+        assertThrows(IllegalStateException.class, () -> importService.importUsers(stream(file), UserImportFormat.NDJSON,
+                event -> {
+                    events.add(event);
+                    throw new IllegalStateException("client went away");
+                }));
+
+        assertEquals(1, events.size());
+        verifyNoInteractions(cognitoClient, queueService);
+    }
+
+    private static InputStream stream(String contents) {
+        return new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,220 @@
+package com.picbank.authservice.services.impl;
+
+import com.picbank.authservice.components.DlqRedriveProperties;
+import com.picbank.authservice.components.SqsFifoProperties;
+import com.picbank.authservice.components.SqsProperties;
+import com.picbank.authservice.model.DlqMessage;
+import com.picbank.authservice.model.DlqRedriveEvent;
+import com.picbank.authservice.model.DlqRedriveRequest;
+import com.picbank.authservice.services.MessageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.picbank.authservice.constants.MessagingConstants.MESSAGE_TYPE_ATTRIBUTE;
+import static com.picbank.authservice.constants.MessagingConstants.MESSAGE_VERSION_ATTRIBUTE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SqsDeadLetterQueueServiceTest {
+
+    private static final String QUEUE_URL = "https://sqs.us-east-1.amazonaws.com/123456789012/queue";
+    private static final String DLQ_URL = "https://sqs.us-east-1.amazonaws.com/123456789012/queue-dlq";
+
+    @Mock
+    private SqsClient sqsClient;
+
+    @Mock
+    private MessageService messageService;
+
+    private SqsDeadLetterQueueService deadLetterQueueService;
+
+    @BeforeEach
+    void setUp() {
+        deadLetterQueueService = deadLetterQueueService(600);
+    }
+
+    @Test
+    void shouldPeekMessagesAndMakeThemVisibleAgain() {
+        // Arrange
+        Message message = message("1", 1000L);
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(received(message, message("2", 2000L)))
+                .thenReturn(received(message));
+        when(sqsClient.changeMessageVisibilityBatch(any(ChangeMessageVisibilityBatchRequest.class)))
+                .thenReturn(ChangeMessageVisibilityBatchResponse.builder().build());
+        List<DlqMessage> peeked = new ArrayList<>();
+
+        // Act
+        long count = deadLetterQueueService.peekMessages(3, peeked::add);
+
+        // Assert
+        assertEquals(2, count);
+        assertEquals("user-group-assignment", peeked.get(0).getType());
+        assertEquals(1, peeked.get(0).getVersion());
+        assertEquals(1000L, peeked.get(0).getSentAt().toInstant().toEpochMilli());
+        ArgumentCaptor<ChangeMessageVisibilityBatchRequest> captor = ArgumentCaptor.forClass(ChangeMessageVisibilityBatchRequest.class);
+        verify(sqsClient).changeMessageVisibilityBatch(captor.capture());
+        assertEquals(3, captor.getValue().entries().size());
+        assertEquals(DLQ_URL, captor.getValue().queueUrl());
+        verify(sqsClient, never()).sendMessageBatch(any(SendMessageBatchRequest.class));
+    }
+
+    @Test
+    void shouldReplayMessagesThatReachedTheDlqBeforeTheRedrive() {
+        // Arrange
+        Message newer = message("3", System.currentTimeMillis() + 60_000);
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(received(message("1", 1000L), message("2", 2000L), newer))
+                .thenReturn(received());
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenReturn(SendMessageBatchResponse.builder()
+                .successful(sent("0"), sent("1"))
+                .build());
+        when(sqsClient.deleteMessageBatch(any(DeleteMessageBatchRequest.class)))
+                .thenReturn(DeleteMessageBatchResponse.builder().build());
+        when(sqsClient.changeMessageVisibilityBatch(any(ChangeMessageVisibilityBatchRequest.class)))
+                .thenReturn(ChangeMessageVisibilityBatchResponse.builder().build());
+        List<DlqRedriveEvent> events = new ArrayList<>();
+
+        // Act
+        DlqRedriveEvent summary = deadLetterQueueService.redriveMessages(new DlqRedriveRequest(), events::add);
+
+        // Assert
+        assertEquals(3, summary.getReceived());
+        assertEquals(2, summary.getReplayed());
+        assertEquals(1, summary.getSkipped());
+        assertEquals(DlqRedriveEvent.TypeEnum.PROGRESS, events.get(0).getType());
+        assertEquals(summary, events.get(events.size() - 1));
+        ArgumentCaptor<SendMessageBatchRequest> sendCaptor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsClient).sendMessageBatch(sendCaptor.capture());
+        assertEquals(QUEUE_URL, sendCaptor.getValue().queueUrl());
+        assertEquals("body-1", sendCaptor.getValue().entries().get(0).messageBody());
+        assertEquals("user-group-assignment",
+                sendCaptor.getValue().entries().get(0).messageAttributes().get(MESSAGE_TYPE_ATTRIBUTE).stringValue());
+        ArgumentCaptor<DeleteMessageBatchRequest> deleteCaptor = ArgumentCaptor.forClass(DeleteMessageBatchRequest.class);
+        verify(sqsClient).deleteMessageBatch(deleteCaptor.capture());
+        assertEquals(List.of("receipt-1", "receipt-2"),
+                deleteCaptor.getValue().entries().stream().map(DeleteMessageBatchRequestEntry::receiptHandle).toList());
+        ArgumentCaptor<ChangeMessageVisibilityBatchRequest> releaseCaptor = ArgumentCaptor.forClass(ChangeMessageVisibilityBatchRequest.class);
+        verify(sqsClient).changeMessageVisibilityBatch(releaseCaptor.capture());
+        assertEquals("receipt-3", releaseCaptor.getValue().entries().get(0).receiptHandle());
+    }
+
+    @Test
+    void shouldStopOnceTheSelectedMessagesWereReplayed() {
+        // Arrange
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(received(message("1", 1000L), message("2", 2000L)));
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenReturn(SendMessageBatchResponse.builder()
+                .successful(sent("0"))
+                .build());
+        when(sqsClient.deleteMessageBatch(any(DeleteMessageBatchRequest.class)))
+                .thenReturn(DeleteMessageBatchResponse.builder().build());
+        when(sqsClient.changeMessageVisibilityBatch(any(ChangeMessageVisibilityBatchRequest.class)))
+                .thenReturn(ChangeMessageVisibilityBatchResponse.builder().build());
+
+        // Act
+        DlqRedriveEvent summary = deadLetterQueueService.redriveMessages(
+                new DlqRedriveRequest().messageIds(List.of("2")), event -> { });
+
+        // Assert
+        assertEquals(1, summary.getReplayed());
+        assertEquals(1, summary.getSkipped());
+        verify(sqsClient, times(1)).receiveMessage(any(ReceiveMessageRequest.class));
+        ArgumentCaptor<SendMessageBatchRequest> captor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsClient).sendMessageBatch(captor.capture());
+        assertEquals("body-2", captor.getValue().entries().get(0).messageBody());
+    }
+
+    @Test
+    void shouldKeepMessagesThatCouldNotBeSentInTheDlq() {
+        // Arrange
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(received(message("1", 1000L), message("2", 2000L)))
+                .thenReturn(received());
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenReturn(SendMessageBatchResponse.builder()
+                .successful(sent("0"))
+                .failed(BatchResultErrorEntry.builder().id("1").code("InternalError").senderFault(false).build())
+                .build());
+        when(sqsClient.deleteMessageBatch(any(DeleteMessageBatchRequest.class)))
+                .thenReturn(DeleteMessageBatchResponse.builder().build());
+        when(sqsClient.changeMessageVisibilityBatch(any(ChangeMessageVisibilityBatchRequest.class)))
+                .thenReturn(ChangeMessageVisibilityBatchResponse.builder().build());
+
+        // Act
+        DlqRedriveEvent summary = deadLetterQueueService.redriveMessages(new DlqRedriveRequest(), event -> { });
+
+        // Assert
+        assertEquals(1, summary.getReplayed());
+        assertEquals(1, summary.getFailed());
+        ArgumentCaptor<DeleteMessageBatchRequest> deleteCaptor = ArgumentCaptor.forClass(DeleteMessageBatchRequest.class);
+        verify(sqsClient).deleteMessageBatch(deleteCaptor.capture());
+        assertEquals("receipt-1", deleteCaptor.getValue().entries().get(0).receiptHandle());
+        ArgumentCaptor<ChangeMessageVisibilityBatchRequest> releaseCaptor = ArgumentCaptor.forClass(ChangeMessageVisibilityBatchRequest.class);
+        verify(sqsClient).changeMessageVisibilityBatch(releaseCaptor.capture());
+        assertEquals("receipt-2", releaseCaptor.getValue().entries().get(0).receiptHandle());
+    }
+
+    @Test
+    void shouldEndWithATimedOutSummaryAtTheMaxDuration() {
+        // Arrange
+        SqsDeadLetterQueueService service = deadLetterQueueService(1);
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class))).thenAnswer(invocation -> {
+            Thread.sleep(1100);
+            return received(message("1", 1000L));
+        });
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenReturn(SendMessageBatchResponse.builder()
+                .successful(sent("0"))
+                .build());
+        when(sqsClient.deleteMessageBatch(any(DeleteMessageBatchRequest.class)))
+                .thenReturn(DeleteMessageBatchResponse.builder().build());
+        List<DlqRedriveEvent> events = new ArrayList<>();
+
+        // Act
+        DlqRedriveEvent summary = service.redriveMessages(new DlqRedriveRequest(), events::add);
+
+        // Assert
+        assertEquals(1, summary.getReplayed());
+        assertEquals(Boolean.TRUE, summary.getTimedOut());
+        assertEquals(summary, events.get(events.size() - 1));
+        verify(sqsClient, times(1)).receiveMessage(any(ReceiveMessageRequest.class));
+    }
+
+    private SqsDeadLetterQueueService deadLetterQueueService(int maxDurationSeconds) {
+        SqsProperties sqsProperties = new SqsProperties(QUEUE_URL, DLQ_URL, 1000, 10, 20, 1000, 1000);
+        return new SqsDeadLetterQueueService(sqsClient, sqsProperties, new SqsFifoProperties(false, 1),
+                new DlqRedriveProperties(1000, 900, 100, 2, maxDurationSeconds), messageService);
+    }
+
+    private static Message message(String id, long sentTimestamp) {
+        return Message.builder()
+                .messageId(id)
+                .receiptHandle("receipt-" + id)
+                .body("body-" + id)
+                .attributes(Map.of(MessageSystemAttributeName.SENT_TIMESTAMP, String.valueOf(sentTimestamp),
+                        MessageSystemAttributeName.APPROXIMATE_RECEIVE_COUNT, "4"))
+                .messageAttributes(Map.of(
+                        MESSAGE_TYPE_ATTRIBUTE, MessageAttributeValue.builder().dataType("String").stringValue("user-group-assignment").build(),
+                        MESSAGE_VERSION_ATTRIBUTE, MessageAttributeValue.builder().dataType("Number").stringValue("1").build()))
+                .build();
+    }
+
+    private static ReceiveMessageResponse received(Message... messages) {
+        return ReceiveMessageResponse.builder().messages(messages).build();
+    }
+
+    private static SendMessageBatchResultEntry sent(String id) {
+        return SendMessageBatchResultEntry.builder().id(id).messageId("new-" + id).build();
+    }
+}
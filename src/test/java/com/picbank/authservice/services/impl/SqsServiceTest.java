@@ -1,19 +1,40 @@
 package com.picbank.authservice.services.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.picbank.authservice.components.SqsFifoProperties;
+import com.picbank.authservice.components.SqsMessageCodec;
+import com.picbank.authservice.exceptions.SqsOperationException;
+import com.picbank.authservice.model.dtos.CognitoUserGroupMessage;
+import com.picbank.authservice.model.dtos.GroupReassignmentMessage;
+import com.picbank.authservice.model.dtos.MessageEnvelope;
 import com.picbank.authservice.services.MessageService;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
 import software.amazon.awssdk.services.sqs.SqsClient;
-import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
-import software.amazon.awssdk.services.sqs.model.SqsException;
+import software.amazon.awssdk.services.sqs.model.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static com.picbank.authservice.constants.MessageConstants.*;
+import static com.picbank.authservice.constants.MessagingConstants.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -23,48 +44,63 @@ class SqsServiceTest {
     @Mock
     private SqsClient sqsClient;
 
+    @Mock
+    private ObjectProvider<SqsAsyncClient> sqsAsyncClient;
+
     @Mock
     private MessageService messageService;
 
-    @InjectMocks
+    private SqsMessageCodec messageCodec;
+
     private SqsService sqsService;
 
     private final String queueUrl = "https://sqs.us-east-1.amazonaws.com/123456789012/my-queue";
+    private final String username = "test-username";
     private final String email = "test@example.com";
     private final String group = "test-group";
 
     @BeforeEach
     void setUp() {
-        sqsService = new SqsService(sqsClient, messageService, queueUrl);
+        messageCodec = new SqsMessageCodec(new ObjectMapper().registerModule(new JavaTimeModule()));
+        sqsService = new SqsService(sqsClient, sqsAsyncClient, messageService, messageCodec, ObservationRegistry.NOOP,
+                new SqsFifoProperties(false, 1), queueUrl);
     }
 
     @Test
-    void shouldSendMessageSuccessfully() {
-        // Arrange
-        String messageBody = String.format(SqsService.MESSAGE_BODY_FORMAT, email, group);
-        SendMessageRequest sendMessageRequest = SendMessageRequest.builder()
-                .queueUrl(queueUrl)
-                .messageBody(messageBody)
-                .build();
-
+    void shouldSendMessageSuccessfully() throws JsonProcessingException {
         // Act
-        sqsService.sendMessage(email, group);
+        sqsService.sendMessage(username, email, group);
 
         // Assert
-        verify(sqsClient, times(1)).sendMessage(sendMessageRequest);
+        ArgumentCaptor<SendMessageRequest> captor = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(sqsClient, times(1)).sendMessage(captor.capture());
+        SendMessageRequest request = captor.getValue();
+        assertEquals(queueUrl, request.queueUrl());
+        assertEquals(USER_GROUP_ASSIGNMENT, request.messageAttributes().get(MESSAGE_TYPE_ATTRIBUTE).stringValue());
+        assertEquals(String.valueOf(USER_GROUP_ASSIGNMENT_VERSION), request.messageAttributes().get(MESSAGE_VERSION_ATTRIBUTE).stringValue());
+
+        MessageEnvelope<CognitoUserGroupMessage> envelope = messageCodec.decodeUserGroupAssignment(request.messageBody());
+        assertEquals(USER_GROUP_ASSIGNMENT, envelope.type());
+        assertEquals(new CognitoUserGroupMessage(username, email, group), envelope.payload());
+
         verify(messageService, times(1)).getMessage(SQS_SEND_START, email, group);
         verify(messageService, times(1)).getMessage(SQS_SEND_SUCCESS, email, group);
     }
 
+    @Test
+    void shouldEscapeSpecialCharactersInBody() throws JsonProcessingException {
+        String quotedEmail = "o\"brien@example.com";
+
+        sqsService.sendMessage(quotedEmail, quotedEmail, group);
+
+        ArgumentCaptor<SendMessageRequest> captor = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(sqsClient).sendMessage(captor.capture());
+        assertEquals(quotedEmail, messageCodec.decodeUserGroupAssignment(captor.getValue().messageBody()).payload().email());
+    }
+
     @Test
     void shouldHandleSqsException() {
         // Arrange
-        String messageBody = String.format(SqsService.MESSAGE_BODY_FORMAT, email, group);
-        SendMessageRequest sendMessageRequest = SendMessageRequest.builder()
-                .queueUrl(queueUrl)
-                .messageBody(messageBody)
-                .build();
-
         SqsException sqsException = mock(SqsException.class);
         AwsErrorDetails awsErrorDetails = mock(AwsErrorDetails.class);
         when(awsErrorDetails.errorMessage()).thenReturn("Test error message");
@@ -73,10 +109,103 @@ class SqsServiceTest {
         doThrow(sqsException).when(sqsClient).sendMessage(any(SendMessageRequest.class));
 
         // Act & Assert
-        assertThrows(RuntimeException.class, () -> sqsService.sendMessage(email, group));
-        verify(sqsClient, times(1)).sendMessage(sendMessageRequest);
+        assertThrows(RuntimeException.class, () -> sqsService.sendMessage(username, email, group));
+        verify(sqsClient, times(1)).sendMessage(any(SendMessageRequest.class));
         verify(messageService, times(1)).getMessage(SQS_SEND_START, email, group);
         verify(messageService, times(1)).getMessage(SQS_SEND_ERROR, email, group, "Test error message");
         verify(messageService, never()).getMessage(SQS_SEND_SUCCESS, email, group);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldSendMessageAsynchronously() throws JsonProcessingException {
+        SqsAsyncClient asyncClient = mock(SqsAsyncClient.class);
+        when(sqsAsyncClient.getObject()).thenReturn(asyncClient);
+        when(asyncClient.sendMessage(any(SendMessageRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(SendMessageResponse.builder().build()));
+
+        sqsService.sendMessageAsync(username, email, group).join();
+
+        ArgumentCaptor<SendMessageRequest> captor = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(asyncClient).sendMessage(captor.capture());
+        assertEquals(new CognitoUserGroupMessage(username, email, group),
+                messageCodec.decodeUserGroupAssignment(captor.getValue().messageBody()).payload());
+        verify(messageService).getMessage(SQS_SEND_SUCCESS, email, group);
+        verifyNoInteractions(sqsClient);
+    }
+
+    @Test
+    void shouldCompleteWithSqsOperationExceptionWhenAsynchronousSendFails() {
+        SqsAsyncClient asyncClient = mock(SqsAsyncClient.class);
+        when(sqsAsyncClient.getObject()).thenReturn(asyncClient);
+        when(asyncClient.sendMessage(any(SendMessageRequest.class))).thenReturn(CompletableFuture.failedFuture(
+                SqsException.builder().awsErrorDetails(AwsErrorDetails.builder().errorMessage("Test error message").build()).build()));
+
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> sqsService.sendMessageAsync(username, email, group).join());
+
+        assertInstanceOf(SqsOperationException.class, exception.getCause());
+        verify(messageService).getMessage(SQS_SEND_ERROR, email, group, "Test error message");
+    }
+
+    @Test
+    void shouldSendMessagesInOneBatchAndReturnRejectedOnes() throws JsonProcessingException {
+        List<CognitoUserGroupMessage> messages = List.of(
+                new CognitoUserGroupMessage("a@example.com", "a@example.com", group),
+                new CognitoUserGroupMessage("b@example.com", "b@example.com", group));
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenReturn(SendMessageBatchResponse.builder()
+                .successful(SendMessageBatchResultEntry.builder().id("0").build())
+                .failed(BatchResultErrorEntry.builder().id("1").code("InternalError").senderFault(false).build())
+                .build());
+
+        List<CognitoUserGroupMessage> rejected = sqsService.sendMessages(messages);
+
+        assertEquals(List.of(messages.get(1)), rejected);
+        ArgumentCaptor<SendMessageBatchRequest> captor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsClient).sendMessageBatch(captor.capture());
+        List<SendMessageBatchRequestEntry> entries = captor.getValue().entries();
+        assertEquals(queueUrl, captor.getValue().queueUrl());
+        assertEquals(2, entries.size());
+        assertEquals(USER_GROUP_ASSIGNMENT, entries.get(0).messageAttributes().get(MESSAGE_TYPE_ATTRIBUTE).stringValue());
+        assertEquals(messages.get(1), messageCodec.decodeUserGroupAssignment(entries.get(1).messageBody()).payload());
+    }
+
+    @Test
+    void shouldGroupAndDeduplicateMessagesOnFifoQueues() {
+        sqsService = new SqsService(sqsClient, sqsAsyncClient, messageService, messageCodec, ObservationRegistry.NOOP,
+                new SqsFifoProperties(true, 8), queueUrl);
+
+        sqsService.sendMessage(username, email, group);
+        sqsService.sendMessage(username, email.toUpperCase(), group);
+        sqsService.sendGroupReassignment(new GroupReassignmentMessage("job", "Standard", "Merchant", true, null, 0, 0, List.of()));
+
+        ArgumentCaptor<SendMessageRequest> captor = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(sqsClient, times(3)).sendMessage(captor.capture());
+        SendMessageRequest first = captor.getAllValues().get(0);
+        SendMessageRequest second = captor.getAllValues().get(1);
+        assertTrue(first.messageGroupId().startsWith(USER_GROUP_ASSIGNMENT_MESSAGE_GROUP_PREFIX));
+        assertEquals(first.messageGroupId(), second.messageGroupId());
+        assertEquals(first.messageDeduplicationId(), second.messageDeduplicationId());
+        assertEquals(USER_GROUP_REASSIGNMENT_MESSAGE_GROUP_PREFIX + "job", captor.getAllValues().get(2).messageGroupId());
+        assertNotEquals(first.messageDeduplicationId(), captor.getAllValues().get(2).messageDeduplicationId());
+    }
+
+    @Test
+    void shouldNotGroupMessagesOnStandardQueues() {
+        sqsService.sendMessage(username, email, group);
+
+        ArgumentCaptor<SendMessageRequest> captor = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(sqsClient).sendMessage(captor.capture());
+        assertNull(captor.getValue().messageGroupId());
+        assertNull(captor.getValue().messageDeduplicationId());
+    }
+
+    @Test
+    void shouldThrowSqsOperationExceptionWhenBatchFails() {
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenThrow(SqsException.builder()
+                .awsErrorDetails(AwsErrorDetails.builder().errorMessage("Queue does not exist").build())
+                .build());
+
+        assertThrows(SqsOperationException.class, () -> sqsService.sendMessages(
+                List.of(new CognitoUserGroupMessage(username, email, group))));
+    }
+}
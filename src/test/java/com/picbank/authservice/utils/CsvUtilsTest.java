@@ -0,0 +1,32 @@
+package com.picbank.authservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvUtilsTest {
+
+    @Test
+    void shouldSplitPlainFields() {
+        assertEquals(List.of("Ana", "123", "ana@example.com", "true"), CsvUtils.parseLine("Ana,123,ana@example.com,true"));
+    }
+
+    @Test
+    void shouldKeepEmptyFields() {
+        assertEquals(List.of("", "b", ""), CsvUtils.parseLine(",b,"));
+    }
+
+    @Test
+    void shouldUnquoteFieldsWithSeparatorsAndEscapedQuotes() {
+        assertEquals(List.of("Silva, Ana", "say \"hi\"", "x"), CsvUtils.parseLine("\"Silva, Ana\",\"say \"\"hi\"\"\",x"));
+    }
+
+    @Test
+    void shouldRejectMalformedQuotes() {
+        assertThrows(IllegalArgumentException.class, () -> CsvUtils.parseLine("\"unterminated,x"));
+        assertThrows(IllegalArgumentException.class, () -> CsvUtils.parseLine("\"a\"b,x"));
+    }
+}
@@ -0,0 +1,39 @@
+package com.picbank.authservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RateLimiterTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    void shouldSpacePermitsEvenly() {
+        RateLimiter rateLimiter = new RateLimiter(20, nanoTime::get);
+
+        assertEquals(0, rateLimiter.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50), rateLimiter.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), rateLimiter.reserve());
+    }
+
+    @Test
+    void shouldNotAccumulatePermitsWhileIdle() {
+        RateLimiter rateLimiter = new RateLimiter(20, nanoTime::get);
+        rateLimiter.reserve();
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertEquals(0, rateLimiter.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50), rateLimiter.reserve());
+    }
+
+    @Test
+    void shouldRejectNonPositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(0));
+    }
+}
@@ -0,0 +1,47 @@
+package com.picbank.authservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryBudgetTest {
+
+    @Test
+    void shouldAllowABurstOfRetriesAndThenRefuse() {
+        RetryBudget retryBudget = new RetryBudget(0.1, 2);
+
+        assertTrue(retryBudget.tryWithdraw());
+        assertTrue(retryBudget.tryWithdraw());
+        assertFalse(retryBudget.tryWithdraw());
+    }
+
+    @Test
+    void shouldRefillByTheRatioOfEveryCall() {
+        RetryBudget retryBudget = new RetryBudget(0.25, 1);
+        retryBudget.tryWithdraw();
+
+        for (int i = 0; i < 3; i++) {
+            retryBudget.deposit();
+        }
+        assertFalse(retryBudget.tryWithdraw());
+
+        retryBudget.deposit();
+        assertTrue(retryBudget.tryWithdraw());
+    }
+
+    @Test
+    void shouldNotGrowBeyondTheBurst() {
+        RetryBudget retryBudget = new RetryBudget(1, 3);
+
+        for (int i = 0; i < 10; i++) {
+            retryBudget.deposit();
+        }
+
+        assertEquals(3, retryBudget.getBalance());
+    }
+
+    @Test
+    void shouldRejectNegativeSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new RetryBudget(-0.1, 1));
+    }
+}
@@ -0,0 +1,32 @@
+package com.picbank.authservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqsFifoUtilsTest {
+
+    @Test
+    void shouldSpreadKeysOverTheGroupsCaseInsensitively() {
+        Set<String> groups = new HashSet<>();
+        IntStream.range(0, 1000).forEach(i -> groups.add(SqsFifoUtils.messageGroupId("user-", "user" + i + "@example.com", 4)));
+
+        assertEquals(Set.of("user-0", "user-1", "user-2", "user-3"), groups);
+        assertEquals(SqsFifoUtils.messageGroupId("user-", "User@Example.com", 4),
+                SqsFifoUtils.messageGroupId("user-", "user@example.com", 4));
+    }
+
+    @Test
+    void shouldDeriveTheSameDeduplicationIdFromTheSameEvent() {
+        String id = SqsFifoUtils.deduplicationId("user.group.assignment", "user", "Merchant");
+
+        assertEquals(64, id.length());
+        assertEquals(id, SqsFifoUtils.deduplicationId("user.group.assignment", "user", "Merchant"));
+        assertNotEquals(id, SqsFifoUtils.deduplicationId("user.group.assignment", "user", "Standard"));
+        assertNotEquals(SqsFifoUtils.deduplicationId("ab", "c"), SqsFifoUtils.deduplicationId("a", "bc"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.picbank.authservice.utils;
+
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.observation.transport.SenderContext;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqsObservationUtilsTest {
+
+    private static final String QUEUE_URL = "https://sqs.us-east-1.amazonaws.com/123456789012/my-queue";
+    private static final String TRACEPARENT = "traceparent";
+    private static final String TRACEPARENT_VALUE = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    @Test
+    void shouldInjectPropagationHeadersAsStringAttributes() {
+        Map<String, MessageAttributeValue> attributes = new HashMap<>();
+        SenderContext<Map<String, MessageAttributeValue>> context = SqsObservationUtils.senderContext(attributes, QUEUE_URL);
+
+        context.getSetter().set(context.getCarrier(), TRACEPARENT, TRACEPARENT_VALUE);
+
+        assertEquals("String", attributes.get(TRACEPARENT).dataType());
+        assertEquals(TRACEPARENT_VALUE, attributes.get(TRACEPARENT).stringValue());
+    }
+
+    @Test
+    void shouldExtractPropagationHeadersFromMessageAttributes() {
+        Message message = Message.builder()
+                .messageAttributes(Map.of(TRACEPARENT, SqsObservationUtils.stringAttribute(TRACEPARENT_VALUE)))
+                .build();
+
+        ReceiverContext<Message> context = SqsObservationUtils.receiverContext(message, QUEUE_URL);
+
+        assertEquals(TRACEPARENT_VALUE, context.getGetter().get(context.getCarrier(), TRACEPARENT));
+    }
+
+    @Test
+    void shouldReturnNullWhenAttributeIsAbsent() {
+        Message message = Message.builder().body("{}").build();
+
+        assertNull(SqsObservationUtils.readAttribute(message, TRACEPARENT));
+    }
+}
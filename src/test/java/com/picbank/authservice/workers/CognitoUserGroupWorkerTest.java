@@ -1,24 +1,48 @@
 package com.picbank.authservice.workers;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.picbank.authservice.components.SqsAutoTuningProperties;
+import com.picbank.authservice.components.SqsFifoProperties;
+import com.picbank.authservice.components.SqsMessageCodec;
+import com.picbank.authservice.components.SqsMetrics;
+import com.picbank.authservice.components.SqsPollTuner;
 import com.picbank.authservice.components.SqsProperties;
+import com.picbank.authservice.components.SqsRetryProperties;
+import com.picbank.authservice.exceptions.CognitoOperationException;
 import com.picbank.authservice.model.dtos.CognitoUserGroupMessage;
+import com.picbank.authservice.model.dtos.GroupReassignmentMessage;
+import com.picbank.authservice.model.dtos.MessageEnvelope;
 import com.picbank.authservice.model.enums.CognitoUserGroup;
 import com.picbank.authservice.services.EmailService;
+import com.picbank.authservice.services.GroupReassignmentService;
 import com.picbank.authservice.services.MessageService;
 import com.picbank.authservice.services.UserGroupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.TooManyRequestsException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotFoundException;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.*;
 
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,17 +51,23 @@ class CognitoUserGroupWorkerTest {
     public static final String EMAIL = "test@example.com";
     public static final String USERNAME = "username";
     @Mock private UserGroupService userGroupService;
+    @Mock private GroupReassignmentService groupReassignmentService;
     @Mock private SqsProperties sqsProperties;
-    @Mock private ObjectMapper objectMapper;
+    @Mock private SqsFifoProperties fifoProperties;
+    @Mock private SqsMessageCodec messageCodec;
     @Mock private MessageService messageService;
     @Mock private SqsClient sqsClient;
     @Mock private EmailService emailService;
+    @Mock private SqsMetrics sqsMetrics;
 
     private CognitoUserGroupWorker worker;
 
     @BeforeEach
     void setUp() {
-        worker = new CognitoUserGroupWorker(userGroupService, sqsProperties, objectMapper, messageService, sqsClient, emailService);
+        SqsPollTuner pollTuner = new SqsPollTuner(sqsProperties,
+                new SqsAutoTuningProperties(false, 1, 4, 1, 10, 1, 20, 60, 10000), messageService, new SimpleMeterRegistry());
+        worker = new CognitoUserGroupWorker(userGroupService, groupReassignmentService, sqsProperties, fifoProperties,
+                new SqsRetryProperties(10, 900, 3), messageCodec, messageService, sqsClient, emailService, ObservationRegistry.NOOP, sqsMetrics, pollTuner, Runnable::run);
     }
 
     @Test
@@ -49,16 +79,35 @@ class CognitoUserGroupWorkerTest {
         when(sqsProperties.getQueueUrl()).thenReturn("test-queue-url");
         when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
                 .thenReturn(ReceiveMessageResponse.builder().messages(List.of(message)).build());
-        when(objectMapper.readValue(validJson, CognitoUserGroupMessage.class)).thenReturn(payload);
+        when(messageCodec.decodeLegacyUserGroupAssignment(validJson)).thenReturn(payload);
         when(messageService.getMessage(any(), any())).thenReturn("Mocked Message");
 
         worker.consumeMessages();
 
-        verify(userGroupService).addUserToGroup(CognitoUserGroup.MERCHANT, EMAIL);
+        verify(userGroupService).addUserToGroup(CognitoUserGroup.MERCHANT, USERNAME);
         verify(emailService).sendEmail(any(), any(), any());
         verify(sqsClient).deleteMessage(any(DeleteMessageRequest.class));
     }
 
+    @Test
+    void shouldRunGroupReassignmentChunks() throws JsonProcessingException {
+        String body = "{\"type\":\"user.group.reassignment\"}";
+        Message message = envelopeMessage(body, "user.group.reassignment", "1");
+        GroupReassignmentMessage checkpoint = new GroupReassignmentMessage("job", "Standard", "Merchant", true, null, 0, 0, List.of());
+
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(ReceiveMessageResponse.builder().messages(List.of(message)).build());
+        when(messageCodec.decodeGroupReassignment(body))
+                .thenReturn(new MessageEnvelope<>(1, "user.group.reassignment", "id", Instant.now(), checkpoint));
+
+        worker.consumeMessages();
+
+        verify(groupReassignmentService).reassign(eq(checkpoint), any());
+        verify(sqsMetrics, never()).recordGroupAssigned(any());
+        verify(sqsClient).deleteMessage(any(DeleteMessageRequest.class));
+        verify(sqsClient, never()).sendMessage(any(SendMessageRequest.class));
+    }
+
     @Test
     void shouldHandleJsonProcessingException() throws JsonProcessingException {
         String invalidJson = "invalid-json";
@@ -66,7 +115,7 @@ class CognitoUserGroupWorkerTest {
 
         when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
                 .thenReturn(ReceiveMessageResponse.builder().messages(List.of(message)).build());
-        when(objectMapper.readValue(invalidJson, CognitoUserGroupMessage.class))
+        when(messageCodec.decodeLegacyUserGroupAssignment(invalidJson))
                 .thenThrow(new JsonProcessingException("Invalid JSON") {});
 
         worker.consumeMessages();
@@ -83,7 +132,7 @@ class CognitoUserGroupWorkerTest {
 
         when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
                 .thenReturn(ReceiveMessageResponse.builder().messages(List.of(message)).build());
-        when(objectMapper.readValue(jsonMissingFields, CognitoUserGroupMessage.class)).thenReturn(payload);
+        when(messageCodec.decodeLegacyUserGroupAssignment(jsonMissingFields)).thenReturn(payload);
 
         worker.consumeMessages();
 
@@ -99,7 +148,7 @@ class CognitoUserGroupWorkerTest {
 
         when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
                 .thenReturn(ReceiveMessageResponse.builder().messages(List.of(message)).build());
-        when(objectMapper.readValue(jsonMissingFields, CognitoUserGroupMessage.class)).thenReturn(payload);
+        when(messageCodec.decodeLegacyUserGroupAssignment(jsonMissingFields)).thenReturn(payload);
 
         worker.consumeMessages();
 
@@ -115,7 +164,7 @@ class CognitoUserGroupWorkerTest {
 
         when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
                 .thenReturn(ReceiveMessageResponse.builder().messages(List.of(message)).build());
-        when(objectMapper.readValue(jsonMissingFields, CognitoUserGroupMessage.class)).thenReturn(payload);
+        when(messageCodec.decodeLegacyUserGroupAssignment(jsonMissingFields)).thenReturn(payload);
 
         worker.consumeMessages();
 
@@ -131,7 +180,7 @@ class CognitoUserGroupWorkerTest {
 
         when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
                 .thenReturn(ReceiveMessageResponse.builder().messages(List.of(message)).build());
-        when(objectMapper.readValue(jsonInvalidGroup, CognitoUserGroupMessage.class)).thenReturn(payload);
+        when(messageCodec.decodeLegacyUserGroupAssignment(jsonInvalidGroup)).thenReturn(payload);
 
         worker.consumeMessages();
 
@@ -147,7 +196,7 @@ class CognitoUserGroupWorkerTest {
 
         when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
                 .thenReturn(ReceiveMessageResponse.builder().messages(List.of(message)).build());
-        when(objectMapper.readValue(validJson, CognitoUserGroupMessage.class)).thenReturn(payload);
+        when(messageCodec.decodeLegacyUserGroupAssignment(validJson)).thenReturn(payload);
         doThrow(new RuntimeException("Email send failed")).when(emailService).sendEmail(any(), any(), any());
 
         worker.consumeMessages();
@@ -170,6 +219,29 @@ class CognitoUserGroupWorkerTest {
         verify(sqsClient).deleteMessage(any(DeleteMessageRequest.class));
     }
 
+    @Test
+    void shouldGoOnWithTheBatchWhenAQuarantinedMessageCannotBeDeleted() throws JsonProcessingException {
+        String validJson = "{\"email\":\"test@example.com\", \"group\":\"Merchant\"}";
+        Message invalid = Message.builder().body("invalid-json").receiptHandle("receipt1").messageId("message-1").build();
+        Message valid = Message.builder().body(validJson).receiptHandle("receipt2").messageId("message-2").build();
+        CognitoUserGroupMessage payload = new CognitoUserGroupMessage(USERNAME, EMAIL, CognitoUserGroup.MERCHANT.getGroupName());
+
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(ReceiveMessageResponse.builder().messages(List.of(invalid, valid)).build());
+        when(messageCodec.decodeLegacyUserGroupAssignment("invalid-json"))
+                .thenThrow(new JsonProcessingException("Invalid JSON") {});
+        when(messageCodec.decodeLegacyUserGroupAssignment(validJson)).thenReturn(payload);
+        doThrow(SqsException.builder().message("unavailable").build())
+                .when(sqsClient).deleteMessage(argThat((DeleteMessageRequest request) -> "receipt1".equals(request.receiptHandle())));
+
+        worker.consumeMessages();
+
+        verify(sqsClient).sendMessage(any(SendMessageRequest.class));
+        verify(userGroupService).addUserToGroup(CognitoUserGroup.MERCHANT, USERNAME);
+        verify(sqsClient, times(2)).deleteMessage(any(DeleteMessageRequest.class));
+        verify(messageService).getMessage("worker.sqs.error.delete", "message-1", "unavailable");
+    }
+
     @Test
     void shouldHandleSqsReceiveMessageFailure() {
         when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class))).thenThrow(mock(SqsException.class));
@@ -187,7 +259,7 @@ class CognitoUserGroupWorkerTest {
 
         when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
                 .thenReturn(ReceiveMessageResponse.builder().messages(List.of(message)).build());
-        when(objectMapper.readValue(validJson, CognitoUserGroupMessage.class)).thenReturn(payload);
+        when(messageCodec.decodeLegacyUserGroupAssignment(validJson)).thenReturn(payload);
         doThrow(new RuntimeException("Unexpected error")).when(userGroupService).addUserToGroup(any(), any());
 
         worker.consumeMessages();
@@ -205,7 +277,7 @@ class CognitoUserGroupWorkerTest {
 
         when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
                 .thenReturn(ReceiveMessageResponse.builder().messages(List.of(message)).build());
-        when(objectMapper.readValue(jsonWithoutKeys, CognitoUserGroupMessage.class)).thenReturn(payload);
+        when(messageCodec.decodeLegacyUserGroupAssignment(jsonWithoutKeys)).thenReturn(payload);
 
         worker.consumeMessages();
 
@@ -221,14 +293,360 @@ class CognitoUserGroupWorkerTest {
 
         when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
                 .thenReturn(ReceiveMessageResponse.builder().messages(List.of(message)).build());
-        when(objectMapper.readValue(validJson, CognitoUserGroupMessage.class)).thenReturn(payload);
+        when(messageCodec.decodeLegacyUserGroupAssignment(validJson)).thenReturn(payload);
         doThrow(new IllegalArgumentException("Unexpected error")).when(userGroupService).addUserToGroup(any(), any());
         doThrow(SqsException.class).when(sqsClient).sendMessage(any(SendMessageRequest.class));
 
         worker.consumeMessages();
 
         verify(sqsClient, times(1)).sendMessage(any(SendMessageRequest.class));
+        verify(sqsClient, never()).deleteMessage(any(DeleteMessageRequest.class));
+    }
+
+    @Test
+    void shouldKeepTheMessageGroupWhenMovingFifoMessagesToTheDlq() throws JsonProcessingException {
+        String validJson = "{\"email\":\"test@example.com\", \"group\":\"Merchant\"}";
+        Message message = Message.builder().body(validJson).receiptHandle("receipt123").messageId("message-id")
+                .attributes(Map.of(MessageSystemAttributeName.MESSAGE_GROUP_ID, "user-group-assignment-3"))
+                .build();
+        CognitoUserGroupMessage payload = new CognitoUserGroupMessage(USERNAME, EMAIL, CognitoUserGroup.MERCHANT.getGroupName());
+
+        when(fifoProperties.isEnabled()).thenReturn(true);
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(ReceiveMessageResponse.builder().messages(List.of(message)).build());
+        when(messageCodec.decodeLegacyUserGroupAssignment(validJson)).thenReturn(payload);
+        doThrow(new IllegalStateException("Unexpected error")).when(userGroupService).addUserToGroup(any(), any());
+
+        worker.consumeMessages();
+
+        ArgumentCaptor<ReceiveMessageRequest> receive = ArgumentCaptor.forClass(ReceiveMessageRequest.class);
+        verify(sqsClient).receiveMessage(receive.capture());
+        assertTrue(receive.getValue().messageSystemAttributeNames().contains(MessageSystemAttributeName.MESSAGE_GROUP_ID));
+        assertNotNull(receive.getValue().receiveRequestAttemptId());
+        ArgumentCaptor<SendMessageRequest> dlq = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(sqsClient).sendMessage(dlq.capture());
+        assertEquals("user-group-assignment-3", dlq.getValue().messageGroupId());
+        assertEquals("message-id", dlq.getValue().messageDeduplicationId());
+        verify(sqsClient).deleteMessage(any(DeleteMessageRequest.class));
+    }
+
+    @Test
+    void shouldHoldBackTheLaterMessagesOfAFifoGroupOnceOneOfThemFailed() throws JsonProcessingException {
+        String validJson = "{\"email\":\"test@example.com\", \"group\":\"Merchant\"}";
+        Message first = fifoMessage(validJson, "1", "user-group-assignment-3");
+        Message second = fifoMessage(validJson, "2", "user-group-assignment-3");
+        Message other = fifoMessage(validJson, "3", "user-group-assignment-5");
+        CognitoUserGroupMessage payload = new CognitoUserGroupMessage(USERNAME, EMAIL, CognitoUserGroup.MERCHANT.getGroupName());
+
+        when(fifoProperties.isEnabled()).thenReturn(true);
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(ReceiveMessageResponse.builder().messages(List.of(first, second, other)).build());
+        when(messageCodec.decodeLegacyUserGroupAssignment(validJson)).thenReturn(payload);
+        when(sqsClient.changeMessageVisibilityBatch(any(ChangeMessageVisibilityBatchRequest.class)))
+                .thenReturn(ChangeMessageVisibilityBatchResponse.builder().build());
+        doThrow(new CognitoOperationException("Failed to add user to group", throttling()))
+                .doNothing()
+                .when(userGroupService).addUserToGroup(any(), any());
+
+        worker.consumeMessages();
+
+        verify(userGroupService, times(2)).addUserToGroup(CognitoUserGroup.MERCHANT, USERNAME);
+        ArgumentCaptor<ChangeMessageVisibilityRequest> retry = ArgumentCaptor.forClass(ChangeMessageVisibilityRequest.class);
+        verify(sqsClient).changeMessageVisibility(retry.capture());
+        assertEquals("receipt1", retry.getValue().receiptHandle());
+        ArgumentCaptor<DeleteMessageRequest> delete = ArgumentCaptor.forClass(DeleteMessageRequest.class);
+        verify(sqsClient).deleteMessage(delete.capture());
+        assertEquals("receipt3", delete.getValue().receiptHandle());
+        ArgumentCaptor<ChangeMessageVisibilityBatchRequest> release = ArgumentCaptor.forClass(ChangeMessageVisibilityBatchRequest.class);
+        verify(sqsClient).changeMessageVisibilityBatch(release.capture());
+        assertEquals(List.of("receipt2"),
+                release.getValue().entries().stream().map(ChangeMessageVisibilityBatchRequestEntry::receiptHandle).toList());
+        assertEquals(0, release.getValue().entries().get(0).visibilityTimeout());
+    }
+
+    @Test
+    void shouldRecordReceiptAndAssignmentLatencyWhenProcessingSucceeds() throws JsonProcessingException {
+        String validJson = "{\"email\":\"test@example.com\", \"group\":\"Merchant\"}";
+        Message message = Message.builder().body(validJson).receiptHandle("receipt123")
+                .attributes(Map.of(MessageSystemAttributeName.SENT_TIMESTAMP, "1700000000000",
+                        MessageSystemAttributeName.APPROXIMATE_RECEIVE_COUNT, "1"))
+                .build();
+        CognitoUserGroupMessage payload = new CognitoUserGroupMessage(USERNAME, EMAIL, CognitoUserGroup.MERCHANT.getGroupName());
+
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(ReceiveMessageResponse.builder().messages(List.of(message)).build());
+        when(messageCodec.decodeLegacyUserGroupAssignment(validJson)).thenReturn(payload);
+
+        worker.consumeMessages();
+
+        verify(sqsMetrics).recordReceipt(message);
+        verify(sqsMetrics).recordGroupAssigned(message);
+    }
+
+    @Test
+    void shouldNotRecordAssignmentLatencyWhenProcessingFails() throws JsonProcessingException {
+        String invalidJson = "invalid-json";
+        Message message = Message.builder().body(invalidJson).receiptHandle("receipt123").build();
+
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(ReceiveMessageResponse.builder().messages(List.of(message)).build());
+        when(messageCodec.decodeLegacyUserGroupAssignment(invalidJson))
+                .thenThrow(new JsonProcessingException("Invalid JSON") {});
+
+        worker.consumeMessages();
+
+        verify(sqsMetrics).recordReceipt(message);
+        verify(sqsMetrics, never()).recordGroupAssigned(any());
+    }
+
+    @Test
+    void shouldDecodeEnvelopeWhenMessageHasTypeAttribute() throws JsonProcessingException {
+        String envelopeJson = "{\"version\":1,\"type\":\"user.group.assignment\"}";
+        Message message = envelopeMessage(envelopeJson, "user.group.assignment", "1");
+        CognitoUserGroupMessage payload = new CognitoUserGroupMessage(USERNAME, EMAIL, CognitoUserGroup.STANDARD.getGroupName());
+
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(ReceiveMessageResponse.builder().messages(List.of(message)).build());
+        when(messageCodec.decodeUserGroupAssignment(envelopeJson))
+                .thenReturn(new MessageEnvelope<>(1, "user.group.assignment", "id", Instant.now(), payload));
+
+        worker.consumeMessages();
+
+        verify(messageCodec, never()).decodeLegacyUserGroupAssignment(any());
+        verify(userGroupService).addUserToGroup(CognitoUserGroup.STANDARD, USERNAME);
+        verify(sqsClient).deleteMessage(any(DeleteMessageRequest.class));
+    }
+
+    @Test
+    void shouldSendUnsupportedTypeToDlqWithoutParsingBody() throws JsonProcessingException {
+        Message message = envelopeMessage("{}", "user.deleted", "1");
+
+        when(sqsProperties.getDlqUrl()).thenReturn("test-dlq-url");
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(ReceiveMessageResponse.builder().messages(List.of(message)).build());
+
+        worker.consumeMessages();
+
+        verify(messageCodec, never()).decodeUserGroupAssignment(any());
+        verify(messageCodec, never()).decodeLegacyUserGroupAssignment(any());
+        ArgumentCaptor<SendMessageRequest> dlq = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(sqsClient).sendMessage(dlq.capture());
+        assertEquals("test-dlq-url", dlq.getValue().queueUrl());
+        assertEquals("{}", dlq.getValue().messageBody());
+        Map<String, MessageAttributeValue> attributes = new HashMap<>(dlq.getValue().messageAttributes());
+        assertEquals("permanent", attributes.remove("picbank-failure-class").stringValue());
+        assertTrue(attributes.remove("picbank-failure-reason").stringValue().contains("InvalidSqsMessageException"));
+        assertEquals(message.messageAttributes(), attributes);
+        verify(sqsClient).deleteMessage(any(DeleteMessageRequest.class));
+    }
+
+    @Test
+    void shouldSendNewerVersionToDlqWithoutParsingBody() throws JsonProcessingException {
+        Message message = envelopeMessage("{}", "user.group.assignment", "2");
+
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(ReceiveMessageResponse.builder().messages(List.of(message)).build());
+
+        worker.consumeMessages();
+
+        verify(messageCodec, never()).decodeUserGroupAssignment(any());
+        verify(userGroupService, never()).addUserToGroup(any(), any());
+        verify(sqsClient).sendMessage(any(SendMessageRequest.class));
+    }
+
+    @Test
+    void shouldRetryTransientFailuresWithBackoffByReceiveCount() throws JsonProcessingException {
+        Message message = failingAssignment("2", throttling());
+
+        worker.consumeMessages();
+
+        ArgumentCaptor<ChangeMessageVisibilityRequest> visibility = ArgumentCaptor.forClass(ChangeMessageVisibilityRequest.class);
+        verify(sqsClient).changeMessageVisibility(visibility.capture());
+        assertEquals(message.receiptHandle(), visibility.getValue().receiptHandle());
+        assertEquals(20, visibility.getValue().visibilityTimeout());
+        verify(sqsMetrics).recordRetried();
+        verify(sqsClient, never()).sendMessage(any(SendMessageRequest.class));
+        verify(sqsClient, never()).deleteMessage(any(DeleteMessageRequest.class));
+    }
+
+    @Test
+    void shouldQuarantineTransientFailuresAtTheMaxReceiveCount() throws JsonProcessingException {
+        failingAssignment("3", throttling());
+
+        worker.consumeMessages();
+
+        ArgumentCaptor<SendMessageRequest> dlq = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(sqsClient).sendMessage(dlq.capture());
+        assertEquals("exhausted", dlq.getValue().messageAttributes().get("picbank-failure-class").stringValue());
+        assertTrue(dlq.getValue().messageAttributes().get("picbank-failure-reason").stringValue().contains("TooManyRequestsException"));
+        verify(sqsMetrics).recordQuarantined("exhausted");
+        verify(sqsClient).deleteMessage(any(DeleteMessageRequest.class));
+        verify(sqsClient, never()).changeMessageVisibility(any(ChangeMessageVisibilityRequest.class));
+    }
+
+    @Test
+    void shouldQuarantinePermanentAwsFailuresOnTheFirstReceive() throws JsonProcessingException {
+        failingAssignment("1", UserNotFoundException.builder().statusCode(400)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("UserNotFoundException").build()).build());
+
+        worker.consumeMessages();
+
+        ArgumentCaptor<SendMessageRequest> dlq = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(sqsClient).sendMessage(dlq.capture());
+        assertEquals("permanent", dlq.getValue().messageAttributes().get("picbank-failure-class").stringValue());
+        verify(sqsMetrics).recordQuarantined("permanent");
+        verify(sqsClient, never()).changeMessageVisibility(any(ChangeMessageVisibilityRequest.class));
+    }
+
+    /**
+     * Receives an assignment with the given receive count whose Cognito call fails with the given error, wrapped
+     * as the user group service does.
+     */
+    private Message failingAssignment(String receiveCount, Exception cognitoError) throws JsonProcessingException {
+        String validJson = "{\"email\":\"test@example.com\", \"group\":\"Merchant\"}";
+        Message message = Message.builder().body(validJson).receiptHandle("receipt123").messageId("message-id")
+                .attributes(Map.of(MessageSystemAttributeName.APPROXIMATE_RECEIVE_COUNT, receiveCount))
+                .build();
+        CognitoUserGroupMessage payload = new CognitoUserGroupMessage(USERNAME, EMAIL, CognitoUserGroup.MERCHANT.getGroupName());
+
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(ReceiveMessageResponse.builder().messages(List.of(message)).build());
+        when(messageCodec.decodeLegacyUserGroupAssignment(validJson)).thenReturn(payload);
+        doThrow(new CognitoOperationException("Failed to add user to group", cognitoError))
+                .when(userGroupService).addUserToGroup(any(), any());
+        return message;
+    }
+
+    private static Message fifoMessage(String body, String id, String groupId) {
+        return Message.builder().body(body).receiptHandle("receipt" + id).messageId("message-" + id)
+                .attributes(Map.of(MessageSystemAttributeName.MESSAGE_GROUP_ID, groupId,
+                        MessageSystemAttributeName.APPROXIMATE_RECEIVE_COUNT, "1"))
+                .build();
+    }
+
+    private static TooManyRequestsException throttling() {
+        return (TooManyRequestsException) TooManyRequestsException.builder().statusCode(429)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("TooManyRequestsException").build()).build();
+    }
+
+    private static Message envelopeMessage(String body, String type, String version) {
+        return Message.builder()
+                .body(body)
+                .receiptHandle("receipt123")
+                .messageAttributes(Map.of(
+                        "picbank-message-type", MessageAttributeValue.builder().dataType("String").stringValue(type).build(),
+                        "picbank-message-version", MessageAttributeValue.builder().dataType("Number").stringValue(version).build()))
+                .build();
+    }
+
+    @Test
+    void shouldNotPollWhileStopped() {
+        when(messageService.getMessage(any(), any())).thenReturn("Mocked Message");
+
+        worker.stop();
+        worker.consumeMessages();
+
+        assertFalse(worker.isRunning());
+        verifyNoInteractions(sqsClient);
+    }
+
+    @Test
+    void shouldResumePollingAfterRestart() {
+        when(messageService.getMessage(any(), any())).thenReturn("Mocked Message");
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(ReceiveMessageResponse.builder().messages(List.of()).build());
+
+        worker.stop();
+        worker.start();
+        worker.consumeMessages();
+
+        assertTrue(worker.isRunning());
+        verify(sqsClient).receiveMessage(any(ReceiveMessageRequest.class));
+    }
+
+    @Test
+    void shouldReleaseUnstartedMessagesWhenStoppedMidBatch() throws JsonProcessingException {
+        String validJson = "{\"email\":\"test@example.com\", \"group\":\"Merchant\"}";
+        Message first = Message.builder().body(validJson).receiptHandle("receipt1").build();
+        Message second = Message.builder().body(validJson).receiptHandle("receipt2").build();
+        Message third = Message.builder().body(validJson).receiptHandle("receipt3").build();
+        CognitoUserGroupMessage payload = new CognitoUserGroupMessage(USERNAME, EMAIL, CognitoUserGroup.MERCHANT.getGroupName());
+
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(ReceiveMessageResponse.builder().messages(List.of(first, second, third)).build());
+        when(messageCodec.decodeLegacyUserGroupAssignment(validJson)).thenReturn(payload);
+        when(messageService.getMessage(any(), any())).thenReturn("Mocked Message");
+        when(sqsClient.changeMessageVisibilityBatch(any(ChangeMessageVisibilityBatchRequest.class)))
+                .thenReturn(ChangeMessageVisibilityBatchResponse.builder().build());
+        doAnswer(invocation -> {
+            worker.stop();
+            return null;
+        }).when(userGroupService).addUserToGroup(CognitoUserGroup.MERCHANT, USERNAME);
+
+        worker.consumeMessages();
+
+        verify(userGroupService, times(1)).addUserToGroup(CognitoUserGroup.MERCHANT, USERNAME);
         verify(sqsClient, times(1)).deleteMessage(any(DeleteMessageRequest.class));
+
+        ArgumentCaptor<ChangeMessageVisibilityBatchRequest> captor = ArgumentCaptor.forClass(ChangeMessageVisibilityBatchRequest.class);
+        verify(sqsClient).changeMessageVisibilityBatch(captor.capture());
+        assertEquals(List.of("receipt2", "receipt3"),
+                captor.getValue().entries().stream().map(ChangeMessageVisibilityBatchRequestEntry::receiptHandle).toList());
+        assertTrue(captor.getValue().entries().stream().allMatch(entry -> entry.visibilityTimeout() == 0));
+    }
+
+    @Test
+    void shouldReleaseWholeBatchReceivedAfterStop() {
+        Message message = Message.builder().body("{}").receiptHandle("receipt1").build();
+
+        when(messageService.getMessage(any(), any())).thenReturn("Mocked Message");
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class))).thenAnswer(invocation -> {
+            worker.stop();
+            return ReceiveMessageResponse.builder().messages(List.of(message)).build();
+        });
+        when(sqsClient.changeMessageVisibilityBatch(any(ChangeMessageVisibilityBatchRequest.class)))
+                .thenReturn(ChangeMessageVisibilityBatchResponse.builder().build());
+
+        worker.consumeMessages();
+
+        verify(sqsClient).changeMessageVisibilityBatch(any(ChangeMessageVisibilityBatchRequest.class));
+        verifyNoInteractions(userGroupService);
+        verify(sqsClient, never()).deleteMessage(any(DeleteMessageRequest.class));
     }
 
+    @Test
+    void shouldLogTheMessageOfEachEntryThatCouldNotBeReleased() {
+        Message message = Message.builder().body("{}").messageId("message-1").receiptHandle("receipt1").build();
+
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class))).thenAnswer(invocation -> {
+            worker.stop();
+            return ReceiveMessageResponse.builder().messages(List.of(message)).build();
+        });
+        when(sqsClient.changeMessageVisibilityBatch(any(ChangeMessageVisibilityBatchRequest.class)))
+                .thenReturn(ChangeMessageVisibilityBatchResponse.builder()
+                        .failed(BatchResultErrorEntry.builder().id("0").code("ReceiptHandleIsInvalid").message("expired").senderFault(true).build())
+                        .build());
+
+        worker.consumeMessages();
+
+        verify(messageService).getMessage("worker.sqs.error.release.entry", "message-1", "ReceiptHandleIsInvalid", "expired");
+    }
+
+    @Test
+    void shouldEndAContinuousDrainAfterOnePollingInterval() {
+        SqsPollTuner drainingTuner = new SqsPollTuner(sqsProperties,
+                new SqsAutoTuningProperties(true, 1, 1, 1, 10, 1, 20, 60, 10000), messageService, new SimpleMeterRegistry());
+        drainingTuner.recordBacklog(1000, 0);
+        CognitoUserGroupWorker drainingWorker = new CognitoUserGroupWorker(userGroupService, groupReassignmentService,
+                sqsProperties, fifoProperties, new SqsRetryProperties(10, 900, 3), messageCodec, messageService, sqsClient,
+                emailService, ObservationRegistry.NOOP, sqsMetrics, drainingTuner, Runnable::run);
+        when(sqsProperties.getFixedRateMs()).thenReturn(0L);
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(ReceiveMessageResponse.builder().messages(envelopeMessage("{}", "user.deleted", "1")).build());
+
+        drainingWorker.consumeMessages();
+
+        assertTrue(drainingTuner.currentSettings().drainContinuously());
+        verify(sqsClient, times(1)).receiveMessage(any(ReceiveMessageRequest.class));
+    }
 }
@@ -0,0 +1,123 @@
+package com.picbank.authservice.workers;
+
+import com.picbank.authservice.components.SqsMetrics;
+import com.picbank.authservice.components.SqsPollTuner;
+import com.picbank.authservice.components.SqsProperties;
+import com.picbank.authservice.services.MessageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
+import software.amazon.awssdk.services.cloudwatch.model.GetMetricDataRequest;
+import software.amazon.awssdk.services.cloudwatch.model.GetMetricDataResponse;
+import software.amazon.awssdk.services.cloudwatch.model.MetricDataResult;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesResponse;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+import software.amazon.awssdk.services.sqs.model.SqsException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.picbank.authservice.constants.ObservabilityConstants.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SqsQueueMetricsSamplerTest {
+
+    private static final String QUEUE_URL = "https://sqs.us-east-1.amazonaws.com/123456789012/main-queue";
+    private static final String DLQ_URL = "https://sqs.us-east-1.amazonaws.com/123456789012/main-dlq";
+
+    @Mock private SqsProperties sqsProperties;
+    @Mock private SqsClient sqsClient;
+    @Mock private CloudWatchClient cloudWatchClient;
+    @Mock private SqsPollTuner pollTuner;
+    @Mock private MessageService messageService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqsQueueMetricsSampler sampler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sampler = new SqsQueueMetricsSampler(sqsProperties, sqsClient, cloudWatchClient, new SqsMetrics(meterRegistry), pollTuner, messageService);
+        when(sqsProperties.getQueueUrl()).thenReturn(QUEUE_URL);
+        when(sqsProperties.getDlqUrl()).thenReturn(DLQ_URL);
+    }
+
+    @Test
+    void shouldPublishBacklogAndOldestMessageAgeForBothQueues() {
+        when(sqsClient.getQueueAttributes(any(GetQueueAttributesRequest.class)))
+                .thenReturn(queueAttributes("42", "7"), queueAttributes("3", "0"));
+        when(cloudWatchClient.getMetricData(any(GetMetricDataRequest.class)))
+                .thenReturn(oldestAge(120.0), oldestAge(86400.0));
+
+        sampler.sampleQueues();
+
+        assertEquals(42, gauge(QUEUE_MAIN, STATE_VISIBLE));
+        assertEquals(7, gauge(QUEUE_MAIN, STATE_IN_FLIGHT));
+        assertEquals(3, gauge(QUEUE_DLQ, STATE_VISIBLE));
+        assertEquals(0, gauge(QUEUE_DLQ, STATE_IN_FLIGHT));
+        assertEquals(120, oldestAgeSeconds(QUEUE_MAIN));
+        assertEquals(86400, oldestAgeSeconds(QUEUE_DLQ));
+        verify(pollTuner).recordBacklog(42, 7);
+        verifyNoMoreInteractions(pollTuner);
+    }
+
+    @Test
+    void shouldReportZeroAgeWhenCloudWatchHasNoDatapoints() {
+        when(sqsClient.getQueueAttributes(any(GetQueueAttributesRequest.class)))
+                .thenReturn(queueAttributes("0", "0"));
+        when(cloudWatchClient.getMetricData(any(GetMetricDataRequest.class)))
+                .thenReturn(GetMetricDataResponse.builder()
+                        .metricDataResults(MetricDataResult.builder().values(List.of()).build())
+                        .build());
+
+        sampler.sampleQueues();
+
+        assertEquals(0, oldestAgeSeconds(QUEUE_MAIN));
+    }
+
+    @Test
+    void shouldKeepSamplingDlqWhenMainQueueFails() {
+        when(sqsClient.getQueueAttributes(any(GetQueueAttributesRequest.class)))
+                .thenThrow(SqsException.builder().message("throttled").build())
+                .thenReturn(queueAttributes("5", "1"));
+        when(cloudWatchClient.getMetricData(any(GetMetricDataRequest.class))).thenReturn(oldestAge(30.0));
+
+        sampler.sampleQueues();
+
+        assertEquals(0, gauge(QUEUE_MAIN, STATE_VISIBLE));
+        assertEquals(5, gauge(QUEUE_DLQ, STATE_VISIBLE));
+        verify(cloudWatchClient, times(1)).getMetricData(any(GetMetricDataRequest.class));
+    }
+
+    private double gauge(String queue, String state) {
+        return meterRegistry.get(SQS_QUEUE_MESSAGES).tags(TAG_QUEUE, queue, TAG_STATE, state).gauge().value();
+    }
+
+    private double oldestAgeSeconds(String queue) {
+        return meterRegistry.get(SQS_QUEUE_OLDEST_MESSAGE_AGE).tag(TAG_QUEUE, queue).timeGauge().value(TimeUnit.SECONDS);
+    }
+
+    private static GetQueueAttributesResponse queueAttributes(String visible, String inFlight) {
+        return GetQueueAttributesResponse.builder()
+                .attributes(Map.of(
+                        QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES, visible,
+                        QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES_NOT_VISIBLE, inFlight))
+                .build();
+    }
+
+    private static GetMetricDataResponse oldestAge(double seconds) {
+        return GetMetricDataResponse.builder()
+                .metricDataResults(MetricDataResult.builder().values(seconds).build())
+                .build();
+    }
+}